@@ -129,6 +129,67 @@ java {
     withSourcesJar()
 }
 
+val java21: SourceSet by sourceSets.creating {
+    java.srcDir("src/main/java21")
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
+tasks.named<JavaCompile>(java21.compileJavaTaskName) {
+    javaCompiler = javaToolchains.compilerFor {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+    options.release = 21
+}
+
+//Runs the tests on Java 21 using the classes of the versioned part of the multi-release jar
+val testJava21 = tasks.register<Test>("testJava21") {
+    group = "verification"
+    description = "Runs the tests on Java 21 using the multi-release classes."
+    javaLauncher = javaToolchains.launcherFor {
+        languageVersion = JavaLanguageVersion.of(21)
+    }
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = java21.output + sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform()
+}
+tasks.check.get().dependsOn(testJava21)
+
+//JMH benchmarks of the templates and transformers, they are compiled by the build but only executed by the jmh task
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().output + sourceSets.main.get().runtimeClasspath
+}
+
+dependencies {
+    "jmhCompileOnly"(libs.jspecify)
+    "jmhImplementation"(libs.jmh.core)
+    "jmhAnnotationProcessor"(libs.jmh.generator.annprocess)
+    "jmhImplementation"(libs.hdr.histogram)
+}
+
+//Runs the benchmarks, JMH options can be passed as a single string, e.g. -PjmhArgs="TemplateBenchmark -p batchSize=1000"
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks."
+    classpath = jmh.runtimeClasspath
+    mainClass = "org.openjdk.jmh.Main"
+    val resultFile = layout.buildDirectory.file("reports/jmh/results.json").get().asFile
+    val jmhArgs = project.findProperty("jmhArgs")?.toString()?.split(" ")?.filter { it.isNotBlank() } ?: listOf()
+    args = listOf("-rf", "json", "-rff", resultFile.absolutePath) + jmhArgs
+    doFirst {
+        resultFile.parentFile.mkdirs()
+    }
+}
+
+//Runs the open-loop load generator, the options can be passed as a single string, e.g. -PloadTestArgs="--rate=500 --ids=UNIFORM"
+tasks.register<JavaExec>("loadTest") {
+    group = "benchmark"
+    description = "Runs the open-loop load generator against in-memory stand-ins."
+    classpath = jmh.runtimeClasspath
+    mainClass = "com.github.nagyesta.cacheonly.benchmark.load.LoadGenerator"
+    args = project.findProperty("loadTestArgs")?.toString()?.split(" ")?.filter { it.isNotBlank() } ?: listOf()
+}
+
 sonar {
     properties {
         property(
@@ -232,6 +293,18 @@ tasks.withType<JacocoCoverageVerification>().configureEach {
 
 tasks.jar.configure {
     dependsOn(tasks.check)
+    into("META-INF/versions/21") {
+        from(java21.output)
+    }
+    manifest {
+        attributes("Multi-Release" to "true")
+    }
+}
+
+tasks.named<Jar>("sourcesJar") {
+    into("META-INF/versions/21") {
+        from(java21.allSource)
+    }
 }
 
 tasks.withType<Checkstyle>().configureEach {
@@ -0,0 +1,49 @@
+package com.github.nagyesta.cacheonly.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wrapper of a batch of numbers used by the wrapped transformer benchmarks.
+ */
+public final class NumberBatch {
+
+    private String requestId = "";
+    private List<Long> numbers = new ArrayList<>();
+
+    /**
+     * Returns the ID of the request the batch belongs to.
+     *
+     * @return the ID.
+     */
+    public String getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Sets the ID of the request the batch belongs to.
+     *
+     * @param requestId The ID.
+     */
+    public void setRequestId(final String requestId) {
+        this.requestId = requestId;
+    }
+
+    /**
+     * Returns the numbers in the batch.
+     *
+     * @return the numbers.
+     */
+    public List<Long> getNumbers() {
+        return numbers;
+    }
+
+    /**
+     * Sets the numbers in the batch.
+     *
+     * @param numbers The numbers.
+     */
+    public void setNumbers(final List<Long> numbers) {
+        this.numbers = numbers;
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.nagyesta.cacheonly.benchmark;
+
+import com.github.nagyesta.cacheonly.benchmark.standin.Engine;
+import com.github.nagyesta.cacheonly.benchmark.standin.IdKeying;
+import com.github.nagyesta.cacheonly.benchmark.standin.StandInBatchServiceCaller;
+import com.github.nagyesta.cacheonly.benchmark.standin.StandInPartialCacheSupport;
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.CachingServiceTemplate;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Measures a single cacheable call of the templates. The first {@code hitRatio} part of the requested IDs
+ * is always found in the cache, the rest is always fetched from the origin, because the cache stand-in
+ * refuses to store them. The stand-ins simulate the configured latency and share a dedicated pool, which
+ * is used by the concurrent template instead of the common pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("checkstyle:MagicNumber")
+public class TemplateBenchmark {
+
+    @Param({"DEFAULT", "CONCURRENT"})
+    private Engine engine;
+    @Param({"BOXED"})
+    private IdKeying idKeying;
+    @Param({"10", "1000"})
+    private int batchSize;
+    @Param({"0.0", "0.9"})
+    private double hitRatio;
+    @Param({"100"})
+    private int partitionSize;
+    //every strategy is measured when the values are omitted
+    @Param
+    private CacheRefreshStrategy strategy;
+    @Param({"0"})
+    private long cacheLatencyMicros;
+    @Param({"0"})
+    private long originLatencyMicros;
+    @Param({"8"})
+    private int parallelism;
+
+    private ForkJoinPool forkJoinPool;
+    private CachingServiceTemplate<List<Long>, List<String>> template;
+    private List<Long> request;
+
+    /**
+     * Creates the template and fills the cache with the IDs which should be found.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        forkJoinPool = new ForkJoinPool(parallelism);
+        final var cached = Math.round(batchSize * hitRatio);
+        final var cacheSupport = new StandInPartialCacheSupport(() -> cacheLatencyMicros, id -> id < cached, forkJoinPool);
+        final var batchServiceCaller = new StandInBatchServiceCaller(strategy, partitionSize, () -> originLatencyMicros, forkJoinPool);
+        request = LongStream.range(0, batchSize).boxed().toList();
+        final var warmUp = Engine.DEFAULT.create(cacheSupport,
+                new StandInBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, partitionSize, () -> 0L, forkJoinPool), idKeying);
+        warmUp.callCacheableBatchService(request);
+        template = engine.create(cacheSupport, batchServiceCaller, idKeying);
+    }
+
+    /**
+     * Shuts down the pool of the stand-ins.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        forkJoinPool.shutdownNow();
+    }
+
+    /**
+     * Calls the template with the whole batch.
+     *
+     * @return the response.
+     */
+    @Benchmark
+    public @Nullable List<String> callCacheableBatchService() {
+        return template.callCacheableBatchService(request);
+    }
+}
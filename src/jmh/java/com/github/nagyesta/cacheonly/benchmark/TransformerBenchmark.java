@@ -0,0 +1,161 @@
+package com.github.nagyesta.cacheonly.benchmark;
+
+import com.github.nagyesta.cacheonly.transform.common.CollectionBasedRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.common.LongKeyedCollectionBasedRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.common.MapBasedRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.common.WrappedCollectionBasedRequestTransformer;
+import org.jspecify.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Measures the split and merge operations of the common transformers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("checkstyle:MagicNumber")
+public class TransformerBenchmark {
+
+    private final CollectionBasedRequestTransformer<List<Long>, Long, Long> collectionTransformer =
+            new CollectionBasedRequestTransformer<>(Collectors.toList(), Function.identity());
+    private final LongKeyedCollectionBasedRequestTransformer<List<Long>, Long> longKeyedTransformer =
+            new LongKeyedCollectionBasedRequestTransformer<>(Collectors.toList(), Long::longValue);
+    private final MapBasedRequestTransformer<HashMap<Long, String>, String, Long> mapTransformer =
+            new MapBasedRequestTransformer<>(HashMap::new);
+    private final WrappedCollectionBasedRequestTransformer<NumberBatch, List<Long>, Long, Long> wrappedTransformer =
+            new WrappedCollectionBasedRequestTransformer<>(NumberBatch::new, NumberBatch::getNumbers,
+                    (batch, numbers) -> {
+                        batch.setNumbers(numbers);
+                        return batch;
+                    }, Collectors.toList(), Function.identity());
+
+    @Param({"10", "1000", "100000"})
+    private int batchSize;
+
+    private List<Long> collectionBatch;
+    private Map<Long, Long> collectionPartitions;
+    private Map<Long, Long> longKeyedPartitions;
+    private HashMap<Long, String> mapBatch;
+    private Map<Long, String> mapPartitions;
+    private NumberBatch wrappedBatch;
+    private Map<Long, NumberBatch> wrappedPartitions;
+
+    /**
+     * Creates the batches and the partitions of each transformer.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        collectionBatch = LongStream.range(0, batchSize).boxed().toList();
+        collectionPartitions = collectionTransformer.splitToPartialRequest(collectionBatch);
+        longKeyedPartitions = longKeyedTransformer.splitToPartialRequest(collectionBatch);
+        mapBatch = new HashMap<>();
+        collectionBatch.forEach(id -> mapBatch.put(id, String.valueOf(id)));
+        mapPartitions = mapTransformer.splitToPartialRequest(mapBatch);
+        wrappedBatch = new NumberBatch();
+        wrappedBatch.setRequestId("benchmark");
+        wrappedBatch.setNumbers(collectionBatch);
+        wrappedPartitions = wrappedTransformer.splitToPartialRequest(wrappedBatch);
+    }
+
+    /**
+     * Splits a list using IDs boxed in a hash map.
+     *
+     * @return the partitions.
+     */
+    @Benchmark
+    public Map<Long, Long> splitCollection() {
+        return collectionTransformer.splitToPartialRequest(collectionBatch);
+    }
+
+    /**
+     * Merges the partitions of a list using IDs boxed in a hash map.
+     *
+     * @return the batch.
+     */
+    @Benchmark
+    public @Nullable List<Long> mergeCollection() {
+        return collectionTransformer.mergeToBatchRequest(collectionPartitions);
+    }
+
+    /**
+     * Splits a list using primitive IDs.
+     *
+     * @return the partitions.
+     */
+    @Benchmark
+    public Map<Long, Long> splitLongKeyedCollection() {
+        return longKeyedTransformer.splitToPartialRequest(collectionBatch);
+    }
+
+    /**
+     * Merges the partitions of a list using primitive IDs.
+     *
+     * @return the batch.
+     */
+    @Benchmark
+    public @Nullable List<Long> mergeLongKeyedCollection() {
+        return longKeyedTransformer.mergeToBatchRequest(longKeyedPartitions);
+    }
+
+    /**
+     * Splits a map.
+     *
+     * @return the partitions.
+     */
+    @Benchmark
+    public Map<Long, String> splitMap() {
+        return mapTransformer.splitToPartialRequest(mapBatch);
+    }
+
+    /**
+     * Merges the partitions of a map.
+     *
+     * @return the batch.
+     */
+    @Benchmark
+    public @Nullable HashMap<Long, String> mergeMap() {
+        return mapTransformer.mergeToBatchRequest(mapPartitions);
+    }
+
+    /**
+     * Splits a wrapped list, cloning the wrapper for each partition.
+     *
+     * @return the partitions.
+     */
+    @Benchmark
+    public Map<Long, NumberBatch> splitWrappedCollection() {
+        return wrappedTransformer.splitToPartialRequest(wrappedBatch);
+    }
+
+    /**
+     * Merges the partitions of a wrapped list.
+     *
+     * @return the batch.
+     */
+    @Benchmark
+    public @Nullable NumberBatch mergeWrappedCollection() {
+        return wrappedTransformer.mergeToBatchRequest(wrappedPartitions);
+    }
+}
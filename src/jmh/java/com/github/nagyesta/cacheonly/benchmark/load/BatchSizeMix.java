@@ -0,0 +1,85 @@
+package com.github.nagyesta.cacheonly.benchmark.load;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Weighted mix of the batch sizes we send to the template.
+ */
+public final class BatchSizeMix {
+
+    private final int[] sizes;
+    private final int[] weights;
+    private final int[] cumulativeWeights;
+
+    private BatchSizeMix(
+            final int[] sizes,
+            final int[] weights) {
+        this.sizes = sizes;
+        this.weights = weights;
+        this.cumulativeWeights = new int[weights.length];
+        var sum = 0;
+        for (var i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    /**
+     * Parses the mix from a comma separated list of size:weight pairs, e.g. {@code 10:70,100:25,1000:5}.
+     * The weight can be omitted, it defaults to 1.
+     *
+     * @param description The description of the mix.
+     * @return The mix.
+     */
+    public static BatchSizeMix parse(final String description) {
+        final var items = description.split(",");
+        final var sizes = new int[items.length];
+        final var weights = new int[items.length];
+        for (var i = 0; i < items.length; i++) {
+            final var parts = items[i].split(":", 2);
+            sizes[i] = Integer.parseInt(parts[0].trim());
+            weights[i] = 1;
+            if (parts.length == 2) {
+                weights[i] = Integer.parseInt(parts[1].trim());
+            }
+            Assert.isTrue(sizes[i] > 0, "Batch size must be positive: " + description);
+            Assert.isTrue(weights[i] > 0, "Batch size weight must be positive: " + description);
+        }
+        return new BatchSizeMix(sizes, weights);
+    }
+
+    /**
+     * Returns a random batch size respecting the weights.
+     *
+     * @return The batch size.
+     */
+    public int next() {
+        final var selected = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        var index = 0;
+        while (cumulativeWeights[index] <= selected) {
+            index++;
+        }
+        return sizes[index];
+    }
+
+    /**
+     * Returns the largest batch size of the mix.
+     *
+     * @return The batch size.
+     */
+    public int max() {
+        return Arrays.stream(sizes).max().orElseThrow();
+    }
+
+    @Override
+    public String toString() {
+        return IntStream.range(0, sizes.length)
+                .mapToObj(i -> sizes[i] + ":" + weights[i])
+                .collect(Collectors.joining(","));
+    }
+}
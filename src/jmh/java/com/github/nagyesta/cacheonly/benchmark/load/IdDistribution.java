@@ -0,0 +1,62 @@
+package com.github.nagyesta.cacheonly.benchmark.load;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * The distributions we can use for selecting the requested IDs. The IDs are between 0 (inclusive) and
+ * the size of the ID space (exclusive).
+ */
+public enum IdDistribution {
+    /**
+     * Every ID is requested with the same probability.
+     */
+    UNIFORM {
+        @Override
+        public LongSupplier sampler(
+                final int idSpace,
+                final double exponent) {
+            Assert.isTrue(idSpace > 0, "ID space must be positive.");
+            return () -> ThreadLocalRandom.current().nextInt(idSpace);
+        }
+    },
+    /**
+     * The probability of requesting an ID is inversely proportional to the exponent power of its rank, the
+     * smallest IDs are the most popular ones.
+     */
+    ZIPFIAN {
+        @Override
+        public LongSupplier sampler(
+                final int idSpace,
+                final double exponent) {
+            Assert.isTrue(idSpace > 0, "ID space must be positive.");
+            Assert.isTrue(exponent > 0.0D, "Zipfian exponent must be positive.");
+            final var cumulative = new double[idSpace];
+            var sum = 0.0D;
+            for (var i = 0; i < idSpace; i++) {
+                sum += 1.0D / Math.pow(i + 1.0D, exponent);
+                cumulative[i] = sum;
+            }
+            final var total = sum;
+            return () -> {
+                final var index = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble(total));
+                if (index >= 0) {
+                    return index;
+                }
+                return Math.min(-index - 1, idSpace - 1);
+            };
+        }
+    };
+
+    /**
+     * Creates a sampler returning random IDs following the distribution.
+     *
+     * @param idSpace  The number of distinct IDs.
+     * @param exponent The exponent of the distribution, ignored when it is not used.
+     * @return The sampler.
+     */
+    public abstract LongSupplier sampler(int idSpace, double exponent);
+}
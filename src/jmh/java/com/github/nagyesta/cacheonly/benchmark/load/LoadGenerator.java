@@ -0,0 +1,177 @@
+package com.github.nagyesta.cacheonly.benchmark.load;
+
+import com.github.nagyesta.cacheonly.benchmark.standin.StandInBatchServiceCaller;
+import com.github.nagyesta.cacheonly.benchmark.standin.StandInPartialCacheSupport;
+import com.github.nagyesta.cacheonly.core.CachingServiceTemplate;
+import com.github.nagyesta.cacheonly.core.collection.LongHashSet;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Open-loop load generator driving a {@link CachingServiceTemplate} using in-memory stand-ins.
+ * <br>
+ * The requests are started at a fixed rate, independently of the completion of the previous ones, using
+ * a separate thread for each request in flight. The response time of each request is measured from the
+ * time it should have been started according to the schedule, therefore the latency is not hidden when
+ * the template (or the generator) cannot keep up with the rate. This avoids coordinated omission.
+ */
+public final class LoadGenerator {
+
+    private static final long NANOS_PER_MICRO = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final long DRAIN_TIMEOUT_SECONDS = 60L;
+
+    private final LoadTestOptions options;
+    private final Histogram responseTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Histogram serviceTime = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private final LongAdder requestedItems = new LongAdder();
+    private final AtomicLong lastCompletion = new AtomicLong();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param options The options of the run.
+     */
+    public LoadGenerator(final LoadTestOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Runs the load test using the {@code --name=value} arguments and prints the report to the standard output.
+     *
+     * @param args The arguments, see {@link LoadTestOptions#parse(String...)}.
+     * @throws InterruptedException When the thread is interrupted while waiting for the requests.
+     */
+    public static void main(final String[] args) throws InterruptedException {
+        new LoadGenerator(LoadTestOptions.parse(args)).run().print(System.out);
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @return The report.
+     * @throws InterruptedException When the thread is interrupted while waiting for the requests.
+     */
+    public LoadTestReport run() throws InterruptedException {
+        final var forkJoinPool = new ForkJoinPool(options.parallelism());
+        final var cacheCapacity = options.cacheCapacity();
+        final var cacheSupport = new StandInPartialCacheSupport(options.cacheLatency(),
+                id -> id < cacheCapacity, options.cacheErrorRate(), forkJoinPool);
+        final var batchServiceCaller = new StandInBatchServiceCaller(options.strategy(), options.partitionSize(),
+                options.originLatency(), options.originErrorRate(), forkJoinPool);
+        final var template = options.engine().create(cacheSupport, batchServiceCaller, options.idKeying());
+        final var idSampler = options.idDistribution().sampler(options.idSpace(), options.zipfExponent());
+        final var requestExecutor = Executors.newCachedThreadPool(runnable -> {
+            final var thread = new Thread(runnable, "load-generator-request");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            return runOpenLoop(template, idSampler, requestExecutor, batchServiceCaller);
+        } finally {
+            requestExecutor.shutdownNow();
+            forkJoinPool.shutdownNow();
+        }
+    }
+
+    private LoadTestReport runOpenLoop(
+            final CachingServiceTemplate<List<Long>, List<String>> template,
+            final LongSupplier idSampler,
+            final ExecutorService requestExecutor,
+            final StandInBatchServiceCaller batchServiceCaller) throws InterruptedException {
+        final var intervalNanos = NANOS_PER_SECOND / options.ratePerSecond();
+        final var start = System.nanoTime();
+        final var measurementStart = start + options.warmup().toNanos();
+        final var end = measurementStart + options.duration().toNanos();
+        var originItemsBeforeMeasurement = -1L;
+        var started = 0L;
+        var measured = 0L;
+        var intendedStart = start;
+        while (intendedStart < end) {
+            waitUntil(intendedStart);
+            final var isMeasured = intendedStart >= measurementStart;
+            if (isMeasured && originItemsBeforeMeasurement < 0) {
+                originItemsBeforeMeasurement = batchServiceCaller.requestedItems();
+            }
+            final var request = nextRequest(idSampler);
+            final var scheduled = intendedStart;
+            requestExecutor.execute(() -> callTemplate(template, request, scheduled, isMeasured));
+            started++;
+            if (isMeasured) {
+                measured++;
+            }
+            intendedStart = start + Math.round(started * intervalNanos);
+        }
+        requestExecutor.shutdown();
+        //the requests which are still running after the timeout are reported as incomplete
+        requestExecutor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        final var completed = responseTime.getTotalCount();
+        final var incomplete = measured - completed;
+        final var elapsedSeconds = Math.max(lastCompletion.get() - measurementStart, 1L) / NANOS_PER_SECOND;
+        final Map<String, Long> failureCounts = new TreeMap<>();
+        failures.forEach((type, count) -> failureCounts.put(type, count.sum()));
+        final var originItems = batchServiceCaller.requestedItems() - Math.max(originItemsBeforeMeasurement, 0L);
+        return new LoadTestReport(options, responseTime.copy(), serviceTime.copy(), measured, failureCounts,
+                incomplete, completed / elapsedSeconds, requestedItems.sum(), originItems);
+    }
+
+    private List<Long> nextRequest(final LongSupplier idSampler) {
+        final var size = options.batchSizes().next();
+        final var ids = new LongHashSet(size);
+        final List<Long> request = new ArrayList<>(size);
+        while (request.size() < size) {
+            final var id = idSampler.getAsLong();
+            if (ids.addLong(id)) {
+                request.add(id);
+            }
+        }
+        return request;
+    }
+
+    private void callTemplate(
+            final CachingServiceTemplate<List<Long>, List<String>> template,
+            final List<Long> request,
+            final long intendedStart,
+            final boolean isMeasured) {
+        final var actualStart = System.nanoTime();
+        try {
+            template.callCacheableBatchService(request);
+        } catch (final RuntimeException e) {
+            if (isMeasured) {
+                failures.computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+            }
+        } finally {
+            final var completion = System.nanoTime();
+            if (isMeasured) {
+                requestedItems.add(request.size());
+                responseTime.recordValue((completion - intendedStart) / NANOS_PER_MICRO);
+                serviceTime.recordValue((completion - actualStart) / NANOS_PER_MICRO);
+                lastCompletion.accumulateAndGet(completion, Math::max);
+            }
+        }
+    }
+
+    private static void waitUntil(final long deadline) {
+        var remaining = deadline - System.nanoTime();
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+    }
+}
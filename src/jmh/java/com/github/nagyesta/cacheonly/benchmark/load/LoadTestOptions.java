@@ -0,0 +1,121 @@
+package com.github.nagyesta.cacheonly.benchmark.load;
+
+import com.github.nagyesta.cacheonly.benchmark.standin.Engine;
+import com.github.nagyesta.cacheonly.benchmark.standin.IdKeying;
+import com.github.nagyesta.cacheonly.benchmark.standin.LatencyDistribution;
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * The configuration of a load test run.
+ *
+ * @param engine          The template implementation.
+ * @param idKeying        The keying of the transformers.
+ * @param strategy        The refresh strategy.
+ * @param partitionSize   The maximum number of items in an origin call.
+ * @param parallelism     The parallelism of the pool used by the concurrent template.
+ * @param ratePerSecond   The number of requests started each second.
+ * @param warmup          The duration of the warmup, the requests started during the warmup are not measured.
+ * @param duration        The duration of the measurement.
+ * @param idDistribution  The distribution of the requested IDs.
+ * @param idSpace         The number of distinct IDs.
+ * @param zipfExponent    The exponent of the Zipfian distribution.
+ * @param batchSizes      The mix of the batch sizes.
+ * @param cacheCapacity   The number of IDs which can be stored in the cache, the IDs below this number are
+ *                        cached. As the smallest IDs are the most popular ones, this simulates a cache holding
+ *                        the hottest items.
+ * @param cacheLatency    The latency of the cache operations.
+ * @param cacheErrorRate  The probability of a failing cache lookup.
+ * @param originLatency   The latency of the origin calls.
+ * @param originErrorRate The probability of a failing origin call.
+ */
+public record LoadTestOptions(
+        Engine engine,
+        IdKeying idKeying,
+        CacheRefreshStrategy strategy,
+        int partitionSize,
+        int parallelism,
+        double ratePerSecond,
+        Duration warmup,
+        Duration duration,
+        IdDistribution idDistribution,
+        int idSpace,
+        double zipfExponent,
+        BatchSizeMix batchSizes,
+        int cacheCapacity,
+        LatencyDistribution cacheLatency,
+        double cacheErrorRate,
+        LatencyDistribution originLatency,
+        double originErrorRate) {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("engine", "CONCURRENT"),
+            Map.entry("idKeying", "BOXED"),
+            Map.entry("strategy", "OPTIMISTIC"),
+            Map.entry("partitionSize", "100"),
+            Map.entry("parallelism", "64"),
+            Map.entry("rate", "200"),
+            Map.entry("warmupSeconds", "10"),
+            Map.entry("durationSeconds", "60"),
+            Map.entry("ids", "ZIPFIAN"),
+            Map.entry("idSpace", "100000"),
+            Map.entry("zipfExponent", "0.99"),
+            Map.entry("batchSizes", "10:70,100:25,1000:5"),
+            Map.entry("cacheCapacity", "20000"),
+            Map.entry("cacheLatency", "exponential:200"),
+            Map.entry("cacheErrorRate", "0.0"),
+            Map.entry("originLatency", "uniform:2000-10000"),
+            Map.entry("originErrorRate", "0.001"));
+
+    /**
+     * Validates the options.
+     */
+    public LoadTestOptions {
+        Assert.isTrue(partitionSize > 0, "Partition size must be positive.");
+        Assert.isTrue(parallelism > 0, "Parallelism must be positive.");
+        Assert.isTrue(ratePerSecond > 0.0D, "Rate must be positive.");
+        Assert.isTrue(!warmup.isNegative(), "Warmup cannot be negative.");
+        Assert.isTrue(!duration.isNegative() && !duration.isZero(), "Duration must be positive.");
+        Assert.isTrue(batchSizes.max() <= idSpace, "Batch sizes cannot be greater than the ID space.");
+        Assert.isTrue(cacheCapacity >= 0, "Cache capacity cannot be negative.");
+    }
+
+    /**
+     * Parses the options from {@code --name=value} arguments, using the defaults for the missing ones.
+     *
+     * @param args The arguments.
+     * @return The options.
+     */
+    public static LoadTestOptions parse(final String... args) {
+        final Map<String, String> values = new HashMap<>(DEFAULTS);
+        for (final var arg : args) {
+            Assert.isTrue(arg.startsWith("--") && arg.contains("="), "Arguments must be in --name=value format: " + arg);
+            final var parts = arg.substring(2).split("=", 2);
+            Assert.isTrue(DEFAULTS.containsKey(parts[0]), "Unknown argument: " + arg + ", supported: " + new TreeSet<>(DEFAULTS.keySet()));
+            values.put(parts[0], parts[1]);
+        }
+        return new LoadTestOptions(
+                Engine.valueOf(values.get("engine")),
+                IdKeying.valueOf(values.get("idKeying")),
+                CacheRefreshStrategy.valueOf(values.get("strategy")),
+                Integer.parseInt(values.get("partitionSize")),
+                Integer.parseInt(values.get("parallelism")),
+                Double.parseDouble(values.get("rate")),
+                Duration.ofSeconds(Long.parseLong(values.get("warmupSeconds"))),
+                Duration.ofSeconds(Long.parseLong(values.get("durationSeconds"))),
+                IdDistribution.valueOf(values.get("ids")),
+                Integer.parseInt(values.get("idSpace")),
+                Double.parseDouble(values.get("zipfExponent")),
+                BatchSizeMix.parse(values.get("batchSizes")),
+                Integer.parseInt(values.get("cacheCapacity")),
+                LatencyDistribution.parse(values.get("cacheLatency")),
+                Double.parseDouble(values.get("cacheErrorRate")),
+                LatencyDistribution.parse(values.get("originLatency")),
+                Double.parseDouble(values.get("originErrorRate")));
+    }
+}
@@ -0,0 +1,68 @@
+package com.github.nagyesta.cacheonly.benchmark.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * The results of a load test run. The latencies are in microseconds.
+ *
+ * @param options               The options of the run.
+ * @param responseTime          The latencies measured from the intended start of each request, therefore
+ *                              including the time the request waited because the previous ones were slow.
+ *                              This is free from coordinated omission.
+ * @param serviceTime           The latencies measured from the actual start of each request, as a closed-loop
+ *                              load generator would measure them. Shown for comparison only.
+ * @param measuredRequests      The number of requests started during the measurement.
+ * @param failures              The number of failed requests by the simple name of the exception.
+ * @param incompleteRequests    The number of requests which were not completed in time after the run.
+ * @param throughputPerSecond   The number of completed measured requests per second.
+ * @param requestedItems        The number of items requested from the template during the measurement.
+ * @param originRequestedItems  The number of items requested from the origin during the measurement.
+ */
+public record LoadTestReport(
+        LoadTestOptions options,
+        Histogram responseTime,
+        Histogram serviceTime,
+        long measuredRequests,
+        Map<String, Long> failures,
+        long incompleteRequests,
+        double throughputPerSecond,
+        long requestedItems,
+        long originRequestedItems) {
+
+    private static final double[] PERCENTILES = {50.0D, 90.0D, 99.0D, 99.9D, 99.99D};
+    private static final double PERCENT = 100.0D;
+
+    /**
+     * Prints the report in a human-readable format.
+     *
+     * @param out The stream we need to print to.
+     */
+    public void print(final PrintStream out) {
+        out.printf("Options: %s%n", options);
+        out.printf("Requests: %d measured, %d failed, %d incomplete%n",
+                measuredRequests, failures.values().stream().mapToLong(Long::longValue).sum(), incompleteRequests);
+        failures.forEach((type, count) -> out.printf("  %s: %d%n", type, count));
+        out.printf("Throughput: %.1f requests/s (target %.1f requests/s)%n", throughputPerSecond, options.ratePerSecond());
+        out.printf("Origin offload: %d of %d items fetched from origin (%.2f%%)%n",
+                originRequestedItems, requestedItems, percentOf(originRequestedItems, requestedItems));
+        out.printf("%-10s %15s %15s%n", "Percentile", "Response (us)", "Service (us)");
+        for (final var percentile : PERCENTILES) {
+            out.printf("%-10s %15d %15d%n", "p" + BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(),
+                    responseTime.getValueAtPercentile(percentile), serviceTime.getValueAtPercentile(percentile));
+        }
+        out.printf("%-10s %15d %15d%n", "max", responseTime.getMaxValue(), serviceTime.getMaxValue());
+    }
+
+    private static double percentOf(
+            final long part,
+            final long total) {
+        if (total == 0) {
+            return 0.0D;
+        }
+        return part * PERCENT / total;
+    }
+}
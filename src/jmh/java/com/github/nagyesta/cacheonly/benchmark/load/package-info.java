@@ -0,0 +1,4 @@
+@NullMarked
+package com.github.nagyesta.cacheonly.benchmark.load;
+
+import org.jspecify.annotations.NullMarked;
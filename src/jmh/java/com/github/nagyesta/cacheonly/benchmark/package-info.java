@@ -0,0 +1,4 @@
+@NullMarked
+package com.github.nagyesta.cacheonly.benchmark;
+
+import org.jspecify.annotations.NullMarked;
@@ -0,0 +1,52 @@
+package com.github.nagyesta.cacheonly.benchmark.standin;
+
+import com.github.nagyesta.cacheonly.core.CachingServiceTemplate;
+import com.github.nagyesta.cacheonly.core.DefaultCacheServiceTemplate;
+import com.github.nagyesta.cacheonly.core.conurrent.ConcurrentCacheServiceTemplate;
+
+import java.util.List;
+
+/**
+ * The template implementations we can drive using the stand-ins.
+ */
+public enum Engine {
+    /**
+     * Uses {@link DefaultCacheServiceTemplate}.
+     */
+    DEFAULT {
+        @Override
+        public CachingServiceTemplate<List<Long>, List<String>> create(
+                final StandInPartialCacheSupport cacheSupport,
+                final StandInBatchServiceCaller batchServiceCaller,
+                final IdKeying idKeying) {
+            return new DefaultCacheServiceTemplate<>(cacheSupport,
+                    idKeying.requestTransformer(), idKeying.responseTransformer(), batchServiceCaller);
+        }
+    },
+    /**
+     * Uses {@link ConcurrentCacheServiceTemplate}.
+     */
+    CONCURRENT {
+        @Override
+        public CachingServiceTemplate<List<Long>, List<String>> create(
+                final StandInPartialCacheSupport cacheSupport,
+                final StandInBatchServiceCaller batchServiceCaller,
+                final IdKeying idKeying) {
+            return new ConcurrentCacheServiceTemplate<>(cacheSupport,
+                    idKeying.requestTransformer(), idKeying.responseTransformer(), batchServiceCaller);
+        }
+    };
+
+    /**
+     * Creates a new template using the stand-ins.
+     *
+     * @param cacheSupport       The cache stand-in.
+     * @param batchServiceCaller The origin stand-in.
+     * @param idKeying           The keying defining the transformers.
+     * @return The template.
+     */
+    public abstract CachingServiceTemplate<List<Long>, List<String>> create(
+            StandInPartialCacheSupport cacheSupport,
+            StandInBatchServiceCaller batchServiceCaller,
+            IdKeying idKeying);
+}
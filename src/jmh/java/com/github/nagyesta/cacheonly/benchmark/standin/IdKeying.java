@@ -0,0 +1,56 @@
+package com.github.nagyesta.cacheonly.benchmark.standin;
+
+import com.github.nagyesta.cacheonly.transform.BatchRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.BatchResponseTransformer;
+import com.github.nagyesta.cacheonly.transform.common.CollectionBasedRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.common.CollectionBasedResponseTransformer;
+import com.github.nagyesta.cacheonly.transform.common.LongKeyedCollectionBasedRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.common.LongKeyedCollectionBasedResponseTransformer;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Defines how the transformers of the stand-ins map the numbers to their IDs.
+ */
+public enum IdKeying {
+    /**
+     * Uses the {@link Long} IDs as keys of hash maps.
+     */
+    BOXED(new CollectionBasedRequestTransformer<>(Collectors.toList(), Function.identity()),
+            new CollectionBasedResponseTransformer<>(Collectors.toList(), Long::parseLong)),
+    /**
+     * Uses the primitive IDs as keys of open-addressing maps.
+     */
+    LONG_KEYED(new LongKeyedCollectionBasedRequestTransformer<>(Collectors.toList(), Long::longValue),
+            new LongKeyedCollectionBasedResponseTransformer<>(Collectors.toList(), Long::parseLong));
+
+    private final BatchRequestTransformer<List<Long>, Long, Long> requestTransformer;
+    private final BatchResponseTransformer<List<String>, String, Long> responseTransformer;
+
+    IdKeying(
+            final BatchRequestTransformer<List<Long>, Long, Long> requestTransformer,
+            final BatchResponseTransformer<List<String>, String, Long> responseTransformer) {
+        this.requestTransformer = requestTransformer;
+        this.responseTransformer = responseTransformer;
+    }
+
+    /**
+     * Returns the request transformer.
+     *
+     * @return the transformer.
+     */
+    public BatchRequestTransformer<List<Long>, Long, Long> requestTransformer() {
+        return requestTransformer;
+    }
+
+    /**
+     * Returns the response transformer.
+     *
+     * @return the transformer.
+     */
+    public BatchResponseTransformer<List<String>, String, Long> responseTransformer() {
+        return responseTransformer;
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.nagyesta.cacheonly.benchmark.standin;
+
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Supplies the simulated latency of the stand-ins in microseconds.
+ */
+public final class LatencyDistribution implements LongSupplier {
+
+    private final String description;
+    private final LongSupplier sampler;
+
+    private LatencyDistribution(
+            final String description,
+            final LongSupplier sampler) {
+        this.description = description;
+        this.sampler = sampler;
+    }
+
+    /**
+     * Creates a distribution returning the same latency every time.
+     *
+     * @param micros The latency in microseconds.
+     * @return The distribution.
+     */
+    public static LatencyDistribution constant(final long micros) {
+        Assert.isTrue(micros >= 0, "Latency cannot be negative.");
+        return new LatencyDistribution("constant:" + micros, () -> micros);
+    }
+
+    /**
+     * Creates a distribution returning latencies uniformly distributed between the bounds (both inclusive).
+     *
+     * @param minMicros The minimum latency in microseconds.
+     * @param maxMicros The maximum latency in microseconds.
+     * @return The distribution.
+     */
+    public static LatencyDistribution uniform(
+            final long minMicros,
+            final long maxMicros) {
+        Assert.isTrue(minMicros >= 0, "Latency cannot be negative.");
+        Assert.isTrue(minMicros <= maxMicros, "Minimum latency cannot be greater than the maximum.");
+        return new LatencyDistribution("uniform:" + minMicros + "-" + maxMicros,
+                () -> ThreadLocalRandom.current().nextLong(minMicros, maxMicros + 1));
+    }
+
+    /**
+     * Creates a distribution returning exponentially distributed latencies, producing a long tail with rare
+     * outliers many times larger than the mean.
+     *
+     * @param meanMicros The mean latency in microseconds.
+     * @return The distribution.
+     */
+    public static LatencyDistribution exponential(final long meanMicros) {
+        Assert.isTrue(meanMicros >= 0, "Latency cannot be negative.");
+        return new LatencyDistribution("exponential:" + meanMicros,
+                () -> Math.round(-meanMicros * Math.log(1.0D - ThreadLocalRandom.current().nextDouble())));
+    }
+
+    /**
+     * Parses the distribution from its description. The supported formats are {@code constant:<micros>},
+     * {@code uniform:<minMicros>-<maxMicros>} and {@code exponential:<meanMicros>}.
+     *
+     * @param description The description.
+     * @return The distribution.
+     */
+    public static LatencyDistribution parse(final String description) {
+        final var parts = description.split(":", 2);
+        Assert.isTrue(parts.length == 2, "Latency distribution must be in <type>:<value> format: " + description);
+        final var value = parts[1].trim();
+        return switch (parts[0].trim()) {
+            case "constant" -> constant(Long.parseLong(value));
+            case "uniform" -> {
+                final var bounds = value.split("-", 2);
+                Assert.isTrue(bounds.length == 2, "Uniform latency must be in uniform:<min>-<max> format: " + description);
+                yield uniform(Long.parseLong(bounds[0].trim()), Long.parseLong(bounds[1].trim()));
+            }
+            case "exponential" -> exponential(Long.parseLong(value));
+            default -> throw new IllegalArgumentException("Unknown latency distribution: " + description);
+        };
+    }
+
+    @Override
+    public long getAsLong() {
+        return sampler.getAsLong();
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
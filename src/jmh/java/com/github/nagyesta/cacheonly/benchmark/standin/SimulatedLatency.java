@@ -0,0 +1,25 @@
+package com.github.nagyesta.cacheonly.benchmark.standin;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulates the latency of a remote call by parking the current thread.
+ */
+public final class SimulatedLatency {
+
+    private SimulatedLatency() {
+        //utility
+    }
+
+    /**
+     * Parks the current thread for the given time. Returns immediately when the time is not positive.
+     *
+     * @param micros The latency in microseconds.
+     */
+    public static void pause(final long micros) {
+        if (micros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+    }
+}
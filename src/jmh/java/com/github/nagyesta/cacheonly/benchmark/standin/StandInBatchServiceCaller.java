@@ -0,0 +1,104 @@
+package com.github.nagyesta.cacheonly.benchmark.standin;
+
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.raw.concurrent.AsyncBatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Origin stand-in returning the string representation of each requested number after a simulated latency.
+ * Fails the configured ratio of the calls with a {@link BatchServiceException}.
+ */
+public final class StandInBatchServiceCaller implements AsyncBatchServiceCaller<List<Long>, List<String>> {
+
+    private final CacheRefreshStrategy refreshStrategy;
+    private final int maxPartitionSize;
+    private final LongSupplier latencyMicros;
+    private final double errorRate;
+    private final ForkJoinPool forkJoinPool;
+    private final LongAdder requestedItems = new LongAdder();
+
+    /**
+     * Creates a new instance which never fails.
+     *
+     * @param refreshStrategy  The refresh strategy of the template.
+     * @param maxPartitionSize The maximum number of items in a call.
+     * @param latencyMicros    The supplier of the latency of each call in microseconds.
+     * @param forkJoinPool     The pool used by the concurrent template for the calls.
+     */
+    public StandInBatchServiceCaller(
+            final CacheRefreshStrategy refreshStrategy,
+            final int maxPartitionSize,
+            final LongSupplier latencyMicros,
+            final ForkJoinPool forkJoinPool) {
+        this(refreshStrategy, maxPartitionSize, latencyMicros, 0.0D, forkJoinPool);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param refreshStrategy  The refresh strategy of the template.
+     * @param maxPartitionSize The maximum number of items in a call.
+     * @param latencyMicros    The supplier of the latency of each call in microseconds.
+     * @param errorRate        The probability of a failing call between 0.0 and 1.0.
+     * @param forkJoinPool     The pool used by the concurrent template for the calls.
+     */
+    public StandInBatchServiceCaller(
+            final CacheRefreshStrategy refreshStrategy,
+            final int maxPartitionSize,
+            final LongSupplier latencyMicros,
+            final double errorRate,
+            final ForkJoinPool forkJoinPool) {
+        Assert.isTrue(errorRate >= 0.0D && errorRate <= 1.0D, "Error rate must be between 0.0 and 1.0.");
+        this.refreshStrategy = refreshStrategy;
+        this.maxPartitionSize = maxPartitionSize;
+        this.latencyMicros = latencyMicros;
+        this.errorRate = errorRate;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Returns the number of items requested from the origin so far, including the items of the failed calls.
+     *
+     * @return the number of items.
+     */
+    public long requestedItems() {
+        return requestedItems.sum();
+    }
+
+    @Override
+    public CacheRefreshStrategy refreshStrategy() {
+        return refreshStrategy;
+    }
+
+    @Override
+    public ForkJoinPool forkJoinPool() {
+        return forkJoinPool;
+    }
+
+    @Override
+    public int maxPartitionSize() {
+        return maxPartitionSize;
+    }
+
+    @Override
+    public List<String> callBatchService(final List<Long> batchRequest) throws BatchServiceException {
+        requestedItems.add(batchRequest.size());
+        SimulatedLatency.pause(latencyMicros.getAsLong());
+        if (errorRate > 0.0D && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new BatchServiceException("Simulated origin failure.");
+        }
+        final List<String> response = new ArrayList<>(batchRequest.size());
+        for (final var id : batchRequest) {
+            response.add(String.valueOf(id));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.nagyesta.cacheonly.benchmark.standin;
+
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.transform.concurrent.AsyncPartialCacheSupport;
+import org.jspecify.annotations.Nullable;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache stand-in storing the numbers in memory and simulating the latency of each cache operation.
+ * Only the numbers accepted by the retention predicate are stored, this way the hit ratio of a
+ * repeated request does not change when the missing items are put into the cache. Fails the configured
+ * ratio of the lookups with an {@link IllegalStateException}, similarly to an unavailable remote cache.
+ */
+public final class StandInPartialCacheSupport implements AsyncPartialCacheSupport<Long, String, String, Long> {
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+    private final LongSupplier latencyMicros;
+    private final LongPredicate retained;
+    private final double errorRate;
+    private final ForkJoinPool forkJoinPool;
+
+    /**
+     * Creates a new instance which never fails.
+     *
+     * @param latencyMicros The supplier of the latency of each cache operation in microseconds.
+     * @param retained      The predicate deciding whether a number can be stored in the cache.
+     * @param forkJoinPool  The pool used by the concurrent template for the cache operations.
+     */
+    public StandInPartialCacheSupport(
+            final LongSupplier latencyMicros,
+            final LongPredicate retained,
+            final ForkJoinPool forkJoinPool) {
+        this(latencyMicros, retained, 0.0D, forkJoinPool);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param latencyMicros The supplier of the latency of each cache operation in microseconds.
+     * @param retained      The predicate deciding whether a number can be stored in the cache.
+     * @param errorRate     The probability of a failing lookup between 0.0 and 1.0.
+     * @param forkJoinPool  The pool used by the concurrent template for the cache operations.
+     */
+    public StandInPartialCacheSupport(
+            final LongSupplier latencyMicros,
+            final LongPredicate retained,
+            final double errorRate,
+            final ForkJoinPool forkJoinPool) {
+        Assert.isTrue(errorRate >= 0.0D && errorRate <= 1.0D, "Error rate must be between 0.0 and 1.0.");
+        this.latencyMicros = latencyMicros;
+        this.retained = retained;
+        this.errorRate = errorRate;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    @Override
+    public ForkJoinPool forkJoinPool() {
+        return forkJoinPool;
+    }
+
+    @Override
+    public String cacheName() {
+        return "numbers";
+    }
+
+    @Override
+    public Class<String> getEntityClass() {
+        return String.class;
+    }
+
+    @Override
+    public CacheKey<String, Long> toCacheKey(final Long partialRequest) {
+        return new CacheKey<>("number_" + partialRequest, partialRequest);
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    @Override
+    public @Nullable String getFromCache(final CacheKey<String, Long> key) {
+        SimulatedLatency.pause(latencyMicros.getAsLong());
+        if (errorRate > 0.0D && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            throw new IllegalStateException("Simulated cache failure.");
+        }
+        return AsyncPartialCacheSupport.super.getFromCache(key);
+    }
+
+    @Override
+    public void putToCache(
+            final CacheKey<String, Long> key,
+            final String entity) {
+        SimulatedLatency.pause(latencyMicros.getAsLong());
+        if (retained.test(key.id())) {
+            AsyncPartialCacheSupport.super.putToCache(key, entity);
+        }
+    }
+}
@@ -1,24 +1,35 @@
 package com.github.nagyesta.cacheonly.core;
 
+import com.github.nagyesta.cacheonly.core.breaker.CircuitBreaker;
+import com.github.nagyesta.cacheonly.core.collection.LongHashMap;
+import com.github.nagyesta.cacheonly.core.collection.LongSet;
 import com.github.nagyesta.cacheonly.core.exception.CacheMissException;
+import com.github.nagyesta.cacheonly.core.exception.OriginRejectedException;
 import com.github.nagyesta.cacheonly.core.metrics.BatchServiceCallMetricCollector;
 import com.github.nagyesta.cacheonly.core.metrics.NoOpBatchServiceCallMetricCollector;
 import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.entity.PartialSuccessResult;
 import com.github.nagyesta.cacheonly.raw.BatchServiceCaller;
 import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
 import com.github.nagyesta.cacheonly.transform.BatchRequestTransformer;
 import com.github.nagyesta.cacheonly.transform.BatchResponseTransformer;
 import com.github.nagyesta.cacheonly.transform.PartialCacheSupport;
-import org.apache.commons.collections4.ListUtils;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.util.Assert;
 
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+import static com.github.nagyesta.cacheonly.core.collection.HashMapSizing.capacityFor;
+
 /**
  * Abstract super implementation of {@link CachingServiceTemplate}.
  *
@@ -36,12 +47,18 @@ import java.util.stream.Collectors;
 public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller<BR, BS>,
         CS extends PartialCacheSupport<PR, PS, C, I>, BR, BS, PR, PS, C, I>
         implements CachingServiceTemplate<BR, BS> {
+    private static final long DEFAULT_IN_FLIGHT_AWAIT_MILLIS = 60000L;
+    private static final int DEFAULT_REFRESH_THREADS = 2;
     private final Logger logger;
     private final CS partialCacheSupport;
     private final BatchRequestTransformer<BR, PR, I> batchRequestTransformer;
     private final BatchResponseTransformer<BS, PS, I> batchResponseTransformer;
     private final SC batchServiceCaller;
+    private final SingleFlight<I, PR, PS> singleFlight = new SingleFlight<>();
+    private final Set<Object> revalidating = ConcurrentHashMap.newKeySet();
     private BatchServiceCallMetricCollector metricsCollector = new NoOpBatchServiceCallMetricCollector();
+    private @Nullable CircuitBreaker circuitBreaker;
+    private @Nullable Executor backgroundRefreshExecutor;
 
     protected AbstractCacheServiceTemplate(
             final CS partialCacheSupport,
@@ -59,22 +76,48 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
     public @Nullable BS callCacheableBatchService(
             final BR request) throws BatchServiceException {
         final var start = System.currentTimeMillis();
-        var requestMap = batchRequestTransformer.splitToPartialRequest(request);
         try {
-            logger.info("Processing batch of {} partial requests.", requestMap.size());
-            logger.trace("Processing batch of partial requests with ids: {}", requestMap.keySet());
-            Map<I, PS> fromCache;
-            try {
-                fromCache = attemptFetchingFromCache(requestMap, batchServiceCaller.refreshStrategy());
-                requestMap = selectRemainingKeysToFetchFromOrigin(requestMap, fromCache);
-            } catch (final CacheMissException e) {
-                fromCache = new HashMap<>();
-                metricsCollector.cacheMiss(requestMap.size());
-                logger.info("Cache miss found for requestClass: {}, refresh strategy disallows further tries. Cause: {}",
-                        request.getClass().getName(), e.getMessage());
+            final var cachePhase = fetchFromCacheAndSelectRemaining(request);
+            final var response = cachePhase.fromCache();
+            response.putAll(fetchAllFromOriginService(cachePhase.toBeFetched(), cachePhase.partitionSize()));
+            return batchResponseTransformer.mergeToBatchResponse(response);
+        } finally {
+            final var end = System.currentTimeMillis();
+            logger().debug("Total execution completed under {} ms.", end - start);
+        }
+    }
+
+    /**
+     * Processes the provided batch request the same way as {@link #callCacheableBatchService(Object)}, but
+     * tolerates the failure of the origin partitions. The response is merged from the partial responses
+     * found in the cache and the ones returned by the successful partitions, while the IDs of the failed
+     * partitions are reported with the cause of the failure. The IDs the circuit breaker did not let through
+     * to the origin are reported with an {@link OriginRejectedException}.
+     *
+     * @param request The batch request we need to process.
+     * @return The result containing the batch response and the failures.
+     */
+    public PartialSuccessResult<BS, I> callCacheableBatchServiceWithPartialSuccess(final BR request) {
+        final var start = System.currentTimeMillis();
+        try {
+            final var cachePhase = fetchFromCacheAndSelectRemaining(request);
+            final var response = cachePhase.fromCache();
+            final Map<I, Throwable> failures = new ConcurrentHashMap<>();
+            final var permission = acquireOriginPermission(cachePhase.toBeFetched());
+            final var admitted = admitToOrigin(cachePhase.toBeFetched(), permission, failures);
+            if (!admitted.isEmpty()) {
+                var success = false;
+                try {
+                    final var partitions = partitionOriginRequests(admitted, cachePhase.partitionSize());
+                    metricsCollector.partitionsCreated(partitions.size());
+                    response.putAll(callOriginWithPartitionsTolerantly(partitions, failures));
+                    reportPartitionOutcome(partitions, failures);
+                    success = admitted.keySet().stream().noneMatch(failures::containsKey);
+                } finally {
+                    recordOriginOutcome(permission, success);
+                }
             }
-            fromCache.putAll(fetchAllFromOriginService(requestMap));
-            return batchResponseTransformer.mergeToBatchResponse(fromCache);
+            return new PartialSuccessResult<>(batchResponseTransformer.mergeToBatchResponse(response), failures);
         } finally {
             final var end = System.currentTimeMillis();
             logger().debug("Total execution completed under {} ms.", end - start);
@@ -97,23 +140,155 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
      */
     protected Map<I, PS> fetchAllFromOriginService(
             final Map<I, PR> requestMap) throws BatchServiceException {
+        return fetchAllFromOriginService(requestMap, batchServiceCaller.maxPartitionSize());
+    }
+
+    /**
+     * Resolves the missing items from the origin service using the partition size selected for the batch.
+     *
+     * @param requestMap    The map of partial requests we need to resolve.
+     * @param partitionSize The maximum partition size read once for the batch.
+     * @return The Map containing the responses.
+     * @throws BatchServiceException When the resolution failed.
+     */
+    protected Map<I, PS> fetchAllFromOriginService(
+            final Map<I, PR> requestMap,
+            final int partitionSize) throws BatchServiceException {
         final Map<I, PS> response;
-        if (requestMap.isEmpty()) {
+        final var permission = acquireOriginPermission(requestMap);
+        final var admitted = admitToOrigin(requestMap, permission);
+        if (admitted.isEmpty()) {
             response = Collections.emptyMap();
         } else {
-            final var partitions = partitionOriginRequests(requestMap);
+            final var partitions = partitionOriginRequests(admitted, partitionSize);
             metricsCollector.partitionsCreated(partitions.size());
+            var success = false;
             try {
                 response = callOriginWithPartitions(partitions);
-                metricsCollector.partitionsSucceeded(partitions.size());
-            } catch (final BatchServiceException e) {
-                metricsCollector.partitionsFailed(partitions.size());
-                throw e;
+                success = true;
+            } finally {
+                //recorded for every kind of failure, otherwise a failed half-open probe would never end
+                if (success) {
+                    metricsCollector.partitionsSucceeded(partitions.size());
+                } else {
+                    metricsCollector.partitionsFailed(partitions.size());
+                }
+                recordOriginOutcome(permission, success);
             }
         }
         return response;
     }
 
+    /**
+     * Asks the circuit breaker (if set) whether the origin can be called.
+     *
+     * @param requestMap The map of partial requests we need to send to the origin.
+     * @return The permission, {@link CircuitBreaker.State#CLOSED} when there is no circuit breaker.
+     */
+    protected final CircuitBreaker.State acquireOriginPermission(final Map<I, PR> requestMap) {
+        if (circuitBreaker == null || requestMap.isEmpty()) {
+            return CircuitBreaker.State.CLOSED;
+        }
+        return circuitBreaker.acquirePermission();
+    }
+
+    /**
+     * Selects the partial requests we can send to the origin using the permission of the circuit breaker.
+     * Nothing is sent while the circuit is open (same as {@link CacheRefreshStrategy#CACHE_ONLY}), and
+     * only a small probe is sent while the circuit is half-open. The rejected items are missing from the
+     * response the same way as the items not found by the origin, they are only logged and reported using
+     * {@link BatchServiceCallMetricCollector#originRequestsRejected(int)}.
+     *
+     * @param requestMap The map of partial requests we need to send to the origin.
+     * @param permission The permission returned by {@link #acquireOriginPermission(Map)}.
+     * @return The map of partial requests we can send.
+     */
+    protected final Map<I, PR> admitToOrigin(
+            final Map<I, PR> requestMap,
+            final CircuitBreaker.State permission) {
+        return admitToOrigin(requestMap, permission, null);
+    }
+
+    /**
+     * Selects the partial requests we can send to the origin the same way as
+     * {@link #admitToOrigin(Map, CircuitBreaker.State)}, and reports the IDs of the rejected items with an
+     * {@link OriginRejectedException}.
+     *
+     * @param requestMap The map of partial requests we need to send to the origin.
+     * @param permission The permission returned by {@link #acquireOriginPermission(Map)}.
+     * @param rejections The map collecting the causes by the IDs of the rejected items, ignored when null.
+     * @return The map of partial requests we can send.
+     */
+    protected final Map<I, PR> admitToOrigin(
+            final Map<I, PR> requestMap,
+            final CircuitBreaker.State permission,
+            final @Nullable Map<I, Throwable> rejections) {
+        final Map<I, PR> admitted = switch (permission) {
+            case OPEN -> {
+                logger.info("Circuit is open, skipping origin call for {} items.", requestMap.size());
+                yield Collections.emptyMap();
+            }
+            case HALF_OPEN -> {
+                final var probeSize = Objects.requireNonNull(circuitBreaker).halfOpenPartitionSize();
+                logger.info("Circuit is half-open, probing origin with {} of {} items.",
+                        Math.min(probeSize, requestMap.size()), requestMap.size());
+                yield requestMap.entrySet().stream()
+                        .limit(probeSize)
+                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            }
+            default -> requestMap;
+        };
+        final var rejected = requestMap.size() - admitted.size();
+        if (rejected > 0) {
+            metricsCollector.originRequestsRejected(rejected);
+            final var rejectedIds = rejectedIds(requestMap, admitted);
+            logger.debug("Circuit breaker rejected origin call for ids: {}", rejectedIds);
+            if (rejections != null) {
+                final var cause = new OriginRejectedException(permission);
+                rejectedIds.forEach(id -> rejections.put(id, cause));
+            }
+        }
+        return admitted;
+    }
+
+    private static <I> List<I> rejectedIds(
+            final Map<I, ?> requestMap,
+            final Map<I, ?> admitted) {
+        return requestMap.keySet().stream()
+                .filter(id -> !admitted.containsKey(id))
+                .toList();
+    }
+
+    /**
+     * Releases the permission of the circuit breaker (if set) when the origin was not called using it.
+     *
+     * @param permission The permission returned by {@link #acquireOriginPermission(Map)}.
+     */
+    protected final void releaseOriginPermission(final CircuitBreaker.State permission) {
+        if (circuitBreaker != null) {
+            circuitBreaker.release(permission);
+        }
+    }
+
+    /**
+     * Records the outcome of the origin call in the circuit breaker (if set).
+     *
+     * @param permission The permission returned by {@link #acquireOriginPermission(Map)}.
+     * @param success    True if the origin call succeeded.
+     */
+    protected final void recordOriginOutcome(
+            final CircuitBreaker.State permission,
+            final boolean success) {
+        if (circuitBreaker == null || permission == CircuitBreaker.State.OPEN) {
+            return;
+        }
+        if (success) {
+            circuitBreaker.onSuccess(permission);
+        } else {
+            circuitBreaker.onFailure(permission);
+        }
+    }
+
     /**
      * Processes the partitions supplied by calling the origin service.
      *
@@ -124,6 +299,45 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
     protected abstract Map<I, PS> callOriginWithPartitions(
             List<Map<I, PR>> requestPartitions) throws BatchServiceException;
 
+    /**
+     * Processes the partitions supplied by calling the origin service while tolerating the failure of
+     * some partitions. The default implementation calls the partitions one after the other.
+     *
+     * @param requestPartitions The list of request maps we need to make.
+     * @param failures          The map collecting the causes of the failures by the IDs of the failed partitions.
+     * @return The results returned by the successful partitions.
+     */
+    protected Map<I, PS> callOriginWithPartitionsTolerantly(
+            final List<Map<I, PR>> requestPartitions,
+            final Map<I, Throwable> failures) {
+        final Map<I, PS> response = newIdMap(requestPartitions);
+        for (final var partition : requestPartitions) {
+            try {
+                response.putAll(fetchSinglePartitionFromOrigin(partition, batchServiceCaller.refreshStrategy()));
+            } catch (final RuntimeException e) {
+                logger.warn("Failed to fetch partition of {} items.", partition.size(), e);
+                partition.keySet().forEach(id -> failures.put(id, e));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Reports the number of succeeded and failed partitions to the metrics collector.
+     *
+     * @param requestPartitions The partitions we have called.
+     * @param failures          The causes of the failures by the IDs of the failed partitions.
+     */
+    protected final void reportPartitionOutcome(
+            final List<Map<I, PR>> requestPartitions,
+            final Map<I, Throwable> failures) {
+        final var failed = (int) requestPartitions.stream()
+                .filter(partition -> partition.keySet().stream().anyMatch(failures::containsKey))
+                .count();
+        metricsCollector.partitionsFailed(failed);
+        metricsCollector.partitionsSucceeded(requestPartitions.size() - failed);
+    }
+
     /**
      * Evaluates whether the refresh strategy allows us to put to the cache and performs
      * a put with all the responses if it is allowed.
@@ -141,8 +355,23 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
             logger.trace("Requests passed for cache PUT with ids: {}", request.keySet());
             Assert.isTrue(request.keySet().containsAll(response.keySet()),
                     "Not all requests ids are found in the request.");
-            response.forEach((id, entity) -> Optional.ofNullable(partialCacheSupport.toCacheKey(request.get(id)))
-                    .ifPresent(cacheKey -> partialCacheSupport.putToCache(cacheKey, entity)));
+            final Map<CacheKey<C, I>, PS> entries = new HashMap<>(capacityFor(response.size()));
+            response.forEach((id, entity) -> {
+                final var cacheKey = partialCacheSupport.toCacheKey(request.get(id));
+                if (cacheKey != null) {
+                    entries.put(cacheKey, entity);
+                }
+            });
+            if (!entries.isEmpty()) {
+                partialCacheSupport.putAllToCache(entries);
+                if (partialCacheSupport.freshnessCacheName() != null) {
+                    partialCacheSupport.putFreshToCache(entries.keySet());
+                }
+                if (partialCacheSupport.negativeCacheName() != null) {
+                    partialCacheSupport.evictAbsentFromCache(entries.keySet());
+                }
+            }
+            populateNegativeCache(request, response);
             metricsCollector.cachePut(response.size());
             logger.debug("Cache PUT completed for {} items.", response.size());
         } else {
@@ -150,40 +379,270 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
         }
     }
 
-    private List<Map<I, PR>> partitionOriginRequests(final Map<I, PR> requestMap) {
-        final var keyList = new ArrayList<>(requestMap.keySet());
-        final var partitions = ListUtils.partition(keyList, batchServiceCaller.maxPartitionSize());
+    /**
+     * Removes the partial requests which have a tombstone in the negative cache from the request map
+     * before the cache GET. Only used with the strategies failing on a cache miss, as a single item known
+     * to be absent would make them fetch the whole batch from the origin. The other strategies check
+     * the tombstones only for the cache misses, see {@link #skipMissesKnownToBeAbsent(Map, Map, CacheRefreshStrategy)}.
+     *
+     * @param requestMap The map of all partial requests in the batch.
+     * @param strategy   The refresh strategy.
+     * @return The map of partial requests which are not known to be absent.
+     */
+    protected final Map<I, PR> skipItemsKnownToBeAbsent(
+            final Map<I, PR> requestMap,
+            final CacheRefreshStrategy strategy) {
+        if (!strategy.shouldFailOnMiss()) {
+            return requestMap;
+        }
+        return skipMissesKnownToBeAbsent(requestMap, Collections.emptyMap(), strategy);
+    }
+
+    /**
+     * Removes the partial requests which were not found in the cache and have a tombstone in the negative
+     * cache from the request map. These items are considered resolved, they will be missing from the response
+     * without calling the origin. Does nothing when negative caching is disabled or the strategy does not
+     * allow cache GET.
+     *
+     * @param requestMap The map of all partial requests in the batch.
+     * @param fromCache  The map of partial responses found in the cache.
+     * @param strategy   The refresh strategy.
+     * @return The map of partial requests which are not known to be absent.
+     */
+    protected final Map<I, PR> skipMissesKnownToBeAbsent(
+            final Map<I, PR> requestMap,
+            final Map<I, PS> fromCache,
+            final CacheRefreshStrategy strategy) {
+        if (!strategy.allowsCacheGet() || partialCacheSupport.negativeCacheName() == null || requestMap.size() == fromCache.size()) {
+            return requestMap;
+        }
+        final Map<CacheKey<C, I>, I> idsByKey = new HashMap<>(capacityFor(requestMap.size() - fromCache.size()));
+        requestMap.forEach((id, request) -> {
+            if (!fromCache.containsKey(id)) {
+                Optional.ofNullable(partialCacheSupport.toCacheKey(request)).ifPresent(key -> idsByKey.put(key, id));
+            }
+        });
+        if (idsByKey.isEmpty()) {
+            return requestMap;
+        }
+        final var absent = partialCacheSupport.getAbsentFromCache(idsByKey.keySet());
+        if (absent.isEmpty()) {
+            return requestMap;
+        }
+        metricsCollector.negativeCacheHit(absent.size());
+        logger.debug("Skipping {} items known to be absent.", absent.size());
+        final Map<I, PR> remaining = copyIdMap(requestMap, requestMap);
+        absent.forEach(key -> remaining.remove(idsByKey.get(key)));
+        return remaining;
+    }
+
+    /**
+     * Tells whether the partial request, which was not found in the cache, has a tombstone in the negative
+     * cache. Returns false when negative caching is disabled.
+     *
+     * @param request The partial request.
+     * @return true if the item is known to be absent.
+     */
+    protected final boolean isMissKnownToBeAbsent(final PR request) {
+        if (partialCacheSupport.negativeCacheName() == null) {
+            return false;
+        }
+        final var key = partialCacheSupport.toCacheKey(request);
+        if (key == null || partialCacheSupport.getAbsentFromCache(List.of(key)).isEmpty()) {
+            return false;
+        }
+        metricsCollector.negativeCacheHit(1);
+        return true;
+    }
+
+    /**
+     * Finds the stale items among the partial responses found in the cache and refreshes them in the
+     * background using {@link #backgroundRefreshExecutor()}. Does nothing unless the strategy allows
+     * background refresh and the cache support tracks freshness. The items already being refreshed
+     * are not scheduled again.
+     *
+     * @param requestMap The map of all partial requests in the batch.
+     * @param fromCache  The map of partial responses found in the cache.
+     * @param strategy   The refresh strategy.
+     * @return The future completing when the background refresh is done.
+     */
+    protected final CompletableFuture<Void> revalidateStaleItems(
+            final Map<I, PR> requestMap,
+            final Map<I, PS> fromCache,
+            final CacheRefreshStrategy strategy) {
+        if (!strategy.allowsBackgroundRefresh() || partialCacheSupport.freshnessCacheName() == null || fromCache.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final Map<CacheKey<C, I>, I> idsByKey = new HashMap<>(fromCache.size());
+        fromCache.keySet().forEach(id -> Optional.ofNullable(partialCacheSupport.toCacheKey(requestMap.get(id)))
+                .ifPresent(key -> idsByKey.put(key, id)));
+        final var fresh = findFreshInCache(idsByKey.keySet());
+        final Map<I, PR> stale = new HashMap<>();
+        final Set<Object> claimed = new HashSet<>();
+        idsByKey.forEach((key, id) -> {
+            if (!fresh.contains(key) && revalidating.add(key.key())) {
+                claimed.add(key.key());
+                stale.put(id, requestMap.get(id));
+            }
+        });
+        if (stale.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        metricsCollector.staleCacheHit(stale.size());
+        logger.debug("Refreshing {} stale items in the background.", stale.size());
+        return CompletableFuture.runAsync(() -> fetchAllFromOriginService(stale), backgroundRefreshExecutor())
+                .whenComplete((ignored, throwable) -> {
+                    revalidating.removeAll(claimed);
+                    if (throwable != null) {
+                        logger.warn("Background refresh of {} stale items failed.", stale.size(), throwable);
+                    }
+                });
+    }
+
+    /**
+     * Returns the keys of the partial responses which have a freshness marker in the cache. Uses a single
+     * {@link PartialCacheSupport#getFreshFromCache(Collection)} call, which can check all keys at once when
+     * the cache support implements it using a bulk operation.
+     *
+     * @param keys The cache keys of the partial responses found in the cache.
+     * @return The keys of the fresh partial responses.
+     */
+    protected Set<CacheKey<C, I>> findFreshInCache(final Collection<CacheKey<C, I>> keys) {
+        return partialCacheSupport.getFreshFromCache(keys);
+    }
+
+    /**
+     * Returns the executor we need to use for refreshing stale items in the background.
+     *
+     * @return The executor set by {@link #setBackgroundRefreshExecutor(Executor)}, or a small pool of daemon
+     *         threads shared by the templates when it is not set.
+     */
+    protected Executor backgroundRefreshExecutor() {
+        return Objects.requireNonNullElseGet(backgroundRefreshExecutor, () -> DefaultRefreshExecutor.INSTANCE);
+    }
+
+    /**
+     * Splits the request map into partitions respecting the maximum partition size of the origin. The
+     * partition size must be the same value the items were selected with, as an adaptive caller can change
+     * it between two reads.
+     *
+     * @param requestMap    The map of partial requests we need to send to the origin.
+     * @param partitionSize The maximum partition size read once for the batch.
+     * @return The list of partitions.
+     */
+    protected final List<Map<I, PR>> partitionOriginRequests(
+            final Map<I, PR> requestMap,
+            final int partitionSize) {
+        metricsCollector.effectivePartitionSize(partitionSize);
+        final List<Map<I, PR>> partitions;
+        if (requestMap.isEmpty()) {
+            partitions = Collections.emptyList();
+        } else if (requestMap.size() <= partitionSize) {
+            partitions = List.of(requestMap);
+        } else {
+            partitions = new ArrayList<>((requestMap.size() + partitionSize - 1) / partitionSize);
+            var remaining = requestMap.size();
+            Map<I, PR> partition = Collections.emptyMap();
+            for (final var entry : requestMap.entrySet()) {
+                if (partition.size() == partitionSize || partition.isEmpty()) {
+                    partition = newIdMap(requestMap, Math.min(partitionSize, remaining));
+                    partitions.add(partition);
+                }
+                partition.put(entry.getKey(), entry.getValue());
+                remaining--;
+            }
+        }
         logger.debug("Created {} partitions.", partitions.size());
-        return partitions.stream()
-                .map(p -> p.stream().collect(Collectors.toMap(Function.identity(), requestMap::get)))
-                .toList();
+        return partitions;
     }
 
-    private Map<I, PR> selectRemainingKeysToFetchFromOrigin(
+    /**
+     * Selects the partial requests we need to fetch from the origin using the refresh strategy.
+     *
+     * @param requestMap    The map of all partial requests in the batch.
+     * @param fromCache     The map of partial responses found in the cache.
+     * @param partitionSize The maximum partition size read once for the batch.
+     * @return The map of partial requests which should be fetched from the origin.
+     */
+    @SuppressWarnings("unchecked")
+    protected final Map<I, PR> selectRemainingKeysToFetchFromOrigin(
             final Map<I, PR> requestMap,
-            final Map<I, PS> fromCache) {
+            final Map<I, PS> fromCache,
+            final int partitionSize) {
         final var toBeFetched = batchServiceCaller.refreshStrategy()
-                .selectItemsForFetch(requestMap.keySet(), fromCache.keySet(), batchServiceCaller.maxPartitionSize());
+                .selectItemsForFetch(requestMap.keySet(), fromCache.keySet(), partitionSize);
         logger.trace("Fetch will be performed for ids: {}", toBeFetched);
-        logger.debug("Fetch will be performed for {} items.", toBeFetched.size());
-        return toBeFetched.stream()
-                .collect(Collectors.toMap(Function.identity(), requestMap::get));
+        if (toBeFetched.isEmpty()) {
+            logger.debug("Fetch will be performed for {} items.", 0);
+            return Collections.emptyMap();
+        }
+        final Map<I, PR> result;
+        if (requestMap instanceof final LongHashMap<?> longRequestMap && toBeFetched instanceof final LongSet longIds) {
+            result = (Map<I, PR>) longRequestMap.select(longIds);
+        } else {
+            result = new HashMap<>(capacityFor(Math.max(1, requestMap.size() - fromCache.size())));
+            toBeFetched.forEach(id -> result.put(id, requestMap.get(id)));
+        }
+        logger.debug("Fetch will be performed for {} items.", result.size());
+        return result;
+    }
+
+    private void populateNegativeCache(
+            final Map<I, PR> request,
+            final Map<I, PS> response) {
+        if (partialCacheSupport.negativeCacheName() == null || response.size() == request.size()) {
+            return;
+        }
+        final List<CacheKey<C, I>> absent = new ArrayList<>(request.size() - response.size());
+        request.forEach((id, partialRequest) -> {
+            if (!response.containsKey(id)) {
+                Optional.ofNullable(partialCacheSupport.toCacheKey(partialRequest)).ifPresent(absent::add);
+            }
+        });
+        if (!absent.isEmpty()) {
+            partialCacheSupport.putAbsentToCache(absent);
+            metricsCollector.negativeCachePut(absent.size());
+            logger.debug("Negative cache PUT completed for {} items.", absent.size());
+        }
+    }
+
+    private CachePhase<I, PR, PS> fetchFromCacheAndSelectRemaining(final BR request) {
+        var requestMap = batchRequestTransformer.splitToPartialRequest(request);
+        logger.info("Processing batch of {} partial requests.", requestMap.size());
+        logger.trace("Processing batch of partial requests with ids: {}", requestMap.keySet());
+        //read once, as the selection and the partitioning must agree even if an adaptive caller changes it
+        final var partitionSize = batchServiceCaller.maxPartitionSize();
+        Map<I, PS> fromCache;
+        try {
+            requestMap = skipItemsKnownToBeAbsent(requestMap, batchServiceCaller.refreshStrategy());
+            fromCache = attemptFetchingFromCache(requestMap, batchServiceCaller.refreshStrategy());
+            requestMap = skipMissesKnownToBeAbsent(requestMap, fromCache, batchServiceCaller.refreshStrategy());
+            revalidateStaleItems(requestMap, fromCache, batchServiceCaller.refreshStrategy());
+            requestMap = selectRemainingKeysToFetchFromOrigin(requestMap, fromCache, partitionSize);
+        } catch (final CacheMissException e) {
+            fromCache = newIdMap(requestMap, 0);
+            metricsCollector.cacheMiss(requestMap.size());
+            logger.info("Cache miss found for requestClass: {}, refresh strategy disallows further tries. Cause: {}",
+                    request.getClass().getName(), e.getMessage());
+        }
+        return new CachePhase<>(fromCache, requestMap, partitionSize);
     }
 
     private Map<I, PS> attemptFetchingFromCache(
             final Map<I, PR> requestMap,
             final CacheRefreshStrategy strategy)
             throws CacheMissException {
-        final Map<I, PS> result = new HashMap<>();
+        final Map<I, PS> result;
         if (strategy.allowsCacheGet()) {
             metricsCollector.cacheGet(requestMap.size());
             logger.debug("Attempting cache GET for {} items.", requestMap.size());
-            result.putAll(fetchAllFromCache(strategy, requestMap));
+            result = fetchAllFromCache(strategy, requestMap);
             metricsCollector.cacheHit(result.size());
             metricsCollector.cacheMiss(requestMap.size() - result.size());
             logger.info("Cache HIT for {} items.", result.size());
             logger.trace("Cache HIT for ids: {}", result.keySet());
         } else {
+            result = newIdMap(requestMap, requestMap.size());
             logger.debug("Cache GET is not allowed by {} strategy, skipping.", strategy.name());
         }
         return result;
@@ -194,7 +653,8 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
      *
      * @param strategy   The strategy that decides how we should react to a failure.
      * @param requestMap The requests we need to fetch.
-     * @return The map of partial responses we have found in the cache.
+     * @return The map of partial responses we have found in the cache. The map is owned by the caller, it must
+     * be mutable as the responses of the origin are added to it.
      * @throws CacheMissException When a request is not found and the strategy does not allow us to continue.
      */
     protected abstract Map<I, PS> fetchAllFromCache(
@@ -202,6 +662,38 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
             Map<I, PR> requestMap)
             throws CacheMissException;
 
+    /**
+     * Attempts to fetch all entries from a cache in bulk using {@link PartialCacheSupport#getAllFromCache(Collection)}.
+     *
+     * @param strategy   The strategy that decides how we should react to a failure.
+     * @param requestMap The requests we need to fetch.
+     * @return The map of partial responses we have found in the cache.
+     * @throws CacheMissException When a request is not found and the strategy does not allow us to continue.
+     */
+    protected final Map<I, PS> fetchAllFromCacheInBulk(
+            final CacheRefreshStrategy strategy,
+            final Map<I, PR> requestMap)
+            throws CacheMissException {
+        final Map<CacheKey<C, I>, I> idsByKey = new HashMap<>(capacityFor(requestMap.size()));
+        requestMap.forEach((id, request) -> Optional.ofNullable(partialCacheSupport.toCacheKey(request))
+                .ifPresent(key -> idsByKey.put(key, id)));
+        final var fromCache = partialCacheSupport.getAllFromCache(idsByKey.keySet());
+        final Map<I, PS> result = newIdMap(requestMap, requestMap.size());
+        fromCache.forEach((key, value) -> {
+            final var id = idsByKey.get(key);
+            if (id != null) {
+                result.put(id, value);
+            }
+        });
+        if (result.size() < requestMap.size()) {
+            if (strategy.shouldFailOnMiss()) {
+                throw new CacheMissException("Items not found in cache: " + (requestMap.size() - result.size()));
+            }
+            logger.trace("Cache miss observed for {} keys.", requestMap.size() - result.size());
+        }
+        return result;
+    }
+
     /**
      * Attempts to fetch a single entry from a cache.
      *
@@ -214,20 +706,28 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
             final CacheRefreshStrategy strategy,
             final PR request)
             throws CacheMissException {
-        final var key = Optional.ofNullable(partialCacheSupport.toCacheKey(request));
-        final var fromCache = key.map(partialCacheSupport::getFromCache);
-        if (fromCache.isEmpty()) {
+        final var key = partialCacheSupport.toCacheKey(request);
+        PS fromCache = null;
+        if (key != null) {
+            fromCache = partialCacheSupport.getFromCache(key);
+        }
+        if (fromCache == null) {
             if (strategy.shouldFailOnMiss()) {
-                throw new CacheMissException("Item with id not found in cache: " + key.map(CacheKey::id).orElse(null));
+                throw new CacheMissException("Item with id not found in cache: " + Optional.ofNullable(key).map(CacheKey::id).orElse(null));
+            }
+            if (key != null) {
+                logger.trace("Cache miss observed for key: {}", key);
             }
-            key.ifPresent(k -> logger.trace("Cache miss observed for key: {}", k));
         }
-        return fromCache;
+        return Optional.ofNullable(fromCache);
     }
 
 
     /**
      * Fetches the response for a single partition and refreshes the cache with the results.
+     * When {@link BatchServiceCaller#deduplicateInFlightRequests()} is enabled, the items which are
+     * already in flight to the origin in a concurrent call are awaited for up to one minute instead of
+     * requesting them again.
      *
      * @param requestMap The map of partial requests in the current partition.
      * @param strategy   The cache refresh strategy we need to follow.
@@ -238,24 +738,127 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
             final Map<I, PR> requestMap,
             final CacheRefreshStrategy strategy)
             throws BatchServiceException {
-        final Map<I, PS> response = new HashMap<>(doFetchFromOrigin(requestMap));
-        logger().trace("Responses fetched for ids: {}", response.keySet());
-        logger().debug("Responses fetched for {} items.", response.size());
-        populateCacheWithResponse(strategy, requestMap, response);
-        return response;
+        return fetchSinglePartitionFromOrigin(requestMap, strategy, DEFAULT_IN_FLIGHT_AWAIT_MILLIS);
     }
 
-    private Map<I, PS> doFetchFromOrigin(
-            final Map<I, PR> requestMap)
+    /**
+     * Fetches the response for a single partition and refreshes the cache with the results.
+     * When {@link BatchServiceCaller#deduplicateInFlightRequests()} is enabled, the items which are
+     * already in flight to the origin in a concurrent call are awaited instead of requesting them again.
+     * The items which are not resolved by the concurrent call within the timeout are requested again.
+     *
+     * @param requestMap         The map of partial requests in the current partition.
+     * @param strategy           The cache refresh strategy we need to follow.
+     * @param awaitTimeoutMillis The maximum number of milliseconds we can wait for the concurrent calls.
+     * @return The map of partial responses.
+     * @throws BatchServiceException When the origin call fails.
+     */
+    protected Map<I, PS> fetchSinglePartitionFromOrigin(
+            final Map<I, PR> requestMap,
+            final CacheRefreshStrategy strategy,
+            final long awaitTimeoutMillis)
             throws BatchServiceException {
-        final var batchRequest = Optional.ofNullable(batchRequestTransformer().mergeToBatchRequest(requestMap));
-        Map<I, PS> response = Collections.emptyMap();
-        if (batchRequest.isPresent()) {
-            final var request = Objects.requireNonNull(batchRequest.get());
-            final var listResponse = Optional.ofNullable(batchServiceCaller().callBatchService(request));
-            response = listResponse.map(batchResponseTransformer()::splitToPartialResponse).orElse(Collections.emptyMap());
+        try {
+            return fetchSinglePartitionFromOriginAsync(requestMap, strategy, awaitTimeoutMillis).join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new BatchServiceException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Fetches the response for a single partition and refreshes the cache with the results without
+     * blocking while the origin call or the concurrent calls of the same items are in progress.
+     *
+     * @param requestMap         The map of partial requests in the current partition.
+     * @param strategy           The cache refresh strategy we need to follow.
+     * @param awaitTimeoutMillis The maximum number of milliseconds we can wait for the concurrent calls.
+     * @return The future of the partial responses.
+     * @see #fetchSinglePartitionFromOrigin(Map, CacheRefreshStrategy, long)
+     */
+    protected CompletableFuture<Map<I, PS>> fetchSinglePartitionFromOriginAsync(
+            final Map<I, PR> requestMap,
+            final CacheRefreshStrategy strategy,
+            final long awaitTimeoutMillis) {
+        if (!batchServiceCaller.deduplicateInFlightRequests()) {
+            return fetchAndPopulateCache(requestMap, strategy);
+        }
+        final var flight = singleFlight.board(requestMap, request -> Optional.ofNullable(partialCacheSupport.toCacheKey(request))
+                .map(CacheKey::key)
+                .orElse(null));
+        if (flight.awaitedCount() > 0) {
+            metricsCollector.inFlightRequestsJoined(flight.awaitedCount());
+            logger.debug("Waiting for {} items already in flight.", flight.awaitedCount());
+        }
+        return fetchAndPopulateCache(flight.owned(), strategy)
+                .thenApply(fromOrigin -> copyIdMap(requestMap, fromOrigin))
+                .whenComplete((response, throwable) -> flight.land(response))
+                .thenCompose(response -> flight.awaitOthers(response, awaitTimeoutMillis)
+                        .thenCompose(failed -> {
+                            if (failed.isEmpty()) {
+                                return CompletableFuture.completedFuture(response);
+                            }
+                            logger.debug("Fetching {} items after the concurrent call failed or timed out.", failed.size());
+                            final Map<I, PR> retry = new HashMap<>(capacityFor(failed.size()));
+                            failed.forEach(id -> retry.put(id, requestMap.get(id)));
+                            return fetchAndPopulateCache(retry, strategy).thenApply(fromOrigin -> {
+                                response.putAll(fromOrigin);
+                                return response;
+                            });
+                        }));
+    }
+
+    private CompletableFuture<Map<I, PS>> fetchAndPopulateCache(
+            final Map<I, PR> requestMap,
+            final CacheRefreshStrategy strategy) {
+        if (requestMap.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        final CompletableFuture<@Nullable BS> call;
+        try {
+            call = Optional.ofNullable(batchRequestTransformer().mergeToBatchRequest(requestMap))
+                    .map(this::callOriginAsync)
+                    .orElseGet(() -> CompletableFuture.completedFuture(null));
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return call.thenApply(batchResponse -> {
+            final var response = Optional.ofNullable(batchResponse)
+                    .map(batchResponseTransformer()::splitToPartialResponse)
+                    .orElse(Collections.emptyMap());
+            logger().trace("Responses fetched for ids: {}", response.keySet());
+            logger().debug("Responses fetched for {} items.", response.size());
+            populateCacheWithResponse(strategy, requestMap, response);
+            return response;
+        });
+    }
+
+    /**
+     * Sends a single batch request to the origin using the batch service caller.
+     *
+     * @param batchRequest The batch request of a single partition.
+     * @return The batch response.
+     * @throws BatchServiceException When the origin call fails.
+     */
+    protected @Nullable BS callOrigin(final BR batchRequest) throws BatchServiceException {
+        return batchServiceCaller.callBatchService(batchRequest);
+    }
+
+    /**
+     * Sends a single batch request to the origin and returns the future of the response. Calls
+     * {@link #callOrigin(Object)} on the current thread by default.
+     *
+     * @param batchRequest The batch request of a single partition.
+     * @return The future of the batch response.
+     */
+    protected CompletableFuture<@Nullable BS> callOriginAsync(final BR batchRequest) {
+        try {
+            return CompletableFuture.completedFuture(callOrigin(batchRequest));
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        return response;
     }
 
     protected final CS partialCacheSupport() {
@@ -278,8 +881,116 @@ public abstract class AbstractCacheServiceTemplate<SC extends BatchServiceCaller
         return logger;
     }
 
+    protected final BatchServiceCallMetricCollector metricsCollector() {
+        return metricsCollector;
+    }
+
+    /**
+     * Sets the circuit breaker protecting the origin. The origin is always called when null.
+     * <br>
+     * While the circuit is not closed, the responses of {@link #callCacheableBatchService(Object)} and
+     * {@link #callBatchServiceAndPutAllToCache(Object)} are degraded: the items the circuit breaker did not
+     * let through to the origin are missing, the same way as the items not found by the origin. The
+     * rejected items are reported using {@link BatchServiceCallMetricCollector#originRequestsRejected(int)}.
+     * Use {@link #callCacheableBatchServiceWithPartialSuccess(Object)} to get their IDs as failures.
+     *
+     * @param circuitBreaker The circuit breaker.
+     */
+    public final void setCircuitBreaker(final @Nullable CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
     public final void setMetricsCollector(
             final BatchServiceCallMetricCollector metricsCollector) {
         this.metricsCollector = metricsCollector;
     }
+
+    /**
+     * Sets the executor refreshing the stale items in the background. The refresh calls the origin and
+     * blocks while waiting for it, therefore the executor should be able to tolerate blocking tasks.
+     *
+     * @param backgroundRefreshExecutor The executor, or null to use the default.
+     */
+    public final void setBackgroundRefreshExecutor(final @Nullable Executor backgroundRefreshExecutor) {
+        this.backgroundRefreshExecutor = backgroundRefreshExecutor;
+    }
+
+    /**
+     * Creates a new map for the IDs of a batch. Creates a {@link LongHashMap} when the IDs are stored in one
+     * (for example, because they were split by a long-keyed transformer), a presized {@link HashMap} otherwise.
+     *
+     * @param idSource     The map storing the IDs of the batch.
+     * @param expectedSize The expected number of entries.
+     * @param <I>          The type of the ID.
+     * @param <V>          The type of the values.
+     * @return The new map.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <I, V> Map<I, V> newIdMap(
+            final Map<I, ?> idSource,
+            final int expectedSize) {
+        if (idSource instanceof LongHashMap<?>) {
+            return (Map<I, V>) new LongHashMap<V>(expectedSize);
+        }
+        return new HashMap<>(capacityFor(expectedSize));
+    }
+
+    /**
+     * Creates a new map for collecting the responses of the partitions. Creates a {@link LongHashMap} when
+     * the partitions are stored in one, a {@link HashMap} otherwise.
+     *
+     * @param partitions The partitions.
+     * @param <I>        The type of the ID.
+     * @param <V>        The type of the values.
+     * @return The new map.
+     */
+    protected static <I, V> Map<I, V> newIdMap(final List<? extends Map<I, ?>> partitions) {
+        if (partitions.isEmpty() || !(partitions.get(0) instanceof LongHashMap<?>)) {
+            return new HashMap<>();
+        }
+        var expectedSize = 0;
+        for (final var partition : partitions) {
+            expectedSize += partition.size();
+        }
+        return newIdMap(partitions.get(0), expectedSize);
+    }
+
+    /**
+     * Copies the entries into a new map for the IDs of a batch. Creates a {@link LongHashMap} when the IDs
+     * are stored in one, a {@link HashMap} otherwise.
+     *
+     * @param idSource The map storing the IDs of the batch.
+     * @param entries  The entries we need to copy.
+     * @param <I>      The type of the ID.
+     * @param <V>      The type of the values.
+     * @return The new map.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <I, V> Map<I, V> copyIdMap(
+            final Map<I, ?> idSource,
+            final Map<I, V> entries) {
+        if (idSource instanceof LongHashMap<?>) {
+            return (Map<I, V>) new LongHashMap<>((Map<Long, V>) entries);
+        }
+        return new HashMap<>(entries);
+    }
+
+    private record CachePhase<I, PR, PS>(Map<I, PS> fromCache, Map<I, PR> toBeFetched, int partitionSize) {
+    }
+
+    /**
+     * Holds the default background refresh executor, created when it is first needed. Keeps the blocking
+     * origin calls of the refresh off the common pool.
+     */
+    private static final class DefaultRefreshExecutor {
+
+        private static final ExecutorService INSTANCE = Executors.newFixedThreadPool(DEFAULT_REFRESH_THREADS, runnable -> {
+            final var thread = new Thread(runnable, "cache-only-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private DefaultRefreshExecutor() {
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package com.github.nagyesta.cacheonly.core;
 
+import com.github.nagyesta.cacheonly.core.collection.LongHashSet;
+import com.github.nagyesta.cacheonly.core.collection.LongSet;
 import org.apache.commons.collections4.SetUtils;
 import org.springframework.util.Assert;
 
@@ -27,7 +29,12 @@ public enum CacheRefreshStrategy {
     /**
      * Only calls the batch service for entities when they weren't found in the cache.
      */
-    OPTIMISTIC,
+    OPTIMISTIC {
+        @Override
+        public boolean allowsPipelinedFetch() {
+            return true;
+        }
+    },
     /**
      * Calls the batch service with the maximum number of request items when we must call
      * the service anyway. This way some of the cached entities get refreshed before their
@@ -41,7 +48,7 @@ public enum CacheRefreshStrategy {
                 final Set<I> idsFoundInCache,
                 final int maxPartitionSize) {
             assertInputIsValid(allRequestIds, idsFoundInCache, maxPartitionSize);
-            final Set<I> result = new HashSet<>(SetUtils.difference(allRequestIds, idsFoundInCache));
+            final Set<I> result = mutableDifference(allRequestIds, idsFoundInCache);
             if (!result.isEmpty()) {
                 final var mustBeInLastPartition = result.size() % maxPartitionSize;
                 final List<I> fetchExtra = new ArrayList<>(idsFoundInCache);
@@ -71,7 +78,7 @@ public enum CacheRefreshStrategy {
                 final Set<I> idsFoundInCache,
                 final int maxPartitionSize) {
             assertInputIsValid(allRequestIds, idsFoundInCache, maxPartitionSize);
-            Set<I> result = SetUtils.difference(allRequestIds, idsFoundInCache);
+            Set<I> result = difference(allRequestIds, idsFoundInCache);
             if (!result.isEmpty()) {
                 result = allRequestIds;
             }
@@ -93,6 +100,25 @@ public enum CacheRefreshStrategy {
         public boolean allowsCachePut() {
             return false;
         }
+    },
+    /**
+     * Returns the cached entities right away even if they are past their soft-freshness threshold and
+     * refreshes the stale entities in the background using the same partitioned origin calls. The items
+     * not found in the cache are fetched the same way as {@link #OPTIMISTIC} does. The freshness is
+     * tracked using the cache returned by
+     * {@link com.github.nagyesta.cacheonly.transform.PartialCacheSupport#freshnessCacheName()}, without
+     * it, this strategy works the same way as {@link #OPTIMISTIC}.
+     */
+    STALE_WHILE_REVALIDATE {
+        @Override
+        public boolean allowsBackgroundRefresh() {
+            return true;
+        }
+
+        @Override
+        public boolean allowsPipelinedFetch() {
+            return true;
+        }
     };
 
     /**
@@ -123,6 +149,27 @@ public enum CacheRefreshStrategy {
         return true;
     }
 
+    /**
+     * Returns whether this strategy allows us to refresh the stale items found in the cache
+     * in the background.
+     *
+     * @return true if background refresh is allowed, false otherwise.
+     */
+    public boolean allowsBackgroundRefresh() {
+        return false;
+    }
+
+    /**
+     * Returns whether an item can be sent to the origin as soon as its cache lookup has missed, without
+     * waiting for the lookups of the other items. This is only possible when the selection of the items
+     * for fetching does not depend on the outcome of the other lookups.
+     *
+     * @return true if the misses can be fetched before the cache phase completes, false otherwise.
+     */
+    public boolean allowsPipelinedFetch() {
+        return false;
+    }
+
     /**
      * Filters the set of request IDs considering the IDs found in the cache and the maximum
      * partition size. Depending on the current strategy, we can decide to keep all or none
@@ -139,7 +186,7 @@ public enum CacheRefreshStrategy {
             final Set<I> idsFoundInCache,
             final int maxPartitionSize) {
         assertInputIsValid(allRequestIds, idsFoundInCache, maxPartitionSize);
-        return SetUtils.difference(allRequestIds, idsFoundInCache);
+        return difference(allRequestIds, idsFoundInCache);
     }
 
     protected <I> void assertInputIsValid(
@@ -147,11 +194,52 @@ public enum CacheRefreshStrategy {
             final Set<I> idsFoundInCache,
             final int maxPartitionSize) {
         Assert.notNull(allRequestIds, "AllRequestIds cannot be null.");
-        Assert.noNullElements(allRequestIds.toArray(), "AllRequestIds cannot contain null.");
+        assertNoNullElements(allRequestIds, "AllRequestIds cannot contain null.");
         Assert.notNull(idsFoundInCache, "IdsFoundInCache cannot be null.");
-        Assert.noNullElements(idsFoundInCache.toArray(), "IdsFoundInCache cannot contain null.");
+        assertNoNullElements(idsFoundInCache, "IdsFoundInCache cannot contain null.");
         Assert.isTrue(maxPartitionSize > 0, "MaxPartitionSize must be at least 1.");
-        final Set<I> foundInCacheButNotWanted = SetUtils.difference(idsFoundInCache, allRequestIds);
-        Assert.isTrue(foundInCacheButNotWanted.isEmpty(), "Unexpected Id(s) found in cache: " + foundInCacheButNotWanted);
+        if (!allRequestIds.containsAll(idsFoundInCache)) {
+            throw new IllegalArgumentException("Unexpected Id(s) found in cache: " + difference(idsFoundInCache, allRequestIds));
+        }
+    }
+
+    /**
+     * Returns the IDs of the first set which are not in the second one. Calculates the difference without
+     * boxing when both sets are {@link LongSet}s, returns a view of the difference otherwise.
+     *
+     * @param ids      The IDs we need to filter.
+     * @param excluded The IDs we need to exclude.
+     * @param <I>      The type of the request Id.
+     * @return The difference.
+     */
+    @SuppressWarnings("unchecked")
+    private static <I> Set<I> difference(
+            final Set<I> ids,
+            final Set<I> excluded) {
+        if (ids instanceof final LongSet longIds && excluded instanceof final LongSet longExcluded) {
+            return (Set<I>) LongHashSet.difference(longIds, longExcluded);
+        }
+        return SetUtils.difference(ids, excluded);
+    }
+
+    private static <I> Set<I> mutableDifference(
+            final Set<I> ids,
+            final Set<I> excluded) {
+        final var result = difference(ids, excluded);
+        if (result instanceof LongHashSet) {
+            return result;
+        }
+        return new HashSet<>(result);
+    }
+
+    private static <I> void assertNoNullElements(
+            final Set<I> ids,
+            final String message) {
+        if (ids instanceof LongSet) {
+            return;
+        }
+        for (final I id : ids) {
+            Assert.notNull(id, message);
+        }
     }
 }
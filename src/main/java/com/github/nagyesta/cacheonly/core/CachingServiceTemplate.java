@@ -3,6 +3,8 @@ package com.github.nagyesta.cacheonly.core;
 import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
 import org.jspecify.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * The template that is handling caching activities and calls to the batch service
  * depending on the cache status and the configuration provided.
@@ -33,4 +35,40 @@ public interface CachingServiceTemplate<BR, BS> {
      * @throws BatchServiceException When the service call fails with an exception.
      */
     @Nullable BS callBatchServiceAndPutAllToCache(BR request) throws BatchServiceException;
+
+    /**
+     * Asynchronous counterpart of {@link #callCacheableBatchService(Object)}.
+     * The default implementation processes the request on the calling thread and returns a
+     * completed future. Implementations capable of concurrent processing should override it
+     * to avoid blocking the caller.
+     *
+     * @param request The batch request we need to process.
+     * @return The future of the batch response either from the real service or from cache.
+     *         Completes exceptionally with a {@link BatchServiceException} when the service call fails.
+     */
+    default CompletableFuture<@Nullable BS> callCacheableBatchServiceAsync(final BR request) {
+        try {
+            return CompletableFuture.completedFuture(callCacheableBatchService(request));
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #callBatchServiceAndPutAllToCache(Object)}.
+     * The default implementation processes the request on the calling thread and returns a
+     * completed future. Implementations capable of concurrent processing should override it
+     * to avoid blocking the caller.
+     *
+     * @param request The batch request we need to process.
+     * @return The future of the batch response from the real service.
+     *         Completes exceptionally with a {@link BatchServiceException} when the service call fails.
+     */
+    default CompletableFuture<@Nullable BS> callBatchServiceAndPutAllToCacheAsync(final BR request) {
+        try {
+            return CompletableFuture.completedFuture(callBatchServiceAndPutAllToCache(request));
+        } catch (final RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 }
@@ -7,7 +7,6 @@ import com.github.nagyesta.cacheonly.transform.BatchRequestTransformer;
 import com.github.nagyesta.cacheonly.transform.BatchResponseTransformer;
 import com.github.nagyesta.cacheonly.transform.PartialCacheSupport;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -48,11 +47,16 @@ public class DefaultCacheServiceTemplate<BR, BS, PR, PS, C, I>
             final Map<I, PR> requestMap)
             throws CacheMissException {
         final var start = System.currentTimeMillis();
-        final Map<I, PS> result = new HashMap<>();
         try {
+            if (partialCacheSupport().supportsBulkGet()) {
+                return fetchAllFromCacheInBulk(strategy, requestMap);
+            }
+            final Map<I, PS> result = newIdMap(requestMap, requestMap.size());
             for (final var entry : requestMap.entrySet()) {
-                fetchOneFromCache(strategy, entry.getValue())
-                        .ifPresent(v -> result.put(entry.getKey(), v));
+                final var fromCache = fetchOneFromCache(strategy, entry.getValue());
+                if (fromCache.isPresent()) {
+                    result.put(entry.getKey(), fromCache.get());
+                }
             }
             return result;
         } finally {
@@ -66,7 +70,7 @@ public class DefaultCacheServiceTemplate<BR, BS, PR, PS, C, I>
             final List<Map<I, PR>> requestPartitions)
             throws BatchServiceException {
         final var start = System.currentTimeMillis();
-        final Map<I, PS> response = new HashMap<>();
+        final Map<I, PS> response = newIdMap(requestPartitions);
         try {
             for (final var partitionedMap : requestPartitions) {
                 response.putAll(fetchSinglePartitionFromOrigin(partitionedMap, batchServiceCaller().refreshStrategy()));
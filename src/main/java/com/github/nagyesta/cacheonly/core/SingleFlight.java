@@ -0,0 +1,152 @@
+package com.github.nagyesta.cacheonly.core;
+
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Keeps track of the partial requests currently in flight to the origin, allowing concurrent
+ * callers to wait for the response of the same item instead of requesting it again.
+ *
+ * @param <I>  The type of the ID.
+ * @param <PR> The type of the partial request.
+ * @param <PS> The type of the partial response.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+final class SingleFlight<I, PR, PS> {
+
+    private final ConcurrentMap<Object, CompletableFuture<Optional<PS>>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the requests of a partition. The requests which are not in flight yet will be
+     * owned by the returned flight, the rest will be awaited.
+     *
+     * @param requestMap  The partial requests of the partition.
+     * @param keyFunction The function returning the cache key of a partial request (or null if not cacheable).
+     * @return The flight of the partition.
+     */
+    Flight board(
+            final Map<I, PR> requestMap,
+            final Function<? super PR, ? extends @Nullable Object> keyFunction) {
+        final Map<I, PR> owned = new HashMap<>(requestMap.size());
+        final Map<I, Map.Entry<Object, CompletableFuture<Optional<PS>>>> ownedFutures = new HashMap<>(requestMap.size());
+        final Map<I, CompletableFuture<Optional<PS>>> awaited = new HashMap<>();
+        requestMap.forEach((id, request) -> {
+            final var key = keyFunction.apply(request);
+            if (key == null) {
+                owned.put(id, request);
+                return;
+            }
+            final var future = new CompletableFuture<Optional<PS>>();
+            final var existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                owned.put(id, request);
+                ownedFutures.put(id, Map.entry(key, future));
+            } else {
+                awaited.put(id, existing);
+            }
+        });
+        return new Flight(owned, ownedFutures, awaited);
+    }
+
+    /**
+     * Returns the number of items in flight.
+     *
+     * @return count.
+     */
+    int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * Represents the requests of a single partition.
+     */
+    final class Flight {
+        private final Map<I, PR> owned;
+        private final Map<I, Map.Entry<Object, CompletableFuture<Optional<PS>>>> ownedFutures;
+        private final Map<I, CompletableFuture<Optional<PS>>> awaited;
+
+        private Flight(
+                final Map<I, PR> owned,
+                final Map<I, Map.Entry<Object, CompletableFuture<Optional<PS>>>> ownedFutures,
+                final Map<I, CompletableFuture<Optional<PS>>> awaited) {
+            this.owned = owned;
+            this.ownedFutures = ownedFutures;
+            this.awaited = awaited;
+        }
+
+        /**
+         * Returns the requests we need to send to the origin.
+         *
+         * @return requests.
+         */
+        Map<I, PR> owned() {
+            return owned;
+        }
+
+        /**
+         * Returns the number of requests already in flight in another partition.
+         *
+         * @return count.
+         */
+        int awaitedCount() {
+            return awaited.size();
+        }
+
+        /**
+         * Shares the response of the owned requests with the callers waiting for them.
+         *
+         * @param response The response received from the origin or null if the origin call failed.
+         */
+        void land(final @Nullable Map<I, PS> response) {
+            ownedFutures.forEach((id, entry) -> {
+                if (response == null) {
+                    entry.getValue().completeExceptionally(new BatchServiceException("Concurrent origin call failed."));
+                } else {
+                    entry.getValue().complete(Optional.ofNullable(response.get(id)));
+                }
+                inFlight.remove(entry.getKey(), entry.getValue());
+            });
+        }
+
+        /**
+         * Waits for the responses of the requests in flight in other partitions without blocking. The wait is
+         * bounded by the timeout, the items still in flight when it elapses are treated the same way as failures.
+         *
+         * @param response      The map we need to put the responses into.
+         * @param timeoutMillis The maximum number of milliseconds we can wait for the other partitions.
+         * @return The future of the ids which could not be resolved due to a failure or timeout of the other partition.
+         */
+        CompletableFuture<Set<I>> awaitOthers(
+                final Map<I, PS> response,
+                final long timeoutMillis) {
+            if (awaited.isEmpty()) {
+                return CompletableFuture.completedFuture(Collections.emptySet());
+            }
+            return CompletableFuture.allOf(awaited.values().toArray(CompletableFuture[]::new))
+                    .completeOnTimeout(null, timeoutMillis, TimeUnit.MILLISECONDS)
+                    .handle((ignored, throwable) -> {
+                        final Set<I> failed = new HashSet<>();
+                        awaited.forEach((id, future) -> {
+                            if (future.isDone() && !future.isCompletedExceptionally()) {
+                                future.join().ifPresent(value -> response.put(id, value));
+                            } else {
+                                failed.add(id);
+                            }
+                        });
+                        return failed;
+                    });
+        }
+    }
+}
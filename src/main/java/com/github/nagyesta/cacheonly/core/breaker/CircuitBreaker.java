@@ -0,0 +1,207 @@
+package com.github.nagyesta.cacheonly.core.breaker;
+
+import com.github.nagyesta.cacheonly.core.metrics.BatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.core.metrics.NoOpBatchServiceCallMetricCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker protecting the origin from the templates while it is failing. The circuit opens after
+ * the configured number of consecutive failed origin phases, then the templates serve only the items
+ * found in the cache, the same way as {@link com.github.nagyesta.cacheonly.core.CacheRefreshStrategy#CACHE_ONLY}
+ * does. When the open duration is over, the circuit becomes half-open and a single probe is allowed to
+ * call the origin with a small partition. The circuit closes when the probe succeeds and opens again
+ * when it fails.
+ * <br>
+ * The transitions are reported using {@link BatchServiceCallMetricCollector#circuitOpened(int)},
+ * {@link BatchServiceCallMetricCollector#circuitHalfOpened(int)} and
+ * {@link BatchServiceCallMetricCollector#circuitClosed(int)}.
+ */
+public final class CircuitBreaker {
+
+    /**
+     * The states of the circuit. Also used as the permission returned by {@link #acquirePermission()}.
+     */
+    public enum State {
+        /**
+         * The origin can be called.
+         */
+        CLOSED,
+        /**
+         * The origin must not be called.
+         */
+        OPEN,
+        /**
+         * The origin can be called by a single probe using a small partition.
+         */
+        HALF_OPEN
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenPartitionSize;
+    private final LongSupplier nanoClock;
+    private final BatchServiceCallMetricCollector metricsCollector;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    /**
+     * Creates a new instance and sets the parameters of the circuit.
+     *
+     * @param failureThreshold      The number of consecutive failures opening the circuit. Must be larger than 0.
+     * @param openDurationMillis    The number of milliseconds the circuit stays open before probing the origin.
+     *                              Must be larger than 0.
+     * @param halfOpenPartitionSize The maximum number of items the probe can send to the origin.
+     *                              Must be larger than 0.
+     */
+    public CircuitBreaker(
+            final int failureThreshold,
+            final long openDurationMillis,
+            final int halfOpenPartitionSize) {
+        this(failureThreshold, openDurationMillis, halfOpenPartitionSize, new NoOpBatchServiceCallMetricCollector());
+    }
+
+    /**
+     * Creates a new instance and sets the parameters of the circuit.
+     *
+     * @param failureThreshold      The number of consecutive failures opening the circuit. Must be larger than 0.
+     * @param openDurationMillis    The number of milliseconds the circuit stays open before probing the origin.
+     *                              Must be larger than 0.
+     * @param halfOpenPartitionSize The maximum number of items the probe can send to the origin.
+     *                              Must be larger than 0.
+     * @param metricsCollector      The collector receiving the transitions of the circuit.
+     */
+    public CircuitBreaker(
+            final int failureThreshold,
+            final long openDurationMillis,
+            final int halfOpenPartitionSize,
+            final BatchServiceCallMetricCollector metricsCollector) {
+        this(failureThreshold, openDurationMillis, halfOpenPartitionSize, metricsCollector, System::nanoTime);
+    }
+
+    CircuitBreaker(
+            final int failureThreshold,
+            final long openDurationMillis,
+            final int halfOpenPartitionSize,
+            final BatchServiceCallMetricCollector metricsCollector,
+            final LongSupplier nanoClock) {
+        Assert.isTrue(failureThreshold > 0, "Failure threshold must be larger than 0.");
+        Assert.isTrue(openDurationMillis > 0, "Open duration must be larger than 0.");
+        Assert.isTrue(halfOpenPartitionSize > 0, "Half-open partition size must be larger than 0.");
+        Assert.notNull(metricsCollector, "Metrics collector cannot be null.");
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMillis);
+        this.halfOpenPartitionSize = halfOpenPartitionSize;
+        this.metricsCollector = metricsCollector;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Decides whether the origin can be called. The result must be passed to {@link #onSuccess(State)}
+     * or {@link #onFailure(State)} when the origin call completes.
+     *
+     * @return {@link State#CLOSED} if the origin can be called, {@link State#HALF_OPEN} if the origin can
+     *         be probed using at most {@link #halfOpenPartitionSize()} items, {@link State#OPEN} otherwise.
+     */
+    public synchronized State acquirePermission() {
+        if (state == State.OPEN && nanoClock.getAsLong() - openedAtNanos >= openDurationNanos) {
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return State.OPEN;
+            }
+            probeInFlight = true;
+        }
+        return state;
+    }
+
+    /**
+     * Records a successful origin call.
+     *
+     * @param permission The permission returned by {@link #acquirePermission()} for the call.
+     */
+    public synchronized void onSuccess(final State permission) {
+        if (permission == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+        if (permission == State.HALF_OPEN && state == State.HALF_OPEN) {
+            transitionTo(State.CLOSED);
+        }
+        if (state == State.CLOSED) {
+            consecutiveFailures = 0;
+        }
+    }
+
+    /**
+     * Records a failed origin call.
+     *
+     * @param permission The permission returned by {@link #acquirePermission()} for the call.
+     */
+    public synchronized void onFailure(final State permission) {
+        if (permission == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+        if (permission == State.HALF_OPEN && state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            consecutiveFailures++;
+            if (consecutiveFailures >= failureThreshold) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * Releases a permission which was not used for calling the origin, letting the next call probe the
+     * origin when the permission was {@link State#HALF_OPEN}. Does not change the state of the circuit.
+     *
+     * @param permission The permission returned by {@link #acquirePermission()}.
+     */
+    public synchronized void release(final State permission) {
+        if (permission == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    /**
+     * Returns the current state of the circuit.
+     *
+     * @return state.
+     */
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Returns the maximum number of items the probe can send to the origin while the circuit is half-open.
+     *
+     * @return size.
+     */
+    public int halfOpenPartitionSize() {
+        return halfOpenPartitionSize;
+    }
+
+    private void open() {
+        openedAtNanos = nanoClock.getAsLong();
+        consecutiveFailures = 0;
+        transitionTo(State.OPEN);
+    }
+
+    private void transitionTo(final State next) {
+        LOGGER.info("Circuit state changed from {} to {}.", state, next);
+        state = next;
+        switch (next) {
+            case OPEN -> metricsCollector.circuitOpened(1);
+            case HALF_OPEN -> metricsCollector.circuitHalfOpened(1);
+            default -> metricsCollector.circuitClosed(1);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.nagyesta.cacheonly.core.collection;
+
+/**
+ * Sizing logic of the {@link java.util.HashMap} instances created for the IDs of a batch.
+ */
+public final class HashMapSizing {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private HashMapSizing() {
+        //utility
+    }
+
+    /**
+     * Returns the initial capacity of a {@link java.util.HashMap} which can hold the expected number of entries
+     * without resizing. The capacity is never below the default, therefore the iteration order is the
+     * same as the order of a map which was grown to the same size.
+     *
+     * @param expectedSize The expected number of entries.
+     * @return The initial capacity.
+     */
+    public static int capacityFor(final int expectedSize) {
+        return Math.max(DEFAULT_CAPACITY, (int) Math.ceil(expectedSize / LOAD_FACTOR));
+    }
+}
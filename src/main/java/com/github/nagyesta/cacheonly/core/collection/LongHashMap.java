@@ -0,0 +1,574 @@
+package com.github.nagyesta.cacheonly.core.collection;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+import java.util.function.ObjLongConsumer;
+
+import static com.github.nagyesta.cacheonly.core.collection.LongHashing.FREE;
+
+/**
+ * {@link Map} implementation using {@link Long} keys stored in a primitive open-addressing hash table.
+ * Uses a {@code long[]} for the keys and an {@code Object[]} for the values instead of a node and a boxed
+ * {@link Long} per entry, therefore large maps need much less memory than a {@link java.util.HashMap}.
+ * The key set is a {@link LongSet}, allowing the refresh strategies to work with the IDs without boxing.
+ * <br>
+ * The map is not thread-safe.
+ *
+ * @param <V> The type of the values.
+ */
+public final class LongHashMap<V> extends AbstractMap<Long, V> {
+
+    private static final int FREE_SLOT = -1;
+    private static final int NO_SLOT = -2;
+    private long[] keys;
+    private @Nullable Object[] values;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsFree;
+    private @Nullable V freeValue;
+
+    /**
+     * Creates a new, empty instance.
+     */
+    public LongHashMap() {
+        this(LongHashing.DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates a new, empty instance which can hold the expected number of entries without resizing.
+     *
+     * @param expectedSize The expected number of entries.
+     */
+    public LongHashMap(final int expectedSize) {
+        final var tableSize = LongHashing.tableSize(expectedSize);
+        this.keys = new long[tableSize];
+        this.values = new Object[tableSize];
+        this.mask = tableSize - 1;
+        this.maxFill = LongHashing.maxFill(tableSize);
+    }
+
+    /**
+     * Creates a new instance containing the entries of the map.
+     *
+     * @param map The entries.
+     */
+    public LongHashMap(final Map<Long, ? extends V> map) {
+        this(map.size());
+        putAll(map);
+    }
+
+    /**
+     * Returns whether the map contains the key.
+     *
+     * @param key The key.
+     * @return true if the key is in the map, false otherwise.
+     */
+    public boolean containsLongKey(final long key) {
+        if (key == FREE) {
+            return containsFree;
+        }
+        return find(key) >= 0;
+    }
+
+    /**
+     * Returns the value of the key.
+     *
+     * @param key The key.
+     * @return The value, or null if the key is not in the map.
+     */
+    public @Nullable V getLong(final long key) {
+        if (key == FREE) {
+            return freeValue;
+        }
+        final var pos = find(key);
+        if (pos < 0) {
+            return null;
+        }
+        return valueAt(pos);
+    }
+
+    /**
+     * Associates the value with the key.
+     *
+     * @param key   The key.
+     * @param value The value.
+     * @return The previous value of the key, or null if the key was not in the map.
+     */
+    public @Nullable V putLong(
+            final long key,
+            final V value) {
+        final V previous;
+        if (key == FREE) {
+            previous = freeValue;
+            freeValue = value;
+            if (containsFree) {
+                return previous;
+            }
+            containsFree = true;
+        } else {
+            final var pos = find(key);
+            if (pos >= 0) {
+                previous = valueAt(pos);
+                values[pos] = value;
+                return previous;
+            }
+            previous = null;
+            keys[~pos] = key;
+            values[~pos] = value;
+        }
+        size++;
+        if (size > maxFill) {
+            rehash(keys.length << 1);
+        }
+        return previous;
+    }
+
+    /**
+     * Removes the key from the map.
+     *
+     * @param key The key.
+     * @return The value of the key, or null if the key was not in the map.
+     */
+    public @Nullable V removeLong(final long key) {
+        final V previous;
+        if (key == FREE) {
+            if (!containsFree) {
+                return null;
+            }
+            previous = freeValue;
+            freeValue = null;
+            containsFree = false;
+        } else {
+            final var pos = find(key);
+            if (pos < 0) {
+                return null;
+            }
+            previous = valueAt(pos);
+            shiftKeys(pos, null);
+        }
+        size--;
+        return previous;
+    }
+
+    /**
+     * Performs the action for each entry of the map.
+     *
+     * @param action The action receiving the value and the key.
+     */
+    public void forEachLong(final ObjLongConsumer<? super V> action) {
+        if (containsFree) {
+            action.accept(valueAt(FREE_SLOT), FREE);
+        }
+        for (var i = 0; i < keys.length; i++) {
+            if (keys[i] != FREE) {
+                action.accept(valueAt(i), keys[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns a new map with the entries of the keys in the set. The keys which are not in this map are
+     * ignored.
+     *
+     * @param selected The keys we need to select.
+     * @return The new map.
+     */
+    public LongHashMap<V> select(final LongSet selected) {
+        final var result = new LongHashMap<V>(selected.size());
+        selected.forEachLong(key -> {
+            if (key == FREE) {
+                if (containsFree) {
+                    result.putLong(key, valueAt(FREE_SLOT));
+                }
+            } else {
+                final var pos = find(key);
+                if (pos >= 0) {
+                    result.putLong(key, valueAt(pos));
+                }
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(final @Nullable Object key) {
+        return key instanceof final Long id && containsLongKey(id);
+    }
+
+    @Override
+    public @Nullable V get(final @Nullable Object key) {
+        if (key instanceof final Long id) {
+            return getLong(id);
+        }
+        return null;
+    }
+
+    @Override
+    public @Nullable V put(
+            final Long key,
+            final V value) {
+        return putLong(key, value);
+    }
+
+    @Override
+    public @Nullable V remove(final @Nullable Object key) {
+        if (key instanceof final Long id) {
+            return removeLong(id);
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(final Map<? extends Long, ? extends V> m) {
+        if (size + m.size() > maxFill) {
+            rehash(LongHashing.tableSize(size + m.size()));
+        }
+        if (m instanceof LongHashMap<?>) {
+            ((LongHashMap<? extends V>) m).forEachLong((value, key) -> putLong(key, value));
+        } else {
+            m.forEach(this::putLong);
+        }
+    }
+
+    @Override
+    public void forEach(final BiConsumer<? super Long, ? super V> action) {
+        forEachLong((value, key) -> action.accept(key, value));
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, null);
+        containsFree = false;
+        freeValue = null;
+        size = 0;
+    }
+
+    @Override
+    public LongSet keySet() {
+        return new KeySet();
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    protected V at(final int slot) {
+                        return valueAt(slot);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Long, V>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<Long, V>> iterator() {
+                return new SlotIterator<>() {
+                    @Override
+                    protected Map.Entry<Long, V> at(final int slot) {
+                        return new WriteThroughEntry(keyAt(slot), valueAt(slot));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private long keyAt(final int slot) {
+        if (slot == FREE_SLOT) {
+            return FREE;
+        }
+        return keys[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(final int slot) {
+        if (slot == FREE_SLOT) {
+            return freeValue;
+        }
+        return (V) values[slot];
+    }
+
+    private int find(final long key) {
+        var pos = LongHashing.slot(key, mask);
+        while (keys[pos] != FREE) {
+            if (keys[pos] == key) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return ~pos;
+    }
+
+    /**
+     * Removes the key of the slot by shifting the following keys of the cluster backwards.
+     *
+     * @param removed     The slot of the removed key.
+     * @param wrappedKeys Receives the keys moved from the beginning of the table (wrapping around) to the
+     *                    removed slot or after it. These are moved from a slot an iterator has already passed
+     *                    to one it has not visited yet. Can be null when the removal is not done by an iterator.
+     */
+    private void shiftKeys(
+            final int removed,
+            final @Nullable LongConsumer wrappedKeys) {
+        var gap = removed;
+        var pos = (gap + 1) & mask;
+        while (keys[pos] != FREE) {
+            if (LongHashing.canMoveTo(gap, LongHashing.slot(keys[pos], mask), pos)) {
+                if (wrappedKeys != null && pos < removed && gap >= removed) {
+                    wrappedKeys.accept(keys[pos]);
+                }
+                keys[gap] = keys[pos];
+                values[gap] = values[pos];
+                gap = pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        keys[gap] = FREE;
+        values[gap] = null;
+    }
+
+    private void rehash(final int tableSize) {
+        final var oldKeys = keys;
+        final var oldValues = values;
+        keys = new long[tableSize];
+        values = new Object[tableSize];
+        mask = tableSize - 1;
+        maxFill = LongHashing.maxFill(tableSize);
+        for (var i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                final var pos = ~find(oldKeys[i]);
+                keys[pos] = oldKeys[i];
+                values[pos] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Iterates the occupied slots, starting with the one of the free key when it is in the map.
+     * <br>
+     * When an entry is removed, the following keys of its cluster are shifted backwards, therefore the
+     * iteration continues from the slot of the removed entry. The keys wrapping around from the beginning
+     * of the table have been returned already, these are skipped when they are reached again.
+     *
+     * @param <T> The type of the elements.
+     */
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private boolean freePending = containsFree;
+        private int remaining = size;
+        private int next;
+        private int lastSlot = NO_SLOT;
+        private @Nullable LongHashSet returnedAlready;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            if (freePending) {
+                freePending = false;
+                lastSlot = FREE_SLOT;
+                return at(FREE_SLOT);
+            }
+            while (keys[next] == FREE || (returnedAlready != null && returnedAlready.removeLong(keys[next]))) {
+                next++;
+            }
+            lastSlot = next++;
+            return at(lastSlot);
+        }
+
+        @Override
+        public void remove() {
+            if (lastSlot == NO_SLOT) {
+                throw new IllegalStateException();
+            }
+            if (lastSlot == FREE_SLOT) {
+                removeLong(FREE);
+            } else {
+                shiftKeys(lastSlot, this::markReturned);
+                size--;
+                next = lastSlot;
+            }
+            lastSlot = NO_SLOT;
+        }
+
+        private void markReturned(final long key) {
+            if (returnedAlready == null) {
+                returnedAlready = new LongHashSet();
+            }
+            returnedAlready.addLong(key);
+        }
+
+        protected abstract T at(int slot);
+    }
+
+    /**
+     * An entry of the map writing the value through to the map.
+     */
+    private final class WriteThroughEntry implements Map.Entry<Long, V> {
+
+        private final long key;
+        private V value;
+
+        WriteThroughEntry(
+                final long key,
+                final V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Long getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(final V newValue) {
+            putLong(key, newValue);
+            final var previous = value;
+            value = newValue;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(final @Nullable Object o) {
+            return o instanceof final Map.Entry<?, ?> entry
+                    && Objects.equals(getKey(), entry.getKey())
+                    && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * The live view of the keys of the map.
+     */
+    private final class KeySet extends AbstractSet<Long> implements LongSet {
+
+        @Override
+        public boolean containsLong(final long id) {
+            return containsLongKey(id);
+        }
+
+        @Override
+        public void forEachLong(final LongConsumer action) {
+            if (containsFree) {
+                action.accept(FREE);
+            }
+            for (final var key : keys) {
+                if (key != FREE) {
+                    action.accept(key);
+                }
+            }
+        }
+
+        @Override
+        public boolean allMatch(final LongPredicate predicate) {
+            if (containsFree && !predicate.test(FREE)) {
+                return false;
+            }
+            for (final var key : keys) {
+                if (key != FREE && !predicate.test(key)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean contains(final @Nullable Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        public boolean remove(final @Nullable Object o) {
+            if (containsKey(o)) {
+                LongHashMap.this.remove(o);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean containsAll(final Collection<?> c) {
+            if (c instanceof final LongSet ids) {
+                return ids.allMatch(this::containsLong);
+            }
+            return super.containsAll(c);
+        }
+
+        @Override
+        public void clear() {
+            LongHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Long> iterator() {
+            return new SlotIterator<>() {
+                @Override
+                protected Long at(final int slot) {
+                    return keyAt(slot);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.github.nagyesta.cacheonly.core.collection;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+import static com.github.nagyesta.cacheonly.core.collection.LongHashing.FREE;
+
+/**
+ * {@link LongSet} implementation storing the IDs in a primitive open-addressing hash table. Uses a
+ * single {@code long[]} instead of a node and a boxed {@link Long} per ID, therefore large sets need
+ * much less memory than a {@link java.util.HashSet}.
+ * <br>
+ * The set is not thread-safe.
+ */
+public final class LongHashSet extends AbstractSet<Long> implements LongSet {
+
+    private static final int FREE_SLOT = -1;
+    private static final int NO_SLOT = -2;
+    private long[] keys;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsFree;
+
+    /**
+     * Creates a new, empty instance.
+     */
+    public LongHashSet() {
+        this(LongHashing.DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates a new, empty instance which can hold the expected number of IDs without resizing.
+     *
+     * @param expectedSize The expected number of IDs.
+     */
+    public LongHashSet(final int expectedSize) {
+        final var tableSize = LongHashing.tableSize(expectedSize);
+        this.keys = new long[tableSize];
+        this.mask = tableSize - 1;
+        this.maxFill = LongHashing.maxFill(tableSize);
+    }
+
+    /**
+     * Creates a new instance containing the IDs of the collection.
+     *
+     * @param ids The IDs.
+     */
+    public LongHashSet(final Collection<Long> ids) {
+        this(ids.size());
+        addAll(ids);
+    }
+
+    /**
+     * Returns the IDs of the first set which are not in the second one.
+     *
+     * @param ids      The IDs we need to filter.
+     * @param excluded The IDs we need to exclude.
+     * @return A new set with the difference.
+     */
+    public static LongHashSet difference(
+            final LongSet ids,
+            final LongSet excluded) {
+        final var result = new LongHashSet(Math.max(0, ids.size() - excluded.size()));
+        ids.forEachLong(id -> {
+            if (!excluded.containsLong(id)) {
+                result.addLong(id);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Adds the ID to the set.
+     *
+     * @param id The ID.
+     * @return true if the set did not contain the ID before, false otherwise.
+     */
+    public boolean addLong(final long id) {
+        if (id == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+        } else {
+            final var pos = find(id);
+            if (pos >= 0) {
+                return false;
+            }
+            keys[~pos] = id;
+        }
+        size++;
+        if (size > maxFill) {
+            rehash(keys.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the ID from the set.
+     *
+     * @param id The ID.
+     * @return true if the set contained the ID, false otherwise.
+     */
+    public boolean removeLong(final long id) {
+        if (id == FREE) {
+            if (!containsFree) {
+                return false;
+            }
+            containsFree = false;
+        } else {
+            final var pos = find(id);
+            if (pos < 0) {
+                return false;
+            }
+            shiftKeys(pos, null);
+        }
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean containsLong(final long id) {
+        if (id == FREE) {
+            return containsFree;
+        }
+        return find(id) >= 0;
+    }
+
+    @Override
+    public void forEachLong(final LongConsumer action) {
+        if (containsFree) {
+            action.accept(FREE);
+        }
+        for (final var key : keys) {
+            if (key != FREE) {
+                action.accept(key);
+            }
+        }
+    }
+
+    @Override
+    public boolean allMatch(final LongPredicate predicate) {
+        if (containsFree && !predicate.test(FREE)) {
+            return false;
+        }
+        for (final var key : keys) {
+            if (key != FREE && !predicate.test(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(final @Nullable Object o) {
+        return o instanceof final Long id && containsLong(id);
+    }
+
+    @Override
+    public boolean add(final Long id) {
+        return addLong(id);
+    }
+
+    @Override
+    public boolean remove(final @Nullable Object o) {
+        return o instanceof final Long id && removeLong(id);
+    }
+
+    @Override
+    public boolean containsAll(final Collection<?> c) {
+        if (c instanceof final LongSet ids) {
+            return ids.allMatch(this::containsLong);
+        }
+        return super.containsAll(c);
+    }
+
+    @Override
+    public boolean addAll(final Collection<? extends Long> c) {
+        if (c instanceof final LongSet ids) {
+            final var before = size;
+            ids.forEachLong(this::addLong);
+            return size != before;
+        }
+        return super.addAll(c);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        containsFree = false;
+        size = 0;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        return new IdIterator();
+    }
+
+    private int find(final long id) {
+        var pos = LongHashing.slot(id, mask);
+        while (keys[pos] != FREE) {
+            if (keys[pos] == id) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        return ~pos;
+    }
+
+    /**
+     * Removes the ID of the slot by shifting the following IDs of the cluster backwards.
+     *
+     * @param removed     The slot of the removed ID.
+     * @param wrappedKeys Receives the IDs moved from the beginning of the table (wrapping around) to the
+     *                    removed slot or after it. Can be null when the removal is not done by an iterator.
+     */
+    private void shiftKeys(
+            final int removed,
+            final @Nullable LongConsumer wrappedKeys) {
+        var gap = removed;
+        var pos = (gap + 1) & mask;
+        while (keys[pos] != FREE) {
+            if (LongHashing.canMoveTo(gap, LongHashing.slot(keys[pos], mask), pos)) {
+                if (wrappedKeys != null && pos < removed && gap >= removed) {
+                    wrappedKeys.accept(keys[pos]);
+                }
+                keys[gap] = keys[pos];
+                gap = pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+        keys[gap] = FREE;
+    }
+
+    private void rehash(final int tableSize) {
+        final var old = keys;
+        keys = new long[tableSize];
+        mask = tableSize - 1;
+        maxFill = LongHashing.maxFill(tableSize);
+        for (final var key : old) {
+            if (key != FREE) {
+                keys[~find(key)] = key;
+            }
+        }
+    }
+
+    /**
+     * Iterates the occupied slots, starting with the free ID when it is in the set. Continues from the slot
+     * of the removed ID after a removal, see the slot iterator of {@link LongHashMap} for details.
+     */
+    private final class IdIterator implements Iterator<Long> {
+        private boolean freePending = containsFree;
+        private int remaining = size;
+        private int next;
+        private int lastSlot = NO_SLOT;
+        private @Nullable LongHashSet returnedAlready;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public Long next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            remaining--;
+            if (freePending) {
+                freePending = false;
+                lastSlot = FREE_SLOT;
+                return FREE;
+            }
+            while (keys[next] == FREE || (returnedAlready != null && returnedAlready.removeLong(keys[next]))) {
+                next++;
+            }
+            lastSlot = next++;
+            return keys[lastSlot];
+        }
+
+        @Override
+        public void remove() {
+            if (lastSlot == NO_SLOT) {
+                throw new IllegalStateException();
+            }
+            if (lastSlot == FREE_SLOT) {
+                removeLong(FREE);
+            } else {
+                shiftKeys(lastSlot, this::markReturned);
+                size--;
+                next = lastSlot;
+            }
+            lastSlot = NO_SLOT;
+        }
+
+        private void markReturned(final long id) {
+            if (returnedAlready == null) {
+                returnedAlready = new LongHashSet();
+            }
+            returnedAlready.addLong(id);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.nagyesta.cacheonly.core.collection;
+
+import org.springframework.util.Assert;
+
+/**
+ * Shared logic of the open-addressing hash tables using linear probing and {@code long} keys.
+ * The key {@link #FREE} marks the free slots, therefore the tables must store it separately.
+ */
+final class LongHashing {
+
+    /**
+     * The key used for marking the free slots.
+     */
+    static final long FREE = 0L;
+    /**
+     * The expected size used when none is provided.
+     */
+    static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+    private static final int HALF_LONG_BITS = 32;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_TABLE_SIZE = 8;
+    private static final int MAX_TABLE_SIZE = 1 << 30;
+
+    private LongHashing() {
+        //utility
+    }
+
+    /**
+     * Returns the home slot of the key in a table.
+     *
+     * @param key  The key.
+     * @param mask The mask of the table (the table size minus one).
+     * @return The index of the home slot.
+     */
+    static int slot(
+            final long key,
+            final int mask) {
+        final var hash = key * GOLDEN_RATIO;
+        return (int) (hash ^ (hash >>> HALF_LONG_BITS)) & mask;
+    }
+
+    /**
+     * Returns the table size which can hold the expected number of keys without resizing.
+     *
+     * @param expectedSize The expected number of keys.
+     * @return The table size, always a power of two.
+     */
+    static int tableSize(final int expectedSize) {
+        Assert.isTrue(expectedSize >= 0, "ExpectedSize cannot be negative.");
+        final var needed = (long) Math.ceil(expectedSize / LOAD_FACTOR);
+        var size = MIN_TABLE_SIZE;
+        while (size < needed && size < MAX_TABLE_SIZE) {
+            size <<= 1;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of keys a table can hold before it must be resized.
+     *
+     * @param tableSize The size of the table.
+     * @return The maximum number of keys.
+     */
+    static int maxFill(final int tableSize) {
+        return Math.min(tableSize - 1, (int) Math.ceil(tableSize * LOAD_FACTOR));
+    }
+
+    /**
+     * Returns whether the key found at a position can be moved into a gap left by a removal without
+     * breaking its probe sequence, meaning that the gap is between the home slot and the position.
+     *
+     * @param gap      The index of the free slot.
+     * @param home     The home slot of the key.
+     * @param position The current index of the key.
+     * @return true if the key can be moved, false otherwise.
+     */
+    static boolean canMoveTo(
+            final int gap,
+            final int home,
+            final int position) {
+        if (gap <= position) {
+            return home <= gap || home > position;
+        }
+        return home <= gap && home > position;
+    }
+}
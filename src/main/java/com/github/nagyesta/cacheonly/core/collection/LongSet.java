@@ -0,0 +1,34 @@
+package com.github.nagyesta.cacheonly.core.collection;
+
+import java.util.Set;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * A {@link Set} of {@link Long} IDs which can be accessed without boxing the IDs.
+ */
+public interface LongSet extends Set<Long> {
+
+    /**
+     * Returns whether the set contains the ID.
+     *
+     * @param id The ID.
+     * @return true if the ID is in the set, false otherwise.
+     */
+    boolean containsLong(long id);
+
+    /**
+     * Performs the action for each ID of the set.
+     *
+     * @param action The action.
+     */
+    void forEachLong(LongConsumer action);
+
+    /**
+     * Returns whether all IDs of the set match the predicate. Stops at the first ID not matching.
+     *
+     * @param predicate The predicate.
+     * @return true if all IDs match (or the set is empty), false otherwise.
+     */
+    boolean allMatch(LongPredicate predicate);
+}
@@ -0,0 +1,81 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs a blocking call and publishes its outcome through a {@link CompletableFuture}. Cancelling the call
+ * interrupts the thread running it, but the interrupt is cleared before the thread is released, therefore
+ * it cannot leak into the next task of a pooled thread.
+ *
+ * @param <T> The type of the result.
+ */
+final class CancellableCall<T extends @Nullable Object> implements Runnable {
+
+    private final Supplier<T> call;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private @Nullable Thread runner;
+    private boolean started;
+    private boolean cancelled;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param call The blocking call.
+     */
+    CancellableCall(final Supplier<T> call) {
+        this.call = call;
+    }
+
+    /**
+     * Returns the future completed with the outcome of the call.
+     *
+     * @return result.
+     */
+    CompletableFuture<T> result() {
+        return result;
+    }
+
+    @Override
+    public void run() {
+        synchronized (this) {
+            if (started || cancelled) {
+                return;
+            }
+            started = true;
+            runner = Thread.currentThread();
+        }
+        try {
+            result.complete(call.get());
+        } catch (final RuntimeException e) {
+            result.completeExceptionally(e);
+        } finally {
+            synchronized (this) {
+                runner = null;
+                if (cancelled) {
+                    Thread.interrupted();
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancels the call. Interrupts the call when it is running on another thread, prevents it from starting otherwise.
+     * Has no effect on the outcome of a completed call.
+     */
+    void cancel() {
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            //the thread completing the call must not interrupt itself, as it still runs the dependent stages
+            if (runner != null && runner != Thread.currentThread()) {
+                runner.interrupt();
+            }
+        }
+        result.cancel(false);
+    }
+}
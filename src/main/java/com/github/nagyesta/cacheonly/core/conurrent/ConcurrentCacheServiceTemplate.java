@@ -2,22 +2,39 @@ package com.github.nagyesta.cacheonly.core.conurrent;
 
 import com.github.nagyesta.cacheonly.core.AbstractCacheServiceTemplate;
 import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.breaker.CircuitBreaker;
 import com.github.nagyesta.cacheonly.core.exception.CacheMissException;
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.entity.PartialSuccessResult;
 import com.github.nagyesta.cacheonly.raw.concurrent.AsyncBatchServiceCaller;
 import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
 import com.github.nagyesta.cacheonly.transform.BatchRequestTransformer;
 import com.github.nagyesta.cacheonly.transform.BatchResponseTransformer;
 import com.github.nagyesta.cacheonly.transform.concurrent.AsyncPartialCacheSupport;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * {@link com.github.nagyesta.cacheonly.core.CachingServiceTemplate} implementation allowing
  * us to use {@link java.util.concurrent.CompletableFuture} tasks to allow concurrent processing.
+ * Each cache key lookup and each origin partition is a separate task running on the executor
+ * selected by the {@link ExecutionMode} of the cache support and the batch service caller respectively.
  *
  * @param <BR> The type of the batch request.
  * @param <BS> The type of the batch response.
@@ -33,8 +50,14 @@ public class ConcurrentCacheServiceTemplate<BR, BS, PR, PS, C, I>
         AsyncPartialCacheSupport<PR, PS, C, I>, BR, BS, PR, PS, C, I> {
 
 
-    private final ForkJoinPool cachePool;
-    private final ForkJoinPool originPool;
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    private final Executor cacheExecutor;
+    private final Executor originExecutor;
+    private final ThreadLocal<Long> syncDeadline = ThreadLocal.withInitial(() -> NO_DEADLINE);
+    private @Nullable HedgingPolicy hedgingPolicy;
+    private long callTimeoutMillis;
+    private long partitionTimeoutMillis;
+    private boolean pipelinedOriginDispatch;
 
     /**
      * Creates a new instance and injects all the dependencies which are necessary for it to work.
@@ -50,8 +73,178 @@ public class ConcurrentCacheServiceTemplate<BR, BS, PR, PS, C, I>
             final BatchResponseTransformer<BS, PS, I> batchResponseTransformer,
             final AsyncBatchServiceCaller<BR, BS> batchServiceCaller) {
         super(partialCacheSupport, batchRequestTransformer, batchResponseTransformer, batchServiceCaller);
-        cachePool = partialCacheSupport.forkJoinPool();
-        originPool = partialCacheSupport.forkJoinPool();
+        cacheExecutor = partialCacheSupport.executionMode().executor(partialCacheSupport);
+        originExecutor = batchServiceCaller.executionMode().executor(batchServiceCaller);
+        //the stale items are refreshed using origin calls
+        setBackgroundRefreshExecutor(originExecutor);
+    }
+
+    @Override
+    public CompletableFuture<@Nullable BS> callCacheableBatchServiceAsync(final BR request) {
+        final var start = System.currentTimeMillis();
+        final var deadline = newDeadline();
+        return CompletableFuture.supplyAsync(() -> batchRequestTransformer().splitToPartialRequest(request), cacheExecutor)
+                .thenCompose(requestMap -> {
+                    logger().info("Processing batch of {} partial requests asynchronously.", requestMap.size());
+                    logger().trace("Processing batch of partial requests with ids: {}", requestMap.keySet());
+                    final var strategy = batchServiceCaller().refreshStrategy();
+                    final var remaining = skipItemsKnownToBeAbsent(requestMap, strategy);
+                    if (isPipelined(strategy)) {
+                        //the permission is needed before the cache phase as the misses are dispatched during it
+                        final var permission = acquireOriginPermission(remaining);
+                        if (permission == CircuitBreaker.State.CLOSED) {
+                            return fetchPipelinedAsync(remaining, strategy, deadline);
+                        }
+                        return attemptFetchingFromCacheAsync(remaining, strategy, deadline)
+                                .thenCompose(cachePhase -> fetchAllFromOriginServiceAsync(cachePhase, permission, deadline));
+                    }
+                    return attemptFetchingFromCacheAsync(remaining, strategy, deadline)
+                            .thenCompose(cachePhase -> fetchAllFromOriginServiceAsync(cachePhase,
+                                    acquireOriginPermission(cachePhase.toBeFetched()), deadline));
+                })
+                .thenApply(batchResponseTransformer()::mergeToBatchResponse)
+                .whenComplete((response, throwable) -> {
+                    final var end = System.currentTimeMillis();
+                    logger().debug("Total execution completed under {} ms.", end - start);
+                });
+    }
+
+    @Override
+    public CompletableFuture<@Nullable BS> callBatchServiceAndPutAllToCacheAsync(final BR request) {
+        final var deadline = newDeadline();
+        return CompletableFuture.supplyAsync(() -> batchRequestTransformer().splitToPartialRequest(request), originExecutor)
+                .thenCompose(requestMap -> fetchAllFromOriginServiceAsync(requestMap, batchServiceCaller().maxPartitionSize(),
+                        acquireOriginPermission(requestMap), deadline))
+                .thenApply(batchResponseTransformer()::mergeToBatchResponse);
+    }
+
+    /**
+     * Asynchronous counterpart of {@link #callCacheableBatchServiceWithPartialSuccess(Object)}.
+     *
+     * @param request The batch request we need to process.
+     * @return The future of the result containing the batch response and the failures.
+     */
+    public CompletableFuture<PartialSuccessResult<BS, I>> callCacheableBatchServiceWithPartialSuccessAsync(final BR request) {
+        final var start = System.currentTimeMillis();
+        final var deadline = newDeadline();
+        return CompletableFuture.supplyAsync(() -> batchRequestTransformer().splitToPartialRequest(request), cacheExecutor)
+                .thenCompose(requestMap -> {
+                    logger().info("Processing batch of {} partial requests asynchronously.", requestMap.size());
+                    logger().trace("Processing batch of partial requests with ids: {}", requestMap.keySet());
+                    final var strategy = batchServiceCaller().refreshStrategy();
+                    return attemptFetchingFromCacheAsync(skipItemsKnownToBeAbsent(requestMap, strategy), strategy, deadline);
+                })
+                .thenCompose(cachePhase -> {
+                    final Map<I, Throwable> failures = new ConcurrentHashMap<>();
+                    final var permission = acquireOriginPermission(cachePhase.toBeFetched());
+                    final var admitted = admitToOrigin(cachePhase.toBeFetched(), permission, failures);
+                    if (admitted.isEmpty()) {
+                        final var response = batchResponseTransformer().mergeToBatchResponse(cachePhase.fromCache());
+                        return CompletableFuture.completedFuture(new PartialSuccessResult<>(response, failures));
+                    }
+                    final var partitions = partitionOriginRequests(admitted, cachePhase.partitionSize());
+                    metricsCollector().partitionsCreated(partitions.size());
+                    return fetchEachPartitionTolerantly(partitions, failures, deadline)
+                            .thenApply(fromOrigin -> {
+                                reportPartitionOutcome(partitions, failures);
+                                recordOriginOutcome(permission, admitted.keySet().stream().noneMatch(failures::containsKey));
+                                cachePhase.fromCache().putAll(fromOrigin);
+                                return new PartialSuccessResult<>(
+                                        batchResponseTransformer().mergeToBatchResponse(cachePhase.fromCache()), failures);
+                            });
+                })
+                .whenComplete((response, throwable) -> {
+                    final var end = System.currentTimeMillis();
+                    logger().debug("Total execution completed under {} ms.", end - start);
+                });
+    }
+
+    /**
+     * Processes the batch request the same way as {@link AbstractCacheServiceTemplate#callCacheableBatchService(Object)}
+     * using the call timeout (if set) as the deadline of the call. Waits for
+     * {@link #callCacheableBatchServiceAsync(Object)} instead when the pipelined origin dispatch is used.
+     *
+     * @param request The batch request we need to process.
+     * @return The batch response either from the real service or from cache.
+     * @throws BatchServiceException When the service call fails with an exception.
+     */
+    @Override
+    public @Nullable BS callCacheableBatchService(final BR request) throws BatchServiceException {
+        if (isPipelined(batchServiceCaller().refreshStrategy())) {
+            return await(callCacheableBatchServiceAsync(request));
+        }
+        return withSyncDeadline(() -> super.callCacheableBatchService(request));
+    }
+
+    /**
+     * Processes the batch request the same way as
+     * {@link AbstractCacheServiceTemplate#callBatchServiceAndPutAllToCache(Object)} using the call timeout
+     * (if set) as the deadline of the call.
+     *
+     * @param request The batch request we need to process.
+     * @return The batch response from the real service.
+     * @throws BatchServiceException When the service call fails with an exception.
+     */
+    @Override
+    public @Nullable BS callBatchServiceAndPutAllToCache(final BR request) throws BatchServiceException {
+        return withSyncDeadline(() -> super.callBatchServiceAndPutAllToCache(request));
+    }
+
+    /**
+     * Processes the batch request the same way as
+     * {@link AbstractCacheServiceTemplate#callCacheableBatchServiceWithPartialSuccess(Object)} using the call
+     * timeout (if set) as the deadline of the call.
+     *
+     * @param request The batch request we need to process.
+     * @return The result containing the batch response and the failures.
+     */
+    @Override
+    public PartialSuccessResult<BS, I> callCacheableBatchServiceWithPartialSuccess(final BR request) {
+        return withSyncDeadline(() -> super.callCacheableBatchServiceWithPartialSuccess(request));
+    }
+
+    /**
+     * Sets the maximum number of milliseconds a single call can take, shared by the cache and the origin
+     * phases. Each phase can use the remaining part of the budget, limited by its own timeout defined by
+     * {@link ConcurrentOperationSupport#timeoutMillis()}. The deadline is disabled when 0 (default).
+     *
+     * @param callTimeoutMillis The timeout of the call in milliseconds. Must not be negative.
+     */
+    public final void setCallTimeoutMillis(final long callTimeoutMillis) {
+        Assert.isTrue(callTimeoutMillis >= 0, "Call timeout must not be negative.");
+        this.callTimeoutMillis = callTimeoutMillis;
+    }
+
+    /**
+     * Sets the maximum number of milliseconds a single origin partition can take. The timed out
+     * partitions are reported one by one using
+     * {@link com.github.nagyesta.cacheonly.core.metrics.BatchServiceCallMetricCollector#partitionsTimedOut(int)}.
+     * The partition timeout is disabled when 0 (default).
+     *
+     * @param partitionTimeoutMillis The timeout of a partition in milliseconds. Must not be negative.
+     */
+    public final void setPartitionTimeoutMillis(final long partitionTimeoutMillis) {
+        Assert.isTrue(partitionTimeoutMillis >= 0, "Partition timeout must not be negative.");
+        this.partitionTimeoutMillis = partitionTimeoutMillis;
+    }
+
+    /**
+     * Enables the pipelined origin dispatch of {@link #callCacheableBatchService(Object)} and
+     * {@link #callCacheableBatchServiceAsync(Object)}. The items confirmed as cache misses are collected
+     * into partitions while the rest of the lookups are still running, and each partition is sent to the
+     * origin as soon as it is full. The tail partition is sent when the cache phase completes. This way
+     * the origin calls do not need to wait for the slowest cache lookup.
+     * <br>
+     * The pipeline is used only when the refresh strategy allows it (see
+     * {@link CacheRefreshStrategy#allowsPipelinedFetch()}), the cache support does not use bulk lookups and
+     * the circuit breaker (if set) grants a closed permission before the cache phase, otherwise the phases
+     * are processed one after the other.
+     * Disabled by default.
+     *
+     * @param pipelinedOriginDispatch True if the misses should be sent to the origin during the cache phase.
+     */
+    public final void setPipelinedOriginDispatch(final boolean pipelinedOriginDispatch) {
+        this.pipelinedOriginDispatch = pipelinedOriginDispatch;
     }
 
     @Override
@@ -68,23 +261,22 @@ public class ConcurrentCacheServiceTemplate<BR, BS, PR, PS, C, I>
                 logger().info(e.getCause().getMessage(), e.getCause());
                 throw new CacheMissException(e.getCause().getMessage());
             } else {
-                logger().error("Failed to fetch from cache.", e.getCause());
-                result.clear();
+                logger().error("Failed to fetch from cache, keeping {} items found.", result.size(), e.getCause());
             }
         } catch (final InterruptedException e) {
             final var end = System.currentTimeMillis();
-            logger().warn("Cache call stopped after {} (timeout set to {}).", (end - start), partialCacheSupport().timeoutMillis(), e);
-            result.clear();
+            logger().warn("Cache call stopped after {} (timeout set to {}), keeping {} items found.",
+                    (end - start), partialCacheSupport().timeoutMillis(), result.size(), e);
             Thread.currentThread().interrupt();
         } catch (final TimeoutException e) {
             final var end = System.currentTimeMillis();
-            logger().warn("Cache call stopped after {} (timeout set to {}).", (end - start), partialCacheSupport().timeoutMillis(), e);
-            result.clear();
+            logger().warn("Cache call stopped after {} (timeout set to {}), keeping {} items found.",
+                    (end - start), partialCacheSupport().timeoutMillis(), result.size(), e);
         } finally {
             final var end = System.currentTimeMillis();
             logger().debug("Fetch all from cache completed under {} ms.", end - start);
         }
-        return result;
+        return copyIdMap(requestMap, result);
     }
 
     @Override
@@ -109,29 +301,563 @@ public class ConcurrentCacheServiceTemplate<BR, BS, PR, PS, C, I>
         return response;
     }
 
+    /**
+     * Calls all partitions in parallel and waits for each of them to complete or time out. The partitions
+     * which did not complete within {@link AsyncBatchServiceCaller#timeoutMillis()}, the partition timeout or
+     * the remaining time of the call are reported as failed.
+     *
+     * @param requestPartitions The list of request maps we need to make.
+     * @param failures          The map collecting the causes of the failures by the IDs of the failed partitions.
+     * @return The results returned by the successful partitions.
+     */
+    @Override
+    protected Map<I, PS> callOriginWithPartitionsTolerantly(
+            final List<Map<I, PR>> requestPartitions,
+            final Map<I, Throwable> failures) {
+        return fetchEachPartitionTolerantly(requestPartitions, failures, syncDeadline.get()).join();
+    }
+
     private void callCacheParallel(
             final CacheRefreshStrategy strategy,
             final Map<I, PR> requestMap,
             final BiConsumer<I, PS> resultConsumer)
             throws InterruptedException, ExecutionException, TimeoutException {
-        cachePool
-                .submit(() -> requestMap.entrySet()
-                        .parallelStream()
-                        .forEach(e -> fetchOneFromCache(strategy, e.getValue())
-                                .ifPresent(v -> resultConsumer.accept(e.getKey(), v))))
-                .get(partialCacheSupport().timeoutMillis(), TimeUnit.MILLISECONDS);
+        final var lookups = lookupEachInCache(strategy, requestMap, resultConsumer);
+        try {
+            lookups.get(cacheTimeoutMillis(syncDeadline.get()), TimeUnit.MILLISECONDS);
+        } catch (final InterruptedException | TimeoutException e) {
+            lookups.cancel(false);
+            throw e;
+        }
     }
 
     private void callOriginParallel(
             final List<Map<I, PR>> requestPartitions,
             final Consumer<Map<I, PS>> responseProcessor)
             throws InterruptedException, ExecutionException, TimeoutException {
-        originPool
-                .submit(() -> requestPartitions
-                        .parallelStream()
-                        .map(partition -> fetchSinglePartitionFromOrigin(partition,
-                                batchServiceCaller().refreshStrategy()))
-                        .forEach(responseProcessor))
-                .get(batchServiceCaller().timeoutMillis(), TimeUnit.MILLISECONDS);
+        final var deadline = syncDeadline.get();
+        fetchEachPartitionFromOrigin(requestPartitions, batchServiceCaller().refreshStrategy(), responseProcessor, deadline)
+                .get(originTimeoutMillis(deadline), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Sends the batch request of a partition to the origin. When a {@link HedgingPolicy} is set, a
+     * duplicate request is sent if the original did not complete within the delay defined by the policy.
+     * The first successful response wins and the other request is cancelled, therefore only the winner is
+     * used for populating the cache. The call fails only when every request sent has failed. No thread is
+     * blocked while waiting for the winner.
+     *
+     * @param batchRequest The batch request of a single partition.
+     * @return The future of the batch response.
+     */
+    @Override
+    protected CompletableFuture<@Nullable BS> callOriginAsync(final BR batchRequest) {
+        final var policy = hedgingPolicy;
+        if (policy == null) {
+            return super.callOriginAsync(batchRequest);
+        }
+        final var delay = policy.hedgeDelayNanos();
+        if (delay.isEmpty()) {
+            try {
+                return CompletableFuture.completedFuture(callOriginAndRecordLatency(policy, batchRequest));
+            } catch (final RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return callOriginHedged(policy, batchRequest, delay.getAsLong());
+    }
+
+    /**
+     * Sets the policy used for hedging the origin calls of slow partitions. Hedging is disabled when null.
+     *
+     * @param hedgingPolicy The hedging policy.
+     */
+    public final void setHedgingPolicy(final @Nullable HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+    }
+
+    /**
+     * Checks the freshness markers of the keys in parallel, the same way as the cache lookups are made,
+     * unless the cache support allows bulk lookups. The keys which could not be checked in time are
+     * considered fresh.
+     *
+     * @param keys The cache keys of the partial responses found in the cache.
+     * @return The keys of the fresh partial responses.
+     */
+    @Override
+    protected Set<CacheKey<C, I>> findFreshInCache(final Collection<CacheKey<C, I>> keys) {
+        if (partialCacheSupport().supportsBulkGet() || keys.size() < 2) {
+            return super.findFreshInCache(keys);
+        }
+        final Set<CacheKey<C, I>> fresh = ConcurrentHashMap.newKeySet();
+        final Set<CacheKey<C, I>> stale = ConcurrentHashMap.newKeySet();
+        final var checks = keys.stream()
+                .map(key -> CompletableFuture.runAsync(() -> {
+                    if (partialCacheSupport().getFreshFromCache(List.of(key)).isEmpty()) {
+                        stale.add(key);
+                    } else {
+                        fresh.add(key);
+                    }
+                }, cacheExecutor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            allOfCancellingOutstanding(checks).get(partialCacheSupport().timeoutMillis(), TimeUnit.MILLISECONDS);
+            return fresh;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger().warn("Freshness check interrupted, considering unchecked items fresh.", e);
+        } catch (final ExecutionException | TimeoutException e) {
+            logger().warn("Freshness check failed, considering unchecked items fresh.", e);
+        }
+        //a missed refresh is cheaper than refreshing items we know nothing about
+        return keys.stream()
+                .filter(key -> !stale.contains(key))
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Starts the cache lookups of all partial requests. Uses a single bulk lookup when the cache
+     * support allows it, otherwise a separate task is started for each key. When the returned future
+     * is completed early (for example because it timed out or it was cancelled), the lookups which
+     * have not started yet are cancelled, the running ones are left to complete.
+     *
+     * @param strategy       The strategy that decides how we should react to a failure.
+     * @param requestMap     The requests we need to fetch.
+     * @param resultConsumer The consumer receiving the partial responses found in the cache.
+     * @return The future completing when all lookups are done.
+     */
+    protected final CompletableFuture<Void> lookupEachInCache(
+            final CacheRefreshStrategy strategy,
+            final Map<I, PR> requestMap,
+            final BiConsumer<I, PS> resultConsumer) {
+        if (partialCacheSupport().supportsBulkGet()) {
+            return allOfCancellingOutstanding(CompletableFuture.runAsync(() -> fetchAllFromCacheInBulk(strategy, requestMap)
+                    .forEach(resultConsumer), cacheExecutor));
+        }
+        final var lookups = requestMap.entrySet().stream()
+                .map(e -> CompletableFuture.runAsync(() -> fetchOneFromCache(strategy, e.getValue())
+                        .ifPresent(v -> resultConsumer.accept(e.getKey(), v)), cacheExecutor))
+                .toArray(CompletableFuture[]::new);
+        return allOfCancellingOutstanding(lookups);
+    }
+
+    private static CompletableFuture<Void> allOfCancellingOutstanding(final CompletableFuture<?>... tasks) {
+        final var all = CompletableFuture.allOf(tasks);
+        all.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                Arrays.stream(tasks).forEach(task -> task.cancel(false));
+            }
+        });
+        return all;
+    }
+
+    private CompletableFuture<Void> fetchEachPartitionFromOrigin(
+            final List<Map<I, PR>> requestPartitions,
+            final CacheRefreshStrategy strategy,
+            final Consumer<Map<I, PS>> responseProcessor,
+            final long deadline) {
+        final var calls = requestPartitions.stream()
+                .map(partition -> {
+                    var call = dispatchPartitionToOrigin(partition, strategy, deadline);
+                    if (partitionTimeoutMillis > 0L) {
+                        call = call.orTimeout(partitionTimeoutMillis(deadline), TimeUnit.MILLISECONDS)
+                                .whenComplete((ignored, throwable) -> reportPartitionTimeout(partition, throwable));
+                    }
+                    return call.thenAccept(responseProcessor);
+                })
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(calls);
+    }
+
+    private CompletableFuture<@Nullable BS> callOriginHedged(
+            final HedgingPolicy policy,
+            final BR batchRequest,
+            final long delayNanos) {
+        final var winner = new CompletableFuture<@Nullable BS>();
+        final var hedgeStarted = new AtomicBoolean();
+        final var decided = new AtomicBoolean();
+        final var failures = new AtomicInteger();
+        final var primary = new CancellableCall<@Nullable BS>(() -> callOriginAndRecordLatency(policy, batchRequest));
+        final var hedge = new CancellableCall<@Nullable BS>(() -> callOriginAndRecordLatency(policy, batchRequest));
+        primary.result().whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                if (decided.compareAndSet(false, true)) {
+                    hedge.cancel();
+                    winner.complete(response);
+                }
+            } else if (hedgeStarted.compareAndSet(false, true) || failures.incrementAndGet() > 1) {
+                winner.completeExceptionally(Objects.requireNonNull(unwrap(throwable)));
+            }
+        });
+        hedge.result().whenComplete((response, throwable) -> {
+            if (throwable == null) {
+                if (decided.compareAndSet(false, true)) {
+                    primary.cancel();
+                    metricsCollector().hedgedRequestWon(1);
+                    winner.complete(response);
+                }
+            } else if (failures.incrementAndGet() > 1) {
+                winner.completeExceptionally(Objects.requireNonNull(unwrap(throwable)));
+            }
+        });
+        originExecutor.execute(primary);
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, originExecutor).execute(() -> {
+            if (!winner.isDone() && hedgeStarted.compareAndSet(false, true)) {
+                metricsCollector().hedgedRequestSent(1);
+                logger().debug("Sending hedged request after {} ns.", delayNanos);
+                hedge.run();
+            }
+        });
+        return winner.orTimeout(batchServiceCaller().timeoutMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((response, throwable) -> {
+                    //the loser is cancelled by the winner, both are cancelled when the call failed or timed out
+                    if (throwable != null) {
+                        primary.cancel();
+                        hedge.cancel();
+                    }
+                })
+                .handle((response, throwable) -> {
+                    final var cause = unwrap(throwable);
+                    if (cause == null) {
+                        return response;
+                    } else if (cause instanceof TimeoutException) {
+                        throw new BatchServiceException("Origin call timed out.", cause);
+                    } else if (cause instanceof BatchServiceException exception) {
+                        throw exception;
+                    }
+                    throw new BatchServiceException(cause.getMessage(), cause);
+                });
+    }
+
+    private @Nullable BS callOriginAndRecordLatency(
+            final HedgingPolicy policy,
+            final BR batchRequest) {
+        final var start = System.nanoTime();
+        final var response = batchServiceCaller().callBatchService(batchRequest);
+        policy.recordLatency(System.nanoTime() - start);
+        return response;
+    }
+
+    private CompletableFuture<Map<I, PS>> dispatchPartitionToOrigin(
+            final Map<I, PR> partition,
+            final CacheRefreshStrategy strategy,
+            final long deadline) {
+        return CompletableFuture.supplyAsync(
+                        () -> fetchSinglePartitionFromOriginAsync(partition, strategy, partitionTimeoutMillis(deadline)), originExecutor)
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<Map<I, PS>> fetchEachPartitionTolerantly(
+            final List<Map<I, PR>> requestPartitions,
+            final Map<I, Throwable> failures,
+            final long deadline) {
+        final var strategy = batchServiceCaller().refreshStrategy();
+        final Map<I, PS> response = new ConcurrentHashMap<>();
+        final var calls = requestPartitions.stream()
+                .map(partition -> dispatchPartitionToOrigin(partition, strategy, deadline)
+                        .orTimeout(partitionTimeoutMillis(deadline), TimeUnit.MILLISECONDS)
+                        .handle((fromOrigin, throwable) -> {
+                            reportPartitionTimeout(partition, throwable);
+                            if (throwable == null) {
+                                response.putAll(fromOrigin);
+                            } else {
+                                final var cause = Objects.requireNonNull(unwrap(throwable));
+                                logger().warn("Failed to fetch partition of {} items.", partition.size(), cause);
+                                partition.keySet().forEach(id -> failures.put(id, cause));
+                            }
+                            return fromOrigin;
+                        }))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(calls).thenApply(ignored -> response);
+    }
+
+    private CompletableFuture<CachePhaseResult<I, PR, PS>> attemptFetchingFromCacheAsync(
+            final Map<I, PR> requestMap,
+            final CacheRefreshStrategy strategy,
+            final long deadline) {
+        //read once, as the selection and the partitioning must agree even if an adaptive caller changes it
+        final var partitionSize = batchServiceCaller().maxPartitionSize();
+        if (!strategy.allowsCacheGet()) {
+            logger().debug("Cache GET is not allowed by {} strategy, skipping.", strategy.name());
+            return CompletableFuture.completedFuture(completeCachePhase(requestMap, newIdMap(requestMap, 0), partitionSize));
+        }
+        metricsCollector().cacheGet(requestMap.size());
+        logger().debug("Attempting cache GET for {} items.", requestMap.size());
+        final Map<I, PS> result = new ConcurrentHashMap<>();
+        return lookupEachInCache(strategy, requestMap, result::put)
+                .orTimeout(cacheTimeoutMillis(deadline), TimeUnit.MILLISECONDS)
+                .handle((ignored, throwable) -> {
+                    final var cause = unwrap(throwable);
+                    if (cause instanceof CacheMissException) {
+                        metricsCollector().cacheMiss(requestMap.size());
+                        logger().info("Cache miss found, refresh strategy disallows further tries. Cause: {}", cause.getMessage());
+                        return new CachePhaseResult<>(newIdMap(requestMap, 0), requestMap, partitionSize);
+                    }
+                    final Map<I, PS> fromCache = copyIdMap(requestMap, result);
+                    if (cause != null) {
+                        logger().warn("Failed to fetch from cache, keeping {} items found.", fromCache.size(), cause);
+                    }
+                    metricsCollector().cacheHit(fromCache.size());
+                    metricsCollector().cacheMiss(requestMap.size() - fromCache.size());
+                    logger().info("Cache HIT for {} items.", fromCache.size());
+                    logger().trace("Cache HIT for ids: {}", fromCache.keySet());
+                    return completeCachePhase(requestMap, fromCache, partitionSize);
+                });
+    }
+
+    private CompletableFuture<Map<I, PS>> fetchPipelinedAsync(
+            final Map<I, PR> requestMap,
+            final CacheRefreshStrategy strategy,
+            final long deadline) {
+        metricsCollector().cacheGet(requestMap.size());
+        logger().debug("Attempting pipelined cache GET for {} items.", requestMap.size());
+        final var partitionSize = batchServiceCaller().maxPartitionSize();
+        metricsCollector().effectivePartitionSize(partitionSize);
+        final Map<I, PS> fromOrigin = new ConcurrentHashMap<>();
+        final var phase = new PipelinedCachePhase<I, PR, PS>(partitionSize, partition -> {
+            metricsCollector().partitionsCreated(1);
+            logger().debug("Dispatching partition of {} items.", partition.size());
+            return fetchEachPartitionFromOrigin(List.of(partition), strategy, fromOrigin::putAll, deadline);
+        });
+        final var lookups = requestMap.entrySet().stream()
+                .map(e -> CompletableFuture.runAsync(() -> fetchOneFromCache(strategy, e.getValue())
+                        .ifPresentOrElse(v -> phase.hit(e.getKey(), v), () -> {
+                            if (isMissKnownToBeAbsent(e.getValue())) {
+                                phase.absent(e.getKey());
+                            } else {
+                                phase.miss(e.getKey(), e.getValue());
+                            }
+                        }), cacheExecutor))
+                .toArray(CompletableFuture[]::new);
+        return allOfCancellingOutstanding(lookups)
+                .orTimeout(cacheTimeoutMillis(deadline), TimeUnit.MILLISECONDS)
+                .handle((ignored, throwable) -> {
+                    if (throwable != null) {
+                        logger().warn("Failed to fetch from cache.", unwrap(throwable));
+                    }
+                    final var partitions = phase.complete(requestMap);
+                    final var fromCache = phase.hits();
+                    metricsCollector().cacheHit(fromCache.size());
+                    metricsCollector().cacheMiss(requestMap.size() - fromCache.size());
+                    logger().info("Cache HIT for {} items.", fromCache.size());
+                    logger().trace("Cache HIT for ids: {}", fromCache.keySet());
+                    revalidateStaleItems(requestMap, fromCache, strategy);
+                    return partitions.orTimeout(originTimeoutMillis(deadline), TimeUnit.MILLISECONDS)
+                            .handle((done, failure) -> completePipelinedOriginPhase(phase, fromCache, fromOrigin, failure));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private Map<I, PS> completePipelinedOriginPhase(
+            final PipelinedCachePhase<I, PR, PS> phase,
+            final Map<I, PS> fromCache,
+            final Map<I, PS> fromOrigin,
+            final @Nullable Throwable throwable) {
+        final var partitions = phase.dispatchedPartitions();
+        final var cause = unwrap(throwable);
+        if (partitions > 0) {
+            recordOriginOutcome(CircuitBreaker.State.CLOSED, cause == null);
+        }
+        if (cause instanceof TimeoutException) {
+            metricsCollector().partitionsFailed(partitions);
+            throw new BatchServiceException("Origin call timed out.", cause);
+        } else if (cause != null) {
+            metricsCollector().partitionsFailed(partitions);
+            throw new BatchServiceException(cause.getMessage(), cause);
+        }
+        metricsCollector().partitionsSucceeded(partitions);
+        fromCache.putAll(fromOrigin);
+        return fromCache;
+    }
+
+    private boolean isPipelined(final CacheRefreshStrategy strategy) {
+        return pipelinedOriginDispatch
+                && strategy.allowsPipelinedFetch()
+                && !partialCacheSupport().supportsBulkGet();
+    }
+
+    private @Nullable BS await(final CompletableFuture<@Nullable BS> future) throws BatchServiceException {
+        try {
+            return future.join();
+        } catch (final CompletionException e) {
+            final var cause = Objects.requireNonNull(unwrap(e));
+            if (cause instanceof BatchServiceException batchServiceException) {
+                throw batchServiceException;
+            }
+            throw new BatchServiceException(cause.getMessage(), cause);
+        }
+    }
+
+    private CachePhaseResult<I, PR, PS> completeCachePhase(
+            final Map<I, PR> requestMap,
+            final Map<I, PS> fromCache,
+            final int partitionSize) {
+        final var strategy = batchServiceCaller().refreshStrategy();
+        final var remaining = skipMissesKnownToBeAbsent(requestMap, fromCache, strategy);
+        revalidateStaleItems(remaining, fromCache, strategy);
+        return new CachePhaseResult<>(fromCache, selectRemainingKeysToFetchFromOrigin(remaining, fromCache, partitionSize), partitionSize);
+    }
+
+    private CompletableFuture<Map<I, PS>> fetchAllFromOriginServiceAsync(
+            final CachePhaseResult<I, PR, PS> cachePhase,
+            final CircuitBreaker.State permission,
+            final long deadline) {
+        return fetchAllFromOriginServiceAsync(cachePhase.toBeFetched(), cachePhase.partitionSize(), permission, deadline)
+                .thenApply(fromOrigin -> {
+                    cachePhase.fromCache().putAll(fromOrigin);
+                    return cachePhase.fromCache();
+                });
+    }
+
+    private CompletableFuture<Map<I, PS>> fetchAllFromOriginServiceAsync(
+            final Map<I, PR> requestMap,
+            final int partitionSize,
+            final CircuitBreaker.State permission,
+            final long deadline) {
+        final var admitted = admitToOrigin(requestMap, permission);
+        if (admitted.isEmpty()) {
+            //the permission might have been acquired before we knew that nothing needs to be fetched
+            releaseOriginPermission(permission);
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        final var start = System.currentTimeMillis();
+        final var partitions = partitionOriginRequests(admitted, partitionSize);
+        metricsCollector().partitionsCreated(partitions.size());
+        final var strategy = batchServiceCaller().refreshStrategy();
+        final Map<I, PS> response = new ConcurrentHashMap<>();
+        return fetchEachPartitionFromOrigin(partitions, strategy, response::putAll, deadline)
+                .orTimeout(originTimeoutMillis(deadline), TimeUnit.MILLISECONDS)
+                .handle((ignored, throwable) -> {
+                    final var end = System.currentTimeMillis();
+                    logger().debug("Fetch all from origin completed under {} ms.", end - start);
+                    final var cause = unwrap(throwable);
+                    recordOriginOutcome(permission, cause == null);
+                    if (cause instanceof TimeoutException) {
+                        metricsCollector().partitionsFailed(partitions.size());
+                        throw new BatchServiceException("Origin call timed out.", cause);
+                    } else if (cause != null) {
+                        metricsCollector().partitionsFailed(partitions.size());
+                        throw new BatchServiceException(cause.getMessage(), cause);
+                    }
+                    metricsCollector().partitionsSucceeded(partitions.size());
+                    return response;
+                });
+    }
+
+    private void reportPartitionTimeout(
+            final Map<I, PR> partition,
+            final @Nullable Throwable throwable) {
+        if (unwrap(throwable) instanceof TimeoutException) {
+            metricsCollector().partitionsTimedOut(1);
+            logger().warn("Origin partition of {} items timed out.", partition.size());
+            logger().trace("Origin partition timed out with ids: {}", partition.keySet());
+        }
+    }
+
+    private <T extends @Nullable Object> T withSyncDeadline(final Supplier<T> call) {
+        if (callTimeoutMillis == 0L) {
+            return call.get();
+        }
+        syncDeadline.set(newDeadline());
+        try {
+            return call.get();
+        } finally {
+            syncDeadline.remove();
+        }
+    }
+
+    /**
+     * Returns the deadline of a call starting now using the call timeout (if set).
+     *
+     * @return The deadline in epoch milliseconds, or a value meaning no deadline when the call timeout is not set.
+     */
+    protected final long newDeadline() {
+        if (callTimeoutMillis == 0L) {
+            return NO_DEADLINE;
+        }
+        return System.currentTimeMillis() + callTimeoutMillis;
+    }
+
+    /**
+     * Returns the timeout of the cache phase limited by the remaining part of the call budget.
+     *
+     * @param deadline The deadline returned by {@link #newDeadline()}.
+     * @return The timeout in milliseconds.
+     */
+    protected final long cacheTimeoutMillis(final long deadline) {
+        return remainingMillis(deadline, partialCacheSupport().timeoutMillis());
+    }
+
+    private long originTimeoutMillis(final long deadline) {
+        return remainingMillis(deadline, batchServiceCaller().timeoutMillis());
+    }
+
+    /**
+     * Returns the timeout of a single origin partition using the partition timeout (if set), limited by
+     * the remaining part of the call budget.
+     *
+     * @param deadline The deadline returned by {@link #newDeadline()}.
+     * @return The timeout in milliseconds.
+     */
+    protected final long partitionTimeoutMillis(final long deadline) {
+        var timeout = batchServiceCaller().timeoutMillis();
+        if (partitionTimeoutMillis > 0L) {
+            timeout = Math.min(timeout, partitionTimeoutMillis);
+        }
+        return remainingMillis(deadline, timeout);
+    }
+
+    private static long remainingMillis(
+            final long deadline,
+            final long phaseTimeoutMillis) {
+        if (deadline == NO_DEADLINE) {
+            return phaseTimeoutMillis;
+        }
+        return Math.max(0L, Math.min(phaseTimeoutMillis, deadline - System.currentTimeMillis()));
+    }
+
+    /**
+     * Returns the executor used for the cache calls as defined by {@link ConcurrentOperationSupport#executionMode()}.
+     *
+     * @return executor.
+     */
+    protected final Executor cacheExecutor() {
+        return cacheExecutor;
+    }
+
+    /**
+     * Returns the executor used for the origin calls as defined by {@link ConcurrentOperationSupport#executionMode()}.
+     *
+     * @return executor.
+     */
+    protected final Executor originExecutor() {
+        return originExecutor;
+    }
+
+    /**
+     * Unwraps the cause of the failure when it is wrapped into a {@link CompletionException}.
+     *
+     * @param throwable The failure (if any).
+     * @return The unwrapped cause.
+     */
+    protected static @Nullable Throwable unwrap(final @Nullable Throwable throwable) {
+        var result = throwable;
+        while (result instanceof CompletionException && result.getCause() != null) {
+            result = result.getCause();
+        }
+        return result;
+    }
+
+    /**
+     * Holds the outcome of the cache phase of an asynchronous call.
+     *
+     * @param fromCache     The partial responses we have found in the cache.
+     * @param toBeFetched   The partial requests we need to fetch from the origin.
+     * @param partitionSize The maximum partition size the partial requests were selected with.
+     * @param <I>           The type of the ID.
+     * @param <PR>          The type of the partial request.
+     * @param <PS>          The type of the partial response.
+     */
+    private record CachePhaseResult<I, PR, PS>(Map<I, PS> fromCache, Map<I, PR> toBeFetched, int partitionSize) {
     }
 }
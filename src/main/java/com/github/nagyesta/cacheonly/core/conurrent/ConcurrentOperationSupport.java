@@ -20,6 +20,15 @@ public interface ConcurrentOperationSupport {
         return ForkJoinPool.commonPool();
     }
 
+    /**
+     * Returns the way the blocking calls should be executed concurrently.
+     *
+     * @return mode.
+     */
+    default ExecutionMode executionMode() {
+        return ExecutionMode.FORK_JOIN_POOL;
+    }
+
     /**
      * Returns the maximum number of milliseconds we will wait maximum for fetching items from the cache.
      *
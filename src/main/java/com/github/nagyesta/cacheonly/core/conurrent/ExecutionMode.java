@@ -0,0 +1,38 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Defines the supported ways of running the blocking cache and origin calls concurrently.
+ */
+public enum ExecutionMode {
+    /**
+     * Runs the calls using the {@link java.util.concurrent.ForkJoinPool} returned by
+     * {@link ConcurrentOperationSupport#forkJoinPool()}. The concurrency is capped at the
+     * parallelism of the pool.
+     */
+    FORK_JOIN_POOL {
+        @Override
+        public Executor executor(final ConcurrentOperationSupport support) {
+            return support.forkJoinPool();
+        }
+    },
+    /**
+     * Starts a new virtual thread for each cache key lookup and each origin partition. Needs
+     * Java 21 or later at runtime, falls back to {@link #FORK_JOIN_POOL} on earlier versions.
+     */
+    VIRTUAL_THREADS {
+        @Override
+        public Executor executor(final ConcurrentOperationSupport support) {
+            return VirtualThreads.perTaskExecutor(support.forkJoinPool());
+        }
+    };
+
+    /**
+     * Returns the executor we need to use for running the calls of the given component.
+     *
+     * @param support The component defining the concurrency related behavior.
+     * @return executor.
+     */
+    public abstract Executor executor(ConcurrentOperationSupport support);
+}
@@ -0,0 +1,69 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Defines when a duplicate (hedged) request should be sent to the origin for a partition which did
+ * not complete in time. The delay is the configured percentile of the latencies recorded in a sliding
+ * window of the most recent origin calls. No hedged requests are sent until the minimum number of
+ * latencies is recorded.
+ */
+public final class HedgingPolicy {
+
+    private final double percentile;
+    private final int minSamples;
+    private final long[] latencies;
+    private int next;
+    private int count;
+
+    /**
+     * Creates a new instance and sets the parameters of the policy.
+     *
+     * @param percentile The percentile of the recorded latencies we need to wait before hedging,
+     *                   must be larger than 0 and not larger than 1 (e.g. 0.95 for p95).
+     * @param windowSize The number of recent latencies we need to keep. Must be larger than 0.
+     * @param minSamples The number of latencies needed before the first hedged request. Must be
+     *                   larger than 0 and not larger than the window size.
+     */
+    public HedgingPolicy(
+            final double percentile,
+            final int windowSize,
+            final int minSamples) {
+        Assert.isTrue(percentile > 0.0D && percentile <= 1.0D, "Percentile must be larger than 0 and not larger than 1.");
+        Assert.isTrue(windowSize > 0, "Window size must be larger than 0.");
+        Assert.isTrue(minSamples > 0 && minSamples <= windowSize,
+                "Min samples must be larger than 0 and must not be larger than the window size.");
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+        this.latencies = new long[windowSize];
+    }
+
+    /**
+     * Records the latency of a completed origin call.
+     *
+     * @param latencyNanos The latency in nanoseconds.
+     */
+    public synchronized void recordLatency(final long latencyNanos) {
+        latencies[next] = latencyNanos;
+        next = (next + 1) % latencies.length;
+        count = Math.min(count + 1, latencies.length);
+    }
+
+    /**
+     * Returns the number of nanoseconds we need to wait before sending a hedged request.
+     *
+     * @return The delay or empty if not enough latencies are recorded yet.
+     */
+    public synchronized OptionalLong hedgeDelayNanos() {
+        if (count < minSamples) {
+            return OptionalLong.empty();
+        }
+        final var sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        final var index = Math.max(0, (int) Math.ceil(percentile * count) - 1);
+        return OptionalLong.of(sorted[index]);
+    }
+}
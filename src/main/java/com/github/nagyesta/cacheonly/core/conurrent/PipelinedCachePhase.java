@@ -0,0 +1,137 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Collects the outcome of the cache lookups of a batch while they are completing. The misses are added
+ * to a partition which is dispatched to the origin as soon as it is full, the tail partition is dispatched
+ * when the cache phase completes. Every ID is resolved only once, the lookups completing after the cache
+ * phase are ignored.
+ *
+ * @param <I>  The type of the ID.
+ * @param <PR> The type of the partial request.
+ * @param <PS> The type of the partial response.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+final class PipelinedCachePhase<I, PR, PS> {
+
+    private final int partitionSize;
+    private final Function<Map<I, PR>, CompletableFuture<Void>> dispatcher;
+    private final Map<I, PS> hits = new HashMap<>();
+    private final Set<I> resolved = new HashSet<>();
+    private final List<CompletableFuture<Void>> dispatched = new ArrayList<>();
+    private Map<I, PR> partition = new HashMap<>();
+    private boolean completed;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param partitionSize The maximum number of items in a partition.
+     * @param dispatcher    The function sending a partition to the origin.
+     */
+    PipelinedCachePhase(
+            final int partitionSize,
+            final Function<Map<I, PR>, CompletableFuture<Void>> dispatcher) {
+        this.partitionSize = partitionSize;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Records a partial response found in the cache.
+     *
+     * @param id       The ID of the item.
+     * @param response The partial response.
+     */
+    synchronized void hit(
+            final I id,
+            final PS response) {
+        if (!completed && resolved.add(id)) {
+            hits.put(id, response);
+        }
+    }
+
+    /**
+     * Records an item not found in the cache and dispatches the current partition when it is full.
+     *
+     * @param id      The ID of the item.
+     * @param request The partial request.
+     */
+    synchronized void miss(
+            final I id,
+            final PR request) {
+        if (!completed && resolved.add(id)) {
+            addToPartition(id, request);
+        }
+    }
+
+    /**
+     * Records an item not found in the cache which is known to be absent from the origin as well.
+     *
+     * @param id The ID of the item.
+     */
+    synchronized void absent(final I id) {
+        if (!completed) {
+            resolved.add(id);
+        }
+    }
+
+    /**
+     * Completes the cache phase. The items without a completed lookup are handled as misses and the tail
+     * partition is dispatched.
+     *
+     * @param requestMap The map of all partial requests we have looked up.
+     * @return The future completing when all dispatched partitions are done.
+     */
+    synchronized CompletableFuture<Void> complete(final Map<I, PR> requestMap) {
+        completed = true;
+        requestMap.forEach((id, request) -> {
+            if (resolved.add(id)) {
+                addToPartition(id, request);
+            }
+        });
+        if (!partition.isEmpty()) {
+            dispatch();
+        }
+        return CompletableFuture.allOf(dispatched.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Returns the partial responses found in the cache.
+     *
+     * @return A copy of the hits.
+     */
+    synchronized Map<I, PS> hits() {
+        return new HashMap<>(hits);
+    }
+
+    /**
+     * Returns the number of partitions dispatched to the origin.
+     *
+     * @return count.
+     */
+    synchronized int dispatchedPartitions() {
+        return dispatched.size();
+    }
+
+    private void addToPartition(
+            final I id,
+            final PR request) {
+        partition.put(id, request);
+        if (partition.size() >= partitionSize) {
+            dispatch();
+        }
+    }
+
+    private void dispatch() {
+        final var full = partition;
+        partition = new HashMap<>();
+        dispatched.add(dispatcher.apply(full));
+    }
+}
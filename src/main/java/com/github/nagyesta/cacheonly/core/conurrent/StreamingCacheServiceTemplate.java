@@ -0,0 +1,368 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.breaker.CircuitBreaker;
+import com.github.nagyesta.cacheonly.core.exception.CacheMissException;
+import com.github.nagyesta.cacheonly.entity.PartialResponse;
+import com.github.nagyesta.cacheonly.raw.concurrent.AsyncBatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import com.github.nagyesta.cacheonly.transform.BatchRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.BatchResponseTransformer;
+import com.github.nagyesta.cacheonly.transform.concurrent.AsyncPartialCacheSupport;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * {@link ConcurrentCacheServiceTemplate} variant which can publish the partial responses one-by-one
+ * as soon as they are resolved instead of merging them into a single batch response.
+ * Cache hits are published right away, the origin partitions are published when the partition
+ * completes. The number of origin partitions in flight is limited by the configured maximum and
+ * the demand signalled by the subscriber. The call timeout and the partition timeout are applied the
+ * same way, the deadline of the call starts when the subscription is made.
+ *
+ * @param <BR> The type of the batch request.
+ * @param <BS> The type of the batch response.
+ * @param <PR> The type of the partial request.
+ * @param <PS> The type of the partial response.
+ * @param <C>  The type of the cache key.
+ * @param <I>  The type of the ID that allows unique association of partial request
+ *             and partial response pairs in the scope of the batch.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public class StreamingCacheServiceTemplate<BR, BS, PR, PS, C, I>
+        extends ConcurrentCacheServiceTemplate<BR, BS, PR, PS, C, I> {
+
+    private final int maxPartitionsInFlight;
+
+    /**
+     * Creates a new instance and injects all the dependencies which are necessary for it to work.
+     * Uses the parallelism of the origin pool of the batch service caller as the maximum number of partitions in flight.
+     *
+     * @param partialCacheSupport      The component defining how caching should work for a partial request.
+     * @param batchRequestTransformer  The component handling transformations between batch and partial requests.
+     * @param batchResponseTransformer The component handling transformations between batch and partial responses.
+     * @param batchServiceCaller       The wrapper that is calling the real batch service in case of cache miss.
+     */
+    public StreamingCacheServiceTemplate(
+            final AsyncPartialCacheSupport<PR, PS, C, I> partialCacheSupport,
+            final BatchRequestTransformer<BR, PR, I> batchRequestTransformer,
+            final BatchResponseTransformer<BS, PS, I> batchResponseTransformer,
+            final AsyncBatchServiceCaller<BR, BS> batchServiceCaller) {
+        super(partialCacheSupport, batchRequestTransformer, batchResponseTransformer, batchServiceCaller);
+        this.maxPartitionsInFlight = batchServiceCaller.forkJoinPool().getParallelism();
+    }
+
+    /**
+     * Creates a new instance and injects all the dependencies which are necessary for it to work.
+     *
+     * @param partialCacheSupport      The component defining how caching should work for a partial request.
+     * @param batchRequestTransformer  The component handling transformations between batch and partial requests.
+     * @param batchResponseTransformer The component handling transformations between batch and partial responses.
+     * @param batchServiceCaller       The wrapper that is calling the real batch service in case of cache miss.
+     * @param maxPartitionsInFlight    The maximum number of origin partitions we can call at the same time
+     *                                 for a single subscriber. Must be larger than 0.
+     */
+    public StreamingCacheServiceTemplate(
+            final AsyncPartialCacheSupport<PR, PS, C, I> partialCacheSupport,
+            final BatchRequestTransformer<BR, PR, I> batchRequestTransformer,
+            final BatchResponseTransformer<BS, PS, I> batchResponseTransformer,
+            final AsyncBatchServiceCaller<BR, BS> batchServiceCaller,
+            final int maxPartitionsInFlight) {
+        super(partialCacheSupport, batchRequestTransformer, batchResponseTransformer, batchServiceCaller);
+        Assert.isTrue(maxPartitionsInFlight > 0, "MaxPartitionsInFlight must be at least 1.");
+        this.maxPartitionsInFlight = maxPartitionsInFlight;
+    }
+
+    /**
+     * Processes the provided batch request and publishes the partial responses as soon as they are
+     * resolved. Uses cache when possible the way the configuration allows. The returned publisher
+     * supports a single subscriber, processing starts when the subscription is made.
+     *
+     * @param request The batch request we need to process.
+     * @return The publisher of the partial responses either from the real service or from cache.
+     */
+    public Flow.Publisher<PartialResponse<I, PS>> streamCacheableBatchService(final BR request) {
+        return new BatchPublisher(request);
+    }
+
+    private final class BatchPublisher implements Flow.Publisher<PartialResponse<I, PS>> {
+
+        private final BR request;
+        private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+        private BatchPublisher(final BR request) {
+            this.request = request;
+        }
+
+        @Override
+        public void subscribe(final Flow.Subscriber<? super PartialResponse<I, PS>> subscriber) {
+            Objects.requireNonNull(subscriber, "Subscriber cannot be null.");
+            final var subscription = new BatchSubscription(subscriber);
+            subscriber.onSubscribe(subscription);
+            if (subscribed.compareAndSet(false, true)) {
+                subscription.start(request);
+            } else {
+                subscription.fail(new IllegalStateException("Only a single subscriber is supported."));
+            }
+        }
+    }
+
+    private final class BatchSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super PartialResponse<I, PS>> subscriber;
+        private final AtomicInteger wip = new AtomicInteger(0);
+        private final Deque<PartialResponse<I, PS>> buffer = new ArrayDeque<>();
+        private final Deque<Map<I, PR>> pendingPartitions = new ArrayDeque<>();
+        private final Set<I> publishedIds = new HashSet<>();
+        private final long deadline = newDeadline();
+        private long requested;
+        private int inFlight;
+        private boolean cachePhaseDone;
+        private boolean cancelled;
+        private boolean terminated;
+        private boolean originCalled;
+        private boolean originFailed;
+        private boolean originSettled;
+        private @Nullable Throwable failure;
+        private CircuitBreaker.State permission = CircuitBreaker.State.CLOSED;
+
+        private BatchSubscription(final Flow.Subscriber<? super PartialResponse<I, PS>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            synchronized (this) {
+                if (n <= 0) {
+                    failure = new IllegalArgumentException("Requested amount must be positive, but was: " + n);
+                } else if (requested + n < 0) {
+                    requested = Long.MAX_VALUE;
+                } else {
+                    requested += n;
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+            }
+            drain();
+        }
+
+        private void start(final BR request) {
+            final var strategy = batchServiceCaller().refreshStrategy();
+            //read once, as the selection and the partitioning must agree even if an adaptive caller changes it
+            final var partitionSize = batchServiceCaller().maxPartitionSize();
+            CompletableFuture.supplyAsync(() -> batchRequestTransformer().splitToPartialRequest(request), cacheExecutor())
+                    .thenCompose(requestMap -> {
+                        logger().info("Streaming batch of {} partial requests.", requestMap.size());
+                        logger().trace("Streaming batch of partial requests with ids: {}", requestMap.keySet());
+                        return fetchFromCache(skipItemsKnownToBeAbsent(requestMap, strategy), strategy, partitionSize);
+                    })
+                    .whenComplete((toBeFetched, throwable) -> {
+                        if (throwable != null) {
+                            fail(Objects.requireNonNull(unwrap(throwable)));
+                        } else {
+                            permission = acquireOriginPermission(toBeFetched);
+                            cachePhaseCompleted(partitionOriginRequests(admitToOrigin(toBeFetched, permission), partitionSize));
+                        }
+                    });
+        }
+
+        private CompletableFuture<Map<I, PR>> fetchFromCache(
+                final Map<I, PR> requestMap,
+                final CacheRefreshStrategy strategy,
+                final int partitionSize) {
+            if (!strategy.allowsCacheGet()) {
+                logger().debug("Cache GET is not allowed by {} strategy, skipping.", strategy.name());
+                return CompletableFuture.completedFuture(
+                        selectRemainingKeysToFetchFromOrigin(requestMap, Collections.emptyMap(), partitionSize));
+            }
+            metricsCollector().cacheGet(requestMap.size());
+            final Map<I, PS> hits = new ConcurrentHashMap<>();
+            return lookupEachInCache(strategy, requestMap, (id, value) -> {
+                        hits.put(id, value);
+                        publish(Map.of(id, value));
+                    })
+                    .orTimeout(cacheTimeoutMillis(deadline), TimeUnit.MILLISECONDS)
+                    .handle((ignored, throwable) -> {
+                        final var cause = unwrap(throwable);
+                        if (cause instanceof CacheMissException) {
+                            metricsCollector().cacheMiss(requestMap.size());
+                            logger().info("Cache miss found, refresh strategy disallows further tries. Cause: {}", cause.getMessage());
+                            return requestMap;
+                        }
+                        if (cause != null) {
+                            logger().warn("Failed to fetch from cache.", cause);
+                        }
+                        final Map<I, PS> fromCache = new HashMap<>(hits);
+                        revalidateStaleItems(requestMap, fromCache, strategy);
+                        metricsCollector().cacheHit(fromCache.size());
+                        metricsCollector().cacheMiss(requestMap.size() - fromCache.size());
+                        logger().info("Cache HIT for {} items.", fromCache.size());
+                        return selectRemainingKeysToFetchFromOrigin(
+                                skipMissesKnownToBeAbsent(requestMap, fromCache, strategy), fromCache, partitionSize);
+                    });
+        }
+
+        private void cachePhaseCompleted(final List<Map<I, PR>> partitions) {
+            if (!partitions.isEmpty()) {
+                metricsCollector().partitionsCreated(partitions.size());
+            }
+            synchronized (this) {
+                pendingPartitions.addAll(partitions);
+                cachePhaseDone = true;
+            }
+            drain();
+        }
+
+        private void startPartition(final Map<I, PR> partition) {
+            final var strategy = batchServiceCaller().refreshStrategy();
+            final var timeoutMillis = partitionTimeoutMillis(deadline);
+            CompletableFuture.supplyAsync(() -> fetchSinglePartitionFromOriginAsync(partition, strategy, timeoutMillis), originExecutor())
+                    .thenCompose(Function.identity())
+                    .orTimeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                    .whenComplete((response, throwable) -> {
+                        final var cause = unwrap(throwable);
+                        if (cause instanceof TimeoutException) {
+                            metricsCollector().partitionsTimedOut(1);
+                            metricsCollector().partitionsFailed(1);
+                            partitionCompleted(new BatchServiceException("Origin call timed out.", cause));
+                        } else if (cause != null) {
+                            metricsCollector().partitionsFailed(1);
+                            partitionCompleted(new BatchServiceException(cause.getMessage(), cause));
+                        } else {
+                            metricsCollector().partitionsSucceeded(1);
+                            publish(response);
+                            partitionCompleted(null);
+                        }
+                    });
+        }
+
+        private void partitionCompleted(final @Nullable Throwable throwable) {
+            synchronized (this) {
+                inFlight--;
+                if (throwable != null) {
+                    originFailed = true;
+                    if (failure == null) {
+                        failure = throwable;
+                    }
+                }
+            }
+            drain();
+        }
+
+        private void publish(final Map<I, PS> responses) {
+            synchronized (this) {
+                responses.forEach((id, response) -> {
+                    if (publishedIds.add(id)) {
+                        buffer.add(new PartialResponse<>(id, response));
+                    }
+                });
+            }
+            drain();
+        }
+
+        private void fail(final Throwable throwable) {
+            synchronized (this) {
+                if (failure == null) {
+                    failure = throwable;
+                }
+            }
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            var missed = 1;
+            do {
+                emitAvailable();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+            settleOrigin();
+        }
+
+        /**
+         * Records the outcome of the origin phase in the circuit breaker once, when no more partitions can
+         * be started and the started ones have completed. The permission is released when the origin was not
+         * called, for example because the subscription was cancelled before the first partition started.
+         */
+        private void settleOrigin() {
+            final CircuitBreaker.State acquired;
+            final boolean called;
+            final boolean failed;
+            synchronized (this) {
+                if (originSettled || !cachePhaseDone || inFlight > 0 || (!terminated && !pendingPartitions.isEmpty())) {
+                    return;
+                }
+                originSettled = true;
+                acquired = permission;
+                called = originCalled;
+                failed = originFailed;
+            }
+            if (called) {
+                recordOriginOutcome(acquired, !failed);
+            } else {
+                releaseOriginPermission(acquired);
+            }
+        }
+
+        private void emitAvailable() {
+            var emitted = true;
+            while (emitted) {
+                PartialResponse<I, PS> next = null;
+                Throwable error = null;
+                var complete = false;
+                final List<Map<I, PR>> toStart = new ArrayList<>();
+                synchronized (this) {
+                    if (terminated) {
+                        return;
+                    }
+                    if (cancelled) {
+                        terminated = true;
+                        buffer.clear();
+                        pendingPartitions.clear();
+                        return;
+                    }
+                    if (failure != null) {
+                        terminated = true;
+                        error = failure;
+                    } else if (requested > 0 && !buffer.isEmpty()) {
+                        next = buffer.poll();
+                        if (requested != Long.MAX_VALUE) {
+                            requested--;
+                        }
+                    } else {
+                        while (cachePhaseDone && requested > 0 && inFlight < maxPartitionsInFlight && !pendingPartitions.isEmpty()) {
+                            toStart.add(pendingPartitions.poll());
+                            inFlight++;
+                            originCalled = true;
+                        }
+                        complete = cachePhaseDone && pendingPartitions.isEmpty() && inFlight == 0 && buffer.isEmpty();
+                        terminated = complete;
+                    }
+                }
+                toStart.forEach(this::startPartition);
+                emitted = next != null;
+                if (next != null) {
+                    subscriber.onNext(next);
+                } else if (error != null) {
+                    subscriber.onError(error);
+                } else if (complete) {
+                    subscriber.onComplete();
+                }
+            }
+        }
+    }
+}
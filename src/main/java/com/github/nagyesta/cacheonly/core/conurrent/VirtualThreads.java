@@ -0,0 +1,39 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Provides virtual thread support when the runtime has it. This is the Java 17 variant
+ * which is always falling back, the Java 21 variant lives in the versioned part of the jar.
+ */
+final class VirtualThreads {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreads.class);
+
+    private VirtualThreads() {
+        //utility
+    }
+
+    /**
+     * Tells whether virtual threads are available.
+     *
+     * @return true if virtual threads can be used.
+     */
+    static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Returns an executor starting a new virtual thread for each task.
+     *
+     * @param fallback The executor we should use when virtual threads are not available.
+     * @return executor.
+     */
+    static Executor perTaskExecutor(final Executor fallback) {
+        LOGGER.warn("Virtual threads are not available on Java {}, falling back to the pool.", Runtime.version().feature());
+        return fallback;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.nagyesta.cacheonly.core.exception;
+
+import com.github.nagyesta.cacheonly.core.breaker.CircuitBreaker;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+
+/**
+ * This exception is used for reporting the partial requests which were not sent to the origin because
+ * the circuit breaker did not let them through. Helps telling these apart from the items which were not
+ * found by the origin.
+ */
+public class OriginRejectedException extends BatchServiceException {
+
+    /**
+     * Creates a new instance using the permission returned by the circuit breaker.
+     *
+     * @param permission The permission which did not allow the origin call for the item.
+     */
+    public OriginRejectedException(final CircuitBreaker.State permission) {
+        super("Origin call was rejected by the circuit breaker (permission: " + permission + ").");
+    }
+}
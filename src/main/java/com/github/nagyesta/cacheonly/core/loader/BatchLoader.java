@@ -0,0 +1,207 @@
+package com.github.nagyesta.cacheonly.core.loader;
+
+import com.github.nagyesta.cacheonly.core.CachingServiceTemplate;
+import com.github.nagyesta.cacheonly.transform.BatchRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.BatchResponseTransformer;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects single item lookups from many threads and resolves them using batch calls of a
+ * {@link CachingServiceTemplate}. A batch is dispatched when it reaches the maximum batch size
+ * or when the collection window of its first item is over, whichever happens first.
+ *
+ * @param <I>  The type of the ID.
+ * @param <PS> The type of the partial response.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public final class BatchLoader<I, PS> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchLoader.class);
+    private final Function<Map<I, CompletableFuture<@Nullable PS>>, CompletableFuture<Map<I, PS>>> batchFunction;
+    private final int maxBatchSize;
+    private final Executor windowExecutor;
+    private final Executor dispatchExecutor;
+    private Map<I, CompletableFuture<@Nullable PS>> pending;
+    private long window;
+
+    /**
+     * Creates a new instance and injects all the dependencies which are necessary for it to work.
+     * Dispatches the batches using the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param template                 The template we need to use for resolving the batches.
+     * @param batchRequestTransformer  The component merging the partial requests into a batch request.
+     * @param requestFunction          The function creating the partial request of an ID.
+     * @param batchResponseTransformer The component splitting the batch response into partial responses.
+     * @param maxBatchSize             The maximum number of items in a batch, typically the maximum partition
+     *                                 size of the batch service. Must be larger than 0.
+     * @param windowMillis             The number of milliseconds we wait for more items before a batch
+     *                                 is dispatched. Must not be negative.
+     * @param <BR>                     The type of the batch request.
+     * @param <BS>                     The type of the batch response.
+     * @param <PR>                     The type of the partial request.
+     */
+    public <BR, BS, PR> BatchLoader(
+            final CachingServiceTemplate<BR, BS> template,
+            final BatchRequestTransformer<BR, PR, I> batchRequestTransformer,
+            final Function<I, PR> requestFunction,
+            final BatchResponseTransformer<BS, PS, I> batchResponseTransformer,
+            final int maxBatchSize,
+            final long windowMillis) {
+        this(template, batchRequestTransformer, requestFunction, batchResponseTransformer,
+                maxBatchSize, windowMillis, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new instance and injects all the dependencies which are necessary for it to work.
+     *
+     * @param template                 The template we need to use for resolving the batches.
+     * @param batchRequestTransformer  The component merging the partial requests into a batch request.
+     * @param requestFunction          The function creating the partial request of an ID.
+     * @param batchResponseTransformer The component splitting the batch response into partial responses.
+     * @param maxBatchSize             The maximum number of items in a batch, typically the maximum partition
+     *                                 size of the batch service. Must be larger than 0.
+     * @param windowMillis             The number of milliseconds we wait for more items before a batch
+     *                                 is dispatched. Must not be negative.
+     * @param dispatchExecutor         The executor we need to use for dispatching the batches.
+     * @param <BR>                     The type of the batch request.
+     * @param <BS>                     The type of the batch response.
+     * @param <PR>                     The type of the partial request.
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public <BR, BS, PR> BatchLoader(
+            final CachingServiceTemplate<BR, BS> template,
+            final BatchRequestTransformer<BR, PR, I> batchRequestTransformer,
+            final Function<I, PR> requestFunction,
+            final BatchResponseTransformer<BS, PS, I> batchResponseTransformer,
+            final int maxBatchSize,
+            final long windowMillis,
+            final Executor dispatchExecutor) {
+        Assert.isTrue(maxBatchSize > 0, "Max batch size must be larger than 0.");
+        Assert.isTrue(windowMillis >= 0, "Window must not be negative.");
+        this.batchFunction = batch -> {
+            final Map<I, PR> requestMap = new HashMap<>(batch.size());
+            batch.keySet().forEach(id -> requestMap.put(id, requestFunction.apply(id)));
+            return Optional.ofNullable(batchRequestTransformer.mergeToBatchRequest(requestMap))
+                    .map(template::callCacheableBatchServiceAsync)
+                    .orElseGet(() -> CompletableFuture.completedFuture(null))
+                    .thenApply(response -> Optional.ofNullable(response)
+                            .map(batchResponseTransformer::splitToPartialResponse)
+                            .orElse(Collections.emptyMap()));
+        };
+        this.maxBatchSize = maxBatchSize;
+        this.windowExecutor = CompletableFuture.delayedExecutor(windowMillis, TimeUnit.MILLISECONDS, dispatchExecutor);
+        this.dispatchExecutor = dispatchExecutor;
+        this.pending = new LinkedHashMap<>();
+    }
+
+    /**
+     * Loads a single item. The same future is returned for the same ID while the batch is not dispatched.
+     *
+     * @param id The ID of the item.
+     * @return The future of the partial response, completing with null when the item is not found
+     *         or exceptionally with a {@link com.github.nagyesta.cacheonly.raw.exception.BatchServiceException} when the batch call failed.
+     */
+    public CompletableFuture<@Nullable PS> load(final I id) {
+        final CompletableFuture<@Nullable PS> result;
+        @Nullable Map<I, CompletableFuture<@Nullable PS>> full = null;
+        synchronized (this) {
+            final var existing = pending.get(id);
+            if (existing != null) {
+                return existing;
+            }
+            result = new CompletableFuture<>();
+            pending.put(id, result);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                final var current = window;
+                windowExecutor.execute(() -> flushWindow(current));
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return result;
+    }
+
+    /**
+     * Loads multiple items.
+     *
+     * @param ids The IDs of the items.
+     * @return The future of the map of partial responses containing only the items which were found.
+     */
+    public CompletableFuture<Map<I, PS>> loadMany(final Collection<I> ids) {
+        final Map<I, CompletableFuture<@Nullable PS>> futures = new LinkedHashMap<>(ids.size());
+        ids.forEach(id -> futures.put(id, load(id)));
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    final Map<I, PS> result = new LinkedHashMap<>(futures.size());
+                    futures.forEach((id, future) -> Optional.ofNullable(future.join()).ifPresent(v -> result.put(id, v)));
+                    return result;
+                });
+    }
+
+    /**
+     * Dispatches the pending items right away without waiting for the end of the window.
+     */
+    public void flush() {
+        final Map<I, CompletableFuture<@Nullable PS>> batch;
+        synchronized (this) {
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private void flushWindow(final long expectedWindow) {
+        final Map<I, CompletableFuture<@Nullable PS>> batch;
+        synchronized (this) {
+            if (window != expectedWindow) {
+                return;
+            }
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    private Map<I, CompletableFuture<@Nullable PS>> takePending() {
+        final var batch = pending;
+        pending = new LinkedHashMap<>();
+        window++;
+        return batch;
+    }
+
+    private void dispatch(final Map<I, CompletableFuture<@Nullable PS>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        LOGGER.debug("Dispatching batch of {} items.", batch.size());
+        CompletableFuture.supplyAsync(() -> batch, dispatchExecutor)
+                .thenCompose(batchFunction)
+                .whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        final var cause = unwrap(throwable);
+                        batch.values().forEach(future -> future.completeExceptionally(cause));
+                    } else {
+                        batch.forEach((id, future) -> future.complete(response.get(id)));
+                    }
+                });
+    }
+
+    private static Throwable unwrap(final Throwable throwable) {
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            return throwable.getCause();
+        }
+        return throwable;
+    }
+}
@@ -0,0 +1,4 @@
+@NullMarked
+package com.github.nagyesta.cacheonly.core.loader;
+
+import org.jspecify.annotations.NullMarked;
@@ -1,5 +1,6 @@
 package com.github.nagyesta.cacheonly.core.metrics;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -14,6 +15,22 @@ public final class BasicBatchServiceCallMetricCollector implements BatchServiceC
     private final AtomicLong partitionCreated = new AtomicLong(0L);
     private final AtomicLong partitionFailed = new AtomicLong(0L);
     private final AtomicLong partitionSucceeded = new AtomicLong(0L);
+    private final AtomicLong inFlightRequestJoined = new AtomicLong(0L);
+    private final AtomicLong nearCacheHit = new AtomicLong(0L);
+    private final AtomicLong nearCacheMiss = new AtomicLong(0L);
+    private final AtomicLong negativeCacheHit = new AtomicLong(0L);
+    private final AtomicLong negativeCachePut = new AtomicLong(0L);
+    private final AtomicLong staleCacheHit = new AtomicLong(0L);
+    private final AtomicLong hedgedRequestSent = new AtomicLong(0L);
+    private final AtomicLong hedgedRequestWon = new AtomicLong(0L);
+    private final AtomicLong partitionRetried = new AtomicLong(0L);
+    private final AtomicLong circuitOpened = new AtomicLong(0L);
+    private final AtomicLong circuitHalfOpened = new AtomicLong(0L);
+    private final AtomicLong circuitClosed = new AtomicLong(0L);
+    private final AtomicLong partitionTimedOut = new AtomicLong(0L);
+    private final AtomicLong originRequestRejected = new AtomicLong(0L);
+    private final AtomicLong writeBehindBatchLost = new AtomicLong(0L);
+    private final AtomicInteger effectivePartitionSize = new AtomicInteger(0);
 
     @Override
     public void cacheGet(final int gets) {
@@ -50,6 +67,86 @@ public final class BasicBatchServiceCallMetricCollector implements BatchServiceC
         partitionSucceeded.addAndGet(partitions);
     }
 
+    @Override
+    public void inFlightRequestsJoined(final int items) {
+        inFlightRequestJoined.addAndGet(items);
+    }
+
+    @Override
+    public void nearCacheHit(final int hits) {
+        nearCacheHit.addAndGet(hits);
+    }
+
+    @Override
+    public void nearCacheMiss(final int miss) {
+        nearCacheMiss.addAndGet(miss);
+    }
+
+    @Override
+    public void negativeCacheHit(final int hits) {
+        negativeCacheHit.addAndGet(hits);
+    }
+
+    @Override
+    public void negativeCachePut(final int puts) {
+        negativeCachePut.addAndGet(puts);
+    }
+
+    @Override
+    public void staleCacheHit(final int hits) {
+        staleCacheHit.addAndGet(hits);
+    }
+
+    @Override
+    public void effectivePartitionSize(final int partitionSize) {
+        effectivePartitionSize.set(partitionSize);
+    }
+
+    @Override
+    public void hedgedRequestSent(final int requests) {
+        hedgedRequestSent.addAndGet(requests);
+    }
+
+    @Override
+    public void hedgedRequestWon(final int requests) {
+        hedgedRequestWon.addAndGet(requests);
+    }
+
+    @Override
+    public void partitionsRetried(final int partitions) {
+        partitionRetried.addAndGet(partitions);
+    }
+
+    @Override
+    public void circuitOpened(final int transitions) {
+        circuitOpened.addAndGet(transitions);
+    }
+
+    @Override
+    public void circuitHalfOpened(final int transitions) {
+        circuitHalfOpened.addAndGet(transitions);
+    }
+
+    @Override
+    public void circuitClosed(final int transitions) {
+        circuitClosed.addAndGet(transitions);
+    }
+
+    @Override
+    public void partitionsTimedOut(final int partitions) {
+        partitionTimedOut.addAndGet(partitions);
+    }
+
+    @Override
+    public void writeBehindBatchesLost(final int batches) {
+        writeBehindBatchLost.addAndGet(batches);
+    }
+
+    @Override
+    public void originRequestsRejected(final int items) {
+        originRequestRejected.addAndGet(items);
+    }
+
     public long getCacheGet() {
         return cacheGet.get();
     }
@@ -77,4 +174,68 @@ public final class BasicBatchServiceCallMetricCollector implements BatchServiceC
     public long getPartitionSucceeded() {
         return partitionSucceeded.get();
     }
+
+    public long getInFlightRequestJoined() {
+        return inFlightRequestJoined.get();
+    }
+
+    public long getNearCacheHit() {
+        return nearCacheHit.get();
+    }
+
+    public long getNearCacheMiss() {
+        return nearCacheMiss.get();
+    }
+
+    public long getNegativeCacheHit() {
+        return negativeCacheHit.get();
+    }
+
+    public long getNegativeCachePut() {
+        return negativeCachePut.get();
+    }
+
+    public long getStaleCacheHit() {
+        return staleCacheHit.get();
+    }
+
+    public int getEffectivePartitionSize() {
+        return effectivePartitionSize.get();
+    }
+
+    public long getHedgedRequestSent() {
+        return hedgedRequestSent.get();
+    }
+
+    public long getHedgedRequestWon() {
+        return hedgedRequestWon.get();
+    }
+
+    public long getPartitionRetried() {
+        return partitionRetried.get();
+    }
+
+    public long getCircuitOpened() {
+        return circuitOpened.get();
+    }
+
+    public long getCircuitHalfOpened() {
+        return circuitHalfOpened.get();
+    }
+
+    public long getCircuitClosed() {
+        return circuitClosed.get();
+    }
+
+    public long getPartitionTimedOut() {
+        return partitionTimedOut.get();
+    }
+
+    public long getOriginRequestRejected() {
+        return originRequestRejected.get();
+    }
+
+    public long getWriteBehindBatchLost() {
+        return writeBehindBatchLost.get();
+    }
 }
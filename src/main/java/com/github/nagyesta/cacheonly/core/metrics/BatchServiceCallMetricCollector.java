@@ -53,4 +53,149 @@ public interface BatchServiceCallMetricCollector {
      * @param partitions The number of partitions.
      */
     void partitionsSucceeded(int partitions);
+
+    /**
+     * Called when items are not requested from the origin service because they are already in flight
+     * in a concurrent call.
+     *
+     * @param items The number of items.
+     */
+    default void inFlightRequestsJoined(final int items) {
+        //no-op
+    }
+
+    /**
+     * Called when items are found in the in-process near cache.
+     *
+     * @param hits The amount we need to register.
+     */
+    default void nearCacheHit(final int hits) {
+        //no-op
+    }
+
+    /**
+     * Called when items are not found in the in-process near cache.
+     *
+     * @param miss The amount we need to register.
+     */
+    default void nearCacheMiss(final int miss) {
+        //no-op
+    }
+
+    /**
+     * Called when items are skipped because the negative cache remembers that they are absent.
+     *
+     * @param hits The amount we need to register.
+     */
+    default void negativeCacheHit(final int hits) {
+        //no-op
+    }
+
+    /**
+     * Called when tombstones are put into the negative cache.
+     *
+     * @param puts The amount we need to register.
+     */
+    default void negativeCachePut(final int puts) {
+        //no-op
+    }
+
+    /**
+     * Called when stale items are returned from the cache and scheduled for a background refresh.
+     *
+     * @param hits The amount we need to register.
+     */
+    default void staleCacheHit(final int hits) {
+        //no-op
+    }
+
+    /**
+     * Called when the requests are split into partitions with the partition size used.
+     *
+     * @param partitionSize The maximum number of items in a partition.
+     */
+    default void effectivePartitionSize(final int partitionSize) {
+        //no-op
+    }
+
+    /**
+     * Called when a duplicate (hedged) request is sent to the origin for a slow partition.
+     *
+     * @param requests The amount we need to register.
+     */
+    default void hedgedRequestSent(final int requests) {
+        //no-op
+    }
+
+    /**
+     * Called when a hedged request completes before the original request of the partition.
+     *
+     * @param requests The amount we need to register.
+     */
+    default void hedgedRequestWon(final int requests) {
+        //no-op
+    }
+
+    /**
+     * Called when a failed partition is sent to the origin again.
+     *
+     * @param partitions The amount we need to register.
+     */
+    default void partitionsRetried(final int partitions) {
+        //no-op
+    }
+
+    /**
+     * Called when the circuit breaker protecting the origin opens.
+     *
+     * @param transitions The amount we need to register.
+     */
+    default void circuitOpened(final int transitions) {
+        //no-op
+    }
+
+    /**
+     * Called when the circuit breaker protecting the origin becomes half-open.
+     *
+     * @param transitions The amount we need to register.
+     */
+    default void circuitHalfOpened(final int transitions) {
+        //no-op
+    }
+
+    /**
+     * Called when the circuit breaker protecting the origin closes.
+     *
+     * @param transitions The amount we need to register.
+     */
+    default void circuitClosed(final int transitions) {
+        //no-op
+    }
+
+    /**
+     * Called when items are not sent to the origin because the circuit breaker rejected them.
+     *
+     * @param items The amount we need to register.
+     */
+    default void originRequestsRejected(final int items) {
+        //no-op
+    }
+
+    /**
+     * Called when an origin partition does not complete within its timeout.
+     *
+     * @param partitions The amount we need to register.
+     */
+    default void partitionsTimedOut(final int partitions) {
+        //no-op
+    }
+
+    /**
+     * Called when a batch of queued cache writes cannot be written to the cache by the write-behind queue.
+     *
+     * @param batches The amount we need to register.
+     */
+    default void writeBehindBatchesLost(final int batches) {
+        //no-op
+    }
 }
@@ -0,0 +1,111 @@
+package com.github.nagyesta.cacheonly.core.refresh;
+
+import com.github.nagyesta.cacheonly.core.CachingServiceTemplate;
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.transform.BatchRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.decorator.RefreshAheadPartialCacheSupport;
+import org.apache.commons.collections4.ListUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Periodically refreshes the hot keys nearing their expiry using
+ * {@link CachingServiceTemplate#callBatchServiceAndPutAllToCache(Object)}. The keys are selected by a
+ * {@link RefreshAheadPartialCacheSupport}, which must be the cache support of the template, and are
+ * grouped into partitions of the maximum partition size, therefore only the last partition of a
+ * scan can be smaller. The partitions are refreshed one by one on a single background thread.
+ *
+ * @param <BR> The type of the batch request.
+ * @param <PR> The type of the partial request.
+ * @param <C>  The type of the cache key.
+ * @param <I>  The type of the ID.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public final class RefreshAheadScheduler<BR, PR, C, I> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RefreshAheadScheduler.class);
+    private final CachingServiceTemplate<BR, ?> template;
+    private final BatchRequestTransformer<BR, PR, I> batchRequestTransformer;
+    private final Function<I, PR> requestFunction;
+    private final RefreshAheadPartialCacheSupport<PR, ?, C, I> cacheSupport;
+    private final int maxPartitionSize;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a new instance and starts the periodic scans.
+     *
+     * @param template                The template we need to use for refreshing the keys.
+     * @param batchRequestTransformer The component merging the partial requests into a batch request.
+     * @param requestFunction         The function creating the partial request of an ID.
+     * @param cacheSupport            The cache support of the template selecting the keys due for refresh.
+     * @param maxPartitionSize        The maximum number of items refreshed in a single call, typically the
+     *                                maximum partition size of the batch service. Must be larger than 0.
+     * @param scanIntervalMillis      The number of milliseconds between two scans. Must be larger than 0.
+     */
+    public RefreshAheadScheduler(
+            final CachingServiceTemplate<BR, ?> template,
+            final BatchRequestTransformer<BR, PR, I> batchRequestTransformer,
+            final Function<I, PR> requestFunction,
+            final RefreshAheadPartialCacheSupport<PR, ?, C, I> cacheSupport,
+            final int maxPartitionSize,
+            final long scanIntervalMillis) {
+        Assert.isTrue(maxPartitionSize > 0, "Max partition size must be larger than 0.");
+        Assert.isTrue(scanIntervalMillis > 0, "Scan interval must be larger than 0.");
+        this.template = template;
+        this.batchRequestTransformer = batchRequestTransformer;
+        this.requestFunction = requestFunction;
+        this.cacheSupport = cacheSupport;
+        this.maxPartitionSize = maxPartitionSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "cache-only-refresh-ahead");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::refreshDueKeys, scanIntervalMillis, scanIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Refreshes the keys which are due for refresh on the calling thread.
+     *
+     * @return The number of keys we attempted to refresh.
+     */
+    public int refreshDueKeys() {
+        final var keys = cacheSupport.takeKeysDueForRefresh();
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        LOGGER.debug("Refreshing {} keys ahead of their expiry.", keys.size());
+        ListUtils.partition(keys, maxPartitionSize).forEach(this::refreshPartition);
+        return keys.size();
+    }
+
+    /**
+     * Stops the periodic scans.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+
+    private void refreshPartition(final List<CacheKey<C, I>> keys) {
+        try {
+            final Map<I, PR> requestMap = new HashMap<>(keys.size());
+            keys.forEach(key -> requestMap.put(key.id(), requestFunction.apply(key.id())));
+            Optional.ofNullable(batchRequestTransformer.mergeToBatchRequest(requestMap))
+                    .ifPresent(template::callBatchServiceAndPutAllToCache);
+        } catch (final RuntimeException e) {
+            LOGGER.warn("Failed to refresh {} keys ahead of their expiry.", keys.size(), e);
+            cacheSupport.releaseKeys(keys);
+        }
+    }
+}
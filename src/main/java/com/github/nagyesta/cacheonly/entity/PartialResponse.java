@@ -0,0 +1,13 @@
+package com.github.nagyesta.cacheonly.entity;
+
+/**
+ * Represents a partial response and the ID which can help us find the request it belongs to.
+ *
+ * @param <I>      The type of the ID.
+ * @param <PS>     The type of the partial response.
+ * @param id       The ID of the entity.
+ * @param response The partial response.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public record PartialResponse<I, PS>(I id, PS response) {
+}
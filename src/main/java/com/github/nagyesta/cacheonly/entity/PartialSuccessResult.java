@@ -0,0 +1,36 @@
+package com.github.nagyesta.cacheonly.entity;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Represents the outcome of a batch call tolerating the failure of some origin partitions.
+ *
+ * @param <BS>     The type of the batch response.
+ * @param <I>      The type of the ID.
+ * @param response The batch response merged from all the partial responses we could resolve.
+ * @param failures The causes of the failures mapped by the IDs of the partial requests we could not resolve.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public record PartialSuccessResult<BS, I>(@Nullable BS response, Map<I, Throwable> failures) {
+
+    /**
+     * Creates a new instance and makes an immutable copy of the failures.
+     *
+     * @param response The batch response merged from all the partial responses we could resolve.
+     * @param failures The causes of the failures mapped by the IDs of the partial requests we could not resolve.
+     */
+    public PartialSuccessResult {
+        failures = Map.copyOf(failures);
+    }
+
+    /**
+     * Returns whether all partial requests were resolved.
+     *
+     * @return true if there were no failures, false otherwise.
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
@@ -31,6 +31,18 @@ public interface BatchServiceCaller<BR, BS> {
         return CacheRefreshStrategy.OPTIMISTIC;
     }
 
+    /**
+     * Tells whether concurrent calls should wait for the response of the items already in flight to
+     * the batch service instead of requesting them again. The items are identified by their cache key.
+     * Disabled by default, as the waiting callers are bound to the latency and failures of the call
+     * already in flight. The items which are not resolved by that call in time are requested again.
+     *
+     * @return true if the in-flight requests should be deduplicated.
+     */
+    default boolean deduplicateInFlightRequests() {
+        return false;
+    }
+
     /**
      * Calls the real batch service with a single batch.
      * The number of items in the batch is guaranteed to be lower or equal to {@link #maxPartitionSize()}.
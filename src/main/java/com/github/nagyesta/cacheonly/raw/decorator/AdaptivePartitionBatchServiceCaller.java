@@ -0,0 +1,104 @@
+package com.github.nagyesta.cacheonly.raw.decorator;
+
+import com.github.nagyesta.cacheonly.raw.BatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link BatchServiceCaller} decorator tuning the partition size at runtime between 1 and the
+ * {@link BatchServiceCaller#maxPartitionSize()} of the delegate using an AIMD (additive increase,
+ * multiplicative decrease) controller. Every batch call completing under the target latency increases
+ * the partition size by one, every slow or failed call halves it. Only the first call completing with
+ * a given partition size can increase it, and a call can decrease only the size it was started with,
+ * therefore the concurrent partitions of the same batch change the size only once.
+ * <br>
+ * The templates report the current size using
+ * {@link com.github.nagyesta.cacheonly.core.metrics.BatchServiceCallMetricCollector#effectivePartitionSize(int)}.
+ *
+ * @param <BR> The type of the batch request.
+ * @param <BS> The type of the batch response.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public final class AdaptivePartitionBatchServiceCaller<BR, BS> extends DelegatingBatchServiceCaller<BR, BS> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptivePartitionBatchServiceCaller.class);
+    private final long targetLatencyNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger partitionSize;
+
+    /**
+     * Creates a new instance starting with the maximum partition size of the delegate.
+     *
+     * @param delegate            The batch service caller we want to decorate.
+     * @param targetLatencyMillis The latency of a single batch call we consider healthy in milliseconds.
+     *                            Must be larger than 0.
+     */
+    public AdaptivePartitionBatchServiceCaller(
+            final BatchServiceCaller<BR, BS> delegate,
+            final long targetLatencyMillis) {
+        this(delegate, targetLatencyMillis, System::nanoTime);
+    }
+
+    AdaptivePartitionBatchServiceCaller(
+            final BatchServiceCaller<BR, BS> delegate,
+            final long targetLatencyMillis,
+            final LongSupplier nanoClock) {
+        super(delegate);
+        Assert.isTrue(targetLatencyMillis > 0, "Target latency must be larger than 0.");
+        Assert.isTrue(delegate.maxPartitionSize() > 0, "Max partition size must be larger than 0.");
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.nanoClock = nanoClock;
+        this.partitionSize = new AtomicInteger(delegate.maxPartitionSize());
+    }
+
+    /**
+     * Returns the current partition size selected by the controller.
+     *
+     * @return The partition size between 1 and the maximum partition size of the delegate.
+     */
+    @Override
+    public int maxPartitionSize() {
+        return partitionSize.get();
+    }
+
+    @Override
+    public @Nullable BS callBatchService(final BR batchRequest) throws BatchServiceException {
+        final var sizeAtStart = partitionSize.get();
+        final var start = nanoClock.getAsLong();
+        final BS response;
+        try {
+            response = delegate().callBatchService(batchRequest);
+        } catch (final RuntimeException e) {
+            decrease(sizeAtStart);
+            throw e;
+        }
+        if (nanoClock.getAsLong() - start <= targetLatencyNanos) {
+            increase(sizeAtStart);
+        } else {
+            decrease(sizeAtStart);
+        }
+        return response;
+    }
+
+    private void increase(final int sizeAtStart) {
+        final var next = Math.min(delegate().maxPartitionSize(), sizeAtStart + 1);
+        if (partitionSize.compareAndSet(sizeAtStart, next) && next != sizeAtStart) {
+            LOGGER.trace("Partition size increased to {}.", next);
+        }
+    }
+
+    private void decrease(final int sizeAtStart) {
+        final var next = Math.max(1, sizeAtStart / 2);
+        final var previous = partitionSize.getAndUpdate(current -> Math.min(current, next));
+        if (previous > next) {
+            LOGGER.debug("Partition size decreased to {}.", next);
+        }
+    }
+}
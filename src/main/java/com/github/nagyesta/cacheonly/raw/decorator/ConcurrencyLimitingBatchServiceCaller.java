@@ -0,0 +1,200 @@
+package com.github.nagyesta.cacheonly.raw.decorator;
+
+import com.github.nagyesta.cacheonly.raw.BatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link BatchServiceCaller} decorator limiting the number of concurrent batch calls sent to the
+ * origin by all callers sharing the instance. The limit adapts to the observed latency using a
+ * gradient controller: the limit is reduced proportionally when the latency grows above the lowest
+ * latency observed (multiplied by a tolerance) and it is increased when the latency is stable and
+ * the limit is utilized. Failed calls reduce the limit the most.
+ * <br>
+ * The calls exceeding the limit wait for a free slot for a bounded time and are rejected with a
+ * {@link BatchServiceException} when no slot becomes free. Setting the maximum wait to 0 rejects them
+ * right away. Waiting blocks the calling thread, therefore using virtual threads is recommended with
+ * non-zero wait times.
+ *
+ * @param <BR> The type of the batch request.
+ * @param <BS> The type of the batch response.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public final class ConcurrencyLimitingBatchServiceCaller<BR, BS> extends DelegatingBatchServiceCaller<BR, BS> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrencyLimitingBatchServiceCaller.class);
+    private static final double MIN_GRADIENT = 0.5D;
+    private static final double RTT_TOLERANCE = 1.5D;
+    private static final double SMOOTHING = 0.2D;
+    private static final long PROBE_INTERVAL = 1000L;
+    private final int maxLimit;
+    private final long maxWaitNanos;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private double estimatedLimit;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private long samples;
+    private int inFlight;
+    private long rejected;
+
+    /**
+     * Creates a new instance and sets the limits.
+     *
+     * @param delegate      The batch service caller we want to decorate.
+     * @param initialLimit  The concurrency limit we start with. Must be between 1 and the max limit.
+     * @param maxLimit      The maximum concurrency limit.
+     * @param maxWaitMillis The maximum number of milliseconds a call can wait for a free slot.
+     *                      Must not be negative.
+     */
+    public ConcurrencyLimitingBatchServiceCaller(
+            final BatchServiceCaller<BR, BS> delegate,
+            final int initialLimit,
+            final int maxLimit,
+            final long maxWaitMillis) {
+        this(delegate, initialLimit, maxLimit, maxWaitMillis, System::nanoTime);
+    }
+
+    ConcurrencyLimitingBatchServiceCaller(
+            final BatchServiceCaller<BR, BS> delegate,
+            final int initialLimit,
+            final int maxLimit,
+            final long maxWaitMillis,
+            final LongSupplier nanoClock) {
+        super(delegate);
+        Assert.isTrue(initialLimit > 0 && initialLimit <= maxLimit, "Initial limit must be between 1 and the max limit.");
+        Assert.isTrue(maxWaitMillis >= 0, "Max wait must not be negative.");
+        this.estimatedLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public @Nullable BS callBatchService(final BR batchRequest) throws BatchServiceException {
+        final var inFlightAtStart = acquire();
+        final var start = nanoClock.getAsLong();
+        var failed = true;
+        try {
+            final var response = delegate().callBatchService(batchRequest);
+            failed = false;
+            return response;
+        } finally {
+            release(nanoClock.getAsLong() - start, inFlightAtStart, failed);
+        }
+    }
+
+    /**
+     * Returns the current concurrency limit.
+     *
+     * @return limit.
+     */
+    public int currentLimit() {
+        lock.lock();
+        try {
+            return limit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calls in flight.
+     *
+     * @return count.
+     */
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of calls rejected since the instance was created.
+     *
+     * @return count.
+     */
+    public long rejectedCalls() {
+        lock.lock();
+        try {
+            return rejected;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int acquire() {
+        lock.lock();
+        try {
+            var remaining = maxWaitNanos;
+            while (inFlight >= limit()) {
+                if (remaining <= 0L) {
+                    rejected++;
+                    LOGGER.debug("Rejecting batch call, concurrency limit {} reached.", limit());
+                    throw new BatchServiceException("Concurrency limit reached: " + limit());
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inFlight++;
+            return inFlight;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BatchServiceException("Interrupted while waiting for the concurrency limit.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(
+            final long latencyNanos,
+            final int inFlightAtStart,
+            final boolean failed) {
+        lock.lock();
+        try {
+            inFlight--;
+            updateLimit(Math.max(1L, latencyNanos), inFlightAtStart, failed);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void updateLimit(
+            final long latencyNanos,
+            final int inFlightAtStart,
+            final boolean failed) {
+        samples++;
+        if (samples % PROBE_INTERVAL == 0L) {
+            minLatencyNanos = latencyNanos;
+        } else {
+            minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+        }
+        final double newLimit;
+        if (failed) {
+            newLimit = estimatedLimit * MIN_GRADIENT;
+        } else {
+            final var gradient = Math.max(MIN_GRADIENT, Math.min(1.0D, RTT_TOLERANCE * minLatencyNanos / latencyNanos));
+            if (gradient >= 1.0D && inFlightAtStart < estimatedLimit / 2) {
+                return;
+            }
+            newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        }
+        estimatedLimit = Math.max(1.0D, Math.min(maxLimit, estimatedLimit * (1.0D - SMOOTHING) + newLimit * SMOOTHING));
+        LOGGER.trace("Concurrency limit updated to {}.", estimatedLimit);
+    }
+
+    private int limit() {
+        return (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.nagyesta.cacheonly.raw.decorator;
+
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.conurrent.ConcurrentOperationSupport;
+import com.github.nagyesta.cacheonly.core.conurrent.ExecutionMode;
+import com.github.nagyesta.cacheonly.raw.BatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.concurrent.AsyncBatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Abstract {@link BatchServiceCaller} decorator passing every call to the delegate. Subclasses can
+ * override the methods they want to decorate. The concurrency related settings are taken from the
+ * delegate when it is a {@link ConcurrentOperationSupport}, therefore the decorator can be used with
+ * both the default and the concurrent templates.
+ *
+ * @param <BR> The type of the batch request.
+ * @param <BS> The type of the batch response.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public abstract class DelegatingBatchServiceCaller<BR, BS> implements AsyncBatchServiceCaller<BR, BS> {
+
+    private final BatchServiceCaller<BR, BS> delegate;
+    private final ConcurrentOperationSupport concurrentOperationSupport;
+
+    /**
+     * Creates a new instance and sets the delegate.
+     *
+     * @param delegate The batch service caller we want to decorate.
+     */
+    protected DelegatingBatchServiceCaller(final BatchServiceCaller<BR, BS> delegate) {
+        this.delegate = delegate;
+        if (delegate instanceof ConcurrentOperationSupport support) {
+            this.concurrentOperationSupport = support;
+        } else {
+            this.concurrentOperationSupport = new ConcurrentOperationSupport() {
+            };
+        }
+    }
+
+    @Override
+    public int maxPartitionSize() {
+        return delegate.maxPartitionSize();
+    }
+
+    @Override
+    public CacheRefreshStrategy refreshStrategy() {
+        return delegate.refreshStrategy();
+    }
+
+    @Override
+    public boolean deduplicateInFlightRequests() {
+        return delegate.deduplicateInFlightRequests();
+    }
+
+    @Override
+    public @Nullable BS callBatchService(final BR batchRequest) throws BatchServiceException {
+        return delegate.callBatchService(batchRequest);
+    }
+
+    @Override
+    public ForkJoinPool forkJoinPool() {
+        return concurrentOperationSupport.forkJoinPool();
+    }
+
+    @Override
+    public ExecutionMode executionMode() {
+        return concurrentOperationSupport.executionMode();
+    }
+
+    @Override
+    public long timeoutMillis() {
+        return concurrentOperationSupport.timeoutMillis();
+    }
+
+    /**
+     * Returns the decorated batch service caller.
+     *
+     * @return delegate.
+     */
+    protected final BatchServiceCaller<BR, BS> delegate() {
+        return delegate;
+    }
+}
@@ -0,0 +1,196 @@
+package com.github.nagyesta.cacheonly.raw.decorator;
+
+import com.github.nagyesta.cacheonly.core.metrics.BatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.core.metrics.NoOpBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.raw.BatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link BatchServiceCaller} decorator retrying the failed batch calls. As the templates call the
+ * batch service once for each partition, only the failed partitions are sent again. The retries wait
+ * using exponential backoff with full jitter, and they are limited by a retry budget: every first
+ * attempt deposits the configured ratio into the budget, every retry withdraws one from it, therefore
+ * the retries cannot exceed the given ratio of the call volume (apart from a small initial reserve).
+ * No retry is made when the thread was interrupted or when the retry could not start before
+ * {@link #timeoutMillis()} is over, as the template has given up on the partition by then.
+ * <br>
+ * The retries are reported using {@link BatchServiceCallMetricCollector#partitionsRetried(int)}.
+ *
+ * @param <BR> The type of the batch request.
+ * @param <BS> The type of the batch response.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public final class RetryingBatchServiceCaller<BR, BS> extends DelegatingBatchServiceCaller<BR, BS> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RetryingBatchServiceCaller.class);
+    private static final double RETRY_BUDGET_CAPACITY = 10.0D;
+    private static final int MAX_BACKOFF_SHIFT = 30;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final double retryBudgetRatio;
+    private final LongConsumer sleeper;
+    private final DoubleSupplier random;
+    private final LongSupplier nanoClock;
+    private final BatchServiceCallMetricCollector metricsCollector;
+    private double retryBudget = RETRY_BUDGET_CAPACITY;
+
+    /**
+     * Creates a new instance and sets the retry parameters.
+     *
+     * @param delegate             The batch service caller we want to decorate.
+     * @param maxAttempts          The maximum number of attempts for a partition, including the first one.
+     *                             Must be larger than 0.
+     * @param initialBackoffMillis The upper bound of the wait before the first retry in milliseconds, doubled
+     *                             before each subsequent retry. Must not be negative.
+     * @param maxBackoffMillis     The maximum upper bound of the wait in milliseconds. Must not be smaller
+     *                             than the initial backoff.
+     * @param retryBudgetRatio     The number of retries allowed for each first attempt (e.g. 0.1 for 10%).
+     *                             Must be larger than 0.
+     */
+    public RetryingBatchServiceCaller(
+            final BatchServiceCaller<BR, BS> delegate,
+            final int maxAttempts,
+            final long initialBackoffMillis,
+            final long maxBackoffMillis,
+            final double retryBudgetRatio) {
+        this(delegate, maxAttempts, initialBackoffMillis, maxBackoffMillis, retryBudgetRatio, new NoOpBatchServiceCallMetricCollector());
+    }
+
+    /**
+     * Creates a new instance and sets the retry parameters.
+     *
+     * @param delegate             The batch service caller we want to decorate.
+     * @param maxAttempts          The maximum number of attempts for a partition, including the first one.
+     *                             Must be larger than 0.
+     * @param initialBackoffMillis The upper bound of the wait before the first retry in milliseconds, doubled
+     *                             before each subsequent retry. Must not be negative.
+     * @param maxBackoffMillis     The maximum upper bound of the wait in milliseconds. Must not be smaller
+     *                             than the initial backoff.
+     * @param retryBudgetRatio     The number of retries allowed for each first attempt (e.g. 0.1 for 10%).
+     *                             Must be larger than 0.
+     * @param metricsCollector     The collector receiving the number of retries.
+     */
+    public RetryingBatchServiceCaller(
+            final BatchServiceCaller<BR, BS> delegate,
+            final int maxAttempts,
+            final long initialBackoffMillis,
+            final long maxBackoffMillis,
+            final double retryBudgetRatio,
+            final BatchServiceCallMetricCollector metricsCollector) {
+        this(delegate, maxAttempts, initialBackoffMillis, maxBackoffMillis, retryBudgetRatio, metricsCollector,
+                RetryingBatchServiceCaller::sleep, () -> ThreadLocalRandom.current().nextDouble(), System::nanoTime);
+    }
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    RetryingBatchServiceCaller(
+            final BatchServiceCaller<BR, BS> delegate,
+            final int maxAttempts,
+            final long initialBackoffMillis,
+            final long maxBackoffMillis,
+            final double retryBudgetRatio,
+            final BatchServiceCallMetricCollector metricsCollector,
+            final LongConsumer sleeper,
+            final DoubleSupplier random,
+            final LongSupplier nanoClock) {
+        super(delegate);
+        Assert.isTrue(maxAttempts > 0, "Max attempts must be larger than 0.");
+        Assert.isTrue(initialBackoffMillis >= 0, "Initial backoff must not be negative.");
+        Assert.isTrue(maxBackoffMillis >= initialBackoffMillis, "Max backoff must not be smaller than the initial backoff.");
+        Assert.isTrue(retryBudgetRatio > 0, "Retry budget ratio must be larger than 0.");
+        Assert.notNull(metricsCollector, "Metrics collector cannot be null.");
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.retryBudgetRatio = retryBudgetRatio;
+        this.metricsCollector = metricsCollector;
+        this.sleeper = sleeper;
+        this.random = random;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public @Nullable BS callBatchService(final BR batchRequest) throws BatchServiceException {
+        deposit();
+        final var startNanos = nanoClock.getAsLong();
+        var attempt = 1;
+        while (true) {
+            try {
+                return delegate().callBatchService(batchRequest);
+            } catch (final BatchServiceException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                final var backoff = backoffMillis(attempt);
+                if (!canRetryAfter(startNanos, backoff) || !withdraw()) {
+                    throw e;
+                }
+                LOGGER.debug("Batch call attempt {} failed, retrying after {} ms. Cause: {}", attempt, backoff, e.getMessage());
+                metricsCollector.partitionsRetried(1);
+                sleeper.accept(backoff);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of retries currently allowed by the retry budget.
+     *
+     * @return The available budget.
+     */
+    public synchronized double availableRetryBudget() {
+        return retryBudget;
+    }
+
+    private boolean canRetryAfter(
+            final long startNanos,
+            final long backoffMillis) {
+        if (Thread.currentThread().isInterrupted()) {
+            LOGGER.debug("Thread is interrupted, not retrying.");
+            return false;
+        }
+        final var elapsedMillis = TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - startNanos);
+        if (elapsedMillis + backoffMillis >= timeoutMillis()) {
+            LOGGER.debug("Timeout of {} ms would be over before the retry, not retrying.", timeoutMillis());
+            return false;
+        }
+        return true;
+    }
+
+    private synchronized void deposit() {
+        retryBudget = Math.min(RETRY_BUDGET_CAPACITY, retryBudget + retryBudgetRatio);
+    }
+
+    private synchronized boolean withdraw() {
+        if (retryBudget < 1.0D) {
+            LOGGER.debug("Retry budget exhausted, not retrying.");
+            return false;
+        }
+        retryBudget -= 1.0D;
+        return true;
+    }
+
+    private long backoffMillis(final int attempt) {
+        final var ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(MAX_BACKOFF_SHIFT, attempt - 1));
+        return (long) (random.getAsDouble() * ceiling);
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BatchServiceException("Interrupted while waiting for retry.", e);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+@NullMarked
+package com.github.nagyesta.cacheonly.raw.decorator;
+
+import org.jspecify.annotations.NullMarked;
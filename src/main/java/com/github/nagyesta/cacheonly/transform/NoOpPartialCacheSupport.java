@@ -5,6 +5,10 @@ import com.github.nagyesta.cacheonly.transform.concurrent.AsyncPartialCacheSuppo
 import org.jspecify.annotations.Nullable;
 import org.springframework.cache.CacheManager;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * No-operation implementation of {@link PartialCacheSupport}.
  *
@@ -43,8 +47,18 @@ public class NoOpPartialCacheSupport<PR, PS, C, I> implements AsyncPartialCacheS
         //noop
     }
 
+    @Override
+    public void putAllToCache(final Map<CacheKey<C, I>, PS> entries) {
+        //noop
+    }
+
     @Override
     public @Nullable PS getFromCache(final CacheKey<C, I> key) {
         return null;
     }
+
+    @Override
+    public Map<CacheKey<C, I>, PS> getAllFromCache(final Collection<CacheKey<C, I>> keys) {
+        return Collections.emptyMap();
+    }
 }
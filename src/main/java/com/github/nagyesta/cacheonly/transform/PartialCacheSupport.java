@@ -5,7 +5,12 @@ import org.jspecify.annotations.Nullable;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Defines how a given partial request-response pair should be cached.
@@ -63,8 +68,21 @@ public interface PartialCacheSupport<PR, PS, C, I> {
      * @param entity The entity we want to cache.
      */
     default void putToCache(final CacheKey<C, I> key, final PS entity) {
-        Optional.ofNullable(obtainCache())
-                .ifPresent(cache -> cache.put(key.key(), entity));
+        final var cache = obtainCache();
+        if (cache != null) {
+            cache.put(key.key(), entity);
+        }
+    }
+
+    /**
+     * Puts multiple partial response entities into the cache. The default implementation calls
+     * {@link #putToCache(CacheKey, Object)} for each entry, implementations using a cache with
+     * native multi-put support should override it to store all entries in a single round trip.
+     *
+     * @param entries The entities we want to cache mapped by their cache keys.
+     */
+    default void putAllToCache(final Map<CacheKey<C, I>, PS> entries) {
+        entries.forEach(this::putToCache);
     }
 
     /**
@@ -74,8 +92,151 @@ public interface PartialCacheSupport<PR, PS, C, I> {
      * @return A partial response identified by the key or null in case of cache miss.
      */
     default @Nullable PS getFromCache(final CacheKey<C, I> key) {
-        return Optional.ofNullable(obtainCache())
-                .map(cache -> cache.get(key.key(), getEntityClass()))
-                .orElse(null);
+        final var cache = obtainCache();
+        if (cache == null) {
+            return null;
+        }
+        return cache.get(key.key(), getEntityClass());
+    }
+
+    /**
+     * Tells whether the templates should use {@link #getAllFromCache(Collection)} for fetching all items
+     * of a batch in a single step instead of calling {@link #getFromCache(CacheKey)} for each key.
+     * Should return true when the cache supports multi-get natively or when the per-key lookups are
+     * cheap enough to be done sequentially.
+     * <br>
+     * Bulk lookups are opt-in for two reasons. The concurrent templates run the per-key lookups in
+     * parallel and can dispatch the origin partitions while the rest of the lookups are in progress, but
+     * a bulk lookup is a single task which must complete before any origin call is made. In addition, the
+     * default {@link #getAllFromCache(Collection)} reads the cache directly, therefore it would bypass the
+     * logic of an overridden {@link #getFromCache(CacheKey)}.
+     *
+     * @return true if bulk lookups should be used.
+     */
+    default boolean supportsBulkGet() {
+        return false;
+    }
+
+    /**
+     * Tries to get multiple previously cached partial responses based on their keys. The default
+     * implementation obtains the cache once and looks up the keys one by one, implementations using
+     * a cache with native multi-get support should override it to fetch all keys in a single round trip.
+     *
+     * @param keys The cache keys.
+     * @return The partial responses found in the cache. Keys without a cached response are omitted.
+     */
+    default Map<CacheKey<C, I>, PS> getAllFromCache(final Collection<CacheKey<C, I>> keys) {
+        final Map<CacheKey<C, I>, PS> result = new HashMap<>(keys.size());
+        final var cache = obtainCache();
+        if (cache != null) {
+            final var entityClass = getEntityClass();
+            for (final var key : keys) {
+                final var value = cache.get(key.key(), entityClass);
+                if (value != null) {
+                    result.put(key, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The name of the cache we will use for remembering the IDs which were not returned by the origin.
+     * Negative caching is disabled when null is returned (default). The tombstones should be stored
+     * in a separate cache, typically with a shorter expiry than the cache of the entities.
+     * The templates skip the cache misses with a tombstone, therefore an item appearing in the origin
+     * will be returned only after its tombstone expired or the item was put into the cache.
+     *
+     * @return The negative cache name or null if negative caching is disabled.
+     */
+    default @Nullable String negativeCacheName() {
+        return null;
+    }
+
+    /**
+     * Puts tombstones into the negative cache for the keys which were not returned by the origin.
+     * Does nothing when negative caching is disabled.
+     *
+     * @param keys The cache keys of the missing entities.
+     */
+    default void putAbsentToCache(final Collection<CacheKey<C, I>> keys) {
+        putMarkers(negativeCacheName(), keys);
+    }
+
+    /**
+     * Removes the tombstones from the negative cache for the keys which were returned by the origin.
+     * Does nothing when negative caching is disabled.
+     *
+     * @param keys The cache keys of the entities put into the cache.
+     */
+    default void evictAbsentFromCache(final Collection<CacheKey<C, I>> keys) {
+        Optional.ofNullable(negativeCacheName())
+                .map(getCacheManager()::getCache)
+                .ifPresent(cache -> keys.forEach(key -> cache.evict(key.key())));
+    }
+
+    /**
+     * Returns the keys which have a tombstone in the negative cache, meaning that the origin did not
+     * return them recently. Returns an empty set when negative caching is disabled.
+     *
+     * @param keys The cache keys.
+     * @return The keys known to be absent.
+     */
+    default Set<CacheKey<C, I>> getAbsentFromCache(final Collection<CacheKey<C, I>> keys) {
+        return getMarkers(negativeCacheName(), keys);
+    }
+
+    /**
+     * The name of the cache we will use for tracking the freshness of the cached entities. An entity
+     * is considered fresh while its marker is present in this cache, therefore the expiry of this cache
+     * defines the soft-freshness threshold and it should be shorter than the expiry of the entity cache.
+     * Freshness tracking is disabled when null is returned (default), in this case every cached
+     * entity is considered fresh.
+     *
+     * @return The freshness cache name or null if freshness tracking is disabled.
+     */
+    default @Nullable String freshnessCacheName() {
+        return null;
+    }
+
+    /**
+     * Puts freshness markers into the freshness cache for the keys which were refreshed from the origin.
+     * Does nothing when freshness tracking is disabled.
+     *
+     * @param keys The cache keys of the refreshed entities.
+     */
+    default void putFreshToCache(final Collection<CacheKey<C, I>> keys) {
+        putMarkers(freshnessCacheName(), keys);
+    }
+
+    /**
+     * Returns the keys which have a freshness marker in the freshness cache. Returns an empty set
+     * when freshness tracking is disabled.
+     *
+     * @param keys The cache keys.
+     * @return The keys of the fresh entities.
+     */
+    default Set<CacheKey<C, I>> getFreshFromCache(final Collection<CacheKey<C, I>> keys) {
+        return getMarkers(freshnessCacheName(), keys);
+    }
+
+    private void putMarkers(
+            final @Nullable String name,
+            final Collection<CacheKey<C, I>> keys) {
+        Optional.ofNullable(name)
+                .map(getCacheManager()::getCache)
+                .ifPresent(cache -> keys.forEach(key -> cache.put(key.key(), Boolean.TRUE)));
+    }
+
+    private Set<CacheKey<C, I>> getMarkers(
+            final @Nullable String name,
+            final Collection<CacheKey<C, I>> keys) {
+        final Set<CacheKey<C, I>> result = new HashSet<>();
+        Optional.ofNullable(name)
+                .map(getCacheManager()::getCache)
+                .ifPresent(cache -> keys.stream()
+                        .filter(key -> cache.get(key.key()) != null)
+                        .forEach(result::add));
+        return result;
     }
 }
@@ -1,12 +1,14 @@
 package com.github.nagyesta.cacheonly.transform.common;
 
+import com.github.nagyesta.cacheonly.core.collection.HashMapSizing;
 import org.jspecify.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collector;
-import java.util.stream.Collectors;
 
 /**
  * Abstract transformer intended to be used in cases when the batch request (or response)
@@ -51,8 +53,14 @@ public class AbstractCollectionBasedTransformer<C extends Collection<P>, P, I> {
     }
 
     protected final Map<I, P> splitToMap(final C batch) {
-        return batch.stream()
-                .collect(Collectors.toMap(idFunction, Function.identity()));
+        final Map<I, P> result = new HashMap<>(HashMapSizing.capacityFor(batch.size()));
+        for (final P item : batch) {
+            final var id = idFunction.apply(item);
+            if (result.putIfAbsent(id, Objects.requireNonNull(item)) != null) {
+                throw new IllegalStateException("Duplicate key " + id);
+            }
+        }
+        return result;
     }
 
     protected final @Nullable C mergeToBatch(final Map<I, P> map) {
@@ -0,0 +1,73 @@
+package com.github.nagyesta.cacheonly.transform.common;
+
+import com.github.nagyesta.cacheonly.core.collection.LongHashMap;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Abstract transformer intended to be used in cases when the batch request (or response)
+ * is a simple {@link Collection} of the partial requests (or responses) identified by {@code long} IDs.
+ * The partials are split to a {@link LongHashMap}, which is used by the templates for the rest of the
+ * call as well, avoiding the boxing of the IDs.
+ *
+ * @param <C> The {@link Collection} type used for the batch.
+ * @param <P> The type of the partial request (or response).
+ */
+public class AbstractLongKeyedCollectionBasedTransformer<C extends Collection<P>, P> {
+
+    private final Collector<P, ?, C> collectionCollector;
+    private final ToLongFunction<P> idFunction;
+    private final boolean nullIfEmpty;
+
+    /**
+     * Creates a new instance and defines how the {@link Collection} should be collected from a {@link java.util.stream.Stream}.
+     *
+     * @param collectionCollector The {@link Collector} we want to use to get a batch from a stream of elements.
+     * @param idFunction          The transformation that can determine the ID of a given partial request (or response).
+     */
+    public AbstractLongKeyedCollectionBasedTransformer(
+            final Collector<P, ?, C> collectionCollector,
+            final ToLongFunction<P> idFunction) {
+        this(collectionCollector, idFunction, false);
+    }
+
+    /**
+     * Creates a new instance and defines how the {@link Collection} should be collected from a {@link java.util.stream.Stream}.
+     *
+     * @param collectionCollector The {@link Collector} we want to use to get a batch from a stream of elements.
+     * @param idFunction          The transformation that can determine the ID of a given partial request (or response).
+     * @param nullIfEmpty         Flag telling the implementation whether we want to use null in case of an empty {@link Collection}.
+     */
+    public AbstractLongKeyedCollectionBasedTransformer(
+            final Collector<P, ?, C> collectionCollector,
+            final ToLongFunction<P> idFunction,
+            final boolean nullIfEmpty) {
+        this.collectionCollector = collectionCollector;
+        this.idFunction = idFunction;
+        this.nullIfEmpty = nullIfEmpty;
+    }
+
+    protected final Map<Long, P> splitToMap(final C batch) {
+        final var result = new LongHashMap<P>(batch.size());
+        for (final P item : batch) {
+            final var id = idFunction.applyAsLong(item);
+            if (result.containsLongKey(id)) {
+                throw new IllegalStateException("Duplicate key " + id);
+            }
+            result.putLong(id, Objects.requireNonNull(item));
+        }
+        return result;
+    }
+
+    protected final @Nullable C mergeToBatch(final Map<Long, P> map) {
+        if (map.isEmpty() && nullIfEmpty) {
+            return null;
+        }
+        return map.values().stream().collect(collectionCollector);
+    }
+}
@@ -1,7 +1,6 @@
 package com.github.nagyesta.cacheonly.transform.common;
 
 import org.jspecify.annotations.Nullable;
-import org.springframework.beans.BeanUtils;
 
 import java.util.Collection;
 import java.util.Map;
@@ -75,7 +74,7 @@ public class AbstractWrappedCollectionBasedTransformer<B, C extends Collection<E
             final B batch,
             final Supplier<B> instanceSupplier) {
         final var target = instanceSupplier.get();
-        BeanUtils.copyProperties(batch, target);
+        BeanPropertyCopier.copyProperties(batch, target);
         return target;
     }
 
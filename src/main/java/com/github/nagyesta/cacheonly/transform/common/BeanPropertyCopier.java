@@ -0,0 +1,106 @@
+package com.github.nagyesta.cacheonly.transform.common;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Copies the bean properties of an object into another instance of the same class. Every property having
+ * a getter and a setter with an assignable type is copied, similarly to
+ * {@link BeanUtils#copyProperties(Object, Object)}. The accessors are resolved and converted to
+ * {@link MethodHandle}s only once per class, therefore the property lookup is not repeated for each copy.
+ * <br>
+ * Falls back to {@link BeanUtils#copyProperties(Object, Object)} when the classes of the source and the
+ * target differ or the accessors of the class cannot be accessed using method handles.
+ */
+final class BeanPropertyCopier {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final ClassValue<Optional<BeanPropertyCopier>> COPIERS = new ClassValue<>() {
+        @Override
+        protected Optional<BeanPropertyCopier> computeValue(final Class<?> type) {
+            return create(type);
+        }
+    };
+    private final String[] names;
+    private final MethodHandle[] getters;
+    private final MethodHandle[] setters;
+
+    private BeanPropertyCopier(
+            final List<String> names,
+            final List<MethodHandle> getters,
+            final List<MethodHandle> setters) {
+        this.names = names.toArray(String[]::new);
+        this.getters = getters.toArray(MethodHandle[]::new);
+        this.setters = setters.toArray(MethodHandle[]::new);
+    }
+
+    /**
+     * Copies the properties of the source into the target.
+     *
+     * @param source The object we need to copy the properties from.
+     * @param target The object we need to copy the properties to.
+     */
+    static void copyProperties(
+            final Object source,
+            final Object target) {
+        if (source.getClass() == target.getClass()) {
+            final var copier = COPIERS.get(source.getClass());
+            if (copier.isPresent()) {
+                copier.get().copy(source, target);
+                return;
+            }
+        }
+        BeanUtils.copyProperties(source, target);
+    }
+
+    @SuppressWarnings("java:S1181") //method handles can throw anything, wrapping the same way as BeanUtils
+    private void copy(
+            final Object source,
+            final Object target) {
+        for (var i = 0; i < getters.length; i++) {
+            try {
+                final var value = (Object) getters[i].invokeExact(source);
+                setters[i].invokeExact(target, value);
+            } catch (final Throwable e) {
+                throw new FatalBeanException("Could not copy property '" + names[i] + "' from source to target", e);
+            }
+        }
+    }
+
+    private static Optional<BeanPropertyCopier> create(final Class<?> type) {
+        final List<String> names = new ArrayList<>();
+        final List<MethodHandle> getters = new ArrayList<>();
+        final List<MethodHandle> setters = new ArrayList<>();
+        try {
+            for (final var descriptor : BeanUtils.getPropertyDescriptors(type)) {
+                final var readMethod = descriptor.getReadMethod();
+                final var writeMethod = descriptor.getWriteMethod();
+                if (readMethod != null && writeMethod != null
+                        && ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType())) {
+                    names.add(descriptor.getName());
+                    getters.add(unreflect(readMethod).asType(GETTER_TYPE));
+                    setters.add(unreflect(writeMethod).asType(SETTER_TYPE));
+                }
+            }
+        } catch (final IllegalAccessException | RuntimeException e) {
+            return Optional.empty();
+        }
+        return Optional.of(new BeanPropertyCopier(names, getters, setters));
+    }
+
+    private static MethodHandle unreflect(final Method method) throws IllegalAccessException {
+        ReflectionUtils.makeAccessible(method);
+        return MethodHandles.lookup().unreflect(method);
+    }
+}
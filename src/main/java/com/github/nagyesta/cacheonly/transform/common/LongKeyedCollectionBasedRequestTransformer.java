@@ -0,0 +1,44 @@
+package com.github.nagyesta.cacheonly.transform.common;
+
+import com.github.nagyesta.cacheonly.transform.BatchRequestTransformer;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Transformer intended to be used in cases when the batch request is a simple
+ * {@link Collection} of the partial requests identified by {@code long} IDs.
+ *
+ * @param <C> The {@link Collection} type used for the batch.
+ * @param <P> The type of the partial request.
+ */
+public class LongKeyedCollectionBasedRequestTransformer<C extends Collection<P>, P>
+        extends AbstractLongKeyedCollectionBasedTransformer<C, P>
+        implements BatchRequestTransformer<C, P, Long> {
+
+    /**
+     * Creates a new instance and defines how the {@link Collection} should be collected from a {@link java.util.stream.Stream}.
+     *
+     * @param collectionCollector The {@link Collector} we want to use to get a batch from a stream of elements.
+     * @param idFunction          The transformation that can determine the ID of a given partial request.
+     */
+    public LongKeyedCollectionBasedRequestTransformer(
+            final Collector<P, ?, C> collectionCollector,
+            final ToLongFunction<P> idFunction) {
+        super(collectionCollector, idFunction);
+    }
+
+    @Override
+    public Map<Long, P> splitToPartialRequest(final C batchRequest) {
+        return splitToMap(batchRequest);
+    }
+
+    @Override
+    public @Nullable C mergeToBatchRequest(final Map<Long, P> requestMap) {
+        return mergeToBatch(requestMap);
+    }
+
+}
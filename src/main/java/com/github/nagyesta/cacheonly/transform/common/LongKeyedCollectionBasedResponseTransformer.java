@@ -0,0 +1,58 @@
+package com.github.nagyesta.cacheonly.transform.common;
+
+import com.github.nagyesta.cacheonly.transform.BatchResponseTransformer;
+import org.jspecify.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Transformer intended to be used in cases when the batch response is a simple
+ * {@link Collection} of the partial responses identified by {@code long} IDs.
+ *
+ * @param <C> The {@link Collection} type used for the batch.
+ * @param <P> The type of the partial response.
+ */
+public class LongKeyedCollectionBasedResponseTransformer<C extends Collection<P>, P>
+        extends AbstractLongKeyedCollectionBasedTransformer<C, P>
+        implements BatchResponseTransformer<C, P, Long> {
+
+    /**
+     * Creates a new instance and defines how the {@link Collection} should be collected from a {@link java.util.stream.Stream}.
+     *
+     * @param collectionCollector The {@link Collector} we want to use to get a batch from a stream of elements.
+     * @param idFunction          The transformation that can determine the ID of a given partial response.
+     */
+    public LongKeyedCollectionBasedResponseTransformer(
+            final Collector<P, ?, C> collectionCollector,
+            final ToLongFunction<P> idFunction) {
+        super(collectionCollector, idFunction);
+    }
+
+    /**
+     * Creates a new instance and defines how the {@link Collection} should be collected from a {@link java.util.stream.Stream}.
+     *
+     * @param collectionCollector The {@link Collector} we want to use to get a batch from a stream of elements.
+     * @param idFunction          The transformation that can determine the ID of a given partial response.
+     * @param nullIfEmpty         Flag telling the implementation whether we want to use null in case of an empty {@link Collection}.
+     */
+    public LongKeyedCollectionBasedResponseTransformer(
+            final Collector<P, ?, C> collectionCollector,
+            final ToLongFunction<P> idFunction,
+            final boolean nullIfEmpty) {
+        super(collectionCollector, idFunction, nullIfEmpty);
+    }
+
+    @Override
+    public Map<Long, P> splitToPartialResponse(final C batchResponse) {
+        return splitToMap(batchResponse);
+    }
+
+    @Override
+    public @Nullable C mergeToBatchResponse(final Map<Long, P> entityMap) {
+        return mergeToBatch(entityMap);
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.github.nagyesta.cacheonly.transform.decorator;
+
+import com.github.nagyesta.cacheonly.core.conurrent.ConcurrentOperationSupport;
+import com.github.nagyesta.cacheonly.core.conurrent.ExecutionMode;
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.transform.PartialCacheSupport;
+import com.github.nagyesta.cacheonly.transform.concurrent.AsyncPartialCacheSupport;
+import org.jspecify.annotations.Nullable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Abstract {@link PartialCacheSupport} decorator passing every call to the delegate. Subclasses can
+ * override the methods they want to decorate. The concurrency related settings are taken from the
+ * delegate when it is a {@link ConcurrentOperationSupport}, therefore the decorator can be used with
+ * both the default and the concurrent templates.
+ *
+ * @param <PR> The type of the partial request.
+ * @param <PS> The type of the partial response.
+ * @param <C>  The type of the cache key.
+ * @param <I>  The type of the request ID.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public abstract class DelegatingPartialCacheSupport<PR, PS, C, I> implements AsyncPartialCacheSupport<PR, PS, C, I> {
+
+    private final PartialCacheSupport<PR, PS, C, I> delegate;
+    private final ConcurrentOperationSupport concurrentOperationSupport;
+
+    /**
+     * Creates a new instance and sets the delegate.
+     *
+     * @param delegate The cache support we want to decorate.
+     */
+    protected DelegatingPartialCacheSupport(final PartialCacheSupport<PR, PS, C, I> delegate) {
+        this.delegate = delegate;
+        if (delegate instanceof ConcurrentOperationSupport support) {
+            this.concurrentOperationSupport = support;
+        } else {
+            this.concurrentOperationSupport = new ConcurrentOperationSupport() {
+            };
+        }
+    }
+
+    @Override
+    public String cacheName() {
+        return delegate.cacheName();
+    }
+
+    @Override
+    public Class<PS> getEntityClass() {
+        return delegate.getEntityClass();
+    }
+
+    @Override
+    public @Nullable CacheKey<C, I> toCacheKey(final PR partialRequest) {
+        return delegate.toCacheKey(partialRequest);
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return delegate.getCacheManager();
+    }
+
+    @Override
+    public @Nullable Cache obtainCache() {
+        return delegate.obtainCache();
+    }
+
+    @Override
+    public void putToCache(final CacheKey<C, I> key, final PS entity) {
+        delegate.putToCache(key, entity);
+    }
+
+    @Override
+    public void putAllToCache(final Map<CacheKey<C, I>, PS> entries) {
+        delegate.putAllToCache(entries);
+    }
+
+    @Override
+    public @Nullable PS getFromCache(final CacheKey<C, I> key) {
+        return delegate.getFromCache(key);
+    }
+
+    @Override
+    public boolean supportsBulkGet() {
+        return delegate.supportsBulkGet();
+    }
+
+    @Override
+    public Map<CacheKey<C, I>, PS> getAllFromCache(final Collection<CacheKey<C, I>> keys) {
+        return delegate.getAllFromCache(keys);
+    }
+
+    @Override
+    public @Nullable String negativeCacheName() {
+        return delegate.negativeCacheName();
+    }
+
+    @Override
+    public void putAbsentToCache(final Collection<CacheKey<C, I>> keys) {
+        delegate.putAbsentToCache(keys);
+    }
+
+    @Override
+    public void evictAbsentFromCache(final Collection<CacheKey<C, I>> keys) {
+        delegate.evictAbsentFromCache(keys);
+    }
+
+    @Override
+    public Set<CacheKey<C, I>> getAbsentFromCache(final Collection<CacheKey<C, I>> keys) {
+        return delegate.getAbsentFromCache(keys);
+    }
+
+    @Override
+    public @Nullable String freshnessCacheName() {
+        return delegate.freshnessCacheName();
+    }
+
+    @Override
+    public void putFreshToCache(final Collection<CacheKey<C, I>> keys) {
+        delegate.putFreshToCache(keys);
+    }
+
+    @Override
+    public Set<CacheKey<C, I>> getFreshFromCache(final Collection<CacheKey<C, I>> keys) {
+        return delegate.getFreshFromCache(keys);
+    }
+
+    @Override
+    public ForkJoinPool forkJoinPool() {
+        return concurrentOperationSupport.forkJoinPool();
+    }
+
+    @Override
+    public ExecutionMode executionMode() {
+        return concurrentOperationSupport.executionMode();
+    }
+
+    @Override
+    public long timeoutMillis() {
+        return concurrentOperationSupport.timeoutMillis();
+    }
+
+    /**
+     * Returns the decorated cache support.
+     *
+     * @return delegate.
+     */
+    protected final PartialCacheSupport<PR, PS, C, I> delegate() {
+        return delegate;
+    }
+}
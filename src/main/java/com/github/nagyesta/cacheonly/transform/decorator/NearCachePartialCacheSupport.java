@@ -0,0 +1,238 @@
+package com.github.nagyesta.cacheonly.transform.decorator;
+
+import com.github.nagyesta.cacheonly.core.metrics.BatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.core.metrics.NoOpBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.transform.PartialCacheSupport;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static com.github.nagyesta.cacheonly.core.collection.HashMapSizing.capacityFor;
+
+/**
+ * {@link PartialCacheSupport} decorator keeping the most recently used entities in a bounded
+ * in-process near cache (L1) in front of the cache of the delegate (L2). The L1 entries expire after
+ * a fixed time and the least recently used entries are evicted when the L1 is full. The entities
+ * found in the L2 are promoted to the L1, the PUT operations are written to both levels.
+ * <br>
+ * Larger near caches are split into independently locked segments by the hash of the cache key to
+ * reduce the contention of the concurrent reads. The least recently used entry is evicted from the
+ * segment of the new entry in this case.
+ * <br>
+ * The L1 hits and misses are reported using {@link BatchServiceCallMetricCollector#nearCacheHit(int)}
+ * and {@link BatchServiceCallMetricCollector#nearCacheMiss(int)}.
+ *
+ * @param <PR> The type of the partial request.
+ * @param <PS> The type of the partial response.
+ * @param <C>  The type of the cache key.
+ * @param <I>  The type of the request ID.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public final class NearCachePartialCacheSupport<PR, PS, C, I> extends DelegatingPartialCacheSupport<PR, PS, C, I> {
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 64;
+    private final long timeToLiveNanos;
+    private final LongSupplier nanoClock;
+    private final BatchServiceCallMetricCollector metricsCollector;
+    private final List<Segment<CacheKey<C, I>, PS>> segments;
+
+    /**
+     * Creates a new instance and sets the limits of the near cache.
+     *
+     * @param delegate         The cache support we want to decorate.
+     * @param maxSize          The maximum number of entities kept in the near cache. Must be larger than 0.
+     * @param timeToLiveMillis The number of milliseconds the entities are kept in the near cache.
+     *                         Must be larger than 0.
+     */
+    public NearCachePartialCacheSupport(
+            final PartialCacheSupport<PR, PS, C, I> delegate,
+            final int maxSize,
+            final long timeToLiveMillis) {
+        this(delegate, maxSize, timeToLiveMillis, new NoOpBatchServiceCallMetricCollector());
+    }
+
+    /**
+     * Creates a new instance and sets the limits of the near cache.
+     *
+     * @param delegate         The cache support we want to decorate.
+     * @param maxSize          The maximum number of entities kept in the near cache. Must be larger than 0.
+     * @param timeToLiveMillis The number of milliseconds the entities are kept in the near cache.
+     *                         Must be larger than 0.
+     * @param metricsCollector The collector we need to report the near cache hits and misses to.
+     */
+    public NearCachePartialCacheSupport(
+            final PartialCacheSupport<PR, PS, C, I> delegate,
+            final int maxSize,
+            final long timeToLiveMillis,
+            final BatchServiceCallMetricCollector metricsCollector) {
+        this(delegate, maxSize, timeToLiveMillis, metricsCollector, System::nanoTime);
+    }
+
+    NearCachePartialCacheSupport(
+            final PartialCacheSupport<PR, PS, C, I> delegate,
+            final int maxSize,
+            final long timeToLiveMillis,
+            final BatchServiceCallMetricCollector metricsCollector,
+            final LongSupplier nanoClock) {
+        super(delegate);
+        Assert.isTrue(maxSize > 0, "Max size must be larger than 0.");
+        Assert.isTrue(timeToLiveMillis > 0, "Time to live must be larger than 0.");
+        Assert.notNull(metricsCollector, "Metrics collector cannot be null.");
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.nanoClock = nanoClock;
+        this.metricsCollector = metricsCollector;
+        final var segmentCount = Integer.highestOneBit(Math.min(MAX_SEGMENTS, Math.max(1, maxSize / MIN_SEGMENT_SIZE)));
+        final List<Segment<CacheKey<C, I>, PS>> list = new ArrayList<>(segmentCount);
+        for (var i = 0; i < segmentCount; i++) {
+            var segmentSize = maxSize / segmentCount;
+            if (i < maxSize % segmentCount) {
+                segmentSize++;
+            }
+            list.add(new Segment<>(segmentSize));
+        }
+        this.segments = List.copyOf(list);
+    }
+
+    @Override
+    public void putToCache(final CacheKey<C, I> key, final PS entity) {
+        delegate().putToCache(key, entity);
+        promote(key, entity, expiresAt());
+    }
+
+    @Override
+    public void putAllToCache(final Map<CacheKey<C, I>, PS> entries) {
+        delegate().putAllToCache(entries);
+        promote(entries);
+    }
+
+    @Override
+    public @Nullable PS getFromCache(final CacheKey<C, I> key) {
+        final var local = getFromNearCache(key, nanoClock.getAsLong());
+        if (local != null) {
+            metricsCollector.nearCacheHit(1);
+            return local;
+        }
+        metricsCollector.nearCacheMiss(1);
+        final var remote = delegate().getFromCache(key);
+        if (remote != null) {
+            promote(key, remote, expiresAt());
+        }
+        return remote;
+    }
+
+    @Override
+    public Map<CacheKey<C, I>, PS> getAllFromCache(final Collection<CacheKey<C, I>> keys) {
+        final Map<CacheKey<C, I>, PS> result = new HashMap<>(capacityFor(keys.size()));
+        final List<CacheKey<C, I>> remaining = new ArrayList<>();
+        final var now = nanoClock.getAsLong();
+        keys.forEach(key -> {
+            final var local = getFromNearCache(key, now);
+            if (local != null) {
+                result.put(key, local);
+            } else {
+                remaining.add(key);
+            }
+        });
+        if (!result.isEmpty()) {
+            metricsCollector.nearCacheHit(result.size());
+        }
+        if (!remaining.isEmpty()) {
+            metricsCollector.nearCacheMiss(remaining.size());
+            final var remote = delegate().getAllFromCache(remaining);
+            promote(remote);
+            result.putAll(remote);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of entities in the near cache, including the expired entities which are not
+     * evicted yet.
+     *
+     * @return count.
+     */
+    public int nearCacheSize() {
+        var size = 0;
+        for (final var segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private @Nullable PS getFromNearCache(
+            final CacheKey<C, I> key,
+            final long now) {
+        final var segment = segmentFor(key);
+        synchronized (segment) {
+            final var entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAtNanos() - now > 0) {
+                return entry.entity();
+            }
+            segment.remove(key);
+            return null;
+        }
+    }
+
+    private void promote(final Map<CacheKey<C, I>, PS> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        final var expiresAt = expiresAt();
+        entries.forEach((key, entity) -> promote(key, entity, expiresAt));
+    }
+
+    private void promote(
+            final CacheKey<C, I> key,
+            final PS entity,
+            final long expiresAt) {
+        final var segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new NearCacheEntry<>(entity, expiresAt));
+        }
+    }
+
+    private long expiresAt() {
+        return nanoClock.getAsLong() + timeToLiveNanos;
+    }
+
+    private Segment<CacheKey<C, I>, PS> segmentFor(final CacheKey<C, I> key) {
+        final var hash = key.hashCode();
+        return segments.get((hash ^ (hash >>> Short.SIZE)) & (segments.size() - 1));
+    }
+
+    private record NearCacheEntry<PS>(PS entity, long expiresAtNanos) {
+    }
+
+    /**
+     * Access ordered map evicting the least recently used entry when it is full. Must be used while
+     * holding its own lock.
+     *
+     * @param <K>  The type of the key.
+     * @param <PS> The type of the partial response.
+     */
+    private static final class Segment<K, PS> extends LinkedHashMap<K, NearCacheEntry<PS>> {
+
+        private static final float LOAD_FACTOR = 0.75f;
+        private final int maxSize;
+
+        private Segment(final int maxSize) {
+            super(capacityFor(maxSize), LOAD_FACTOR, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<K, NearCacheEntry<PS>> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
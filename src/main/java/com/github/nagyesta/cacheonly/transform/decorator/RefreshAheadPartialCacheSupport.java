@@ -0,0 +1,173 @@
+package com.github.nagyesta.cacheonly.transform.decorator;
+
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.transform.PartialCacheSupport;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link PartialCacheSupport} decorator tracking when the entities were put into the cache and how
+ * many times they were read since. The keys which are read frequently (hot keys) and are close to
+ * their expiry can be selected using {@link #takeKeysDueForRefresh()} in order to refresh them before
+ * they expire. Typically used with {@link com.github.nagyesta.cacheonly.core.refresh.RefreshAheadScheduler}.
+ * <br>
+ * The time to live must match the expiry of the decorated cache as the cache does not expose it.
+ * Only the entities put into the cache through this decorator are tracked.
+ *
+ * @param <PR> The type of the partial request.
+ * @param <PS> The type of the partial response.
+ * @param <C>  The type of the cache key.
+ * @param <I>  The type of the request ID.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public final class RefreshAheadPartialCacheSupport<PR, PS, C, I> extends DelegatingPartialCacheSupport<PR, PS, C, I> {
+
+    private final long timeToLiveNanos;
+    private final long refreshWindowNanos;
+    private final int minAccessCount;
+    private final int maxTrackedKeys;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<CacheKey<C, I>, TrackedEntry> tracked = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new instance and sets the tracking parameters.
+     *
+     * @param delegate            The cache support we want to decorate.
+     * @param timeToLiveMillis    The expiry of the decorated cache in milliseconds. Must be larger than 0.
+     * @param refreshWindowMillis The number of milliseconds before the expiry when a hot key becomes due for
+     *                            refresh. Must be larger than 0 and not larger than the time to live.
+     * @param minAccessCount      The number of reads since the last PUT needed for considering a key hot.
+     *                            Must be larger than 0.
+     * @param maxTrackedKeys      The maximum number of keys we track at the same time. Must be larger than 0.
+     */
+    public RefreshAheadPartialCacheSupport(
+            final PartialCacheSupport<PR, PS, C, I> delegate,
+            final long timeToLiveMillis,
+            final long refreshWindowMillis,
+            final int minAccessCount,
+            final int maxTrackedKeys) {
+        this(delegate, timeToLiveMillis, refreshWindowMillis, minAccessCount, maxTrackedKeys, System::nanoTime);
+    }
+
+    RefreshAheadPartialCacheSupport(
+            final PartialCacheSupport<PR, PS, C, I> delegate,
+            final long timeToLiveMillis,
+            final long refreshWindowMillis,
+            final int minAccessCount,
+            final int maxTrackedKeys,
+            final LongSupplier nanoClock) {
+        super(delegate);
+        Assert.isTrue(timeToLiveMillis > 0, "Time to live must be larger than 0.");
+        Assert.isTrue(refreshWindowMillis > 0 && refreshWindowMillis <= timeToLiveMillis,
+                "Refresh window must be larger than 0 and must not be larger than the time to live.");
+        Assert.isTrue(minAccessCount > 0, "Min access count must be larger than 0.");
+        Assert.isTrue(maxTrackedKeys > 0, "Max tracked keys must be larger than 0.");
+        this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+        this.refreshWindowNanos = TimeUnit.MILLISECONDS.toNanos(refreshWindowMillis);
+        this.minAccessCount = minAccessCount;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public void putToCache(final CacheKey<C, I> key, final PS entity) {
+        delegate().putToCache(key, entity);
+        track(key, nanoClock.getAsLong());
+    }
+
+    @Override
+    public void putAllToCache(final Map<CacheKey<C, I>, PS> entries) {
+        delegate().putAllToCache(entries);
+        final var now = nanoClock.getAsLong();
+        entries.keySet().forEach(key -> track(key, now));
+    }
+
+    @Override
+    public @Nullable PS getFromCache(final CacheKey<C, I> key) {
+        final var result = delegate().getFromCache(key);
+        if (result != null) {
+            recordAccess(key);
+        }
+        return result;
+    }
+
+    @Override
+    public Map<CacheKey<C, I>, PS> getAllFromCache(final Collection<CacheKey<C, I>> keys) {
+        final var result = delegate().getAllFromCache(keys);
+        result.keySet().forEach(this::recordAccess);
+        return result;
+    }
+
+    /**
+     * Selects the hot keys which are within the refresh window of their expiry and marks them as
+     * being refreshed. The marked keys are not returned again until they are put into the cache or
+     * released using {@link #releaseKeys(Collection)}. The expired keys are no longer tracked.
+     *
+     * @return The keys we should refresh.
+     */
+    public List<CacheKey<C, I>> takeKeysDueForRefresh() {
+        final var now = nanoClock.getAsLong();
+        final List<CacheKey<C, I>> result = new ArrayList<>();
+        tracked.forEach((key, entry) -> {
+            final var age = now - entry.writtenAtNanos();
+            if (age >= timeToLiveNanos) {
+                tracked.remove(key, entry);
+            } else if (age >= timeToLiveNanos - refreshWindowNanos
+                    && entry.accesses().get() >= minAccessCount
+                    && entry.refreshing().compareAndSet(false, true)) {
+                result.add(key);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Releases the keys which could not be refreshed, making them eligible for refresh again.
+     *
+     * @param keys The keys returned by {@link #takeKeysDueForRefresh()}.
+     */
+    public void releaseKeys(final Collection<CacheKey<C, I>> keys) {
+        keys.forEach(key -> {
+            final var entry = tracked.get(key);
+            if (entry != null) {
+                entry.refreshing().set(false);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of tracked keys.
+     *
+     * @return count.
+     */
+    public int trackedKeys() {
+        return tracked.size();
+    }
+
+    private void track(final CacheKey<C, I> key, final long now) {
+        if (tracked.containsKey(key) || tracked.size() < maxTrackedKeys) {
+            tracked.put(key, new TrackedEntry(now, new AtomicLong(), new AtomicBoolean()));
+        }
+    }
+
+    private void recordAccess(final CacheKey<C, I> key) {
+        final var entry = tracked.get(key);
+        if (entry != null) {
+            entry.accesses().incrementAndGet();
+        }
+    }
+
+    private record TrackedEntry(long writtenAtNanos, AtomicLong accesses, AtomicBoolean refreshing) {
+    }
+}
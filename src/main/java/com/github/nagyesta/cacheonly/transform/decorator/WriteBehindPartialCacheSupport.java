@@ -0,0 +1,370 @@
+package com.github.nagyesta.cacheonly.transform.decorator;
+
+import com.github.nagyesta.cacheonly.core.metrics.BatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.core.metrics.NoOpBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.transform.PartialCacheSupport;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link PartialCacheSupport} decorator queueing the cache write operations and writing them to the
+ * delegate on a background thread. The queue is bounded, the entities are written in batches using
+ * {@link PartialCacheSupport#putAllToCache(Map)} and multiple writes of the same key are coalesced,
+ * keeping only the latest one. The freshness markers and the negative cache markers (including their
+ * eviction) are queued the same way, therefore they are written after the entities they belong to.
+ * The queued entities and markers, including the ones of the batch being written, are visible to the cache
+ * GET operations of this decorator.
+ * <br>
+ * When the queue is full, the writes which cannot be queued are performed on the calling thread after the
+ * batch being written, therefore they cannot be overwritten by older values of the same keys.
+ * The batches which cannot be written are dropped and reported to the metrics collector.
+ *
+ * @param <PR> The type of the partial request.
+ * @param <PS> The type of the partial response.
+ * @param <C>  The type of the cache key.
+ * @param <I>  The type of the request ID.
+ */
+@SuppressWarnings("java:S119") //the type parameter names are easier to recognize this way
+public final class WriteBehindPartialCacheSupport<PR, PS, C, I>
+        extends DelegatingPartialCacheSupport<PR, PS, C, I> implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WriteBehindPartialCacheSupport.class);
+    private final int capacity;
+    private final int batchSize;
+    private final BatchServiceCallMetricCollector metricsCollector;
+    private final ScheduledExecutorService writer;
+    private final Object lock = new Object();
+    private final Object writeLock = new Object();
+    private final Map<CacheKey<C, I>, PS> pendingEntities = new LinkedHashMap<>();
+    private final Map<CacheKey<C, I>, Boolean> pendingFresh = new LinkedHashMap<>();
+    private final Map<CacheKey<C, I>, Boolean> pendingAbsent = new LinkedHashMap<>();
+    private @Nullable Batch<PS, C, I> inFlight;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    /**
+     * Creates a new instance and starts the background writer.
+     *
+     * @param delegate            The cache support we want to decorate.
+     * @param capacity            The maximum number of writes waiting in the queue. Must be larger than 0.
+     * @param batchSize           The maximum number of writes sent in a single batch. Must be larger than 0.
+     * @param flushIntervalMillis The maximum number of milliseconds an incomplete batch can wait in the queue.
+     *                            Must be larger than 0.
+     */
+    public WriteBehindPartialCacheSupport(
+            final PartialCacheSupport<PR, PS, C, I> delegate,
+            final int capacity,
+            final int batchSize,
+            final long flushIntervalMillis) {
+        this(delegate, capacity, batchSize, flushIntervalMillis, new NoOpBatchServiceCallMetricCollector());
+    }
+
+    /**
+     * Creates a new instance and starts the background writer.
+     *
+     * @param delegate            The cache support we want to decorate.
+     * @param capacity            The maximum number of writes waiting in the queue. Must be larger than 0.
+     * @param batchSize           The maximum number of writes sent in a single batch. Must be larger than 0.
+     * @param flushIntervalMillis The maximum number of milliseconds an incomplete batch can wait in the queue.
+     *                            Must be larger than 0.
+     * @param metricsCollector    The collector receiving the number of batches which could not be written.
+     */
+    public WriteBehindPartialCacheSupport(
+            final PartialCacheSupport<PR, PS, C, I> delegate,
+            final int capacity,
+            final int batchSize,
+            final long flushIntervalMillis,
+            final BatchServiceCallMetricCollector metricsCollector) {
+        super(delegate);
+        Assert.isTrue(capacity > 0, "Capacity must be larger than 0.");
+        Assert.isTrue(batchSize > 0, "Batch size must be larger than 0.");
+        Assert.isTrue(flushIntervalMillis > 0, "Flush interval must be larger than 0.");
+        Assert.notNull(metricsCollector, "Metrics collector cannot be null.");
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.metricsCollector = metricsCollector;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "cache-only-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.writer.scheduleWithFixedDelay(() -> writePending(false), flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void putToCache(final CacheKey<C, I> key, final PS entity) {
+        putAllToCache(Map.of(key, entity));
+    }
+
+    @Override
+    public void putAllToCache(final Map<CacheKey<C, I>, PS> entries) {
+        enqueue(pendingEntities, entries, overflow -> delegate().putAllToCache(overflow));
+    }
+
+    @Override
+    public void putFreshToCache(final Collection<CacheKey<C, I>> keys) {
+        enqueue(pendingFresh, markers(keys, Boolean.TRUE), overflow -> delegate().putFreshToCache(overflow.keySet()));
+    }
+
+    @Override
+    public void putAbsentToCache(final Collection<CacheKey<C, I>> keys) {
+        enqueue(pendingAbsent, markers(keys, Boolean.TRUE), overflow -> delegate().putAbsentToCache(overflow.keySet()));
+    }
+
+    @Override
+    public void evictAbsentFromCache(final Collection<CacheKey<C, I>> keys) {
+        enqueue(pendingAbsent, markers(keys, Boolean.FALSE), overflow -> delegate().evictAbsentFromCache(overflow.keySet()));
+    }
+
+    @Override
+    public @Nullable PS getFromCache(final CacheKey<C, I> key) {
+        final PS queued;
+        synchronized (lock) {
+            queued = pending(pendingEntities, Batch::entities, key);
+        }
+        if (queued != null) {
+            return queued;
+        }
+        return delegate().getFromCache(key);
+    }
+
+    @Override
+    public Map<CacheKey<C, I>, PS> getAllFromCache(final Collection<CacheKey<C, I>> keys) {
+        final Map<CacheKey<C, I>, PS> result = new HashMap<>(keys.size());
+        final List<CacheKey<C, I>> remaining = new ArrayList<>(keys.size());
+        synchronized (lock) {
+            keys.forEach(key -> Optional.ofNullable(pending(pendingEntities, Batch::entities, key))
+                    .ifPresentOrElse(entity -> result.put(key, entity), () -> remaining.add(key)));
+        }
+        if (!remaining.isEmpty()) {
+            result.putAll(delegate().getAllFromCache(remaining));
+        }
+        return result;
+    }
+
+    @Override
+    public Set<CacheKey<C, I>> getFreshFromCache(final Collection<CacheKey<C, I>> keys) {
+        return getMarkers(pendingFresh, Batch::fresh, keys, delegate()::getFreshFromCache);
+    }
+
+    @Override
+    public Set<CacheKey<C, I>> getAbsentFromCache(final Collection<CacheKey<C, I>> keys) {
+        return getMarkers(pendingAbsent, Batch::absent, keys, delegate()::getAbsentFromCache);
+    }
+
+    /**
+     * Returns the number of writes waiting in the queue, not including the batch being written.
+     *
+     * @return count.
+     */
+    public int pendingWrites() {
+        synchronized (lock) {
+            return queued();
+        }
+    }
+
+    /**
+     * Writes all queued entities and markers on the calling thread.
+     */
+    public void flush() {
+        writePending(false);
+    }
+
+    /**
+     * Stops the background writer and writes the remaining entities and markers on the calling thread.
+     * The writes received after closing are performed on the calling thread.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+        writer.shutdown();
+        flush();
+    }
+
+    private <V> void enqueue(
+            final Map<CacheKey<C, I>, V> queue,
+            final Map<CacheKey<C, I>, V> entries,
+            final Consumer<Map<CacheKey<C, I>, V>> directWrite) {
+        final var overflow = offer(queue, entries);
+        if (!overflow.isEmpty()) {
+            //the batch being written holds the write lock, we must not write older values over our own
+            synchronized (writeLock) {
+                final var remaining = offer(queue, overflow);
+                if (!remaining.isEmpty()) {
+                    LOGGER.debug("Write-behind queue cannot accept {} items, writing them directly.", remaining.size());
+                    directWrite.accept(remaining);
+                }
+            }
+        }
+    }
+
+    private <V> Map<CacheKey<C, I>, V> offer(
+            final Map<CacheKey<C, I>, V> queue,
+            final Map<CacheKey<C, I>, V> entries) {
+        final Map<CacheKey<C, I>, V> overflow = new LinkedHashMap<>();
+        synchronized (lock) {
+            if (closed) {
+                overflow.putAll(entries);
+            } else {
+                entries.forEach((key, value) -> {
+                    if (queue.containsKey(key) || queued() < capacity) {
+                        queue.put(key, value);
+                    } else {
+                        overflow.put(key, value);
+                    }
+                });
+                if (queued() >= batchSize && !flushScheduled) {
+                    flushScheduled = true;
+                    writer.execute(this::writeFullBatches);
+                }
+            }
+        }
+        return overflow;
+    }
+
+    private <V> @Nullable V pending(
+            final Map<CacheKey<C, I>, V> queue,
+            final Function<Batch<PS, C, I>, Map<CacheKey<C, I>, V>> batchQueue,
+            final CacheKey<C, I> key) {
+        final var queued = queue.get(key);
+        if (queued != null || inFlight == null) {
+            return queued;
+        }
+        return batchQueue.apply(inFlight).get(key);
+    }
+
+    private Set<CacheKey<C, I>> getMarkers(
+            final Map<CacheKey<C, I>, Boolean> queue,
+            final Function<Batch<PS, C, I>, Map<CacheKey<C, I>, Boolean>> batchQueue,
+            final Collection<CacheKey<C, I>> keys,
+            final Function<Collection<CacheKey<C, I>>, Set<CacheKey<C, I>>> cachedMarkers) {
+        final Set<CacheKey<C, I>> result = new HashSet<>();
+        final List<CacheKey<C, I>> remaining = new ArrayList<>(keys.size());
+        synchronized (lock) {
+            keys.forEach(key -> {
+                final var queued = pending(queue, batchQueue, key);
+                if (queued == null) {
+                    remaining.add(key);
+                } else if (queued) {
+                    result.add(key);
+                }
+            });
+        }
+        if (!remaining.isEmpty()) {
+            result.addAll(cachedMarkers.apply(remaining));
+        }
+        return result;
+    }
+
+    private int queued() {
+        return pendingEntities.size() + pendingFresh.size() + pendingAbsent.size();
+    }
+
+    private void writeFullBatches() {
+        synchronized (lock) {
+            flushScheduled = false;
+        }
+        writePending(true);
+    }
+
+    private void writePending(final boolean fullBatchesOnly) {
+        synchronized (writeLock) {
+            var batch = takeBatch(fullBatchesOnly);
+            while (batch != null) {
+                try {
+                    batch.write(delegate());
+                } catch (final RuntimeException e) {
+                    metricsCollector.writeBehindBatchesLost(1);
+                    LOGGER.warn("Failed to write {} items to the cache.", batch.size(), e);
+                }
+                batch = takeBatch(fullBatchesOnly);
+            }
+        }
+    }
+
+    private @Nullable Batch<PS, C, I> takeBatch(final boolean fullBatchesOnly) {
+        synchronized (lock) {
+            //the previous batch is written (or lost) by now
+            inFlight = null;
+            final var queued = queued();
+            if (queued == 0 || (fullBatchesOnly && queued < batchSize)) {
+                return null;
+            }
+            final var entities = drain(pendingEntities, batchSize);
+            final var fresh = drain(pendingFresh, batchSize - entities.size());
+            final var absent = drain(pendingAbsent, batchSize - entities.size() - fresh.size());
+            inFlight = new Batch<>(entities, fresh, absent);
+            return inFlight;
+        }
+    }
+
+    private static <K, V> Map<K, V> drain(
+            final Map<K, V> queue,
+            final int limit) {
+        if (queue.isEmpty() || limit <= 0) {
+            return Collections.emptyMap();
+        }
+        final Map<K, V> batch = new LinkedHashMap<>(Math.min(limit, queue.size()));
+        final var iterator = queue.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < limit) {
+            final var entry = iterator.next();
+            batch.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+        return batch;
+    }
+
+    private static <K, V> Map<K, Boolean> markers(
+            final Collection<K> keys,
+            final Boolean value) {
+        final Map<K, Boolean> result = new LinkedHashMap<>(keys.size());
+        keys.forEach(key -> result.put(key, value));
+        return result;
+    }
+
+    /**
+     * A batch of queued writes. The entities are written first, followed by the freshness and the negative
+     * cache markers of the batch.
+     *
+     * @param entities The entities we need to put.
+     * @param fresh    The keys we need to mark as fresh.
+     * @param absent   The keys we need to mark as absent (true) or of which we need to evict the absent mark (false).
+     * @param <PS>     The type of the partial response.
+     * @param <C>      The type of the cache key.
+     * @param <I>      The type of the request ID.
+     */
+    private record Batch<PS, C, I>(
+            Map<CacheKey<C, I>, PS> entities,
+            Map<CacheKey<C, I>, Boolean> fresh,
+            Map<CacheKey<C, I>, Boolean> absent) {
+
+        int size() {
+            return entities.size() + fresh.size() + absent.size();
+        }
+
+        void write(final PartialCacheSupport<?, PS, C, I> target) {
+            if (!entities.isEmpty()) {
+                target.putAllToCache(entities);
+            }
+            if (!fresh.isEmpty()) {
+                target.putFreshToCache(fresh.keySet());
+            }
+            final Map<Boolean, List<CacheKey<C, I>>> byMark = new HashMap<>();
+            absent.forEach((key, mark) -> byMark.computeIfAbsent(mark, ignored -> new ArrayList<>()).add(key));
+            Optional.ofNullable(byMark.get(Boolean.FALSE)).ifPresent(target::evictAbsentFromCache);
+            Optional.ofNullable(byMark.get(Boolean.TRUE)).ifPresent(target::putAbsentToCache);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Provides virtual thread support when the runtime has it. This is the Java 21 variant
+ * which is always using virtual threads.
+ */
+final class VirtualThreads {
+
+    private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("cache-only-", 0L).factory();
+    private static final Executor PER_TASK_EXECUTOR = command -> THREAD_FACTORY.newThread(command).start();
+
+    private VirtualThreads() {
+        //utility
+    }
+
+    /**
+     * Tells whether virtual threads are available.
+     *
+     * @return true if virtual threads can be used.
+     */
+    static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Returns an executor starting a new virtual thread for each task.
+     *
+     * @param fallback The executor we should use when virtual threads are not available.
+     * @return executor.
+     */
+    static Executor perTaskExecutor(final Executor fallback) {
+        return PER_TASK_EXECUTOR;
+    }
+}
@@ -1,5 +1,6 @@
 package com.github.nagyesta.cacheonly.core;
 
+import com.github.nagyesta.cacheonly.core.collection.LongHashSet;
 import org.apache.commons.collections4.SetUtils;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
@@ -42,6 +43,29 @@ class CacheRefreshStrategyTest {
                 .add(of(OPPORTUNISTIC, true))
                 .add(of(PESSIMISTIC, true))
                 .add(of(NEVER_CACHE, false))
+                .add(of(STALE_WHILE_REVALIDATE, true))
+                .build();
+    }
+
+    private static Stream<Arguments> backgroundRefreshProvider() {
+        return Stream.<Arguments>builder()
+                .add(of(CACHE_ONLY, false))
+                .add(of(OPTIMISTIC, false))
+                .add(of(OPPORTUNISTIC, false))
+                .add(of(PESSIMISTIC, false))
+                .add(of(NEVER_CACHE, false))
+                .add(of(STALE_WHILE_REVALIDATE, true))
+                .build();
+    }
+
+    private static Stream<Arguments> pipelinedFetchProvider() {
+        return Stream.<Arguments>builder()
+                .add(of(CACHE_ONLY, false))
+                .add(of(OPTIMISTIC, true))
+                .add(of(OPPORTUNISTIC, false))
+                .add(of(PESSIMISTIC, false))
+                .add(of(NEVER_CACHE, false))
+                .add(of(STALE_WHILE_REVALIDATE, true))
                 .build();
     }
 
@@ -52,6 +76,7 @@ class CacheRefreshStrategyTest {
                 .add(of(OPPORTUNISTIC, false))
                 .add(of(PESSIMISTIC, true))
                 .add(of(NEVER_CACHE, false))
+                .add(of(STALE_WHILE_REVALIDATE, false))
                 .build();
     }
 
@@ -68,6 +93,7 @@ class CacheRefreshStrategyTest {
         builder.add(of(PESSIMISTIC, INTEGERS_1_TO_8, EMPTY, PARTITION_SIZE_3, INTEGERS_1_TO_8_SORTED, ZERO));
         // found middle half
         builder.add(of(OPTIMISTIC, INTEGERS_1_TO_8, INTEGERS_3_TO_6, PARTITION_SIZE_3, INTEGERS_1_2_7_8_SORTED, ZERO));
+        builder.add(of(STALE_WHILE_REVALIDATE, INTEGERS_1_TO_8, INTEGERS_3_TO_6, PARTITION_SIZE_3, INTEGERS_1_2_7_8_SORTED, ZERO));
         builder.add(of(OPPORTUNISTIC, INTEGERS_1_TO_8, INTEGERS_3_TO_6, PARTITION_SIZE_3, INTEGERS_1_2_7_8_SORTED, EXTRA_2));
         builder.add(of(PESSIMISTIC, INTEGERS_1_TO_8, INTEGERS_3_TO_6, PARTITION_SIZE_3, INTEGERS_1_TO_8_SORTED, ZERO));
         // found tail ends
@@ -139,6 +165,34 @@ class CacheRefreshStrategyTest {
         assertEquals(expected, actual);
     }
 
+    @ParameterizedTest
+    @MethodSource("backgroundRefreshProvider")
+    void testAllowsBackgroundRefreshShouldReturnTheExpectedValueWhenCalled(
+            final CacheRefreshStrategy underTest,
+            final boolean expected) {
+        //given
+
+        //when
+        final var actual = underTest.allowsBackgroundRefresh();
+
+        //then
+        assertEquals(expected, actual);
+    }
+
+    @ParameterizedTest
+    @MethodSource("pipelinedFetchProvider")
+    void testAllowsPipelinedFetchShouldReturnTheExpectedValueWhenCalled(
+            final CacheRefreshStrategy underTest,
+            final boolean expected) {
+        //given
+
+        //when
+        final var actual = underTest.allowsPipelinedFetch();
+
+        //then
+        assertEquals(expected, actual);
+    }
+
     @ParameterizedTest
     @MethodSource("validSelectItemProvider")
     void testSelectItemsForFetchShouldKeepTheExpectedItemsWhenCalledWithValidInput(
@@ -177,4 +231,50 @@ class CacheRefreshStrategyTest {
 
         //then exception
     }
+
+    @ParameterizedTest
+    @MethodSource("validSelectItemProvider")
+    void testSelectItemsForFetchShouldKeepTheExpectedItemsWhenCalledWithLongSets(
+            final CacheRefreshStrategy underTest,
+            final Set<Integer> allIds,
+            final Set<Integer> foundIds,
+            final int partitionSize,
+            final SortedSet<Integer> expectedMandatory,
+            final int expectedAdditional) {
+        //given
+        final var allLongIds = toLongSet(allIds);
+        final var foundLongIds = toLongSet(foundIds);
+
+        //when
+        final var actual = underTest.selectItemsForFetch(allLongIds, foundLongIds, partitionSize);
+
+        //then
+        final var expectedLongs = new TreeSet<>(toLongSet(expectedMandatory));
+        final SortedSet<Long> common = new TreeSet<>(SetUtils.intersection(actual, expectedLongs));
+        final Set<Long> extra = SetUtils.difference(actual, expectedLongs);
+        assertIterableEquals(expectedLongs, common);
+        assertEquals(expectedAdditional, extra.size());
+        assertTrue(foundLongIds.containsAll(extra));
+    }
+
+    @ParameterizedTest
+    @MethodSource("validSelectItemProvider")
+    void testSelectItemsForFetchShouldThrowExceptionWhenCalledWithLongSetsMissingCachedIds(
+            final CacheRefreshStrategy underTest) {
+        //given
+        final var allLongIds = new LongHashSet(List.of(1L, 2L));
+        final var foundLongIds = new LongHashSet(List.of(2L, 3L));
+
+        //when
+        assertThrows(IllegalArgumentException.class,
+                () -> underTest.selectItemsForFetch(allLongIds, foundLongIds, PARTITION_SIZE_2));
+
+        //then exception
+    }
+
+    private static LongHashSet toLongSet(final Set<Integer> ids) {
+        final var result = new LongHashSet(ids.size());
+        ids.forEach(id -> result.addLong(id));
+        return result;
+    }
 }
@@ -0,0 +1,867 @@
+package com.github.nagyesta.cacheonly.core;
+
+import com.github.nagyesta.cacheonly.core.breaker.CircuitBreaker;
+import com.github.nagyesta.cacheonly.core.conurrent.ConcurrentCacheServiceTemplate;
+import com.github.nagyesta.cacheonly.core.conurrent.ExecutionMode;
+import com.github.nagyesta.cacheonly.core.conurrent.HedgingPolicy;
+import com.github.nagyesta.cacheonly.core.exception.OriginRejectedException;
+import com.github.nagyesta.cacheonly.core.metrics.BasicBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.example.number.NumberBatchServiceCaller;
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.LONG_KEYED_REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.LONG_KEYED_RESPONSE_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.RESPONSE_TRANSFORMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class ConcurrentCacheServiceTemplateTest {
+
+    private static final long SPECIAL_ID = 100L;
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldReturnEmptyWhenOriginFindsNothing()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        final var input = List.of(-1L, -2L, -3L, -4L, -5L);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(input).get();
+
+        //then
+        assertEquals(List.of(), actual);
+        assertEquals(5, metricCollector.getCacheGet());
+        assertEquals(5, metricCollector.getCacheMiss());
+        assertEquals(0, metricCollector.getCacheHit());
+        assertEquals(1, metricCollector.getPartitionCreated());
+        assertEquals(0, metricCollector.getPartitionFailed());
+        assertEquals(1, metricCollector.getPartitionSucceeded());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldFetchAllFromOriginWhenPessimisticStrategyObservesMiss()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.PESSIMISTIC, 5, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        final var input = List.of(1L, 2L, 3L);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(input).get();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "2", "3"), actual.stream().sorted().toList());
+        assertEquals(List.of(List.of(1L, 2L), List.of(1L, 2L, 3L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+        assertEquals(3, metricCollector.getCacheMiss());
+        assertEquals(0, metricCollector.getCacheHit());
+        assertEquals(1, metricCollector.getPartitionCreated());
+        assertEquals(1, metricCollector.getPartitionSucceeded());
+    }
+
+    @Test
+    void testCallBatchServiceAndPutAllToCacheAsyncShouldCallOriginWhenCalled()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        final var input = List.of(11L, 12L, 13L, 14L, 15L, 16L);
+
+        //when
+        final var actual = underTest.callBatchServiceAndPutAllToCacheAsync(input).get();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("11", "12", "13", "14", "15", "16"), actual.stream().sorted().toList());
+        assertEquals(0, metricCollector.getCacheGet());
+        assertEquals(2, metricCollector.getPartitionCreated());
+        assertEquals(0, metricCollector.getPartitionFailed());
+        assertEquals(2, metricCollector.getPartitionSucceeded());
+        assertEquals(List.of("11", "12", "13"), underTest.callCacheableBatchService(List.of(11L, 12L, 13L))
+                .stream().sorted().toList());
+        assertEquals(2, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldUseOneTaskPerPartitionWhenVirtualThreadsAreUsed() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 10L,
+                ExecutionMode.VIRTUAL_THREADS);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(
+                new NumberPartialCacheSupport(new ConcurrentMapCacheManager(), ExecutionMode.VIRTUAL_THREADS),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        underTest.callBatchServiceAndPutAllToCache(LongStream.range(0L, 100L).boxed().toList());
+
+        final var input = LongStream.range(0L, 200L).boxed().toList();
+
+        //when
+        final var actual = underTest.callCacheableBatchService(input);
+
+        //then
+        assertNotNull(actual);
+        assertEquals(input.stream().map(String::valueOf).sorted().toList(), actual.stream().sorted().toList());
+        assertEquals(200, metricCollector.getCacheGet());
+        assertEquals(100, metricCollector.getCacheHit());
+        assertEquals(100, metricCollector.getCacheMiss());
+        assertEquals(40, metricCollector.getPartitionSucceeded());
+        final var threadNames = batchServiceCaller.getThreadNames();
+        assertEquals(40, threadNames.size());
+        assertTrue(threadNames.stream().allMatch(name -> name.startsWith("cache-only-"))
+                || threadNames.stream().allMatch(name -> name.startsWith("ForkJoinPool-")));
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldAwaitItemsInFlightWhenCalledConcurrently()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 200L);
+        batchServiceCaller.setDeduplicateInFlightRequests(true);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var first = underTest.callCacheableBatchServiceAsync(List.of(1L, 2L, 3L, 4L, 5L));
+        awaitRequests(batchServiceCaller, 1);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(3L, 4L, 5L, 6L, 7L)).get();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("3", "4", "5", "6", "7"), actual.stream().sorted().toList());
+        assertEquals(List.of("1", "2", "3", "4", "5"), Objects.requireNonNull(first.get()).stream().sorted().toList());
+        assertEquals(List.of(List.of(1L, 2L, 3L, 4L, 5L), List.of(6L, 7L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+        assertEquals(3, metricCollector.getInFlightRequestJoined());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldNotAwaitItemsInFlightWhenDeduplicationIsNotEnabled()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 200L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var first = underTest.callCacheableBatchServiceAsync(List.of(1L, 2L, 3L));
+        awaitRequests(batchServiceCaller, 1);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(2L, 3L, 4L)).get();
+
+        //then
+        assertFalse(batchServiceCaller.deduplicateInFlightRequests());
+        assertEquals(List.of("2", "3", "4"), Objects.requireNonNull(actual).stream().sorted().toList());
+        assertEquals(List.of("1", "2", "3"), Objects.requireNonNull(first.get()).stream().sorted().toList());
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(2L, 3L, 4L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+        assertEquals(0, metricCollector.getInFlightRequestJoined());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldFetchItemsAgainWhenTheConcurrentCallFails()
+            throws InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 200L);
+        batchServiceCaller.setDeduplicateInFlightRequests(true);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var first = underTest.callCacheableBatchServiceAsync(List.of(NumberBatchServiceCaller.FAILING_ID, 1L, 2L));
+        awaitRequests(batchServiceCaller, 1);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L, 3L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "2", "3"), actual.stream().sorted().toList());
+        assertThrows(ExecutionException.class, first::get);
+        assertEquals(List.of(List.of(1L, 2L, NumberBatchServiceCaller.FAILING_ID), List.of(3L), List.of(1L, 2L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldUseBulkGetWhenSupported()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(), ExecutionMode.FORK_JOIN_POOL, true);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L, 3L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(1L, 2L, 3L, 4L)).get();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "2", "3", "4"), actual.stream().sorted().toList());
+        assertEquals(1, partialCacheSupport.getBulkGetCalls());
+        assertEquals(3, metricCollector.getCacheHit());
+        assertEquals(1, metricCollector.getCacheMiss());
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(4L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldFetchAllFromOriginWhenBulkGetMissesWithPessimisticStrategy() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.PESSIMISTIC, 5, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(), ExecutionMode.FORK_JOIN_POOL, true);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L, 3L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "2", "3"), actual.stream().sorted().toList());
+        assertEquals(1, partialCacheSupport.getBulkGetCalls());
+        assertEquals(List.of(List.of(1L, 2L), List.of(1L, 2L, 3L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldSkipItemsKnownToBeAbsentWhenNegativeCachingIsEnabled()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(),
+                ExecutionMode.FORK_JOIN_POOL, true, NumberPartialCacheSupport.MISSING_NUMBERS);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, -2L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(1L, -2L, -3L)).get();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1"), actual);
+        assertEquals(1, metricCollector.getNegativeCacheHit());
+        assertEquals(1, metricCollector.getNegativeCachePut());
+        assertEquals(List.of(List.of(-2L, 1L), List.of(-3L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldSkipMissesKnownToBeAbsentWhenPipelined()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(),
+                ExecutionMode.FORK_JOIN_POOL, false, NumberPartialCacheSupport.MISSING_NUMBERS);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setPipelinedOriginDispatch(true);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, -2L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(1L, -2L, 3L)).get();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "3"), actual.stream().sorted().toList());
+        assertEquals(1, metricCollector.getNegativeCacheHit());
+        assertEquals(List.of(List.of(-2L, 1L), List.of(3L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldRefreshStaleItemsInBackgroundWhenStaleWhileRevalidateIsUsed()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.STALE_WHILE_REVALIDATE, 5, 0L);
+        final var cacheManager = new ConcurrentMapCacheManager();
+        final var partialCacheSupport = new NumberPartialCacheSupport(cacheManager,
+                ExecutionMode.FORK_JOIN_POOL, true, null, NumberPartialCacheSupport.FRESH_NUMBERS);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+        Objects.requireNonNull(cacheManager.getCache(NumberPartialCacheSupport.FRESH_NUMBERS))
+                .evict(partialCacheSupport.toCacheKey(1L).key());
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(1L, 2L, 3L)).get();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "2", "3"), actual.stream().sorted().toList());
+        awaitRequests(batchServiceCaller, 3);
+        assertEquals(1, metricCollector.getStaleCacheHit());
+        assertEquals(Set.of(List.of(1L, 2L), List.of(1L), List.of(3L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldCheckFreshnessOfEachHitInParallelWhenStaleWhileRevalidateIsUsed() throws InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.STALE_WHILE_REVALIDATE, 5, 0L);
+        final var cacheManager = new ConcurrentMapCacheManager();
+        final var partialCacheSupport = new NumberPartialCacheSupport(cacheManager,
+                ExecutionMode.FORK_JOIN_POOL, false, null, NumberPartialCacheSupport.FRESH_NUMBERS);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L, 3L, 4L));
+        Objects.requireNonNull(cacheManager.getCache(NumberPartialCacheSupport.FRESH_NUMBERS))
+                .evict(partialCacheSupport.toCacheKey(1L).key());
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L, 3L, 4L));
+
+        //then
+        assertEquals(List.of("1", "2", "3", "4"), Objects.requireNonNull(actual).stream().sorted().toList());
+        assertEquals(List.of(1, 1, 1, 1), partialCacheSupport.getFreshGetSizes());
+        assertEquals(1, metricCollector.getStaleCacheHit());
+        awaitRequests(batchServiceCaller, 2);
+        assertEquals(List.of(1L), batchServiceCaller.getRequests().get(1));
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldUseFirstResponseWhenHedgedRequestCompletesBeforeStraggler() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 10L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setHedgingPolicy(new HedgingPolicy(0.5D, 10, 3));
+        LongStream.range(1L, 4L).forEach(id -> underTest.callBatchServiceAndPutAllToCache(List.of(id)));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var start = System.currentTimeMillis();
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(NumberBatchServiceCaller.STRAGGLER_ID, 4L));
+
+        //then
+        assertTrue(System.currentTimeMillis() - start < NumberBatchServiceCaller.STRAGGLER_MILLIS);
+        assertNotNull(actual);
+        assertEquals(List.of("4", "777"), actual.stream().sorted().toList());
+        assertEquals(1, metricCollector.getHedgedRequestSent());
+        assertEquals(1, metricCollector.getHedgedRequestWon());
+        assertEquals(2, metricCollector.getCachePut());
+        assertEquals(5, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldNotInterruptCachePutWhenPrimaryRequestWins() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 50L);
+        final var partialCacheSupport = new NumberPartialCacheSupport();
+        final var underTest = new ConcurrentCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setHedgingPolicy(new HedgingPolicy(0.5D, 10, 3));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        LongStream.range(1L, 11L).forEach(id -> underTest.callCacheableBatchService(List.of(id)));
+
+        //then
+        assertTrue(metricCollector.getHedgedRequestSent() > 0);
+        assertEquals(0, partialCacheSupport.getInterruptedPuts());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldCancelStragglerWhenHedgedRequestWins() throws InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 10L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setHedgingPolicy(new HedgingPolicy(0.5D, 10, 3));
+        LongStream.range(1L, 4L).forEach(id -> underTest.callBatchServiceAndPutAllToCache(List.of(id)));
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(NumberBatchServiceCaller.STRAGGLER_ID));
+
+        //then
+        assertEquals(List.of("777"), actual);
+        final var start = System.currentTimeMillis();
+        while (batchServiceCaller.getInterrupted() < 1 && System.currentTimeMillis() - start < NumberBatchServiceCaller.STRAGGLER_MILLIS) {
+            Thread.sleep(1L);
+        }
+        assertEquals(1, batchServiceCaller.getInterrupted());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldThrowExceptionWhenHedgedPartitionFails() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 10L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setHedgingPolicy(new HedgingPolicy(0.5D, 10, 1));
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L));
+        final var input = List.of(NumberBatchServiceCaller.FAILING_ID);
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callCacheableBatchService(input));
+
+        //then exception thrown
+    }
+
+    @Test
+    void testCallCacheableBatchServiceWithPartialSuccessShouldReturnResolvedItemsAndFailuresWhenPartitionFails() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 1, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(5L));
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceWithPartialSuccess(
+                List.of(1L, 2L, 5L, NumberBatchServiceCaller.FAILING_ID));
+
+        //then
+        assertFalse(actual.isComplete());
+        assertEquals(List.of("1", "2", "5"), Objects.requireNonNull(actual.response()).stream().sorted().toList());
+        assertEquals(Set.of(NumberBatchServiceCaller.FAILING_ID), actual.failures().keySet());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceWithPartialSuccessAsyncShouldReturnResolvedItemsAndFailuresWhenPartitionFails()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 1, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(5L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceWithPartialSuccessAsync(
+                List.of(1L, 2L, 5L, NumberBatchServiceCaller.FAILING_ID)).get();
+
+        //then
+        assertFalse(actual.isComplete());
+        assertEquals(List.of("1", "2", "5"), Objects.requireNonNull(actual.response()).stream().sorted().toList());
+        assertInstanceOf(BatchServiceException.class, actual.failures().get(NumberBatchServiceCaller.FAILING_ID));
+        assertEquals(1, metricCollector.getPartitionFailed());
+        assertEquals(2, metricCollector.getPartitionSucceeded());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceWithPartialSuccessAsyncShouldReturnCompleteResultWhenAllItemsAreCached()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceWithPartialSuccessAsync(List.of(1L, 2L)).get();
+
+        //then
+        assertTrue(actual.isComplete());
+        assertEquals(List.of("1", "2"), Objects.requireNonNull(actual.response()).stream().sorted().toList());
+        assertEquals(1, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldServeOnlyCachedItemsWhenCircuitIsOpen()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L));
+        final var circuitBreaker = new CircuitBreaker(1, 60000L, 1);
+        underTest.setCircuitBreaker(circuitBreaker);
+        final var failing = underTest.callCacheableBatchServiceAsync(List.of(NumberBatchServiceCaller.FAILING_ID));
+        assertThrows(ExecutionException.class, failing::get);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(1L, 2L)).get();
+        final var partial = underTest.callCacheableBatchServiceWithPartialSuccessAsync(List.of(1L, 3L)).get();
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(List.of("1"), actual);
+        assertEquals(List.of("1"), partial.response());
+        assertEquals(Set.of(3L), partial.failures().keySet());
+        assertInstanceOf(OriginRejectedException.class, partial.failures().get(3L));
+        assertEquals(2, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldServeOnlyCachedItemsWhenPipelinedAndCircuitIsOpen()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 1, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setPipelinedOriginDispatch(true);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L));
+        final var circuitBreaker = new CircuitBreaker(1, 60000L, 1);
+        underTest.setCircuitBreaker(circuitBreaker);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var failing = underTest.callCacheableBatchServiceAsync(List.of(NumberBatchServiceCaller.FAILING_ID));
+        assertThrows(ExecutionException.class, failing::get);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(1L, 2L, 3L)).get();
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(List.of("1"), actual);
+        assertEquals(2, batchServiceCaller.getRequests().size());
+        assertEquals(2, metricCollector.getOriginRequestRejected());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceWithPartialSuccessShouldReportTimedOutPartitionWhenPartitionTimeoutIsSet() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 1, 10L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setPartitionTimeoutMillis(500L);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var start = System.currentTimeMillis();
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceWithPartialSuccess(
+                List.of(1L, NumberBatchServiceCaller.STRAGGLER_ID, 2L));
+
+        //then
+        assertTrue(System.currentTimeMillis() - start < NumberBatchServiceCaller.STRAGGLER_MILLIS);
+        assertEquals(List.of("1", "2"), Objects.requireNonNull(actual.response()).stream().sorted().toList());
+        assertInstanceOf(TimeoutException.class, actual.failures().get(NumberBatchServiceCaller.STRAGGLER_ID));
+        assertEquals(1, metricCollector.getPartitionTimedOut());
+        assertEquals(1, metricCollector.getPartitionFailed());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldFailWhenPartitionTimesOut() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 1, 10L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setPartitionTimeoutMillis(500L);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var start = System.currentTimeMillis();
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(1L, NumberBatchServiceCaller.STRAGGLER_ID));
+
+        //then
+        final var exception = assertThrows(ExecutionException.class, actual::get);
+        assertTrue(System.currentTimeMillis() - start < NumberBatchServiceCaller.STRAGGLER_MILLIS);
+        assertInstanceOf(BatchServiceException.class, exception.getCause());
+        assertEquals(1, metricCollector.getPartitionTimedOut());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldFailWhenCallDeadlineIsReached() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 10L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setCallTimeoutMillis(500L);
+        final var input = List.of(1L, NumberBatchServiceCaller.STRAGGLER_ID);
+        final var start = System.currentTimeMillis();
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callCacheableBatchService(input));
+
+        //then
+        assertTrue(System.currentTimeMillis() - start < NumberBatchServiceCaller.STRAGGLER_MILLIS);
+        assertEquals(Set.of("3", "4"), Set.copyOf(Objects.requireNonNull(underTest.callCacheableBatchService(List.of(3L, 4L)))));
+    }
+
+    @Test
+    void testCallBatchServiceAndPutAllToCacheAsyncShouldFailWhenCallDeadlineIsReached() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 10L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setCallTimeoutMillis(500L);
+        final var start = System.currentTimeMillis();
+
+        //when
+        final var actual = underTest.callBatchServiceAndPutAllToCacheAsync(List.of(NumberBatchServiceCaller.STRAGGLER_ID));
+
+        //then
+        assertThrows(ExecutionException.class, actual::get);
+        assertTrue(System.currentTimeMillis() - start < NumberBatchServiceCaller.STRAGGLER_MILLIS);
+    }
+
+    @Test
+    void testSettersShouldThrowExceptionWhenCalledWithNegativeTimeouts() {
+        //given
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L));
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> underTest.setCallTimeoutMillis(-1L));
+        assertThrows(IllegalArgumentException.class, () -> underTest.setPartitionTimeoutMillis(-1L));
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldDispatchFullPartitionsBeforeCachePhaseCompletesWhenPipelined()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var release = new CountDownLatch(1);
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 0L);
+        final var cacheManager = specialKeyCacheManager(Set.of(SPECIAL_ID), () -> awaitRelease(release));
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(cacheManager),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setPipelinedOriginDispatch(true);
+        underTest.callBatchServiceAndPutAllToCache(List.of(3L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(SPECIAL_ID, 1L, 2L, 3L));
+        awaitRequests(batchServiceCaller, 2);
+        final var dispatchedBeforeCachePhaseCompleted = !actual.isDone();
+        release.countDown();
+
+        //then
+        assertTrue(dispatchedBeforeCachePhaseCompleted);
+        assertEquals(List.of("1", "100", "2", "3"), Objects.requireNonNull(actual.get()).stream().sorted().toList());
+        assertEquals(List.of(3L), batchServiceCaller.getRequests().get(0));
+        assertEquals(List.of(1L, 2L), batchServiceCaller.getRequests().get(1).stream().sorted().toList());
+        assertEquals(List.of(SPECIAL_ID), batchServiceCaller.getRequests().get(2));
+        assertEquals(1, metricCollector.getCacheHit());
+        assertEquals(3, metricCollector.getCacheMiss());
+        assertEquals(2, metricCollector.getPartitionCreated());
+        assertEquals(2, metricCollector.getPartitionSucceeded());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldFetchUnresolvedItemsFromOriginWhenPipelinedCacheLookupFails() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.STALE_WHILE_REVALIDATE, 5, 0L);
+        final var cacheManager = specialKeyCacheManager(Set.of(SPECIAL_ID), () -> {
+            throw new IllegalStateException("Cache is not available.");
+        });
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(cacheManager),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setPipelinedOriginDispatch(true);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(SPECIAL_ID, 1L));
+
+        //then
+        assertEquals(List.of("1", "100"), Objects.requireNonNull(actual).stream().sorted().toList());
+        assertEquals(List.of(List.of(1L, SPECIAL_ID)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldThrowExceptionWhenPipelinedOriginCallFails() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setPipelinedOriginDispatch(true);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var input = List.of(1L, NumberBatchServiceCaller.FAILING_ID);
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callCacheableBatchService(input));
+
+        //then
+        assertEquals(1, metricCollector.getPartitionCreated());
+        assertEquals(1, metricCollector.getPartitionFailed());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldNotPipelineWhenCacheSupportUsesBulkGet() {
+        //given
+        final var cacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(), ExecutionMode.FORK_JOIN_POOL, true);
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(cacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setPipelinedOriginDispatch(true);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L));
+
+        //then
+        assertEquals(List.of("1", "2"), Objects.requireNonNull(actual).stream().sorted().toList());
+        assertEquals(1, cacheSupport.getBulkGetCalls());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldKeepCacheHitsWhenCachePhaseTimesOut() {
+        //given
+        final var release = new CountDownLatch(1);
+        final var cacheSupport = new NumberPartialCacheSupport(specialKeyCacheManager(Set.of(SPECIAL_ID), () -> awaitRelease(release)));
+        cacheSupport.setTimeoutMillis(300L);
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(cacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L, SPECIAL_ID));
+        release.countDown();
+
+        //then
+        assertEquals(List.of("1", "100", "2"), Objects.requireNonNull(actual).stream().sorted().toList());
+        assertEquals(List.of(SPECIAL_ID), batchServiceCaller.getRequests().get(1));
+        assertEquals(2, metricCollector.getCacheHit());
+        assertEquals(1, metricCollector.getCacheMiss());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldKeepCacheHitsWhenCachePhaseTimesOut()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var release = new CountDownLatch(1);
+        final var cacheSupport = new NumberPartialCacheSupport(specialKeyCacheManager(Set.of(SPECIAL_ID), () -> awaitRelease(release)));
+        cacheSupport.setTimeoutMillis(300L);
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(cacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(1L, 2L, SPECIAL_ID)).get();
+        release.countDown();
+
+        //then
+        assertEquals(List.of("1", "100", "2"), Objects.requireNonNull(actual).stream().sorted().toList());
+        assertEquals(List.of(SPECIAL_ID), batchServiceCaller.getRequests().get(1));
+    }
+
+    @Test
+    @SuppressWarnings("java:S2925")
+    void testCallCacheableBatchServiceShouldNotStartQueuedCacheLookupsWhenCachePhaseTimesOut() throws InterruptedException {
+        //given
+        final var release = new CountDownLatch(1);
+        final var started = new AtomicInteger();
+        final var specialIds = LongStream.range(SPECIAL_ID, SPECIAL_ID + 10L).boxed().collect(Collectors.toSet());
+        final var cacheSupport = new NumberPartialCacheSupport(specialKeyCacheManager(specialIds, () -> {
+            started.incrementAndGet();
+            awaitRelease(release);
+        }));
+        cacheSupport.setTimeoutMillis(300L);
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 10, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(cacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.copyOf(specialIds));
+        release.countDown();
+        Thread.sleep(200L);
+
+        //then
+        assertEquals(10, Objects.requireNonNull(actual).size());
+        assertTrue(started.get() < specialIds.size());
+    }
+
+    private static ConcurrentMapCacheManager specialKeyCacheManager(
+            final Set<Long> specialIds,
+            final Runnable onSpecialKeyGet) {
+        return new ConcurrentMapCacheManager() {
+            @Override
+            protected Cache createConcurrentMapCache(final String name) {
+                return new ConcurrentMapCache(name) {
+                    @Override
+                    public <T> @Nullable T get(final Object key, final @Nullable Class<T> type) {
+                        if (specialIds.stream().anyMatch(id -> ("number_" + id).equals(key))) {
+                            onSpecialKeyGet.run();
+                        }
+                        return super.get(key, type);
+                    }
+                };
+            }
+        };
+    }
+
+    private static void awaitRelease(final CountDownLatch release) {
+        try {
+            release.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @SuppressWarnings("java:S2925")
+    private static void awaitRequests(final NumberBatchServiceCaller batchServiceCaller, final int count) throws InterruptedException {
+        while (batchServiceCaller.getRequests().size() < count) {
+            Thread.sleep(1L);
+        }
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldFetchOnlyMissesWhenLongKeyedTransformersAreUsed()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 0L);
+        final var underTest = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                LONG_KEYED_REQUEST_TRANSFORMER, LONG_KEYED_RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(0L, 1L, 2L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(List.of(0L, 1L, 2L, 3L, -4L, 5L, 6L)).get();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("0", "1", "2", "3", "5", "6"), actual.stream().sorted().toList());
+        assertEquals(3, metricCollector.getCacheHit());
+        assertEquals(4, metricCollector.getCacheMiss());
+        assertEquals(2, metricCollector.getPartitionCreated());
+        final var originRequests = batchServiceCaller.getRequests();
+        assertEquals(4, originRequests.size());
+        assertEquals(List.of(-4L, 3L, 5L, 6L), originRequests.subList(2, 4).stream()
+                .flatMap(List::stream).sorted().toList());
+    }
+}
@@ -0,0 +1,474 @@
+package com.github.nagyesta.cacheonly.core;
+
+import com.github.nagyesta.cacheonly.core.breaker.CircuitBreaker;
+import com.github.nagyesta.cacheonly.core.conurrent.ExecutionMode;
+import com.github.nagyesta.cacheonly.core.exception.OriginRejectedException;
+import com.github.nagyesta.cacheonly.core.metrics.BasicBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.example.number.NumberBatchServiceCaller;
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import com.github.nagyesta.cacheonly.raw.decorator.DelegatingBatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.LONG_KEYED_REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.LONG_KEYED_RESPONSE_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.RESPONSE_TRANSFORMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class DefaultCacheServiceTemplateTest {
+
+    private static final long TIMEOUT_MILLIS = 5000L;
+
+    @Test
+    void testCallCacheableBatchServiceShouldUseBulkGetWhenSupported() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(), ExecutionMode.FORK_JOIN_POOL, true);
+        final var underTest = new DefaultCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L, 3L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "2", "3"), actual.stream().sorted().toList());
+        assertEquals(1, partialCacheSupport.getBulkGetCalls());
+        assertEquals(2, metricCollector.getCacheHit());
+        assertEquals(1, metricCollector.getCacheMiss());
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldPartitionWithTheSizeUsedForSelectionWhenPartitionSizeChanges() {
+        //given
+        final var numbers = new NumberBatchServiceCaller(CacheRefreshStrategy.OPPORTUNISTIC, 3, 0L);
+        final var reads = new AtomicInteger();
+        final var batchServiceCaller = new DelegatingBatchServiceCaller<>(numbers) {
+            @Override
+            public int maxPartitionSize() {
+                //shrinks after the first read as an adaptive caller would
+                if (reads.getAndIncrement() == 0) {
+                    return 3;
+                }
+                return 2;
+            }
+        };
+        final var partialCacheSupport = new NumberPartialCacheSupport();
+        final var underTest = new DefaultCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        partialCacheSupport.putToCache(partialCacheSupport.toCacheKey(1L), "1");
+        partialCacheSupport.putToCache(partialCacheSupport.toCacheKey(2L), "2");
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L, 3L, 4L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "2", "3", "4"), actual.stream().sorted().toList());
+        assertEquals(1, reads.get());
+        assertEquals(1, numbers.getRequests().size());
+        assertEquals(3, numbers.getRequests().get(0).size());
+    }
+
+    @Test
+    void testCallBatchServiceAndPutAllToCacheShouldPutEachPartitionInBulkWhenCalled() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport();
+        final var underTest = new DefaultCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+
+        //when
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L, 3L, -4L));
+
+        //then
+        assertEquals(List.of(1, 2), partialCacheSupport.getBulkPutSizes().stream().sorted().toList());
+        assertEquals("3", partialCacheSupport.getFromCache(partialCacheSupport.toCacheKey(3L)));
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldSkipItemsKnownToBeAbsentWhenNegativeCachingIsEnabled() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(),
+                ExecutionMode.FORK_JOIN_POOL, false, NumberPartialCacheSupport.MISSING_NUMBERS);
+        final var underTest = new DefaultCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        underTest.callCacheableBatchService(List.of(1L, -2L));
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, -2L, 3L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "3"), actual.stream().sorted().toList());
+        assertEquals(1, metricCollector.getNegativeCachePut());
+        assertEquals(1, metricCollector.getNegativeCacheHit());
+        assertEquals(List.of(List.of(-2L, 1L), List.of(3L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldNotRefetchAllWhenPessimisticStrategyFindsOnlyItemsKnownToBeAbsent() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.PESSIMISTIC, 5, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(),
+                ExecutionMode.FORK_JOIN_POOL, true, NumberPartialCacheSupport.MISSING_NUMBERS);
+        final var underTest = new DefaultCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, -2L));
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, -2L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1"), actual);
+        assertEquals(List.of(List.of(-2L, 1L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testCallBatchServiceAndPutAllToCacheShouldEvictTombstonesWhenItemsAreReturnedByOrigin() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(),
+                ExecutionMode.FORK_JOIN_POOL, false, NumberPartialCacheSupport.MISSING_NUMBERS);
+        final var underTest = new DefaultCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var key = partialCacheSupport.toCacheKey(3L);
+        partialCacheSupport.putAbsentToCache(List.of(key));
+
+        //when
+        underTest.callBatchServiceAndPutAllToCache(List.of(3L));
+
+        //then
+        assertEquals(Set.of(), partialCacheSupport.getAbsentFromCache(List.of(key)));
+        assertEquals(List.of("3"), underTest.callCacheableBatchService(List.of(3L)));
+        assertEquals(1, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldCheckTombstonesOnlyForCacheMissesWhenNegativeCachingIsEnabled() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(),
+                ExecutionMode.FORK_JOIN_POOL, false, NumberPartialCacheSupport.MISSING_NUMBERS);
+        final var underTest = new DefaultCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L));
+        partialCacheSupport.putAbsentToCache(List.of(partialCacheSupport.toCacheKey(1L), partialCacheSupport.toCacheKey(2L)));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L));
+
+        //then
+        assertEquals(List.of("1"), actual);
+        assertEquals(1, metricCollector.getNegativeCacheHit());
+        assertEquals(1, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    void testGetAbsentFromCacheShouldReturnEmptySetWhenNegativeCachingIsDisabled() {
+        //given
+        final var underTest = new NumberPartialCacheSupport();
+        final var key = underTest.toCacheKey(-1L);
+        underTest.putAbsentToCache(List.of(key));
+
+        //when
+        final var actual = underTest.getAbsentFromCache(List.of(key));
+
+        //then
+        assertTrue(actual.isEmpty());
+        assertNull(underTest.negativeCacheName());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldReturnStaleItemsAndRefreshThemInBackgroundWhenStaleWhileRevalidateIsUsed()
+            throws InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.STALE_WHILE_REVALIDATE, 5, 0L);
+        final var cacheManager = new ConcurrentMapCacheManager();
+        final var partialCacheSupport = new NumberPartialCacheSupport(cacheManager,
+                ExecutionMode.FORK_JOIN_POOL, false, null, NumberPartialCacheSupport.FRESH_NUMBERS);
+        final var underTest = new DefaultCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L, 3L));
+        final var staleKey = partialCacheSupport.toCacheKey(1L);
+        partialCacheSupport.putToCache(staleKey, "stale");
+        Objects.requireNonNull(cacheManager.getCache(NumberPartialCacheSupport.FRESH_NUMBERS)).evict(staleKey.key());
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L, 3L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("2", "3", "stale"), actual.stream().sorted().toList());
+        final var deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!"1".equals(partialCacheSupport.getFromCache(staleKey)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1L);
+        }
+        assertEquals("1", partialCacheSupport.getFromCache(staleKey));
+        assertEquals(Set.of(staleKey), partialCacheSupport.getFreshFromCache(List.of(staleKey)));
+        assertEquals(1, metricCollector.getStaleCacheHit());
+        assertEquals(List.of(List.of(1L, 2L, 3L), List.of(1L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+        assertEquals("cache-only-refresh", batchServiceCaller.getThreadNames().get(1));
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldRefreshStaleItemsUsingTheExecutorSetWhenStaleWhileRevalidateIsUsed() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.STALE_WHILE_REVALIDATE, 5, 0L);
+        final var cacheManager = new ConcurrentMapCacheManager();
+        final var partialCacheSupport = new NumberPartialCacheSupport(cacheManager,
+                ExecutionMode.FORK_JOIN_POOL, false, null, NumberPartialCacheSupport.FRESH_NUMBERS);
+        final var underTest = new DefaultCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setBackgroundRefreshExecutor(Runnable::run);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+        final var staleKey = partialCacheSupport.toCacheKey(1L);
+        partialCacheSupport.putToCache(staleKey, "stale");
+        Objects.requireNonNull(cacheManager.getCache(NumberPartialCacheSupport.FRESH_NUMBERS)).evict(staleKey.key());
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L));
+
+        //then
+        assertEquals(List.of("2", "stale"), Objects.requireNonNull(actual).stream().sorted().toList());
+        assertEquals("1", partialCacheSupport.getFromCache(staleKey));
+        assertEquals(List.of(Thread.currentThread().getName(), Thread.currentThread().getName()), batchServiceCaller.getThreadNames());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceWithPartialSuccessShouldReturnResolvedItemsAndFailuresWhenPartitionFails() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 1, 0L);
+        final var underTest = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(5L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceWithPartialSuccess(
+                List.of(1L, 2L, 5L, NumberBatchServiceCaller.FAILING_ID));
+
+        //then
+        assertFalse(actual.isComplete());
+        assertNotNull(actual.response());
+        assertEquals(List.of("1", "2", "5"), actual.response().stream().sorted().toList());
+        assertEquals(Set.of(NumberBatchServiceCaller.FAILING_ID), actual.failures().keySet());
+        assertInstanceOf(BatchServiceException.class, actual.failures().get(NumberBatchServiceCaller.FAILING_ID));
+        assertEquals(3, metricCollector.getPartitionCreated());
+        assertEquals(1, metricCollector.getPartitionFailed());
+        assertEquals(2, metricCollector.getPartitionSucceeded());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceWithPartialSuccessShouldReturnCompleteResultWhenAllItemsAreCached() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceWithPartialSuccess(List.of(1L, 2L));
+
+        //then
+        assertTrue(actual.isComplete());
+        assertEquals(List.of("1", "2"), Objects.requireNonNull(actual.response()).stream().sorted().toList());
+        assertEquals(1, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldServeOnlyCachedItemsWhenCircuitIsOpen() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L));
+        final var circuitBreaker = new CircuitBreaker(1, 60000L, 1);
+        underTest.setCircuitBreaker(circuitBreaker);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var failing = List.of(NumberBatchServiceCaller.FAILING_ID);
+        assertThrows(BatchServiceException.class, () -> underTest.callCacheableBatchService(failing));
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L));
+        final var partial = underTest.callCacheableBatchServiceWithPartialSuccess(List.of(1L, 3L, 4L));
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertEquals(List.of("1"), actual);
+        assertEquals(List.of("1"), partial.response());
+        assertFalse(partial.isComplete());
+        assertEquals(Set.of(3L, 4L), partial.failures().keySet());
+        assertInstanceOf(OriginRejectedException.class, partial.failures().get(3L));
+        assertEquals(3, metricCollector.getOriginRequestRejected());
+        assertEquals(2, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    @SuppressWarnings("java:S2925")
+    void testCallCacheableBatchServiceShouldProbeOriginWithSmallPartitionWhenCircuitIsHalfOpen() throws InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        final var circuitBreaker = new CircuitBreaker(1, 1L, 1, metricCollector);
+        underTest.setCircuitBreaker(circuitBreaker);
+        final var failing = List.of(NumberBatchServiceCaller.FAILING_ID);
+        assertThrows(BatchServiceException.class, () -> underTest.callCacheableBatchService(failing));
+        Thread.sleep(10L);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L, 2L, 3L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(1, actual.size());
+        assertEquals(1, batchServiceCaller.getRequests().get(1).size());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertEquals(1, metricCollector.getCircuitOpened());
+        assertEquals(1, metricCollector.getCircuitHalfOpened());
+        assertEquals(1, metricCollector.getCircuitClosed());
+    }
+
+    @Test
+    @SuppressWarnings("java:S2925")
+    void testCallCacheableBatchServiceWithPartialSuccessShouldReportItemsBeyondProbeWhenCircuitIsHalfOpen()
+            throws InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var circuitBreaker = new CircuitBreaker(1, 1L, 1);
+        underTest.setCircuitBreaker(circuitBreaker);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var failing = List.of(NumberBatchServiceCaller.FAILING_ID);
+        assertThrows(BatchServiceException.class, () -> underTest.callCacheableBatchService(failing));
+        Thread.sleep(10L);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceWithPartialSuccess(List.of(1L, 2L, 3L));
+
+        //then
+        assertFalse(actual.isComplete());
+        assertEquals(1, Objects.requireNonNull(actual.response()).size());
+        assertEquals(2, actual.failures().size());
+        assertTrue(actual.failures().values().stream().allMatch(OriginRejectedException.class::isInstance));
+        assertEquals(2, metricCollector.getOriginRequestRejected());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    @SuppressWarnings("java:S2925")
+    void testCallCacheableBatchServiceShouldRecordFailureWhenProbeFailsWithUnexpectedException() throws InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var circuitBreaker = new CircuitBreaker(1, 1L, 1);
+        underTest.setCircuitBreaker(circuitBreaker);
+        final var unexpected = List.of(NumberBatchServiceCaller.UNEXPECTED_FAILURE_ID);
+        assertThrows(IllegalStateException.class, () -> underTest.callCacheableBatchService(unexpected));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        Thread.sleep(10L);
+        assertThrows(IllegalStateException.class, () -> underTest.callCacheableBatchService(unexpected));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        Thread.sleep(10L);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(1L));
+
+        //then
+        assertEquals(List.of("1"), actual);
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceWithPartialSuccessShouldRecordFailureWhenOriginFailsWithUnexpectedException() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var circuitBreaker = new CircuitBreaker(1, 60000L, 1);
+        underTest.setCircuitBreaker(circuitBreaker);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceWithPartialSuccess(
+                List.of(1L, NumberBatchServiceCaller.UNEXPECTED_FAILURE_ID));
+
+        //then
+        assertFalse(actual.isComplete());
+        assertInstanceOf(IllegalStateException.class, actual.failures().get(NumberBatchServiceCaller.UNEXPECTED_FAILURE_ID));
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+    }
+
+    @Test
+    void testGetAllFromCacheShouldReturnOnlyCachedItemsWhenCalled() {
+        //given
+        final var underTest = new NumberPartialCacheSupport();
+        final var cached = underTest.toCacheKey(1L);
+        final var missing = underTest.toCacheKey(2L);
+        underTest.putToCache(cached, "1");
+
+        //when
+        final Map<CacheKey<String, Long>, String> actual = underTest.getAllFromCache(List.of(cached, missing));
+
+        //then
+        assertEquals(Map.of(cached, "1"), actual);
+        assertFalse(underTest.supportsBulkGet());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldFetchOnlyMissesWhenLongKeyedTransformersAreUsed() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 0L);
+        final var underTest = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                LONG_KEYED_REQUEST_TRANSFORMER, LONG_KEYED_RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.callBatchServiceAndPutAllToCache(List.of(0L, 1L, 2L));
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = underTest.callCacheableBatchService(List.of(0L, 1L, 2L, 3L, -4L, 5L, 6L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("0", "1", "2", "3", "5", "6"), actual.stream().sorted().toList());
+        assertEquals(3, metricCollector.getCacheHit());
+        assertEquals(4, metricCollector.getCacheMiss());
+        assertEquals(2, metricCollector.getPartitionCreated());
+        final var originRequests = batchServiceCaller.getRequests();
+        assertEquals(4, originRequests.size());
+        assertEquals(List.of(-4L, 3L, 5L, 6L), originRequests.subList(2, 4).stream()
+                .flatMap(List::stream).sorted().toList());
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.nagyesta.cacheonly.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class SingleFlightTest {
+
+    @Test
+    void testBoardShouldOwnItemsWhenTheyAreNotInFlight() {
+        //given
+        final var underTest = new SingleFlight<Long, Long, String>();
+
+        //when
+        final var actual = underTest.board(Map.of(1L, 1L, 2L, 2L), Function.identity());
+
+        //then
+        assertEquals(Map.of(1L, 1L, 2L, 2L), actual.owned());
+        assertEquals(0, actual.awaitedCount());
+        assertEquals(2, underTest.size());
+    }
+
+    @Test
+    void testBoardShouldNotTrackItemsWhenTheyHaveNoKey() {
+        //given
+        final var underTest = new SingleFlight<Long, Long, String>();
+
+        //when
+        final var actual = underTest.board(Map.of(1L, 1L), request -> null);
+
+        //then
+        assertEquals(Map.of(1L, 1L), actual.owned());
+        assertEquals(0, underTest.size());
+    }
+
+    @Test
+    void testAwaitOthersShouldReturnTheResponseOfTheOwnerWhenItLanded() {
+        //given
+        final var underTest = new SingleFlight<Long, Long, String>();
+        final var owner = underTest.board(Map.of(1L, 1L, 2L, 2L), Function.identity());
+        final var follower = underTest.board(Map.of(2L, 2L, 3L, 3L), Function.identity());
+        owner.land(Map.of(1L, "1"));
+        final Map<Long, String> actual = new HashMap<>();
+
+        //when
+        final var failed = follower.awaitOthers(actual, 1000L).join();
+
+        //then
+        assertEquals(Map.of(3L, 3L), follower.owned());
+        assertEquals(1, follower.awaitedCount());
+        assertEquals(Set.of(), failed);
+        assertEquals(Map.of(), actual);
+        assertEquals(1, underTest.size());
+    }
+
+    @Test
+    void testAwaitOthersShouldReturnFailedIdsWhenTheOwnerFailed() {
+        //given
+        final var underTest = new SingleFlight<Long, Long, String>();
+        final var owner = underTest.board(Map.of(1L, 1L, 2L, 2L), Function.identity());
+        final var follower = underTest.board(Map.of(1L, 1L, 2L, 2L, 3L, 3L), Function.identity());
+        owner.land(null);
+        follower.land(Map.of(3L, "3"));
+        final Map<Long, String> actual = new HashMap<>();
+
+        //when
+        final var failed = follower.awaitOthers(actual, 1000L).join();
+
+        //then
+        assertEquals(Set.of(1L, 2L), failed);
+        assertEquals(Map.of(), actual);
+        assertEquals(0, underTest.size());
+    }
+
+    @Test
+    void testAwaitOthersShouldReturnPendingIdsWhenTheTimeoutElapses() {
+        //given
+        final var underTest = new SingleFlight<Long, Long, String>();
+        final var owner = underTest.board(Map.of(1L, 1L), Function.identity());
+        final var follower = underTest.board(Map.of(1L, 1L, 2L, 2L), Function.identity());
+        follower.land(Map.of(2L, "2"));
+        final Map<Long, String> actual = new HashMap<>();
+
+        //when
+        final var failed = follower.awaitOthers(actual, 10L).join();
+
+        //then
+        assertEquals(Set.of(1L), failed);
+        assertEquals(Map.of(), actual);
+        assertEquals(1, underTest.size());
+        owner.land(Map.of(1L, "1"));
+        assertEquals(0, underTest.size());
+    }
+
+    @Test
+    void testAwaitOthersShouldCompleteWhenTheOwnerLandsWithoutBlockingTheCaller() {
+        //given
+        final var underTest = new SingleFlight<Long, Long, String>();
+        final var owner = underTest.board(Map.of(1L, 1L), Function.identity());
+        final var follower = underTest.board(Map.of(1L, 1L), Function.identity());
+        follower.land(Map.of());
+        final Map<Long, String> actual = new HashMap<>();
+
+        //when
+        final var failed = follower.awaitOthers(actual, 60000L);
+
+        //then
+        assertFalse(failed.isDone());
+        owner.land(Map.of(1L, "1"));
+        assertEquals(Set.of(), failed.join());
+        assertEquals(Map.of(1L, "1"), actual);
+    }
+}
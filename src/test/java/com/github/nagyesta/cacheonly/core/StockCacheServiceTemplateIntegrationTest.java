@@ -16,6 +16,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 import static com.github.nagyesta.cacheonly.example.stock.StockContext.STOCKS;
 import static org.junit.jupiter.api.Assertions.*;
@@ -179,4 +180,47 @@ class StockCacheServiceTemplateIntegrationTest {
         inOrder.verify(spyService).lookup(new TreeSet<>(Collections.singletonList(StockService.AMD)));
         inOrder.verify(cache).put(eq(PRICE + StockService.AMD), any());
     }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void testCallCacheableBatchServiceAsyncShouldReturnCompletedFutureWhenCalledOnDefaultTemplate()
+            throws BatchServiceException, ExecutionException, InterruptedException {
+        //given
+        final SortedSet<String> request = new TreeSet<>(Arrays.asList(StockService.AAPL, StockService.AMD, StockService.EPAM));
+        final var expected = stockService.lookupNoLimit(request);
+
+        //when
+        final var warmUp = underTest.callBatchServiceAndPutAllToCacheAsync(request);
+        final var actual = underTest.callCacheableBatchServiceAsync(request);
+
+        //then
+        assertTrue(warmUp.isDone());
+        assertEquals(expected, warmUp.get());
+        assertTrue(actual.isDone());
+        assertEquals(expected, actual.get());
+        final var spyService = batchServiceCaller.getStockService();
+        verify(spyService).lookup(new TreeSet<>(Arrays.asList(StockService.AAPL, StockService.EPAM)));
+        verify(spyService).lookup(new TreeSet<>(Collections.singletonList(StockService.AMD)));
+        verify(spyService, times(2)).lookup(anySet());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void testCallCacheableBatchServiceAsyncShouldReturnFailedFutureWhenOriginFailsOnDefaultTemplate() {
+        //given
+        final SortedSet<String> request = new TreeSet<>(Arrays.asList(StockService.AAPL, StockService.AMD, StockService.EPAM));
+        final var spyService = batchServiceCaller.getStockService();
+        doThrow(new BatchServiceException("Failed.")).when(spyService).lookup(anySet());
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(request);
+        final var refresh = underTest.callBatchServiceAndPutAllToCacheAsync(request);
+
+        //then
+        assertTrue(actual.isCompletedExceptionally());
+        assertTrue(refresh.isCompletedExceptionally());
+        final var exception = assertThrows(ExecutionException.class, actual::get);
+        assertInstanceOf(BatchServiceException.class, exception.getCause());
+        reset(spyService);
+    }
 }
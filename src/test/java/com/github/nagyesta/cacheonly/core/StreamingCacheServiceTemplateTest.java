@@ -0,0 +1,348 @@
+package com.github.nagyesta.cacheonly.core;
+
+import com.github.nagyesta.cacheonly.core.breaker.CircuitBreaker;
+import com.github.nagyesta.cacheonly.core.conurrent.ExecutionMode;
+import com.github.nagyesta.cacheonly.core.conurrent.StreamingCacheServiceTemplate;
+import com.github.nagyesta.cacheonly.core.metrics.BasicBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.entity.PartialResponse;
+import com.github.nagyesta.cacheonly.example.number.NumberBatchServiceCaller;
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.RESPONSE_TRANSFORMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class StreamingCacheServiceTemplateTest {
+
+    private static final long TIMEOUT_SECONDS = 5L;
+
+    @Test
+    void testStreamCacheableBatchServiceShouldPublishCacheHitsFirstWhenSomeItemsAreCached() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 10L);
+        final var underTest = new StreamingCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller, 2);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+        underTest.setMetricsCollector(metricCollector);
+        final var subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        //when
+        underTest.streamCacheableBatchService(LongStream.rangeClosed(1L, 7L).boxed().toList()).subscribe(subscriber);
+
+        //then
+        subscriber.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        final var actual = subscriber.getIds();
+        assertEquals(7, actual.size());
+        assertEquals(List.of(1L, 2L), actual.subList(0, 2).stream().sorted().toList());
+        assertEquals(LongStream.rangeClosed(1L, 7L).boxed().toList(), actual.stream().sorted().toList());
+        assertEquals(7, metricCollector.getCacheGet());
+        assertEquals(2, metricCollector.getCacheHit());
+        assertEquals(5, metricCollector.getCacheMiss());
+        assertEquals(3, metricCollector.getPartitionCreated());
+        assertEquals(3, metricCollector.getPartitionSucceeded());
+    }
+
+    @Test
+    void testStreamCacheableBatchServiceShouldSkipItemsKnownToBeAbsentWhenNegativeCachingIsEnabled() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 0L);
+        final var partialCacheSupport = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(),
+                ExecutionMode.FORK_JOIN_POOL, false, NumberPartialCacheSupport.MISSING_NUMBERS);
+        final var underTest = new StreamingCacheServiceTemplate<>(partialCacheSupport,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller, 2);
+        underTest.callBatchServiceAndPutAllToCache(List.of(-1L, -2L));
+        final var subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        //when
+        underTest.streamCacheableBatchService(List.of(-1L, -2L, 3L)).subscribe(subscriber);
+
+        //then
+        subscriber.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(List.of(3L), subscriber.getIds());
+        assertEquals(List.of(List.of(-2L, -1L), List.of(3L)),
+                batchServiceCaller.getRequests().stream().map(r -> r.stream().sorted().toList()).toList());
+    }
+
+    @Test
+    void testStreamCacheableBatchServiceShouldNotDispatchPartitionsWhenThereIsNoDemand() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 0L);
+        final var underTest = new StreamingCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller, 1);
+        final var subscriber = new CollectingSubscriber(1L);
+
+        //when
+        underTest.streamCacheableBatchService(LongStream.rangeClosed(1L, 6L).boxed().toList()).subscribe(subscriber);
+
+        //then
+        subscriber.getFirst().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        TimeUnit.MILLISECONDS.sleep(50L);
+        assertEquals(1, batchServiceCaller.getRequests().size());
+        assertEquals(1, subscriber.getIds().size());
+        assertFalse(subscriber.getDone().isDone());
+        subscriber.request(Long.MAX_VALUE);
+        subscriber.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(6, subscriber.getIds().size());
+        assertEquals(3, batchServiceCaller.getRequests().size());
+        assertEquals(1, batchServiceCaller.getMaxInFlight());
+    }
+
+    @Test
+    void testStreamCacheableBatchServiceShouldPublishErrorWhenOriginFails() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 0L);
+        final var underTest = new StreamingCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+
+        //when
+        underTest.streamCacheableBatchService(List.of(NumberBatchServiceCaller.FAILING_ID)).subscribe(subscriber);
+
+        //then
+        final var actual = assertThrows(Exception.class, () -> subscriber.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(BatchServiceException.class, actual.getCause());
+        assertEquals(1, metricCollector.getPartitionFailed());
+    }
+
+    @Test
+    void testStreamCacheableBatchServiceShouldPublishErrorWhenPartitionTimeoutIsOver() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 1000L);
+        final var underTest = new StreamingCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setPartitionTimeoutMillis(50L);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        final var start = System.currentTimeMillis();
+
+        //when
+        underTest.streamCacheableBatchService(List.of(1L)).subscribe(subscriber);
+
+        //then
+        final var actual = assertThrows(Exception.class, () -> subscriber.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(BatchServiceException.class, actual.getCause());
+        assertTrue(System.currentTimeMillis() - start < 1000L);
+        assertEquals(1, metricCollector.getPartitionTimedOut());
+        assertEquals(1, metricCollector.getPartitionFailed());
+    }
+
+    @Test
+    void testStreamCacheableBatchServiceShouldPublishErrorWhenCallTimeoutIsOver() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 1000L);
+        final var underTest = new StreamingCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        underTest.setCallTimeoutMillis(50L);
+        final var subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        final var start = System.currentTimeMillis();
+
+        //when
+        underTest.streamCacheableBatchService(List.of(1L)).subscribe(subscriber);
+
+        //then
+        final var actual = assertThrows(Exception.class, () -> subscriber.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(BatchServiceException.class, actual.getCause());
+        assertTrue(System.currentTimeMillis() - start < 1000L);
+    }
+
+    @Test
+    void testStreamCacheableBatchServiceShouldRejectSecondSubscriberWhenAlreadySubscribed() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.NEVER_CACHE, 2, 0L);
+        final var underTest = new StreamingCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var publisher = underTest.streamCacheableBatchService(List.of(1L, -2L, 3L));
+        final var first = new CollectingSubscriber(Long.MAX_VALUE);
+        final var second = new CollectingSubscriber(Long.MAX_VALUE);
+
+        //when
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        //then
+        first.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(List.of(1L, 3L), first.getIds().stream().sorted().toList());
+        final var actual = assertThrows(Exception.class, () -> second.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, actual.getCause());
+    }
+
+    @Test
+    void testStreamCacheableBatchServiceShouldStopPublishingWhenCancelled() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 1, 0L);
+        final var underTest = new StreamingCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller, 1);
+        final var subscriber = new CollectingSubscriber(1L);
+        underTest.streamCacheableBatchService(LongStream.rangeClosed(1L, 5L).boxed().toList()).subscribe(subscriber);
+        subscriber.getFirst().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        //when
+        subscriber.cancel();
+        subscriber.request(Long.MAX_VALUE);
+
+        //then
+        TimeUnit.MILLISECONDS.sleep(50L);
+        assertEquals(1, subscriber.getIds().size());
+        assertFalse(subscriber.getDone().isDone());
+    }
+
+    @Test
+    void testStreamCacheableBatchServiceShouldRecordSingleFailureWhenMultiplePartitionsFail() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 1, 0L);
+        final var underTest = new StreamingCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller, 2);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var circuitBreaker = new CircuitBreaker(2, 60000L, 1);
+        underTest.setCircuitBreaker(circuitBreaker);
+        final var failing = List.of(NumberBatchServiceCaller.FAILING_ID, NumberBatchServiceCaller.UNEXPECTED_FAILURE_ID);
+
+        //when
+        final var first = new CollectingSubscriber(Long.MAX_VALUE);
+        underTest.streamCacheableBatchService(failing).subscribe(first);
+        assertThrows(Exception.class, () -> first.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        await(() -> metricCollector.getPartitionFailed() == 2L);
+        TimeUnit.MILLISECONDS.sleep(50L);
+
+        //then
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        final var second = new CollectingSubscriber(Long.MAX_VALUE);
+        underTest.streamCacheableBatchService(failing).subscribe(second);
+        assertThrows(Exception.class, () -> second.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        await(() -> circuitBreaker.state() == CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    @SuppressWarnings("java:S2925")
+    void testStreamCacheableBatchServiceShouldReleaseProbePermissionWhenCancelledBeforeOriginCall() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = new StreamingCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+        final var circuitBreaker = new CircuitBreaker(1, 1L, 1);
+        underTest.setCircuitBreaker(circuitBreaker);
+        final var failing = new CollectingSubscriber(Long.MAX_VALUE);
+        underTest.streamCacheableBatchService(List.of(NumberBatchServiceCaller.FAILING_ID)).subscribe(failing);
+        assertThrows(Exception.class, () -> failing.getDone().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        await(() -> circuitBreaker.state() == CircuitBreaker.State.OPEN);
+        TimeUnit.MILLISECONDS.sleep(10L);
+
+        //when
+        underTest.streamCacheableBatchService(List.of(1L, 2L)).subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription) {
+                subscription.cancel();
+            }
+
+            @Override
+            public void onNext(final PartialResponse<Long, String> item) {
+                fail("No items should be published.");
+            }
+
+            @Override
+            public void onError(final Throwable throwable) {
+                fail(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                fail("The subscription should not complete.");
+            }
+        });
+
+        //then
+        await(() -> metricCollector.getOriginRequestRejected() == 1L);
+        await(() -> circuitBreaker.acquirePermission() == CircuitBreaker.State.HALF_OPEN);
+        assertEquals(1, batchServiceCaller.getRequests().size());
+    }
+
+    @SuppressWarnings("java:S2925")
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final var deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+        var satisfied = condition.getAsBoolean();
+        while (!satisfied && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(1L);
+            satisfied = condition.getAsBoolean();
+        }
+        assertTrue(satisfied);
+    }
+
+    private static final class CollectingSubscriber implements Flow.Subscriber<PartialResponse<Long, String>> {
+
+        private final long initialRequest;
+        private final List<Long> ids = new ArrayList<>();
+        private final CompletableFuture<Void> first = new CompletableFuture<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        private CollectingSubscriber(final long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(final Flow.Subscription newSubscription) {
+            this.subscription = newSubscription;
+            newSubscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(final PartialResponse<Long, String> item) {
+            assertEquals(String.valueOf(item.id()), item.response());
+            synchronized (ids) {
+                ids.add(item.id());
+            }
+            first.complete(null);
+        }
+
+        @Override
+        public void onError(final Throwable throwable) {
+            done.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(null);
+        }
+
+        private void request(final long n) {
+            subscription.request(n);
+        }
+
+        private void cancel() {
+            subscription.cancel();
+        }
+
+        private List<Long> getIds() {
+            synchronized (ids) {
+                return List.copyOf(ids);
+            }
+        }
+
+        private CompletableFuture<Void> getFirst() {
+            return first;
+        }
+
+        private CompletableFuture<Void> getDone() {
+            return done;
+        }
+    }
+}
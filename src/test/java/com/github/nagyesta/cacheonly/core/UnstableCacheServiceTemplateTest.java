@@ -4,6 +4,7 @@ import ch.qos.logback.classic.Level;
 import com.github.nagyesta.cacheonly.core.metrics.BasicBatchServiceCallMetricCollector;
 import com.github.nagyesta.cacheonly.example.unstable.UnstableCacheServiceTemplate;
 import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
@@ -12,6 +13,8 @@ import org.slf4j.LoggerFactory;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,11 +22,20 @@ import static org.junit.jupiter.api.Assertions.*;
 @SuppressWarnings("checkstyle:MagicNumber")
 class UnstableCacheServiceTemplateTest {
 
+    private static final long NO_TIMEOUT_MILLIS = 60000L;
+    private static final long SHORT_TIMEOUT_MILLIS = 10L;
+    private final CountDownLatch release = new CountDownLatch(1);
+
     @BeforeAll
     static void beforeAll() {
         ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(UnstableCacheServiceTemplate.class)).setLevel(Level.DEBUG);
     }
 
+    @AfterEach
+    void releaseSlowCalls() {
+        release.countDown();
+    }
+
     @Test
     void testExceptionsAreHandledWhenBothCacheAndOriginFails() {
         //given
@@ -133,4 +145,102 @@ class UnstableCacheServiceTemplateTest {
         assertEquals(0, metricCollector.getPartitionFailed());
         assertEquals(0, metricCollector.getPartitionSucceeded());
     }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldHandleExceptionsWhenBothCacheAndOriginFails()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var underTest = new UnstableCacheServiceTemplate(NO_TIMEOUT_MILLIS, this::awaitRelease);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        final var input = Arrays.asList(0L, 1L, 2L, 3L, 4L);
+
+        //when
+        final var actual = underTest.callCacheableBatchServiceAsync(input).get();
+
+        //then
+        assertNull(actual);
+        assertEquals(5, metricCollector.getCacheGet());
+        assertEquals(5, metricCollector.getCacheMiss());
+        assertEquals(0, metricCollector.getCacheHit());
+        assertEquals(1, metricCollector.getPartitionCreated());
+        assertEquals(0, metricCollector.getPartitionFailed());
+        assertEquals(1, metricCollector.getPartitionSucceeded());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    void testCallCacheableBatchServiceAsyncShouldFailWhenBothCacheAndOriginTimesOut() {
+        //given
+        final var underTest = new UnstableCacheServiceTemplate(SHORT_TIMEOUT_MILLIS, this::awaitRelease);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        final var input = Arrays.asList(-40L, -31L, -32L, -33L, -44L);
+
+        //when
+        final var actual = assertThrows(ExecutionException.class, () -> underTest.callCacheableBatchServiceAsync(input).get());
+
+        //then + exception
+        assertInstanceOf(BatchServiceException.class, actual.getCause());
+        assertEquals(5, metricCollector.getCacheGet());
+        assertEquals(5, metricCollector.getCacheMiss());
+        assertEquals(0, metricCollector.getCacheHit());
+        assertEquals(1, metricCollector.getPartitionCreated());
+        assertEquals(1, metricCollector.getPartitionFailed());
+        assertEquals(0, metricCollector.getPartitionSucceeded());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceAsyncShouldFailWhenCallsResultErrors() {
+        //given
+        final var underTest = new UnstableCacheServiceTemplate(NO_TIMEOUT_MILLIS, this::awaitRelease);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        final var input = Collections.singletonList(-15L);
+
+        //when
+        final var actual = assertThrows(ExecutionException.class, () -> underTest.callCacheableBatchServiceAsync(input).get());
+
+        //then + exception
+        assertInstanceOf(BatchServiceException.class, actual.getCause());
+        assertEquals(1, metricCollector.getCacheGet());
+        assertEquals(1, metricCollector.getCacheMiss());
+        assertEquals(0, metricCollector.getCacheHit());
+        assertEquals(1, metricCollector.getPartitionCreated());
+        assertEquals(1, metricCollector.getPartitionFailed());
+        assertEquals(0, metricCollector.getPartitionSucceeded());
+    }
+
+    @Test
+    void testCallBatchServiceAndPutAllToCacheAsyncShouldCallOriginWhenCalled()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var underTest = new UnstableCacheServiceTemplate(NO_TIMEOUT_MILLIS, this::awaitRelease);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        underTest.setMetricsCollector(metricCollector);
+
+        final var input = Arrays.asList(11L, 12L, 13L, 14L, 15L, 16L);
+
+        //when
+        final var actual = underTest.callBatchServiceAndPutAllToCacheAsync(input).get();
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("11", "12", "13", "14", "15", "16"), actual.stream().sorted().toList());
+        assertEquals(0, metricCollector.getCacheGet());
+        assertEquals(2, metricCollector.getPartitionCreated());
+        assertEquals(0, metricCollector.getPartitionFailed());
+        assertEquals(2, metricCollector.getPartitionSucceeded());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
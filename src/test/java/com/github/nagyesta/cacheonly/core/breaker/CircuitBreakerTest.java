@@ -0,0 +1,167 @@
+package com.github.nagyesta.cacheonly.core.breaker;
+
+import com.github.nagyesta.cacheonly.core.metrics.BasicBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.core.metrics.NoOpBatchServiceCallMetricCollector;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 1000L;
+
+    @Test
+    void testOnFailureShouldOpenCircuitWhenThresholdIsReached() {
+        //given
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new CircuitBreaker(2, OPEN_MILLIS, 1, metricCollector, () -> 0L);
+        underTest.onFailure(underTest.acquirePermission());
+
+        //when
+        underTest.onFailure(underTest.acquirePermission());
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, underTest.state());
+        assertEquals(CircuitBreaker.State.OPEN, underTest.acquirePermission());
+        assertEquals(1, metricCollector.getCircuitOpened());
+    }
+
+    @Test
+    void testOnSuccessShouldResetConsecutiveFailuresWhenCircuitIsClosed() {
+        //given
+        final var underTest = new CircuitBreaker(2, OPEN_MILLIS, 1, new NoOpBatchServiceCallMetricCollector(), () -> 0L);
+        underTest.onFailure(underTest.acquirePermission());
+        underTest.onSuccess(underTest.acquirePermission());
+
+        //when
+        underTest.onFailure(underTest.acquirePermission());
+
+        //then
+        assertEquals(CircuitBreaker.State.CLOSED, underTest.state());
+    }
+
+    @Test
+    void testAcquirePermissionShouldAllowSingleProbeWhenOpenDurationIsOver() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new CircuitBreaker(1, OPEN_MILLIS, 3, metricCollector, clock::get);
+        underTest.onFailure(underTest.acquirePermission());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(OPEN_MILLIS));
+
+        //when
+        final var first = underTest.acquirePermission();
+        final var second = underTest.acquirePermission();
+
+        //then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, first);
+        assertEquals(CircuitBreaker.State.OPEN, second);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, underTest.state());
+        assertEquals(3, underTest.halfOpenPartitionSize());
+        assertEquals(1, metricCollector.getCircuitHalfOpened());
+    }
+
+    @Test
+    void testOnSuccessShouldCloseCircuitWhenProbeSucceeds() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new CircuitBreaker(1, OPEN_MILLIS, 1, metricCollector, clock::get);
+        underTest.onFailure(underTest.acquirePermission());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(OPEN_MILLIS));
+        final var probe = underTest.acquirePermission();
+
+        //when
+        underTest.onSuccess(probe);
+        underTest.onSuccess(probe);
+
+        //then
+        assertEquals(CircuitBreaker.State.CLOSED, underTest.state());
+        assertEquals(CircuitBreaker.State.CLOSED, underTest.acquirePermission());
+        assertEquals(1, metricCollector.getCircuitClosed());
+    }
+
+    @Test
+    void testOnFailureShouldReopenCircuitWhenProbeFails() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new CircuitBreaker(1, OPEN_MILLIS, 1, metricCollector, clock::get);
+        underTest.onFailure(underTest.acquirePermission());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(OPEN_MILLIS));
+        final var probe = underTest.acquirePermission();
+
+        //when
+        underTest.onFailure(probe);
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, underTest.state());
+        assertEquals(CircuitBreaker.State.OPEN, underTest.acquirePermission());
+        assertEquals(2, metricCollector.getCircuitOpened());
+    }
+
+    @Test
+    void testReleaseShouldAllowNextProbeWhenProbePermissionIsReturnedUnused() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var underTest = new CircuitBreaker(1, OPEN_MILLIS, 1, new NoOpBatchServiceCallMetricCollector(), clock::get);
+        underTest.onFailure(underTest.acquirePermission());
+        clock.set(TimeUnit.MILLISECONDS.toNanos(OPEN_MILLIS));
+        final var probe = underTest.acquirePermission();
+
+        //when
+        underTest.release(probe);
+
+        //then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, underTest.state());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, underTest.acquirePermission());
+    }
+
+    @Test
+    void testReleaseShouldNotChangeStateWhenPermissionIsNotAProbe() {
+        //given
+        final var underTest = new CircuitBreaker(1, OPEN_MILLIS, 1, new NoOpBatchServiceCallMetricCollector(), () -> 0L);
+        final var permission = underTest.acquirePermission();
+
+        //when
+        underTest.release(permission);
+
+        //then
+        assertEquals(CircuitBreaker.State.CLOSED, underTest.state());
+        assertEquals(CircuitBreaker.State.CLOSED, underTest.acquirePermission());
+    }
+
+    @Test
+    void testOnFailureShouldBeIgnoredWhenCircuitIsAlreadyOpen() {
+        //given
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new CircuitBreaker(1, OPEN_MILLIS, 1, metricCollector, () -> 0L);
+        final var permission = underTest.acquirePermission();
+        underTest.onFailure(permission);
+
+        //when
+        underTest.onFailure(permission);
+        underTest.onSuccess(permission);
+
+        //then
+        assertEquals(CircuitBreaker.State.OPEN, underTest.state());
+        assertEquals(1, metricCollector.getCircuitOpened());
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithInvalidSettings() {
+        //given
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(0, OPEN_MILLIS, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(1, 0L, 1));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(1, OPEN_MILLIS, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker(1, OPEN_MILLIS, 1, null));
+    }
+}
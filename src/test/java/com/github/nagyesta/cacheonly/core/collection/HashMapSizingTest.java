@@ -0,0 +1,22 @@
+package com.github.nagyesta.cacheonly.core.collection;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class HashMapSizingTest {
+
+    @ParameterizedTest
+    @CsvSource({"0,16", "1,16", "12,16", "13,18", "75,100", "100,134"})
+    void testCapacityForShouldNotGoBelowDefaultCapacityWhenCalled(final int expectedSize, final int expected) {
+        //given
+
+        //when
+        final var actual = HashMapSizing.capacityFor(expectedSize);
+
+        //then
+        assertEquals(expected, actual);
+    }
+}
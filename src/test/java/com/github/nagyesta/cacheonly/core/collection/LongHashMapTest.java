@@ -0,0 +1,249 @@
+package com.github.nagyesta.cacheonly.core.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class LongHashMapTest {
+
+    @Test
+    void testPutLongShouldBehaveLikeHashMapWhenCalledWithRandomKeysAndRemovals() {
+        //given
+        final var random = new Random(42L);
+        final var underTest = new LongHashMap<String>(2);
+        final Map<Long, String> expected = new HashMap<>();
+
+        //when
+        for (var i = 0; i < 10_000; i++) {
+            final var key = (long) random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), underTest.removeLong(key));
+            } else {
+                assertEquals(expected.put(key, "v" + i), underTest.putLong(key, "v" + i));
+            }
+        }
+
+        //then
+        assertEquals(expected, underTest);
+        assertEquals(underTest, expected);
+        assertEquals(expected.hashCode(), underTest.hashCode());
+        assertEquals(expected.keySet(), underTest.keySet());
+        assertEquals(expected.size(), underTest.values().size());
+        assertTrue(underTest.values().containsAll(expected.values()));
+        expected.forEach((key, value) -> assertEquals(value, underTest.getLong(key)));
+    }
+
+    @Test
+    void testPutShouldHandleZeroKeyWhenAddedAndRemoved() {
+        //given
+        final var underTest = new LongHashMap<String>();
+
+        //when
+        final var first = underTest.put(0L, "a");
+        final var second = underTest.put(0L, "b");
+
+        //then
+        assertNull(first);
+        assertEquals("a", second);
+        assertEquals(1, underTest.size());
+        assertTrue(underTest.containsKey(0L));
+        assertEquals("b", underTest.get(0L));
+        assertEquals(Map.of(0L, "b"), underTest);
+        assertEquals("b", underTest.remove(0L));
+        assertNull(underTest.removeLong(0L));
+        assertNull(underTest.getLong(0L));
+        assertTrue(underTest.isEmpty());
+    }
+
+    @Test
+    void testGetShouldReturnNullWhenCalledWithOtherTypes() {
+        //given
+        final var underTest = new LongHashMap<>(Map.of(1L, "1"));
+
+        //when
+        final var actual = underTest.get(1);
+
+        //then
+        assertNull(actual);
+        assertFalse(underTest.containsKey("1"));
+        assertNull(underTest.remove(1));
+        assertNull(underTest.removeLong(2L));
+        assertEquals("1", underTest.get(1L));
+    }
+
+    @Test
+    void testPutAllShouldCopyEntriesWhenCalledWithLongHashMap() {
+        //given
+        final var source = new LongHashMap<>(Map.of(0L, "0", 1L, "1", 2L, "2"));
+        final var underTest = new LongHashMap<String>(1);
+        underTest.putLong(3L, "3");
+
+        //when
+        underTest.putAll(source);
+
+        //then
+        assertEquals(Map.of(0L, "0", 1L, "1", 2L, "2", 3L, "3"), underTest);
+    }
+
+    @Test
+    void testSelectShouldReturnEntriesOfSelectedKeysWhenCalled() {
+        //given
+        final var underTest = new LongHashMap<>(Map.of(0L, "0", 1L, "1", 2L, "2"));
+
+        //when
+        final var actual = underTest.select(new LongHashSet(List.of(0L, 2L, 3L)));
+
+        //then
+        assertEquals(Map.of(0L, "0", 2L, "2"), actual);
+        assertEquals(Map.of(), new LongHashMap<>(Map.of(1L, "1")).select(new LongHashSet(List.of(0L))));
+    }
+
+    @Test
+    void testForEachShouldVisitEachEntryWhenCalled() {
+        //given
+        final var underTest = new LongHashMap<>(Map.of(0L, "0", 1L, "1", 2L, "2"));
+        final Map<Long, String> actual = new TreeMap<>();
+
+        //when
+        underTest.forEach(actual::put);
+
+        //then
+        assertEquals(Map.of(0L, "0", 1L, "1", 2L, "2"), actual);
+    }
+
+    @Test
+    void testEntrySetShouldWriteValuesThroughWhenSetValueIsCalled() {
+        //given
+        final var underTest = new LongHashMap<>(Map.of(0L, "0", 1L, "1"));
+
+        //when
+        underTest.entrySet().forEach(entry -> entry.setValue(entry.getValue() + "!"));
+
+        //then
+        assertEquals(Map.of(0L, "0!", 1L, "1!"), underTest);
+    }
+
+    @Test
+    void testKeySetShouldReflectTheKeysOfTheMapWhenCalled() {
+        //given
+        final var underTest = new LongHashMap<>(Map.of(0L, "0", 1L, "1", 2L, "2"));
+        final var keySet = underTest.keySet();
+
+        //when
+        final var removed = keySet.remove(1L);
+
+        //then
+        assertTrue(removed);
+        assertFalse(keySet.remove(1L));
+        assertEquals(Set.of(0L, 2L), keySet);
+        assertTrue(keySet.containsLong(0L));
+        assertTrue(keySet.contains(2L));
+        assertTrue(keySet.containsAll(new LongHashSet(List.of(0L, 2L))));
+        assertFalse(keySet.containsAll(new LongHashSet(List.of(1L))));
+        assertTrue(keySet.containsAll(List.of(0L)));
+        assertTrue(keySet.allMatch(key -> key % 2 == 0));
+        assertFalse(keySet.allMatch(key -> key > 0L));
+        assertFalse(keySet.allMatch(key -> key < 2L));
+        keySet.clear();
+        assertTrue(underTest.isEmpty());
+    }
+
+    @Test
+    void testClearShouldRemoveAllEntriesWhenCalled() {
+        //given
+        final var underTest = new LongHashMap<>(Map.of(0L, "0", 1L, "1"));
+
+        //when
+        underTest.clear();
+
+        //then
+        assertTrue(underTest.isEmpty());
+        assertNull(underTest.getLong(0L));
+        assertNull(underTest.getLong(1L));
+    }
+
+    @Test
+    void testIteratorShouldThrowExceptionWhenExhausted() {
+        //given
+        final var underTest = new LongHashMap<>(Map.of(1L, "1")).values().iterator();
+        underTest.next();
+
+        //when
+        assertThrows(NoSuchElementException.class, underTest::next);
+
+        //then + exception
+    }
+
+    @Test
+    void testEntrySetRemoveIfShouldVisitEachEntryOnceWhenRemovalsShiftClusters() {
+        //given
+        final var random = new Random(42L);
+        for (var round = 0; round < 1_000; round++) {
+            final var underTest = new LongHashMap<String>(4);
+            final Map<Long, String> expected = new HashMap<>();
+            for (var i = 0; i < random.nextInt(50); i++) {
+                final var key = (long) random.nextInt(100) - 10;
+                underTest.putLong(key, "v" + key);
+                expected.put(key, "v" + key);
+            }
+            final var divisor = random.nextInt(3) + 2;
+            final List<Long> visited = new ArrayList<>();
+
+            //when
+            final var changed = underTest.entrySet().removeIf(entry -> {
+                visited.add(entry.getKey());
+                return entry.getKey() % divisor == 0;
+            });
+
+            //then
+            assertEquals(new TreeSet<>(expected.keySet()), new TreeSet<>(visited));
+            assertEquals(expected.size(), visited.size());
+            assertEquals(expected.entrySet().removeIf(entry -> entry.getKey() % divisor == 0), changed);
+            assertEquals(expected, underTest);
+            expected.forEach((key, value) -> assertEquals(value, underTest.getLong(key)));
+        }
+    }
+
+    @Test
+    void testViewsShouldRemoveEntriesWhenModifiedThroughTheirIterators() {
+        //given
+        final var underTest = new LongHashMap<>(Map.of(0L, "0", 1L, "1", 2L, "2", 3L, "3"));
+
+        //when
+        final var valueRemoved = underTest.values().remove("1");
+        final var keysRetained = underTest.keySet().retainAll(List.of(0L, 2L));
+
+        //then
+        assertTrue(valueRemoved);
+        assertTrue(keysRetained);
+        assertEquals(Map.of(0L, "0", 2L, "2"), underTest);
+        assertEquals(Map.of(0L, "0", 2L, "2").entrySet(), underTest.entrySet());
+        assertEquals(Map.of(0L, "0", 2L, "2").hashCode(), underTest.hashCode());
+        assertTrue(underTest.entrySet().remove(Map.entry(0L, "0")));
+        assertEquals("2=2", underTest.entrySet().iterator().next().toString());
+    }
+
+    @Test
+    void testIteratorRemoveShouldThrowExceptionWhenCalledTwice() {
+        //given
+        final var underTest = new LongHashMap<>(Map.of(0L, "0", 1L, "1")).keySet().iterator();
+        underTest.next();
+        underTest.remove();
+
+        //when
+        assertThrows(IllegalStateException.class, underTest::remove);
+
+        //then + exception
+    }
+}
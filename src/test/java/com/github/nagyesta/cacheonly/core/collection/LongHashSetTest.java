@@ -0,0 +1,214 @@
+package com.github.nagyesta.cacheonly.core.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class LongHashSetTest {
+
+    @Test
+    void testAddLongShouldBehaveLikeHashSetWhenCalledWithRandomIdsAndRemovals() {
+        //given
+        final var random = new Random(42L);
+        final var underTest = new LongHashSet(2);
+        final Set<Long> expected = new HashSet<>();
+
+        //when
+        for (var i = 0; i < 10_000; i++) {
+            final var id = (long) random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(id), underTest.removeLong(id));
+            } else {
+                assertEquals(expected.add(id), underTest.addLong(id));
+            }
+        }
+
+        //then
+        assertEquals(expected, underTest);
+        assertEquals(underTest, expected);
+        assertEquals(expected.hashCode(), underTest.hashCode());
+        expected.forEach(id -> assertTrue(underTest.containsLong(id)));
+    }
+
+    @Test
+    void testContainsLongShouldHandleZeroWhenAddedAndRemoved() {
+        //given
+        final var underTest = new LongHashSet();
+
+        //when
+        final var added = underTest.addLong(0L);
+        final var addedAgain = underTest.add(0L);
+
+        //then
+        assertTrue(added);
+        assertFalse(addedAgain);
+        assertTrue(underTest.contains(0L));
+        assertEquals(List.of(0L), new ArrayList<>(underTest));
+        assertTrue(underTest.remove(0L));
+        assertFalse(underTest.removeLong(0L));
+        assertTrue(underTest.isEmpty());
+    }
+
+    @Test
+    void testContainsShouldReturnFalseWhenCalledWithOtherTypes() {
+        //given
+        final var underTest = new LongHashSet(List.of(1L));
+
+        //when
+        final var actual = underTest.contains(1);
+
+        //then
+        assertFalse(actual);
+        assertFalse(underTest.remove("1"));
+        assertTrue(underTest.contains(1L));
+    }
+
+    @Test
+    void testDifferenceShouldReturnIdsNotExcludedWhenCalled() {
+        //given
+        final var ids = new LongHashSet(List.of(0L, 1L, 2L, 3L, 4L));
+        final var excluded = new LongHashSet(List.of(0L, 2L, 5L));
+
+        //when
+        final var actual = LongHashSet.difference(ids, excluded);
+
+        //then
+        assertEquals(Set.of(1L, 3L, 4L), actual);
+    }
+
+    @Test
+    void testContainsAllShouldUsePrimitiveIdsWhenCalledWithLongSet() {
+        //given
+        final var underTest = new LongHashSet(List.of(0L, 1L, 2L));
+
+        //when
+        final var actual = underTest.containsAll(new LongHashSet(List.of(0L, 2L)));
+
+        //then
+        assertTrue(actual);
+        assertFalse(underTest.containsAll(new LongHashSet(List.of(0L, 3L))));
+        assertTrue(underTest.containsAll(List.of(1L, 2L)));
+        assertFalse(underTest.containsAll(List.of(3L)));
+    }
+
+    @Test
+    void testAddAllShouldReturnWhetherTheSetChangedWhenCalledWithLongSet() {
+        //given
+        final var underTest = new LongHashSet(List.of(1L));
+
+        //when
+        final var changed = underTest.addAll(new LongHashSet(List.of(0L, 1L)));
+
+        //then
+        assertTrue(changed);
+        assertFalse(underTest.addAll(new LongHashSet(List.of(1L))));
+        assertEquals(new TreeSet<>(Set.of(0L, 1L)), new TreeSet<>(underTest));
+    }
+
+    @Test
+    void testAllMatchShouldStopAtFirstMismatchWhenCalled() {
+        //given
+        final var underTest = new LongHashSet(List.of(0L, 1L, 2L));
+
+        //when
+        final var actual = underTest.allMatch(id -> id < 2L);
+
+        //then
+        assertFalse(actual);
+        assertTrue(underTest.allMatch(id -> id < 3L));
+        assertFalse(new LongHashSet(List.of(0L)).allMatch(id -> id > 0L));
+    }
+
+    @Test
+    void testClearShouldRemoveAllIdsWhenCalled() {
+        //given
+        final var underTest = new LongHashSet(List.of(0L, 1L, 2L));
+
+        //when
+        underTest.clear();
+
+        //then
+        assertTrue(underTest.isEmpty());
+        assertFalse(underTest.containsLong(0L));
+        assertFalse(underTest.containsLong(1L));
+    }
+
+    @Test
+    void testIteratorShouldThrowExceptionWhenExhausted() {
+        //given
+        final var underTest = new LongHashSet(List.of(1L)).iterator();
+        underTest.next();
+
+        //when
+        assertThrows(NoSuchElementException.class, underTest::next);
+
+        //then + exception
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithNegativeSize() {
+        //given
+
+        //when
+        assertThrows(IllegalArgumentException.class, () -> new LongHashSet(-1));
+
+        //then + exception
+    }
+
+    @Test
+    void testRemoveIfShouldVisitEachIdOnceWhenRemovalsShiftClusters() {
+        //given
+        final var random = new Random(42L);
+        for (var round = 0; round < 1_000; round++) {
+            final var underTest = new LongHashSet(4);
+            final Set<Long> expected = new HashSet<>();
+            for (var i = 0; i < random.nextInt(50); i++) {
+                final var id = (long) random.nextInt(100) - 10;
+                underTest.addLong(id);
+                expected.add(id);
+            }
+            final var divisor = random.nextInt(3) + 2;
+            final List<Long> visited = new ArrayList<>();
+
+            //when
+            final var changed = underTest.removeIf(id -> {
+                visited.add(id);
+                return id % divisor == 0;
+            });
+
+            //then
+            assertEquals(new TreeSet<>(expected), new TreeSet<>(visited));
+            assertEquals(expected.size(), visited.size());
+            assertEquals(expected.removeIf(id -> id % divisor == 0), changed);
+            assertEquals(expected, underTest);
+            expected.forEach(id -> assertTrue(underTest.containsLong(id)));
+        }
+    }
+
+    @Test
+    void testRetainAllShouldRemoveIdsWhenCalledWithOtherIds() {
+        //given
+        final var underTest = new LongHashSet(List.of(0L, 1L, 2L, 3L));
+
+        //when
+        final var actual = underTest.retainAll(List.of(0L, 2L));
+
+        //then
+        assertTrue(actual);
+        assertEquals(Set.of(0L, 2L), underTest);
+        final var iterator = underTest.iterator();
+        iterator.next();
+        iterator.remove();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        assertEquals(1, underTest.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class CancellableCallTest {
+
+    @Test
+    void testRunShouldCompleteResultWhenCalled() {
+        //given
+        final var underTest = new CancellableCall<>(() -> "result");
+
+        //when
+        underTest.run();
+
+        //then
+        assertEquals("result", underTest.result().join());
+    }
+
+    @Test
+    void testRunShouldCompleteResultExceptionallyWhenCallFails() {
+        //given
+        final var underTest = new CancellableCall<String>(() -> {
+            throw new IllegalStateException("failed");
+        });
+
+        //when
+        underTest.run();
+
+        //then
+        assertTrue(underTest.result().isCompletedExceptionally());
+    }
+
+    @Test
+    void testRunShouldNotCallWhenCancelledBeforeStart() {
+        //given
+        final var called = new AtomicBoolean();
+        final var underTest = new CancellableCall<>(() -> called.getAndSet(true));
+        underTest.cancel();
+
+        //when
+        underTest.run();
+
+        //then
+        assertFalse(called.get());
+        assertTrue(underTest.result().isCancelled());
+    }
+
+    @Test
+    void testCancelShouldInterruptRunningCallAndClearInterruptBeforeReleasingThread() throws Exception {
+        //given
+        final var started = new CountDownLatch(1);
+        final var underTest = new CancellableCall<Boolean>(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000L);
+                return false;
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+        });
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.execute(underTest);
+            assertTrue(started.await(1, TimeUnit.SECONDS));
+
+            //when
+            underTest.cancel();
+
+            //then
+            assertTrue(underTest.result().isCancelled());
+            final var nextTaskInterrupted = CompletableFuture.supplyAsync(() -> Thread.currentThread().isInterrupted(), executor)
+                    .get(1, TimeUnit.SECONDS);
+            assertFalse(nextTaskInterrupted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCancelShouldNotInterruptCurrentThreadWhenCalledFromDependentStageOfCall() {
+        //given
+        final var underTest = new CancellableCall<>(() -> "result");
+        final var interrupted = underTest.result().thenApply(result -> {
+            underTest.cancel();
+            return Thread.currentThread().isInterrupted();
+        });
+
+        //when
+        underTest.run();
+
+        //then
+        assertFalse(interrupted.join());
+    }
+}
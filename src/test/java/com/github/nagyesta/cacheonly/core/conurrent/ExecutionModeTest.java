@@ -0,0 +1,65 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutionModeTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(2);
+    private static final ConcurrentOperationSupport SUPPORT = new ConcurrentOperationSupport() {
+        @Override
+        public ForkJoinPool forkJoinPool() {
+            return POOL;
+        }
+    };
+
+    @Test
+    void testExecutorShouldReturnTheForkJoinPoolOfTheSupportWhenCalledOnForkJoinPoolMode() {
+        //given
+        final var underTest = ExecutionMode.FORK_JOIN_POOL;
+
+        //when
+        final var actual = underTest.executor(SUPPORT);
+
+        //then
+        assertSame(POOL, actual);
+    }
+
+    @Test
+    void testExecutorShouldStartVirtualThreadsOrFallBackWhenCalledOnVirtualThreadsMode()
+            throws ExecutionException, InterruptedException {
+        //given
+        final var underTest = ExecutionMode.VIRTUAL_THREADS;
+
+        //when
+        final var actual = underTest.executor(SUPPORT);
+
+        //then
+        final var threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), actual).get();
+        if (VirtualThreads.isAvailable()) {
+            assertNotSame(POOL, actual);
+            assertTrue(threadName.startsWith("cache-only-"));
+        } else {
+            assertSame(POOL, actual);
+            assertTrue(threadName.startsWith("ForkJoinPool-"));
+        }
+    }
+
+    @Test
+    void testExecutionModeShouldDefaultToForkJoinPoolWhenNotOverridden() {
+        //given
+        final var underTest = new ConcurrentOperationSupport() {
+        };
+
+        //when
+        final var actual = underTest.executionMode();
+
+        //then
+        assertEquals(ExecutionMode.FORK_JOIN_POOL, actual);
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class HedgingPolicyTest {
+
+    @Test
+    void testHedgeDelayNanosShouldReturnEmptyWhenNotEnoughLatenciesAreRecorded() {
+        //given
+        final var underTest = new HedgingPolicy(0.9D, 10, 3);
+        underTest.recordLatency(10L);
+        underTest.recordLatency(20L);
+
+        //when
+        final var actual = underTest.hedgeDelayNanos();
+
+        //then
+        assertEquals(OptionalLong.empty(), actual);
+    }
+
+    @Test
+    void testHedgeDelayNanosShouldReturnPercentileWhenEnoughLatenciesAreRecorded() {
+        //given
+        final var underTest = new HedgingPolicy(0.9D, 10, 3);
+        for (var i = 10L; i > 0L; i--) {
+            underTest.recordLatency(i * 100L);
+        }
+
+        //when
+        final var actual = underTest.hedgeDelayNanos();
+
+        //then
+        assertEquals(OptionalLong.of(900L), actual);
+    }
+
+    @Test
+    void testHedgeDelayNanosShouldOnlyUseMostRecentLatenciesWhenWindowIsFull() {
+        //given
+        final var underTest = new HedgingPolicy(1.0D, 3, 1);
+        underTest.recordLatency(1000L);
+        underTest.recordLatency(10L);
+        underTest.recordLatency(20L);
+        underTest.recordLatency(30L);
+
+        //when
+        final var actual = underTest.hedgeDelayNanos();
+
+        //then
+        assertEquals(OptionalLong.of(30L), actual);
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithInvalidSettings() {
+        //given
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(0.0D, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(1.1D, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(0.5D, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(0.5D, 10, 0));
+        assertThrows(IllegalArgumentException.class, () -> new HedgingPolicy(0.5D, 10, 11));
+    }
+}
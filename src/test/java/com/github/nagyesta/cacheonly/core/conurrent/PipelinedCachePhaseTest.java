@@ -0,0 +1,96 @@
+package com.github.nagyesta.cacheonly.core.conurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class PipelinedCachePhaseTest {
+
+    @Test
+    void testMissShouldDispatchPartitionWhenItIsFull() {
+        //given
+        final List<Map<Long, String>> dispatched = new ArrayList<>();
+        final var underTest = new PipelinedCachePhase<Long, String, String>(2, partition -> {
+            dispatched.add(partition);
+            return CompletableFuture.completedFuture(null);
+        });
+
+        //when
+        underTest.miss(1L, "1");
+        underTest.hit(2L, "2");
+        underTest.miss(3L, "3");
+        underTest.miss(4L, "4");
+
+        //then
+        assertEquals(List.of(Map.of(1L, "1", 3L, "3")), dispatched);
+        assertEquals(1, underTest.dispatchedPartitions());
+        assertEquals(Map.of(2L, "2"), underTest.hits());
+    }
+
+    @Test
+    void testCompleteShouldDispatchTailWithUnresolvedItemsWhenCalled() {
+        //given
+        final List<Map<Long, String>> dispatched = new ArrayList<>();
+        final var underTest = new PipelinedCachePhase<Long, String, String>(5, partition -> {
+            dispatched.add(partition);
+            return CompletableFuture.completedFuture(null);
+        });
+        underTest.hit(1L, "1");
+        underTest.miss(2L, "2");
+
+        //when
+        final var actual = underTest.complete(Map.of(1L, "1", 2L, "2", 3L, "3"));
+
+        //then
+        assertTrue(actual.isDone());
+        assertEquals(List.of(Map.of(2L, "2", 3L, "3")), dispatched);
+        assertEquals(Map.of(1L, "1"), underTest.hits());
+    }
+
+    @Test
+    void testCompleteShouldNotDispatchItemsKnownToBeAbsentWhenCalled() {
+        //given
+        final List<Map<Long, String>> dispatched = new ArrayList<>();
+        final var underTest = new PipelinedCachePhase<Long, String, String>(5, partition -> {
+            dispatched.add(partition);
+            return CompletableFuture.completedFuture(null);
+        });
+        underTest.absent(1L);
+        underTest.miss(2L, "2");
+
+        //when
+        final var actual = underTest.complete(Map.of(1L, "1", 2L, "2"));
+
+        //then
+        assertTrue(actual.isDone());
+        assertEquals(List.of(Map.of(2L, "2")), dispatched);
+        assertEquals(Map.of(), underTest.hits());
+    }
+
+    @Test
+    void testHitAndMissShouldBeIgnoredWhenCalledAfterCompletion() {
+        //given
+        final List<Map<Long, String>> dispatched = new ArrayList<>();
+        final var underTest = new PipelinedCachePhase<Long, String, String>(1, partition -> {
+            dispatched.add(partition);
+            return CompletableFuture.completedFuture(null);
+        });
+        underTest.complete(Map.of());
+
+        //when
+        underTest.hit(1L, "1");
+        underTest.miss(2L, "2");
+
+        //then
+        assertEquals(List.of(), dispatched);
+        assertEquals(0, underTest.dispatchedPartitions());
+        assertEquals(Map.of(), underTest.hits());
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.nagyesta.cacheonly.core.loader;
+
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.DefaultCacheServiceTemplate;
+import com.github.nagyesta.cacheonly.example.number.NumberBatchServiceCaller;
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.RESPONSE_TRANSFORMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class BatchLoaderTest {
+
+    private static final long TIMEOUT_SECONDS = 5L;
+    private static final long ONE_MINUTE = 60000L;
+
+    @Test
+    void testLoadShouldDispatchFullBatchesWhenMaxBatchSizeIsReachedFromMultipleThreads() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = createLoader(batchServiceCaller, ONE_MINUTE);
+        final var executor = Executors.newFixedThreadPool(4);
+
+        //when
+        final var futures = LongStream.range(0L, 10L).boxed()
+                .map(id -> executor.submit(() -> underTest.load(id)))
+                .toList();
+
+        //then
+        for (var i = 0; i < futures.size(); i++) {
+            assertEquals(String.valueOf(i), futures.get(i).get().get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        }
+        final var requests = batchServiceCaller.getRequests();
+        assertEquals(2, requests.size());
+        assertTrue(requests.stream().allMatch(request -> request.size() == 5));
+        executor.shutdown();
+    }
+
+    @Test
+    void testLoadShouldDispatchPartialBatchWhenWindowIsOver() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = createLoader(batchServiceCaller, 10L);
+
+        //when
+        final var first = underTest.load(1L);
+        final var second = underTest.load(2L);
+        final var duplicate = underTest.load(1L);
+
+        //then
+        assertSame(first, duplicate);
+        assertEquals("1", first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals("2", second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of(List.of(1L, 2L)), batchServiceCaller.getRequests());
+    }
+
+    @Test
+    void testLoadManyShouldReturnOnlyTheFoundItemsWhenFlushed() throws Exception {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = createLoader(batchServiceCaller, ONE_MINUTE);
+        final var actual = underTest.loadMany(List.of(1L, -2L, 3L));
+        final var notFound = underTest.load(-2L);
+
+        //when
+        underTest.flush();
+
+        //then
+        assertEquals(Map.of(1L, "1", 3L, "3"), actual.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertNull(notFound.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    void testLoadShouldCompleteExceptionallyWhenTheBatchCallFails() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var underTest = createLoader(batchServiceCaller, ONE_MINUTE);
+        final var ok = underTest.load(1L);
+        final var failing = underTest.load(NumberBatchServiceCaller.FAILING_ID);
+
+        //when
+        underTest.flush();
+
+        //then
+        final var actual = assertThrows(ExecutionException.class, () -> ok.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertInstanceOf(BatchServiceException.class, actual.getCause());
+        assertThrows(ExecutionException.class, () -> failing.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenMaxBatchSizeIsNotPositive() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+
+        //when
+        assertThrows(IllegalArgumentException.class, () -> createLoader(batchServiceCaller, 0, ONE_MINUTE));
+
+        //then + exception
+    }
+
+    private static BatchLoader<Long, String> createLoader(
+            final NumberBatchServiceCaller batchServiceCaller,
+            final long windowMillis) {
+        return createLoader(batchServiceCaller, batchServiceCaller.maxPartitionSize(), windowMillis);
+    }
+
+    private static BatchLoader<Long, String> createLoader(
+            final NumberBatchServiceCaller batchServiceCaller,
+            final int maxBatchSize,
+            final long windowMillis) {
+        final var template = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        return new BatchLoader<>(template, REQUEST_TRANSFORMER, Function.identity(), RESPONSE_TRANSFORMER,
+                maxBatchSize, windowMillis);
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.nagyesta.cacheonly.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+class NoOpBatchServiceCallMetricCollectorTest {
+
+    @Test
+    void testMetricCallsShouldBeIgnoredWhenCalled() {
+        //given
+        final var underTest = new NoOpBatchServiceCallMetricCollector();
+
+        //when
+        assertDoesNotThrow(() -> {
+            underTest.cacheGet(1);
+            underTest.cacheHit(1);
+            underTest.cacheMiss(1);
+            underTest.cachePut(1);
+            underTest.partitionsCreated(1);
+            underTest.partitionsFailed(1);
+            underTest.partitionsSucceeded(1);
+            underTest.inFlightRequestsJoined(1);
+            underTest.nearCacheHit(1);
+            underTest.nearCacheMiss(1);
+            underTest.negativeCacheHit(1);
+            underTest.negativeCachePut(1);
+            underTest.staleCacheHit(1);
+            underTest.effectivePartitionSize(1);
+            underTest.hedgedRequestSent(1);
+            underTest.hedgedRequestWon(1);
+            underTest.partitionsRetried(1);
+            underTest.circuitOpened(1);
+            underTest.circuitHalfOpened(1);
+            underTest.circuitClosed(1);
+            underTest.partitionsTimedOut(1);
+            underTest.originRequestsRejected(1);
+            underTest.writeBehindBatchesLost(1);
+        });
+
+        //then no exception
+    }
+}
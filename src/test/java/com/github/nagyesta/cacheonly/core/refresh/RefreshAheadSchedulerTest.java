@@ -0,0 +1,104 @@
+package com.github.nagyesta.cacheonly.core.refresh;
+
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.DefaultCacheServiceTemplate;
+import com.github.nagyesta.cacheonly.example.number.NumberBatchServiceCaller;
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import com.github.nagyesta.cacheonly.transform.decorator.RefreshAheadPartialCacheSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.RESPONSE_TRANSFORMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class RefreshAheadSchedulerTest {
+
+    private static final long ONE_MINUTE = 60000L;
+    private static final long TIMEOUT_MILLIS = 5000L;
+
+    @Test
+    void testRefreshDueKeysShouldRefreshHotKeysInPartitionsWhenCalled() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var cacheSupport = new RefreshAheadPartialCacheSupport<>(new NumberPartialCacheSupport(), ONE_MINUTE, ONE_MINUTE, 1, 100);
+        final var template = new DefaultCacheServiceTemplate<>(cacheSupport, REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var ids = LongStream.rangeClosed(1L, 6L).boxed().toList();
+        template.callBatchServiceAndPutAllToCache(ids);
+        template.callCacheableBatchService(List.of(1L, 2L, 3L, 4L, 5L));
+        try (var underTest = new RefreshAheadScheduler<>(template, REQUEST_TRANSFORMER, Function.identity(), cacheSupport, 2, ONE_MINUTE)) {
+
+            //when
+            final var actual = underTest.refreshDueKeys();
+
+            //then
+            assertEquals(5, actual);
+            final var requests = batchServiceCaller.getRequests();
+            assertEquals(5, requests.size());
+            assertEquals(List.of(2, 2, 1), requests.subList(2, 5).stream().map(List::size).toList());
+            assertEquals(List.of(1L, 2L, 3L, 4L, 5L), requests.subList(2, 5).stream().flatMap(List::stream).sorted().toList());
+            assertEquals(0, underTest.refreshDueKeys());
+        }
+    }
+
+    @Test
+    void testRefreshDueKeysShouldReleaseKeysWhenRefreshFails() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var cacheSupport = new RefreshAheadPartialCacheSupport<>(new NumberPartialCacheSupport(), ONE_MINUTE, ONE_MINUTE, 1, 100);
+        final var template = new DefaultCacheServiceTemplate<>(cacheSupport, REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final var key = cacheSupport.toCacheKey(NumberBatchServiceCaller.FAILING_ID);
+        cacheSupport.putToCache(key, "cached");
+        cacheSupport.getFromCache(key);
+        try (var underTest = new RefreshAheadScheduler<>(template, REQUEST_TRANSFORMER, Function.identity(), cacheSupport, 2, ONE_MINUTE)) {
+
+            //when
+            final var actual = underTest.refreshDueKeys();
+
+            //then
+            assertEquals(1, actual);
+            assertEquals(List.of(key), cacheSupport.takeKeysDueForRefresh());
+        }
+    }
+
+    @Test
+    void testConstructorShouldStartPeriodicScansWhenCalled() throws InterruptedException {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var cacheSupport = new RefreshAheadPartialCacheSupport<>(new NumberPartialCacheSupport(), ONE_MINUTE, ONE_MINUTE, 1, 100);
+        final var template = new DefaultCacheServiceTemplate<>(cacheSupport, REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        template.callCacheableBatchService(List.of(1L));
+        template.callCacheableBatchService(List.of(1L));
+
+        //when
+        try (var underTest = new RefreshAheadScheduler<>(template, REQUEST_TRANSFORMER, Function.identity(), cacheSupport, 2, 10L)) {
+
+            //then
+            final var deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (batchServiceCaller.getRequests().size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5L);
+            }
+            assertEquals(List.of(List.of(1L), List.of(1L)), batchServiceCaller.getRequests());
+            assertNotNull(underTest);
+        }
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithInvalidSettings() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var cacheSupport = new RefreshAheadPartialCacheSupport<>(new NumberPartialCacheSupport(), ONE_MINUTE, ONE_MINUTE, 1, 100);
+        final var template = new DefaultCacheServiceTemplate<>(cacheSupport, REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        final Function<Long, Long> requestFunction = Function.identity();
+
+        //when + then
+        assertThrows(IllegalArgumentException.class,
+                () -> new RefreshAheadScheduler<>(template, REQUEST_TRANSFORMER, requestFunction, cacheSupport, 0, 1L));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RefreshAheadScheduler<>(template, REQUEST_TRANSFORMER, requestFunction, cacheSupport, 1, 0L));
+    }
+}
@@ -0,0 +1,153 @@
+package com.github.nagyesta.cacheonly.example.number;
+
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.conurrent.ExecutionMode;
+import com.github.nagyesta.cacheonly.raw.concurrent.AsyncBatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Origin returning the string representation of each non-negative number after a configurable delay.
+ * Negative numbers are not found, while the number {@link #FAILING_ID} makes the whole call fail and
+ * {@link #UNEXPECTED_FAILURE_ID} makes it fail with an unexpected exception.
+ * The first call containing {@link #STRAGGLER_ID} is slower than the rest by {@link #STRAGGLER_MILLIS}.
+ */
+public final class NumberBatchServiceCaller implements AsyncBatchServiceCaller<List<Long>, List<String>> {
+
+    /**
+     * The ID which makes the origin call fail.
+     */
+    public static final long FAILING_ID = 666L;
+    /**
+     * The ID which makes the origin call fail with an {@link IllegalStateException}.
+     */
+    public static final long UNEXPECTED_FAILURE_ID = 667L;
+    /**
+     * The ID which makes the first origin call containing it slow.
+     */
+    public static final long STRAGGLER_ID = 777L;
+    /**
+     * The additional latency of the first call containing {@link #STRAGGLER_ID}.
+     */
+    public static final long STRAGGLER_MILLIS = 2000L;
+    private static final int PARALLELISM = 4;
+    private static final Logger LOGGER = LoggerFactory.getLogger(NumberBatchServiceCaller.class);
+    private final CacheRefreshStrategy refreshStrategy;
+    private final int maxPartitionSize;
+    private final long latencyMillis;
+    private final ExecutionMode executionMode;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean straggled = new AtomicBoolean(false);
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+    private final AtomicInteger maxInFlight = new AtomicInteger(0);
+    private final AtomicInteger interrupted = new AtomicInteger(0);
+    private final Queue<List<Long>> requests = new ConcurrentLinkedQueue<>();
+    private final Queue<String> threadNames = new ConcurrentLinkedQueue<>();
+    private volatile boolean deduplicateInFlightRequests;
+
+    public NumberBatchServiceCaller(
+            final CacheRefreshStrategy refreshStrategy,
+            final int maxPartitionSize,
+            final long latencyMillis) {
+        this(refreshStrategy, maxPartitionSize, latencyMillis, ExecutionMode.FORK_JOIN_POOL);
+    }
+
+    public NumberBatchServiceCaller(
+            final CacheRefreshStrategy refreshStrategy,
+            final int maxPartitionSize,
+            final long latencyMillis,
+            final ExecutionMode executionMode) {
+        this.refreshStrategy = refreshStrategy;
+        this.maxPartitionSize = maxPartitionSize;
+        this.latencyMillis = latencyMillis;
+        this.executionMode = executionMode;
+        this.pool = new ForkJoinPool(PARALLELISM);
+    }
+
+    @Override
+    public CacheRefreshStrategy refreshStrategy() {
+        return refreshStrategy;
+    }
+
+    @Override
+    public int maxPartitionSize() {
+        return maxPartitionSize;
+    }
+
+    @Override
+    public boolean deduplicateInFlightRequests() {
+        return deduplicateInFlightRequests;
+    }
+
+    @Override
+    public ForkJoinPool forkJoinPool() {
+        return pool;
+    }
+
+    @Override
+    public ExecutionMode executionMode() {
+        return executionMode;
+    }
+
+    @Override
+    @SuppressWarnings("java:S2925")
+    public @Nullable List<String> callBatchService(final List<Long> batchRequest) throws BatchServiceException {
+        requests.add(List.copyOf(batchRequest));
+        threadNames.add(Thread.currentThread().getName());
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            if (batchRequest.contains(STRAGGLER_ID) && straggled.compareAndSet(false, true)) {
+                Thread.sleep(STRAGGLER_MILLIS);
+            }
+            if (batchRequest.contains(FAILING_ID)) {
+                throw new BatchServiceException("Failed to fetch: " + FAILING_ID);
+            }
+            if (batchRequest.contains(UNEXPECTED_FAILURE_ID)) {
+                throw new IllegalStateException("Unexpected failure: " + UNEXPECTED_FAILURE_ID);
+            }
+            return batchRequest.stream()
+                    .filter(id -> id >= 0)
+                    .map(String::valueOf)
+                    .toList();
+        } catch (final InterruptedException e) {
+            interrupted.incrementAndGet();
+            LOGGER.error(e.getMessage(), e);
+            Thread.currentThread().interrupt();
+            throw new BatchServiceException("Interrupted.", e);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public void setDeduplicateInFlightRequests(final boolean deduplicateInFlightRequests) {
+        this.deduplicateInFlightRequests = deduplicateInFlightRequests;
+    }
+
+    public List<List<Long>> getRequests() {
+        return List.copyOf(requests);
+    }
+
+    public List<String> getThreadNames() {
+        return List.copyOf(threadNames);
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    public int getInterrupted() {
+        return interrupted.get();
+    }
+}
@@ -0,0 +1,179 @@
+package com.github.nagyesta.cacheonly.example.number;
+
+import com.github.nagyesta.cacheonly.core.conurrent.ExecutionMode;
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.transform.concurrent.AsyncPartialCacheSupport;
+import org.jspecify.annotations.Nullable;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache support storing the numbers in an in-memory cache.
+ */
+public final class NumberPartialCacheSupport implements AsyncPartialCacheSupport<Long, String, String, Long> {
+
+    /**
+     * The name of the cache.
+     */
+    public static final String NUMBERS = "numbers";
+    /**
+     * The name of the negative cache.
+     */
+    public static final String MISSING_NUMBERS = "missing-numbers";
+    /**
+     * The name of the freshness cache.
+     */
+    public static final String FRESH_NUMBERS = "fresh-numbers";
+    private static final int PARALLELISM = 4;
+    private final CacheManager cacheManager;
+    private final ForkJoinPool pool;
+    private final ExecutionMode executionMode;
+    private final boolean bulkGet;
+    private final @Nullable String negativeCacheName;
+    private final @Nullable String freshnessCacheName;
+    private final AtomicInteger bulkGetCalls = new AtomicInteger(0);
+    private final List<Integer> bulkPutSizes = new CopyOnWriteArrayList<>();
+    private final AtomicInteger interruptedPuts = new AtomicInteger(0);
+    private final List<Integer> freshGetSizes = new CopyOnWriteArrayList<>();
+    private long timeoutMillis = AsyncPartialCacheSupport.super.timeoutMillis();
+
+    public NumberPartialCacheSupport() {
+        this(new ConcurrentMapCacheManager());
+    }
+
+    public NumberPartialCacheSupport(final CacheManager cacheManager) {
+        this(cacheManager, ExecutionMode.FORK_JOIN_POOL);
+    }
+
+    public NumberPartialCacheSupport(final CacheManager cacheManager, final ExecutionMode executionMode) {
+        this(cacheManager, executionMode, false);
+    }
+
+    public NumberPartialCacheSupport(
+            final CacheManager cacheManager,
+            final ExecutionMode executionMode,
+            final boolean bulkGet) {
+        this(cacheManager, executionMode, bulkGet, null);
+    }
+
+    public NumberPartialCacheSupport(
+            final CacheManager cacheManager,
+            final ExecutionMode executionMode,
+            final boolean bulkGet,
+            final @Nullable String negativeCacheName) {
+        this(cacheManager, executionMode, bulkGet, negativeCacheName, null);
+    }
+
+    public NumberPartialCacheSupport(
+            final CacheManager cacheManager,
+            final ExecutionMode executionMode,
+            final boolean bulkGet,
+            final @Nullable String negativeCacheName,
+            final @Nullable String freshnessCacheName) {
+        this.cacheManager = cacheManager;
+        this.executionMode = executionMode;
+        this.bulkGet = bulkGet;
+        this.negativeCacheName = negativeCacheName;
+        this.freshnessCacheName = freshnessCacheName;
+        this.pool = new ForkJoinPool(PARALLELISM);
+    }
+
+    @Override
+    public String cacheName() {
+        return NUMBERS;
+    }
+
+    @Override
+    public Class<String> getEntityClass() {
+        return String.class;
+    }
+
+    @Override
+    public CacheKey<String, Long> toCacheKey(final Long partialRequest) {
+        return new CacheKey<>("number_" + partialRequest, partialRequest);
+    }
+
+    @Override
+    public CacheManager getCacheManager() {
+        return cacheManager;
+    }
+
+    @Override
+    public ForkJoinPool forkJoinPool() {
+        return pool;
+    }
+
+    @Override
+    public ExecutionMode executionMode() {
+        return executionMode;
+    }
+
+    @Override
+    public long timeoutMillis() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public boolean supportsBulkGet() {
+        return bulkGet;
+    }
+
+    @Override
+    public @Nullable String negativeCacheName() {
+        return negativeCacheName;
+    }
+
+    @Override
+    public @Nullable String freshnessCacheName() {
+        return freshnessCacheName;
+    }
+
+    @Override
+    public Map<CacheKey<String, Long>, String> getAllFromCache(final Collection<CacheKey<String, Long>> keys) {
+        bulkGetCalls.incrementAndGet();
+        return AsyncPartialCacheSupport.super.getAllFromCache(keys);
+    }
+
+    @Override
+    public void putAllToCache(final Map<CacheKey<String, Long>, String> entries) {
+        bulkPutSizes.add(entries.size());
+        if (Thread.currentThread().isInterrupted()) {
+            interruptedPuts.incrementAndGet();
+        }
+        AsyncPartialCacheSupport.super.putAllToCache(entries);
+    }
+
+    @Override
+    public Set<CacheKey<String, Long>> getFreshFromCache(final Collection<CacheKey<String, Long>> keys) {
+        freshGetSizes.add(keys.size());
+        return AsyncPartialCacheSupport.super.getFreshFromCache(keys);
+    }
+
+    public List<Integer> getBulkPutSizes() {
+        return List.copyOf(bulkPutSizes);
+    }
+
+    public List<Integer> getFreshGetSizes() {
+        return List.copyOf(freshGetSizes);
+    }
+
+    public int getInterruptedPuts() {
+        return interruptedPuts.get();
+    }
+
+    public int getBulkGetCalls() {
+        return bulkGetCalls.get();
+    }
+
+    public void setTimeoutMillis(final long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.nagyesta.cacheonly.example.number;
+
+import com.github.nagyesta.cacheonly.transform.BatchRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.BatchResponseTransformer;
+import com.github.nagyesta.cacheonly.transform.common.CollectionBasedRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.common.CollectionBasedResponseTransformer;
+import com.github.nagyesta.cacheonly.transform.common.LongKeyedCollectionBasedRequestTransformer;
+import com.github.nagyesta.cacheonly.transform.common.LongKeyedCollectionBasedResponseTransformer;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transformers of the number example.
+ */
+public final class NumberTransformers {
+
+    /**
+     * Request transformer using the numbers as IDs.
+     */
+    public static final BatchRequestTransformer<List<Long>, Long, Long> REQUEST_TRANSFORMER =
+            new CollectionBasedRequestTransformer<>(Collectors.toList(), Function.identity());
+    /**
+     * Response transformer parsing the IDs from the string representations.
+     */
+    public static final BatchResponseTransformer<List<String>, String, Long> RESPONSE_TRANSFORMER =
+            new CollectionBasedResponseTransformer<>(Collectors.toList(), Long::parseLong);
+    /**
+     * Request transformer using the numbers as primitive IDs.
+     */
+    public static final BatchRequestTransformer<List<Long>, Long, Long> LONG_KEYED_REQUEST_TRANSFORMER =
+            new LongKeyedCollectionBasedRequestTransformer<>(Collectors.toList(), Long::longValue);
+    /**
+     * Response transformer parsing the primitive IDs from the string representations.
+     */
+    public static final BatchResponseTransformer<List<String>, String, Long> LONG_KEYED_RESPONSE_TRANSFORMER =
+            new LongKeyedCollectionBasedResponseTransformer<>(Collectors.toList(), Long::parseLong);
+
+    private NumberTransformers() {
+    }
+}
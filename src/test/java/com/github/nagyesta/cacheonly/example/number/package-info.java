@@ -0,0 +1,4 @@
+@NullMarked
+package com.github.nagyesta.cacheonly.example.number;
+
+import org.jspecify.annotations.NullMarked;
@@ -48,4 +48,11 @@ public class UnstableCacheServiceTemplate extends ConcurrentCacheServiceTemplate
         super(new UnstablePartialCacheSupport(), BATCH_REQUEST_TRANSFORMER, BATCH_RESPONSE_TRANSFORMER,
                 new UnstableConcurrentBatchServiceCaller());
     }
+
+    public UnstableCacheServiceTemplate(
+            final long timeoutMillis,
+            final Runnable slowCall) {
+        super(new UnstablePartialCacheSupport(timeoutMillis, slowCall), BATCH_REQUEST_TRANSFORMER, BATCH_RESPONSE_TRANSFORMER,
+                new UnstableConcurrentBatchServiceCaller(timeoutMillis, slowCall));
+    }
 }
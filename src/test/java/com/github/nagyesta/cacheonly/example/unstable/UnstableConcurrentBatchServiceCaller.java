@@ -15,6 +15,19 @@ public class UnstableConcurrentBatchServiceCaller
         implements AsyncBatchServiceCaller<List<Long>, List<String>> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UnstableConcurrentBatchServiceCaller.class);
+    private final long timeoutMillis;
+    private final Runnable slowCall;
+
+    public UnstableConcurrentBatchServiceCaller() {
+        this(10, UnstableConcurrentBatchServiceCaller::sleep);
+    }
+
+    public UnstableConcurrentBatchServiceCaller(
+            final long timeoutMillis,
+            final Runnable slowCall) {
+        this.timeoutMillis = timeoutMillis;
+        this.slowCall = slowCall;
+    }
 
     @Override
     public CacheRefreshStrategy refreshStrategy() {
@@ -23,7 +36,7 @@ public class UnstableConcurrentBatchServiceCaller
 
     @Override
     public long timeoutMillis() {
-        return 10;
+        return timeoutMillis;
     }
 
     @Override
@@ -51,21 +64,25 @@ public class UnstableConcurrentBatchServiceCaller
         }
     }
 
-    @SuppressWarnings("java:S2925")
     private void handleExceptionalCases(final List<Long> batchRequest) {
         if (batchRequest.stream().anyMatch(i -> i < -30L)) {
-            try {
-                final var start = System.currentTimeMillis();
-                Thread.sleep(60);
-                final var end = System.currentTimeMillis();
-                LOGGER.trace("Took: {} ms", (end - start));
-            } catch (final InterruptedException e) {
-                LOGGER.error(e.getMessage(), e);
-                Thread.currentThread().interrupt();
-            }
+            slowCall.run();
         }
         if (batchRequest.stream().anyMatch(i -> i < 0L)) {
             throw new BatchServiceException("Value is below 0.");
         }
     }
+
+    @SuppressWarnings("java:S2925")
+    private static void sleep() {
+        try {
+            final var start = System.currentTimeMillis();
+            Thread.sleep(60);
+            final var end = System.currentTimeMillis();
+            LOGGER.trace("Took: {} ms", (end - start));
+        } catch (final InterruptedException e) {
+            LOGGER.error(e.getMessage(), e);
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -15,10 +15,23 @@ public class UnstablePartialCacheSupport
         implements AsyncPartialCacheSupport<Long, String, String, Long> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UnstablePartialCacheSupport.class);
+    private final long timeoutMillis;
+    private final Runnable slowCall;
+
+    public UnstablePartialCacheSupport() {
+        this(10, UnstablePartialCacheSupport::sleep);
+    }
+
+    public UnstablePartialCacheSupport(
+            final long timeoutMillis,
+            final Runnable slowCall) {
+        this.timeoutMillis = timeoutMillis;
+        this.slowCall = slowCall;
+    }
 
     @Override
     public long timeoutMillis() {
-        return 10;
+        return timeoutMillis;
     }
 
     @Override
@@ -55,21 +68,25 @@ public class UnstablePartialCacheSupport
         return key.key();
     }
 
-    @SuppressWarnings("java:S2925")
     private void handleExceptionalCases(final CacheKey<String, Long> key) {
         if (key.id() == -15L) {
             throw new IllegalStateException("Get failed.");
         }
         if (key.id() < -30) {
-            try {
-                final var start = System.currentTimeMillis();
-                Thread.sleep(60);
-                final var end = System.currentTimeMillis();
-                LOGGER.trace("Took: {} ms", (end - start));
-            } catch (final InterruptedException e) {
-                LOGGER.error(e.getMessage(), e);
-                Thread.currentThread().interrupt();
-            }
+            slowCall.run();
+        }
+    }
+
+    @SuppressWarnings("java:S2925")
+    private static void sleep() {
+        try {
+            final var start = System.currentTimeMillis();
+            Thread.sleep(60);
+            final var end = System.currentTimeMillis();
+            LOGGER.trace("Took: {} ms", (end - start));
+        } catch (final InterruptedException e) {
+            LOGGER.error(e.getMessage(), e);
+            Thread.currentThread().interrupt();
         }
     }
 }
@@ -0,0 +1,167 @@
+package com.github.nagyesta.cacheonly.raw.decorator;
+
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.DefaultCacheServiceTemplate;
+import com.github.nagyesta.cacheonly.core.conurrent.ExecutionMode;
+import com.github.nagyesta.cacheonly.core.metrics.BasicBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.example.number.NumberBatchServiceCaller;
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import com.github.nagyesta.cacheonly.raw.BatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.RESPONSE_TRANSFORMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class AdaptivePartitionBatchServiceCallerTest {
+
+    private static final long TARGET_MILLIS = 100L;
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10L);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200L);
+
+    @Test
+    void testCallBatchServiceShouldHalvePartitionSizeWhenCallsAreSlow() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var underTest = new AdaptivePartitionBatchServiceCaller<>(new FakeCaller(8, request -> clock.addAndGet(SLOW)),
+                TARGET_MILLIS, clock::get);
+        final List<Integer> actual = new ArrayList<>();
+
+        //when
+        for (var i = 0; i < 4; i++) {
+            underTest.callBatchService("request");
+            actual.add(underTest.maxPartitionSize());
+        }
+
+        //then
+        assertEquals(List.of(4, 2, 1, 1), actual);
+    }
+
+    @Test
+    void testCallBatchServiceShouldIncreasePartitionSizeUpToTheMaximumWhenCallsAreFast() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var latency = new AtomicLong(SLOW);
+        final var underTest = new AdaptivePartitionBatchServiceCaller<>(new FakeCaller(8, request -> clock.addAndGet(latency.get())),
+                TARGET_MILLIS, clock::get);
+        underTest.callBatchService("slow");
+        latency.set(FAST);
+        final List<Integer> actual = new ArrayList<>();
+
+        //when
+        for (var i = 0; i < 5; i++) {
+            underTest.callBatchService("fast");
+            actual.add(underTest.maxPartitionSize());
+        }
+
+        //then
+        assertEquals(List.of(5, 6, 7, 8, 8), actual);
+    }
+
+    @Test
+    void testCallBatchServiceShouldHalvePartitionSizeAndRethrowWhenCallFails() {
+        //given
+        final var underTest = new AdaptivePartitionBatchServiceCaller<>(new FakeCaller(8, request -> {
+            throw new BatchServiceException("failed");
+        }), TARGET_MILLIS);
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callBatchService("request"));
+
+        //then
+        assertEquals(4, underTest.maxPartitionSize());
+    }
+
+    @Test
+    void testCallBatchServiceShouldNotIncreasePartitionSizeWhenItWasChangedByAConcurrentCall() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final List<AdaptivePartitionBatchServiceCaller<String, String>> holder = new ArrayList<>();
+        final var underTest = new AdaptivePartitionBatchServiceCaller<>(new FakeCaller(8, request -> {
+            if ("outer".equals(request)) {
+                holder.get(0).callBatchService("inner");
+                clock.set(0L);
+            } else {
+                clock.addAndGet(SLOW);
+            }
+        }), TARGET_MILLIS, clock::get);
+        holder.add(underTest);
+
+        //when
+        underTest.callBatchService("outer");
+
+        //then
+        assertEquals(4, underTest.maxPartitionSize());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldReportEffectivePartitionSizeWhenUsedByTemplate() {
+        //given
+        final var delegate = new NumberBatchServiceCaller(CacheRefreshStrategy.PESSIMISTIC, 4, 0L, ExecutionMode.VIRTUAL_THREADS);
+        delegate.setDeduplicateInFlightRequests(true);
+        final var underTest = new AdaptivePartitionBatchServiceCaller<>(delegate, 60000L);
+        final var template = new DefaultCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, underTest);
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        template.setMetricsCollector(metricCollector);
+
+        //when
+        final var actual = template.callCacheableBatchService(LongStream.range(0L, 10L).boxed().toList());
+
+        //then
+        assertNotNull(actual);
+        assertEquals(10, actual.size());
+        assertEquals(4, metricCollector.getEffectivePartitionSize());
+        assertEquals(List.of(4, 4, 2), delegate.getRequests().stream().map(List::size).toList());
+        assertEquals(CacheRefreshStrategy.PESSIMISTIC, underTest.refreshStrategy());
+        assertTrue(underTest.deduplicateInFlightRequests());
+        assertEquals(ExecutionMode.VIRTUAL_THREADS, underTest.executionMode());
+        assertSame(delegate.forkJoinPool(), underTest.forkJoinPool());
+        assertEquals(delegate.timeoutMillis(), underTest.timeoutMillis());
+    }
+
+    @Test
+    void testConcurrentSettingsShouldUseDefaultsWhenDelegateIsNotConcurrent() {
+        //given
+        final var underTest = new AdaptivePartitionBatchServiceCaller<>(new FakeCaller(8, request -> {
+        }), TARGET_MILLIS);
+
+        //when + then
+        assertEquals(ExecutionMode.FORK_JOIN_POOL, underTest.executionMode());
+        assertSame(ForkJoinPool.commonPool(), underTest.forkJoinPool());
+        assertTrue(underTest.timeoutMillis() > 0L);
+        assertFalse(underTest.deduplicateInFlightRequests());
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithInvalidSettings() {
+        //given
+        final var delegate = new FakeCaller(8, request -> {
+        });
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePartitionBatchServiceCaller<>(delegate, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptivePartitionBatchServiceCaller<>(new FakeCaller(0, request -> {
+        }), 1L));
+    }
+
+    private record FakeCaller(int maxPartitionSize, Consumer<String> behavior) implements BatchServiceCaller<String, String> {
+
+        @Override
+        public @Nullable String callBatchService(final String batchRequest) {
+            behavior.accept(batchRequest);
+            return batchRequest;
+        }
+    }
+}
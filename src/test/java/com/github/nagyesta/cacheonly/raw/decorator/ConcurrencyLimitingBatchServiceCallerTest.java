@@ -0,0 +1,212 @@
+package com.github.nagyesta.cacheonly.raw.decorator;
+
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.conurrent.ConcurrentCacheServiceTemplate;
+import com.github.nagyesta.cacheonly.example.number.NumberBatchServiceCaller;
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import com.github.nagyesta.cacheonly.raw.BatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.RESPONSE_TRANSFORMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class ConcurrencyLimitingBatchServiceCallerTest {
+
+    private static final long TIMEOUT_SECONDS = 5L;
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10L);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    @Test
+    void testCallBatchServiceShouldRejectRightAwayWhenLimitIsReachedAndWaitIsDisabled() throws Exception {
+        //given
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var underTest = new ConcurrencyLimitingBatchServiceCaller<>(new FakeCaller(request -> {
+            started.countDown();
+            await(release);
+        }), 1, 4, 0L);
+        final var first = CompletableFuture.supplyAsync(() -> underTest.callBatchService("first"));
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callBatchService("second"));
+
+        //then
+        release.countDown();
+        assertEquals("first", first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(1L, underTest.rejectedCalls());
+        assertEquals(0, underTest.inFlight());
+    }
+
+    @Test
+    void testCallBatchServiceShouldWaitForFreeSlotWhenLimitIsReached() throws Exception {
+        //given
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var underTest = new ConcurrencyLimitingBatchServiceCaller<>(new FakeCaller(request -> {
+            if ("first".equals(request)) {
+                started.countDown();
+                await(release);
+            }
+        }), 1, 4, TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        final var first = CompletableFuture.supplyAsync(() -> underTest.callBatchService("first"));
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+        //when
+        final var second = CompletableFuture.supplyAsync(() -> underTest.callBatchService("second"));
+        release.countDown();
+
+        //then
+        assertEquals("first", first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals("second", second.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(0L, underTest.rejectedCalls());
+    }
+
+    @Test
+    void testCallBatchServiceShouldDecreaseLimitWhenLatencyGrows() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var latency = new AtomicLong(FAST);
+        final var underTest = new ConcurrencyLimitingBatchServiceCaller<>(new FakeCaller(request -> clock.addAndGet(latency.get())),
+                10, 20, 0L, clock::get);
+        underTest.callBatchService("fast");
+        latency.set(SLOW);
+
+        //when
+        underTest.callBatchService("slow");
+
+        //then
+        assertEquals(9, underTest.currentLimit());
+    }
+
+    @Test
+    void testCallBatchServiceShouldIncreaseLimitOnlyWhileItIsUtilizedWhenLatencyIsStable() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var underTest = new ConcurrencyLimitingBatchServiceCaller<>(new FakeCaller(request -> clock.addAndGet(FAST)),
+                1, 20, 0L, clock::get);
+
+        //when
+        for (var i = 0; i < 10; i++) {
+            underTest.callBatchService("fast");
+        }
+
+        //then
+        assertEquals(2, underTest.currentLimit());
+    }
+
+    @Test
+    void testCallBatchServiceShouldNotExceedMaxLimitWhenLatencyIsStable() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var underTest = new ConcurrencyLimitingBatchServiceCaller<>(new FakeCaller(request -> clock.addAndGet(FAST)),
+                2, 2, 0L, clock::get);
+
+        //when
+        underTest.callBatchService("fast");
+
+        //then
+        assertEquals(2, underTest.currentLimit());
+    }
+
+    @Test
+    void testCallBatchServiceShouldDecreaseLimitAndRethrowWhenCallFails() {
+        //given
+        final var underTest = new ConcurrencyLimitingBatchServiceCaller<>(new FakeCaller(request -> {
+            throw new BatchServiceException("failed");
+        }), 10, 20, 0L);
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callBatchService("request"));
+
+        //then
+        assertEquals(9, underTest.currentLimit());
+        assertEquals(0, underTest.inFlight());
+    }
+
+    @Test
+    void testCallBatchServiceShouldRejectAndKeepInterruptFlagWhenInterruptedWhileWaiting() throws Exception {
+        //given
+        final var started = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var underTest = new ConcurrencyLimitingBatchServiceCaller<>(new FakeCaller(request -> {
+            started.countDown();
+            await(release);
+        }), 1, 4, TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        final var first = CompletableFuture.supplyAsync(() -> underTest.callBatchService("first"));
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Thread.currentThread().interrupt();
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callBatchService("second"));
+
+        //then
+        assertTrue(Thread.interrupted());
+        release.countDown();
+        assertEquals("first", first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldLimitConcurrentPartitionsWhenUsedByConcurrentTemplate() {
+        //given
+        final var delegate = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 2, 20L);
+        final var underTest = new ConcurrencyLimitingBatchServiceCaller<>(delegate, 1, 1,
+                TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+        final var template = new ConcurrentCacheServiceTemplate<>(new NumberPartialCacheSupport(),
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, underTest);
+
+        //when
+        final var actual = template.callCacheableBatchService(LongStream.range(0L, 6L).boxed().toList());
+
+        //then
+        assertNotNull(actual);
+        assertEquals(6, actual.size());
+        assertEquals(3, delegate.getRequests().size());
+        assertEquals(1, delegate.getMaxInFlight());
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithInvalidSettings() {
+        //given
+        final var delegate = new FakeCaller(request -> {
+        });
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimitingBatchServiceCaller<>(delegate, 0, 1, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimitingBatchServiceCaller<>(delegate, 2, 1, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrencyLimitingBatchServiceCaller<>(delegate, 1, 1, -1L));
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record FakeCaller(Consumer<String> behavior) implements BatchServiceCaller<String, String> {
+
+        @Override
+        public int maxPartitionSize() {
+            return 1;
+        }
+
+        @Override
+        public @Nullable String callBatchService(final String batchRequest) {
+            behavior.accept(batchRequest);
+            return batchRequest;
+        }
+    }
+}
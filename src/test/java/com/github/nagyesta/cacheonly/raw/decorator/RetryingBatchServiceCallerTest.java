@@ -0,0 +1,165 @@
+package com.github.nagyesta.cacheonly.raw.decorator;
+
+import com.github.nagyesta.cacheonly.core.metrics.BasicBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.core.metrics.NoOpBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.raw.BatchServiceCaller;
+import com.github.nagyesta.cacheonly.raw.exception.BatchServiceException;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class RetryingBatchServiceCallerTest {
+
+    @Test
+    void testCallBatchServiceShouldRetryWithExponentialBackoffWhenCallFails() {
+        //given
+        final var delegate = new FakeCaller(attempt -> {
+            if (attempt < 3) {
+                throw new BatchServiceException("failed");
+            }
+        });
+        final List<Long> sleeps = new ArrayList<>();
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new RetryingBatchServiceCaller<>(delegate, 3, 100L, 1000L, 0.1D,
+                metricCollector, sleeps::add, () -> 1.0D, () -> 0L);
+
+        //when
+        final var actual = underTest.callBatchService("request");
+
+        //then
+        assertEquals("request", actual);
+        assertEquals(3, delegate.attempts().get());
+        assertEquals(List.of(100L, 200L), sleeps);
+        assertEquals(2, metricCollector.getPartitionRetried());
+    }
+
+    @Test
+    void testCallBatchServiceShouldRethrowWithCappedJitteredBackoffWhenAllAttemptsFail() {
+        //given
+        final var delegate = new FakeCaller(attempt -> {
+            throw new BatchServiceException("failed");
+        });
+        final List<Long> sleeps = new ArrayList<>();
+        final var underTest = new RetryingBatchServiceCaller<>(delegate, 5, 100L, 250L, 0.1D,
+                new NoOpBatchServiceCallMetricCollector(), sleeps::add, () -> 0.5D, () -> 0L);
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callBatchService("request"));
+
+        //then
+        assertEquals(5, delegate.attempts().get());
+        assertEquals(List.of(50L, 100L, 125L, 125L), sleeps);
+    }
+
+    @Test
+    void testCallBatchServiceShouldNotRetryWhenRetryBudgetIsExhausted() {
+        //given
+        final var delegate = new FakeCaller(attempt -> {
+            throw new BatchServiceException("failed");
+        });
+        final var underTest = new RetryingBatchServiceCaller<>(delegate, 2, 0L, 0L, 0.1D,
+                new NoOpBatchServiceCallMetricCollector(), millis -> {
+        }, () -> 1.0D, () -> 0L);
+        for (var i = 0; i < 15; i++) {
+            assertThrows(BatchServiceException.class, () -> underTest.callBatchService("request"));
+        }
+        final var attemptsBefore = delegate.attempts().get();
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callBatchService("request"));
+
+        //then
+        assertEquals(attemptsBefore + 1, delegate.attempts().get());
+        assertTrue(underTest.availableRetryBudget() < 1.0D);
+    }
+
+    @Test
+    void testCallBatchServiceShouldNotRetryWhenFailureIsNotBatchServiceException() {
+        //given
+        final var delegate = new FakeCaller(attempt -> {
+            throw new IllegalStateException("failed");
+        });
+        final var underTest = new RetryingBatchServiceCaller<>(delegate, 3, 0L, 0L, 0.1D);
+
+        //when
+        assertThrows(IllegalStateException.class, () -> underTest.callBatchService("request"));
+
+        //then
+        assertEquals(1, delegate.attempts().get());
+    }
+
+    @Test
+    void testCallBatchServiceShouldStopRetryingWhenRetryWouldStartAfterTheTimeout() {
+        //given
+        final var delegate = new FakeCaller(attempt -> {
+            throw new BatchServiceException("failed");
+        });
+        final List<Long> sleeps = new ArrayList<>();
+        final var clock = new AtomicLong();
+        final var metricCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new RetryingBatchServiceCaller<>(delegate, 5, 100L, 100L, 0.1D,
+                metricCollector, sleeps::add, () -> 1.0D, () -> clock.getAndAdd(TimeUnit.SECONDS.toNanos(40)));
+
+        //when
+        assertThrows(BatchServiceException.class, () -> underTest.callBatchService("request"));
+
+        //then
+        assertEquals(2, delegate.attempts().get());
+        assertEquals(List.of(100L), sleeps);
+        assertEquals(1, metricCollector.getPartitionRetried());
+    }
+
+    @Test
+    void testCallBatchServiceShouldStopRetryingAndKeepInterruptFlagWhenInterrupted() {
+        //given
+        final var delegate = new FakeCaller(attempt -> {
+            throw new BatchServiceException("failed");
+        });
+        final var underTest = new RetryingBatchServiceCaller<>(delegate, 3, 60000L, 60000L, 0.1D);
+        Thread.currentThread().interrupt();
+
+        //when
+        final var actual = assertThrows(BatchServiceException.class, () -> underTest.callBatchService("request"));
+
+        //then
+        assertTrue(Thread.interrupted());
+        assertEquals("failed", actual.getMessage());
+        assertEquals(1, delegate.attempts().get());
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithInvalidSettings() {
+        //given
+        final var delegate = new FakeCaller(attempt -> {
+        });
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> new RetryingBatchServiceCaller<>(delegate, 0, 0L, 0L, 0.1D));
+        assertThrows(IllegalArgumentException.class, () -> new RetryingBatchServiceCaller<>(delegate, 1, -1L, 0L, 0.1D));
+        assertThrows(IllegalArgumentException.class, () -> new RetryingBatchServiceCaller<>(delegate, 1, 10L, 5L, 0.1D));
+        assertThrows(IllegalArgumentException.class, () -> new RetryingBatchServiceCaller<>(delegate, 1, 0L, 0L, 0.0D));
+        assertThrows(IllegalArgumentException.class, () -> new RetryingBatchServiceCaller<>(delegate, 1, 0L, 0L, 0.1D, null));
+    }
+
+    private record FakeCaller(AtomicInteger attempts, IntConsumer behavior) implements BatchServiceCaller<String, String> {
+
+        FakeCaller(final IntConsumer behavior) {
+            this(new AtomicInteger(), behavior);
+        }
+
+        @Override
+        public @Nullable String callBatchService(final String batchRequest) {
+            behavior.accept(attempts.incrementAndGet());
+            return batchRequest;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.nagyesta.cacheonly.transform.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.FatalBeanException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class BeanPropertyCopierTest {
+
+    @Test
+    void testCopyPropertiesShouldCopyReadWritePropertiesWhenClassesMatch() {
+        //given
+        final var source = new Bean();
+        source.setCount(42);
+        source.setName("name");
+        source.setItems(List.of(1L, 2L));
+        final var target = new Bean();
+
+        //when
+        BeanPropertyCopier.copyProperties(source, target);
+
+        //then
+        assertEquals(42, target.getCount());
+        assertEquals("name", target.getName());
+        assertSame(source.getItems(), target.getItems());
+        assertNull(target.getReadOnly());
+    }
+
+    @Test
+    void testCopyPropertiesShouldCopyPropertiesWhenClassIsNotPublic() {
+        //given
+        final var source = new HiddenBean();
+        source.setValue("value");
+        final var target = new HiddenBean();
+
+        //when
+        BeanPropertyCopier.copyProperties(source, target);
+
+        //then
+        assertEquals("value", target.getValue());
+    }
+
+    @Test
+    void testCopyPropertiesShouldFallBackToBeanUtilsWhenClassesDiffer() {
+        //given
+        final var source = new Bean();
+        source.setCount(42);
+        source.setName("name");
+        final var target = new HiddenBean();
+        target.setValue("value");
+
+        //when
+        BeanPropertyCopier.copyProperties(source, target);
+
+        //then
+        assertEquals("value", target.getValue());
+    }
+
+    @Test
+    void testCopyPropertiesShouldThrowExceptionWhenSetterFails() {
+        //given
+        final var source = new FailingBean();
+        final var target = new FailingBean();
+
+        //when
+        assertThrows(FatalBeanException.class, () -> BeanPropertyCopier.copyProperties(source, target));
+
+        //then + exception
+    }
+
+    public static final class Bean {
+        private int count;
+        private String name;
+        private List<Long> items;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(final int count) {
+            this.count = count;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public List<Long> getItems() {
+            return items;
+        }
+
+        public void setItems(final List<Long> items) {
+            this.items = items;
+        }
+
+        public String getReadOnly() {
+            return null;
+        }
+    }
+
+    private static final class HiddenBean {
+        private String value;
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(final String value) {
+            this.value = value;
+        }
+    }
+
+    public static final class FailingBean {
+
+        public String getValue() {
+            return "value";
+        }
+
+        public void setValue(final String value) {
+            throw new IllegalStateException(value);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.nagyesta.cacheonly.transform.common;
 
 import org.apache.commons.collections4.CollectionUtils;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
@@ -79,4 +80,15 @@ class CollectionBasedRequestTransformerTest {
         assertTrue(CollectionUtils.containsAll(expected, actual));
         assertTrue(CollectionUtils.containsAll(actual, expected));
     }
+
+    @Test
+    void testSplitToPartialRequestShouldThrowExceptionWhenInputContainsDuplicateIds() {
+        //given
+        final var underTest =
+                new CollectionBasedRequestTransformer<List<String>, String, Long>(Collectors.toList(), Long::parseLong);
+        final var input = List.of("1", "2", "01");
+
+        //when + then
+        assertThrows(IllegalStateException.class, () -> underTest.splitToPartialRequest(input));
+    }
 }
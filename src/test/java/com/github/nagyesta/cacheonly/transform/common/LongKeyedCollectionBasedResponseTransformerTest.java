@@ -0,0 +1,61 @@
+package com.github.nagyesta.cacheonly.transform.common;
+
+import com.github.nagyesta.cacheonly.core.collection.LongHashMap;
+import org.apache.commons.collections4.CollectionUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class LongKeyedCollectionBasedResponseTransformerTest {
+
+    @Test
+    void testSplitToPartialResponseShouldSplitValidInput() {
+        //given
+        final var underTest =
+                new LongKeyedCollectionBasedResponseTransformer<List<String>, String>(Collectors.toList(), Long::parseLong);
+
+        //when
+        final var actual = underTest.splitToPartialResponse(List.of("0", "1", "42"));
+
+        //then
+        assertInstanceOf(LongHashMap.class, actual);
+        assertEquals(Map.of(0L, "0", 1L, "1", 42L, "42"), actual);
+    }
+
+    @Test
+    void testMergeToBatchResponseShouldMergeValidInput() {
+        //given
+        final var underTest =
+                new LongKeyedCollectionBasedResponseTransformer<List<String>, String>(Collectors.toList(), Long::parseLong);
+        final var expected = List.of("0", "1", "42");
+
+        //when
+        final var actual = underTest.mergeToBatchResponse(underTest.splitToPartialResponse(expected));
+
+        //then
+        assertNotNull(actual);
+        assertTrue(CollectionUtils.containsAll(expected, actual));
+        assertTrue(CollectionUtils.containsAll(actual, expected));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testMergeToBatchResponseShouldRespectNullIfEmptyWhenCalledWithEmptyMap(final boolean nullIfEmpty) {
+        //given
+        final var underTest = new LongKeyedCollectionBasedResponseTransformer<List<String>, String>(
+                Collectors.toList(), Long::parseLong, nullIfEmpty);
+
+        //when
+        final var actual = underTest.mergeToBatchResponse(new LongHashMap<>());
+
+        //then
+        assertEquals(nullIfEmpty, actual == null);
+    }
+}
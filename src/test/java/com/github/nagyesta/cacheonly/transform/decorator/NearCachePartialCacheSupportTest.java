@@ -0,0 +1,141 @@
+package com.github.nagyesta.cacheonly.transform.decorator;
+
+import com.github.nagyesta.cacheonly.core.CacheRefreshStrategy;
+import com.github.nagyesta.cacheonly.core.DefaultCacheServiceTemplate;
+import com.github.nagyesta.cacheonly.core.metrics.BasicBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.example.number.NumberBatchServiceCaller;
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.REQUEST_TRANSFORMER;
+import static com.github.nagyesta.cacheonly.example.number.NumberTransformers.RESPONSE_TRANSFORMER;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class NearCachePartialCacheSupportTest {
+
+    private static final long ONE_MINUTE = 60000L;
+
+    @Test
+    void testGetFromCacheShouldPromoteEntityWhenFoundInDelegate() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+        final var key = delegate.toCacheKey(1L);
+        delegate.putToCache(key, "1");
+        final var metricsCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new NearCachePartialCacheSupport<>(delegate, 10, ONE_MINUTE, metricsCollector);
+
+        //when
+        final var first = underTest.getFromCache(key);
+        delegate.putToCache(key, "changed");
+        final var second = underTest.getFromCache(key);
+
+        //then
+        assertEquals("1", first);
+        assertEquals("1", second);
+        assertEquals(1L, metricsCollector.getNearCacheHit());
+        assertEquals(1L, metricsCollector.getNearCacheMiss());
+        assertNull(underTest.getFromCache(delegate.toCacheKey(2L)));
+        assertEquals(1, underTest.nearCacheSize());
+    }
+
+    @Test
+    void testGetFromCacheShouldReadDelegateWhenNearCacheEntryExpired() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var delegate = new NumberPartialCacheSupport();
+        final var key = delegate.toCacheKey(1L);
+        final var underTest = new NearCachePartialCacheSupport<>(
+                delegate, 10, 100L, new BasicBatchServiceCallMetricCollector(), clock::get);
+        underTest.putToCache(key, "1");
+        delegate.putToCache(key, "changed");
+
+        //when
+        clock.set(TimeUnit.MILLISECONDS.toNanos(100L));
+        final var actual = underTest.getFromCache(key);
+
+        //then
+        assertEquals("changed", actual);
+        assertEquals(1, underTest.nearCacheSize());
+    }
+
+    @Test
+    void testPutAllToCacheShouldEvictLeastRecentlyUsedEntitiesWhenNearCacheIsFull() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+        final var first = delegate.toCacheKey(1L);
+        final var second = delegate.toCacheKey(2L);
+        final var third = delegate.toCacheKey(3L);
+        final var metricsCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new NearCachePartialCacheSupport<>(delegate, 2, ONE_MINUTE, metricsCollector);
+        underTest.putToCache(first, "1");
+        underTest.putToCache(second, "2");
+        underTest.getFromCache(first);
+
+        //when
+        underTest.putAllToCache(Map.of(third, "3"));
+
+        //then
+        assertEquals(2, underTest.nearCacheSize());
+        final var actual = underTest.getAllFromCache(List.of(first, second, third, delegate.toCacheKey(4L)));
+        assertEquals(Map.of(first, "1", second, "2", third, "3"), actual);
+        assertEquals(3L, metricsCollector.getNearCacheHit());
+        assertEquals(2L, metricsCollector.getNearCacheMiss());
+        assertEquals(1, delegate.getBulkGetCalls());
+    }
+
+    @Test
+    void testPutAllToCacheShouldKeepTheSizeOfSegmentedNearCacheWithinLimitWhenNearCacheIsFull() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+        final var underTest = new NearCachePartialCacheSupport<>(delegate, 1000, ONE_MINUTE);
+        final var entries = LongStream.range(0L, 3000L).boxed()
+                .collect(Collectors.toMap(delegate::toCacheKey, String::valueOf));
+
+        //when
+        underTest.putAllToCache(entries);
+
+        //then
+        assertEquals(1000, underTest.nearCacheSize());
+    }
+
+    @Test
+    void testCallCacheableBatchServiceShouldServeNearCacheHitsWhenUsedByTemplate() {
+        //given
+        final var batchServiceCaller = new NumberBatchServiceCaller(CacheRefreshStrategy.OPTIMISTIC, 5, 0L);
+        final var metricsCollector = new BasicBatchServiceCallMetricCollector();
+        final var underTest = new NearCachePartialCacheSupport<>(
+                new NumberPartialCacheSupport(), 10, ONE_MINUTE, metricsCollector);
+        final var template = new DefaultCacheServiceTemplate<>(underTest,
+                REQUEST_TRANSFORMER, RESPONSE_TRANSFORMER, batchServiceCaller);
+        template.callBatchServiceAndPutAllToCache(List.of(1L, 2L));
+
+        //when
+        final var actual = template.callCacheableBatchService(List.of(1L, 2L));
+
+        //then
+        assertNotNull(actual);
+        assertEquals(List.of("1", "2"), actual.stream().sorted().toList());
+        assertEquals(2L, metricsCollector.getNearCacheHit());
+        assertEquals(0L, metricsCollector.getNearCacheMiss());
+        assertEquals(1, batchServiceCaller.getRequests().size());
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithInvalidSettings() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> new NearCachePartialCacheSupport<>(delegate, 0, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new NearCachePartialCacheSupport<>(delegate, 1, 0L));
+        assertThrows(IllegalArgumentException.class, () -> new NearCachePartialCacheSupport<>(delegate, 1, 1L, null));
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.nagyesta.cacheonly.transform.decorator;
+
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class RefreshAheadPartialCacheSupportTest {
+
+    @Test
+    void testTakeKeysDueForRefreshShouldReturnHotKeysWhenTheyAreWithinTheRefreshWindow() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var delegate = new NumberPartialCacheSupport();
+        final var hot = delegate.toCacheKey(1L);
+        final var cold = delegate.toCacheKey(2L);
+        final var underTest = new RefreshAheadPartialCacheSupport<>(delegate, 1000L, 200L, 2, 10, clock::get);
+        underTest.putAllToCache(Map.of(hot, "1", cold, "2"));
+        underTest.getFromCache(hot);
+        underTest.getAllFromCache(List.of(hot, cold, delegate.toCacheKey(3L)));
+        final var early = underTest.takeKeysDueForRefresh();
+
+        //when
+        clock.set(TimeUnit.MILLISECONDS.toNanos(850L));
+        final var actual = underTest.takeKeysDueForRefresh();
+
+        //then
+        assertTrue(early.isEmpty());
+        assertEquals(List.of(hot), actual);
+        assertTrue(underTest.takeKeysDueForRefresh().isEmpty());
+        underTest.releaseKeys(List.of(hot, delegate.toCacheKey(3L)));
+        assertEquals(List.of(hot), underTest.takeKeysDueForRefresh());
+    }
+
+    @Test
+    void testTakeKeysDueForRefreshShouldStopTrackingKeysWhenTheyExpired() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var delegate = new NumberPartialCacheSupport();
+        final var key = delegate.toCacheKey(1L);
+        final var underTest = new RefreshAheadPartialCacheSupport<>(delegate, 1000L, 200L, 1, 10, clock::get);
+        underTest.putToCache(key, "1");
+        underTest.getFromCache(key);
+
+        //when
+        clock.set(TimeUnit.MILLISECONDS.toNanos(1000L));
+        final var actual = underTest.takeKeysDueForRefresh();
+
+        //then
+        assertTrue(actual.isEmpty());
+        assertEquals(0, underTest.trackedKeys());
+        assertEquals("1", underTest.getFromCache(key));
+    }
+
+    @Test
+    void testPutToCacheShouldResetTrackingWhenKeyIsRefreshed() {
+        //given
+        final var clock = new AtomicLong(0L);
+        final var delegate = new NumberPartialCacheSupport();
+        final var key = delegate.toCacheKey(1L);
+        final var underTest = new RefreshAheadPartialCacheSupport<>(delegate, 1000L, 200L, 1, 1, clock::get);
+        underTest.putToCache(key, "1");
+        underTest.getFromCache(key);
+        clock.set(TimeUnit.MILLISECONDS.toNanos(900L));
+
+        //when
+        underTest.putToCache(key, "1");
+        underTest.putToCache(delegate.toCacheKey(2L), "2");
+
+        //then
+        assertTrue(underTest.takeKeysDueForRefresh().isEmpty());
+        assertEquals(1, underTest.trackedKeys());
+        assertNull(underTest.getFromCache(delegate.toCacheKey(3L)));
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithInvalidSettings() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> new RefreshAheadPartialCacheSupport<>(delegate, 0L, 1L, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RefreshAheadPartialCacheSupport<>(delegate, 1L, 0L, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RefreshAheadPartialCacheSupport<>(delegate, 1L, 2L, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RefreshAheadPartialCacheSupport<>(delegate, 1L, 1L, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RefreshAheadPartialCacheSupport<>(delegate, 1L, 1L, 1, 0));
+    }
+}
@@ -0,0 +1,337 @@
+package com.github.nagyesta.cacheonly.transform.decorator;
+
+import com.github.nagyesta.cacheonly.core.conurrent.ExecutionMode;
+import com.github.nagyesta.cacheonly.core.metrics.BasicBatchServiceCallMetricCollector;
+import com.github.nagyesta.cacheonly.entity.CacheKey;
+import com.github.nagyesta.cacheonly.example.number.NumberPartialCacheSupport;
+import com.github.nagyesta.cacheonly.example.stock.transform.StockPartialCacheSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SuppressWarnings("checkstyle:MagicNumber")
+class WriteBehindPartialCacheSupportTest {
+
+    private static final long ONE_MINUTE = 60000L;
+    private static final long TIMEOUT_MILLIS = 5000L;
+    private static final String ABSENT = "absent";
+    private static final String FRESH = "fresh";
+
+    @Test
+    void testPutToCacheShouldCoalesceQueuedWritesWhenTheSameKeyIsWrittenAgain() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+        final var key = delegate.toCacheKey(1L);
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 10, 10, ONE_MINUTE)) {
+            underTest.putToCache(key, "first");
+
+            //when
+            underTest.putToCache(key, "second");
+
+            //then
+            assertEquals(1, underTest.pendingWrites());
+            assertEquals("second", underTest.getFromCache(key));
+            assertNull(delegate.getFromCache(key));
+            underTest.flush();
+            assertEquals(0, underTest.pendingWrites());
+            assertEquals("second", delegate.getFromCache(key));
+            assertEquals(List.of(1), delegate.getBulkPutSizes());
+        }
+    }
+
+    @Test
+    void testPutAllToCacheShouldWriteFullBatchesInTheBackgroundWhenBatchSizeIsReached() throws InterruptedException {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 10, 2, ONE_MINUTE)) {
+
+            //when
+            underTest.putAllToCache(Map.of(
+                    delegate.toCacheKey(1L), "1",
+                    delegate.toCacheKey(2L), "2",
+                    delegate.toCacheKey(3L), "3"));
+
+            //then
+            awaitPendingWrites(underTest, 1);
+            assertEquals(List.of(2), delegate.getBulkPutSizes());
+        }
+        assertEquals(List.of(2, 1), delegate.getBulkPutSizes());
+        assertEquals("3", delegate.getFromCache(delegate.toCacheKey(3L)));
+    }
+
+    @Test
+    void testPutToCacheShouldWriteIncompleteBatchesInTheBackgroundWhenFlushIntervalIsOver() throws InterruptedException {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 10, 10, 10L)) {
+
+            //when
+            underTest.putToCache(delegate.toCacheKey(1L), "1");
+
+            //then
+            awaitPendingWrites(underTest, 0);
+            assertEquals("1", delegate.getFromCache(delegate.toCacheKey(1L)));
+        }
+    }
+
+    @Test
+    void testPutAllToCacheShouldWriteDirectlyWhenQueueIsFull() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+        final var queued = delegate.toCacheKey(1L);
+        final var overflow = delegate.toCacheKey(2L);
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 1, 10, ONE_MINUTE)) {
+            underTest.putToCache(queued, "1");
+
+            //when
+            underTest.putToCache(overflow, "2");
+
+            //then
+            assertEquals(1, underTest.pendingWrites());
+            assertNull(delegate.getFromCache(queued));
+            assertEquals("2", delegate.getFromCache(overflow));
+        }
+    }
+
+    @Test
+    void testGetAllFromCacheShouldMergeQueuedAndCachedEntitiesWhenCalled() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+        final var queued = delegate.toCacheKey(1L);
+        final var cached = delegate.toCacheKey(2L);
+        final var missing = delegate.toCacheKey(3L);
+        delegate.putToCache(cached, "2");
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 10, 10, ONE_MINUTE)) {
+            underTest.putToCache(queued, "1");
+
+            //when
+            final var actual = underTest.getAllFromCache(List.of(queued, cached, missing));
+
+            //then
+            assertEquals(Map.of(queued, "1", cached, "2"), actual);
+            assertEquals("2", underTest.getFromCache(cached));
+            assertEquals(1, delegate.getBulkGetCalls());
+        }
+    }
+
+    @Test
+    void testPutToCacheShouldWriteDirectlyWhenClosed() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+        final var underTest = new WriteBehindPartialCacheSupport<>(delegate, 10, 10, ONE_MINUTE);
+        underTest.close();
+
+        //when
+        underTest.putToCache(delegate.toCacheKey(1L), "1");
+
+        //then
+        assertEquals(0, underTest.pendingWrites());
+        assertEquals("1", delegate.getFromCache(delegate.toCacheKey(1L)));
+        assertEquals(NumberPartialCacheSupport.NUMBERS, underTest.cacheName());
+        assertEquals(String.class, underTest.getEntityClass());
+        assertSame(delegate.getCacheManager(), underTest.getCacheManager());
+        assertSame(delegate.forkJoinPool(), underTest.forkJoinPool());
+        assertFalse(underTest.supportsBulkGet());
+    }
+
+    @Test
+    void testConcurrentSettingsShouldUseDefaultsWhenDelegateIsNotConcurrent() {
+        //given
+        final var delegate = new StockPartialCacheSupport(new ConcurrentMapCacheManager());
+        final var key = delegate.toCacheKey("AAPL");
+
+        //when
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 10, 10, ONE_MINUTE)) {
+
+            //then
+            assertEquals(key, underTest.toCacheKey("AAPL"));
+            assertSame(delegate.obtainCache(), underTest.obtainCache());
+            assertEquals(ForkJoinPool.commonPool(), underTest.forkJoinPool());
+            assertEquals(ExecutionMode.FORK_JOIN_POOL, underTest.executionMode());
+            assertTrue(underTest.timeoutMillis() > 0L);
+            underTest.putToCache(key, BigDecimal.ONE);
+            underTest.flush();
+            assertEquals(BigDecimal.ONE, delegate.getFromCache(key));
+        }
+    }
+
+    @Test
+    void testMarkersShouldBeQueuedAndWrittenWithTheEntitiesWhenFlushed() {
+        //given
+        final var delegate = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(),
+                ExecutionMode.FORK_JOIN_POOL, false, ABSENT, FRESH);
+        final var entity = delegate.toCacheKey(1L);
+        final var absent = delegate.toCacheKey(2L);
+        final var evicted = delegate.toCacheKey(3L);
+        delegate.putAbsentToCache(List.of(evicted));
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 10, 10, ONE_MINUTE)) {
+
+            //when
+            underTest.putToCache(entity, "1");
+            underTest.putFreshToCache(List.of(entity));
+            underTest.putAbsentToCache(List.of(absent, evicted));
+            underTest.evictAbsentFromCache(List.of(evicted));
+
+            //then
+            assertEquals(4, underTest.pendingWrites());
+            assertEquals(Set.of(entity), underTest.getFreshFromCache(List.of(entity, absent)));
+            assertEquals(Set.of(absent), underTest.getAbsentFromCache(List.of(entity, absent, evicted)));
+            assertEquals(Set.of(), delegate.getFreshFromCache(List.of(entity)));
+            assertEquals(Set.of(evicted), delegate.getAbsentFromCache(List.of(absent, evicted)));
+            underTest.flush();
+            assertEquals(0, underTest.pendingWrites());
+            assertEquals("1", delegate.getFromCache(entity));
+            assertEquals(Set.of(entity), delegate.getFreshFromCache(List.of(entity)));
+            assertEquals(Set.of(absent), delegate.getAbsentFromCache(List.of(absent, evicted)));
+        }
+    }
+
+    @Test
+    void testMarkersShouldBeWrittenDirectlyWhenQueueIsFull() {
+        //given
+        final var delegate = new NumberPartialCacheSupport(new ConcurrentMapCacheManager(),
+                ExecutionMode.FORK_JOIN_POOL, false, ABSENT, FRESH);
+        final var key = delegate.toCacheKey(1L);
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 1, 10, ONE_MINUTE)) {
+            underTest.putToCache(key, "1");
+
+            //when
+            underTest.putFreshToCache(List.of(key));
+            underTest.putAbsentToCache(List.of(key));
+
+            //then
+            assertEquals(1, underTest.pendingWrites());
+            assertEquals(Set.of(key), delegate.getFreshFromCache(List.of(key)));
+            assertEquals(Set.of(key), delegate.getAbsentFromCache(List.of(key)));
+            underTest.evictAbsentFromCache(List.of(key));
+            assertEquals(Set.of(), delegate.getAbsentFromCache(List.of(key)));
+        }
+    }
+
+    @Test
+    void testGetFromCacheShouldReturnEntitiesOfTheBatchBeingWrittenWhenCalledDuringTheWrite() throws Exception {
+        //given
+        final var numbers = new NumberPartialCacheSupport();
+        final var key = numbers.toCacheKey(1L);
+        final var writing = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var delegate = blockingDelegate(numbers, writing, release);
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 10, 1, ONE_MINUTE)) {
+            underTest.putToCache(key, "1");
+            assertTrue(writing.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+            //when
+            final var single = underTest.getFromCache(key);
+            final var all = underTest.getAllFromCache(List.of(key));
+
+            //then
+            assertEquals(0, underTest.pendingWrites());
+            assertNull(numbers.getFromCache(key));
+            assertEquals("1", single);
+            assertEquals(Map.of(key, "1"), all);
+            assertEquals(0, numbers.getBulkGetCalls());
+            release.countDown();
+        }
+        assertEquals("1", numbers.getFromCache(key));
+    }
+
+    @Test
+    @SuppressWarnings("java:S2925")
+    void testPutToCacheShouldWriteDirectlyAfterTheBatchBeingWrittenWhenQueueIsFull() throws Exception {
+        //given
+        final var numbers = new NumberPartialCacheSupport();
+        final var key = numbers.toCacheKey(1L);
+        final var writing = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final var delegate = blockingDelegate(numbers, writing, release);
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 1, 1, ONE_MINUTE)) {
+            underTest.putToCache(key, "old");
+            assertTrue(writing.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+            underTest.putToCache(numbers.toCacheKey(2L), "2");
+
+            //when
+            final var overflow = CompletableFuture.runAsync(() -> underTest.putToCache(key, "new"));
+            Thread.sleep(50L);
+            release.countDown();
+            overflow.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+
+            //then
+            assertEquals("new", underTest.getFromCache(key));
+        }
+        assertEquals("new", numbers.getFromCache(key));
+        assertEquals("2", numbers.getFromCache(numbers.toCacheKey(2L)));
+    }
+
+    @Test
+    void testFlushShouldReportLostBatchesWhenTheDelegateFails() {
+        //given
+        final var numbers = new NumberPartialCacheSupport();
+        final var delegate = new DelegatingPartialCacheSupport<>(numbers) {
+            @Override
+            public void putAllToCache(final Map<CacheKey<String, Long>, String> entries) {
+                throw new IllegalStateException("Cache is down.");
+            }
+        };
+        final var metricsCollector = new BasicBatchServiceCallMetricCollector();
+        try (var underTest = new WriteBehindPartialCacheSupport<>(delegate, 10, 1, ONE_MINUTE, metricsCollector)) {
+            underTest.putAllToCache(Map.of(numbers.toCacheKey(1L), "1"));
+
+            //when
+            underTest.flush();
+
+            //then
+            assertEquals(0, underTest.pendingWrites());
+            assertEquals(1L, metricsCollector.getWriteBehindBatchLost());
+            assertNull(numbers.getFromCache(numbers.toCacheKey(1L)));
+        }
+    }
+
+    @Test
+    void testConstructorShouldThrowExceptionWhenCalledWithInvalidSettings() {
+        //given
+        final var delegate = new NumberPartialCacheSupport();
+
+        //when + then
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindPartialCacheSupport<>(delegate, 0, 1, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindPartialCacheSupport<>(delegate, 1, 0, 1L));
+        assertThrows(IllegalArgumentException.class, () -> new WriteBehindPartialCacheSupport<>(delegate, 1, 1, 0L));
+    }
+
+    private static DelegatingPartialCacheSupport<Long, String, String, Long> blockingDelegate(
+            final NumberPartialCacheSupport numbers, final CountDownLatch writing, final CountDownLatch release) {
+        return new DelegatingPartialCacheSupport<>(numbers) {
+            @Override
+            public void putAllToCache(final Map<CacheKey<String, Long>, String> entries) {
+                if (Thread.currentThread().getName().equals("cache-only-write-behind")) {
+                    writing.countDown();
+                    try {
+                        assertTrue(release.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                super.putAllToCache(entries);
+            }
+        };
+    }
+
+    private static void awaitPendingWrites(
+            final WriteBehindPartialCacheSupport<?, ?, ?, ?> underTest, final int expected) throws InterruptedException {
+        final var deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (underTest.pendingWrites() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5L);
+        }
+        assertEquals(expected, underTest.pendingWrites());
+    }
+}